@@ -0,0 +1,90 @@
+package com.fraud.benchmark;
+
+import com.fraud.transaction.api.request.CreateTransactionRequest;
+import com.fraud.transaction.loadgen.LoadGeneratorSettings;
+import com.fraud.transaction.loadgen.SyntheticTransactionGenerator;
+import com.fraud.transaction.serialization.CompactTransactionDeserializer;
+import com.fraud.transaction.serialization.CompactTransactionSerializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON versus compact binary for create-transaction values, through the same Kafka
+ * serializer/deserializer classes and settings as application.yml, over {@value #RECORDS}
+ * synthetic records. Reports ser/de ns/op; the mean encoded size per message is printed
+ * by the forked VM at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CompactTransactionCodecBenchmark {
+
+    private static final String TOPIC = "create-transaction";
+    private static final int RECORDS = 10_000;
+
+    @Param({"json", "compact"})
+    public String format;
+
+    private Serializer<Object> serializer;
+    private Deserializer<Object> deserializer;
+    private CreateTransactionRequest[] requests;
+    private byte[][] payloads;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        if ("compact".equals(format)) {
+            serializer = new CompactTransactionSerializer();
+        } else {
+            serializer = new JsonSerializer<>();
+            serializer.configure(Map.of("spring.json.add.type.headers", false), false);
+        }
+        deserializer = new CompactTransactionDeserializer();
+        deserializer.configure(Map.of(
+                "spring.json.trusted.packages", "*",
+                "spring.json.value.default.type", CreateTransactionRequest.class.getName()), false);
+
+        SyntheticTransactionGenerator generator = new SyntheticTransactionGenerator(new LoadGeneratorSettings(
+                List.of("M001", "M002", "M003", "M004", "M005"), "USD", 100_000, 50_000, 50_000, 45.0, 1.1,
+                List.of("POS", "Online", "Mobile"), List.of(0.5, 0.35, 0.15), 0.002, 0.001, 0.001), 42);
+        requests = new CreateTransactionRequest[RECORDS];
+        payloads = new byte[RECORDS][];
+        long bytes = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            requests[i] = generator.next();
+            payloads[i] = serializer.serialize(TOPIC, requests[i]);
+            bytes += payloads[i].length;
+        }
+        System.out.printf("%s: %.1f bytes/msg%n", format, (double) bytes / RECORDS);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, requests[next++ % RECORDS]);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, payloads[next++ % RECORDS]);
+    }
+}
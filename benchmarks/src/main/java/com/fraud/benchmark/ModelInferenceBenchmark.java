@@ -0,0 +1,116 @@
+package com.fraud.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.transaction.model.CompiledModel;
+import com.fraud.transaction.model.ModelDefinition;
+import com.fraud.transaction.model.ModelScorer;
+import com.fraud.transaction.scoring.Feature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inference latency of a {@link CompiledModel} on one scoring feature vector, as
+ * {@code ModelFeatureProvider} runs it per transaction. {@code sample} is the model shipped in
+ * classpath:model/model.json; {@code gbdt} is a random ensemble of {@code trees} full trees of
+ * {@code depth} levels over every feature, about the size of a production gradient-boosted
+ * model. Vectors cycle through {@value #VECTORS} random inputs with 5% unknown (NaN) features, so
+ * the split branches cannot be learned. Sample mode reports the p99 the request targets.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelInferenceBenchmark {
+
+    private static final int VECTORS = 1024;
+
+    @Param({"sample", "gbdt"})
+    public String model;
+
+    @Param({"300"})
+    public int trees;
+
+    @Param({"6"})
+    public int depth;
+
+    private CompiledModel compiled;
+    private double[][] vectors;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ModelScorer scorer = new ModelScorer(objectMapper, new DefaultResourceLoader(), new SimpleMeterRegistry(),
+                false, "classpath:model/model.json", 64);
+        SplittableRandom random = new SplittableRandom(42);
+        compiled = "gbdt".equals(model)
+                ? scorer.load(new ByteArrayResource(objectMapper.writeValueAsBytes(randomEnsemble(random))))
+                : scorer.load(new ClassPathResource("model/model.json"));
+
+        vectors = new double[VECTORS][Feature.values().length];
+        for (double[] vector : vectors) {
+            for (int f = 0; f < vector.length; f++) {
+                vector[f] = random.nextDouble() < 0.05 ? Double.NaN : random.nextDouble();
+            }
+        }
+        System.out.printf("%s: %d trees, %d nodes%n", compiled.version(), compiled.trees(), compiled.nodes());
+    }
+
+    @Benchmark
+    public double predict() {
+        return compiled.predict(vectors[next++ & (VECTORS - 1)]);
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private ModelDefinition randomEnsemble(SplittableRandom random) {
+        List<Feature> features = Arrays.asList(Feature.values());
+        int nodes = (1 << (depth + 1)) - 1;
+        int firstLeaf = (1 << depth) - 1;
+        List<ModelDefinition.Tree> ensemble = new ArrayList<>(trees);
+        for (int t = 0; t < trees; t++) {
+            int[] feature = new int[nodes];
+            double[] threshold = new double[nodes];
+            int[] left = new int[nodes];
+            int[] right = new int[nodes];
+            double[] value = new double[nodes];
+            boolean[] missingLeft = new boolean[nodes];
+            for (int n = 0; n < nodes; n++) {
+                if (n >= firstLeaf) {
+                    feature[n] = -1;
+                    value[n] = random.nextDouble(-0.1, 0.1);
+                    continue;
+                }
+                feature[n] = random.nextInt(features.size());
+                threshold[n] = random.nextDouble();
+                left[n] = 2 * n + 1;
+                right[n] = 2 * n + 2;
+                missingLeft[n] = random.nextBoolean();
+            }
+            ensemble.add(new ModelDefinition.Tree(feature, threshold, left, right, value, missingLeft));
+        }
+        return new ModelDefinition("gbdt-" + trees + "x" + depth, ModelDefinition.Link.LOGISTIC, 0.0, features,
+                null, ensemble);
+    }
+}
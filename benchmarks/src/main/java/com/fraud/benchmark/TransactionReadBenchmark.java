@@ -0,0 +1,148 @@
+package com.fraud.benchmark;
+
+import com.fraud.transaction.dto.TransactionDto;
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.mapper.TransactionMapper;
+import com.fraud.transaction.mapper.TransactionMapperImpl;
+import com.fraud.transaction.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flagged and by-merchant listings read two ways: {@code entity} loads managed {@link Transaction}s
+ * and copies them with {@link TransactionMapper}, as the service did before the projections;
+ * {@code projection} is the {@link TransactionRepository#SELECT_DTO} query the service uses now.
+ * Both run in a read-only transaction, like the service methods. Run with {@code -prof gc}: the
+ * forked VM prints the rows per listing at setup, so {@code gc.alloc.rate.norm} divided by it is
+ * the allocation per row.
+ * <p>
+ * Needs the database of application.yml, migrated by starting the service once; override it with
+ * {@code -jvmArgs "-Dspring.datasource.url=..."}. Setup inserts {@code rows} flagged transactions
+ * for merchant {@value #MERCHANT_ID} and teardown deletes them and the merchant again.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionReadBenchmark {
+
+    private static final String MERCHANT_ID = "BENCH-READS";
+
+    @Param({"entity", "projection"})
+    public String read;
+
+    @Param({"flagged", "merchant"})
+    public String listing;
+
+    @Param({"1000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository repository;
+    private TransactionMapper mapper;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private JdbcTemplate jdbcTemplate;
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Transaction.class)
+    @EnableJpaRepositories(basePackageClasses = TransactionRepository.class)
+    @Import(TransactionMapperImpl.class)
+    static class ReadConfiguration {
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ReadConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:postgresql://localhost:5433/frauddb",
+                        "spring.datasource.username=fraud_user",
+                        "spring.datasource.password=fraud_pass",
+                        "spring.jpa.hibernate.ddl-auto=none",
+                        "spring.jpa.open-in-view=false",
+                        "spring.main.banner-mode=off")
+                .run();
+        repository = context.getBean(TransactionRepository.class);
+        mapper = context.getBean(TransactionMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        deleteSeededRows();
+        jdbcTemplate.update("INSERT INTO public.merchants (merchant_id, name, created_at, updated_at) "
+                + "VALUES (?, 'Read benchmark', now(), now()) ON CONFLICT (merchant_id) DO NOTHING", MERCHANT_ID);
+        jdbcTemplate.update("INSERT INTO public.transactions (id, transaction_id, amount, currency, merchant_id, "
+                + "card_number_masked, card_type, transaction_type, response_code, is_flagged, flag_reason, "
+                + "risk_score, review_status, channel, ip_address, device_id, location, transaction_time, "
+                + "created_at, updated_at, flagged_at, flagged_by) "
+                + "SELECT nextval('public.transactions_seq'), 'BENCH-' || n, 10 + n % 5000, 'USD', ?, "
+                + "'4111-****-****-' || lpad((n % 10000)::text, 4, '0'), 'VISA', 'Purchase', '00', TRUE, "
+                + "'High risk score', 80, 'Flagged', 'Online', '203.0.113.' || (n % 255), 'DEV-' || n, "
+                + "'New York, USA', now() - n * INTERVAL '1 minute', now(), now(), now(), 'System' "
+                + "FROM generate_series(1, ?) AS n", MERCHANT_ID, rows);
+        System.out.printf("%s: %d rows per listing%n", listing, list().size());
+    }
+
+    @TearDown
+    public void tearDown() {
+        deleteSeededRows();
+        jdbcTemplate.update("DELETE FROM public.merchants WHERE merchant_id = ?", MERCHANT_ID);
+        context.close();
+    }
+
+    @Benchmark
+    public List<TransactionDto> list() {
+        return readOnly.execute(status -> switch (read + "/" + listing) {
+            case "entity/flagged" -> mapper.toDtoList(entityManager.createQuery(
+                    "from Transaction t where t.isFlagged = true", Transaction.class).getResultList());
+            case "entity/merchant" -> mapper.toDtoList(entityManager.createQuery(
+                            "from Transaction t where t.merchantId = :merchantId", Transaction.class)
+                    .setParameter("merchantId", MERCHANT_ID)
+                    .getResultList());
+            case "projection/flagged" -> repository.findFlaggedDtos();
+            case "projection/merchant" -> repository.findDtosByMerchantId(MERCHANT_ID);
+            default -> throw new IllegalArgumentException(read + "/" + listing);
+        });
+    }
+
+    private void deleteSeededRows() {
+        jdbcTemplate.update("DELETE FROM public.transactions WHERE merchant_id = ?", MERCHANT_ID);
+    }
+}
@@ -0,0 +1,99 @@
+package com.fraud.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform pool versus virtual threads for request-shaped blocking work. Each request is one
+ * blocking round trip (a JDBC query or a MerchantClient call, modelled as a sleep) run on either
+ * the producer scheduler's fixed pool of transaction.threadPool.size threads or one virtual thread
+ * per request, as under the virtual-threads profile. The {@code @Threads} callers submit a request
+ * and wait for it, the way Tomcat hands requests to the service, so throughput mode gives
+ * requests/ms and sample mode the p99 including the wait for a pool thread.
+ * <p>
+ * {@code virtual} needs a Java 21 runtime: {@code mvn -Pjava21 ...}. With {@code pinned} the
+ * round trip happens inside a synchronized block, which pins a virtual thread to its carrier
+ * and shows what an unguarded synchronized JDBC path costs.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(200)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    /** transaction.threadPool.size */
+    @Param({"10"})
+    public int poolSize;
+
+    @Param({"2"})
+    public long roundTripMillis;
+
+    @Param({"false", "true"})
+    public boolean pinned;
+
+    private Executor executor;
+
+    @Setup
+    public void setUp() {
+        executor = "virtual".equals(threads)
+                ? new VirtualThreadTaskExecutor("bench-")
+                : Executors.newFixedThreadPool(poolSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /** One uncontended monitor per caller, so {@code pinned} measures pinning and not lock contention. */
+    @State(Scope.Thread)
+    public static class Caller {
+        final Object monitor = new Object();
+    }
+
+    @Benchmark
+    public void request(Caller caller) {
+        Runnable task = pinned ? () -> pinnedRoundTrip(caller.monitor) : this::roundTrip;
+        CompletableFuture.runAsync(task, executor).join();
+    }
+
+    private void roundTrip() {
+        try {
+            Thread.sleep(roundTripMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pinnedRoundTrip(Object monitor) {
+        synchronized (monitor) {
+            roundTrip();
+        }
+    }
+}
@@ -7,7 +7,10 @@ public final class AppConstants {
     public static final String API_V1 = "/api";
 
     public static final String CREATE_TRANSACTION_TOPIC = "create-transaction";
+    public static final String CREATE_TRANSACTION_DLT_TOPIC = "create-transaction-dlt";
+    public static final String TRANSACTION_CACHE_INVALIDATION_TOPIC = "transaction-cache-invalidation";
     public static final String CREATE_MERCHANT_TOPIC = "create-merchant";
     public static final String MERCHANT_GROUP_ID = "merchant-group-id";
     public static final String TRANSACTION_GROUP_ID = "transaction-group-id";
+    public static final String TRANSACTION_DLT_REPLAY_GROUP_ID = "transaction-dlt-replay-group-id";
 }
@@ -0,0 +1,38 @@
+package com.fraud.transaction.api.request;
+
+import com.fraud.transaction.scoring.RiskScoringEngine;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Body of PATCH /api/transactions/flag: the transactions to flag, either listed by ID or
+ * selected by a search filter (exactly one of the two), and the reason recorded on each.
+ */
+@Data
+public class BulkFlagTransactionsRequest {
+
+    private List<String> transactionIds;
+
+    /**
+     * Same criteria as GET /api/transactions/search; {@code sort} and {@code size} are ignored.
+     */
+    @Valid
+    private TransactionSearchRequest filter;
+
+    @NotBlank(message = "Reason is required to flag transactions.")
+    private String reason;
+
+    /**
+     * Optional review status set together with the flag: one of the statuses the scoring engine
+     * assigns, e.g. "Pending Review", so flagged rows stay visible to reviewStatus searches.
+     */
+    @Pattern(regexp = RiskScoringEngine.STATUS_PENDING_REVIEW + "|" + RiskScoringEngine.STATUS_FLAGGED + "|"
+            + RiskScoringEngine.STATUS_APPROVED,
+            message = "reviewStatus must be one of: " + RiskScoringEngine.STATUS_PENDING_REVIEW + ", "
+                    + RiskScoringEngine.STATUS_FLAGGED + ", " + RiskScoringEngine.STATUS_APPROVED)
+    private String reviewStatus;
+}
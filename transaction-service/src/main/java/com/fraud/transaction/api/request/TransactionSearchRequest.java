@@ -0,0 +1,55 @@
+package com.fraud.transaction.api.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters of GET /api/transactions/search. Every criterion is optional and they are
+ * combined with AND; ranges are inclusive.
+ */
+@Data
+public class TransactionSearchRequest {
+
+    public static final int MAX_SIZE = 1000;
+
+    private String merchantId;
+    private Boolean flagged;
+    private String reviewStatus;
+    private String channel;
+    private String cardType;
+
+    @PositiveOrZero(message = "minAmount must not be negative")
+    private BigDecimal minAmount;
+
+    @PositiveOrZero(message = "maxAmount must not be negative")
+    private BigDecimal maxAmount;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private Sort sort = Sort.TIME_DESC;
+
+    @Min(value = 1, message = "size must be at least 1")
+    @Max(value = MAX_SIZE, message = "size must be at most " + MAX_SIZE)
+    private int size = 100;
+
+    /**
+     * Result order; ties are broken by id in the same direction.
+     */
+    public enum Sort {
+        TIME_DESC,
+        TIME_ASC,
+        AMOUNT_DESC,
+        AMOUNT_ASC,
+        RISK_SCORE_DESC
+    }
+}
@@ -0,0 +1,38 @@
+package com.fraud.transaction.blocklist;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.scoring.FeatureProvider;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets the BLOCKLISTED_* features to 1 when the transaction's card, device, IP or merchant is
+ * on the corresponding list, else 0.
+ */
+@Component
+@Order(5)
+public class BlocklistFeatureProvider implements FeatureProvider {
+
+    private static final BlocklistType[] TYPES = BlocklistType.values();
+
+    private final BlocklistService blocklistService;
+
+    public BlocklistFeatureProvider(BlocklistService blocklistService) {
+        this.blocklistService = blocklistService;
+    }
+
+    @Override
+    public boolean isMandatory() {
+        return true;
+    }
+
+    @Override
+    public void contribute(Transaction transaction, double[] features) {
+        if (!blocklistService.isEnabled()) {
+            return;
+        }
+        for (BlocklistType type : TYPES) {
+            features[type.feature().ordinal()] = blocklistService.check(type, type.keyOf(transaction)) ? 1.0 : 0.0;
+        }
+    }
+}
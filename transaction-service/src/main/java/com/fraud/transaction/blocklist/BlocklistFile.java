@@ -0,0 +1,146 @@
+package com.fraud.transaction.blocklist;
+
+import com.fraud.transaction.util.Hashing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Immutable, memory-mapped blocklist of fixed 8-byte records sorted by key, searched with binary
+ * search:
+ * <pre>
+ *   header     int MAGIC, int VERSION, int kind, int record count
+ *   HASHES     records: long value hash (see {@link #valueHash}), ascending, no duplicates
+ *   IP_RANGES  records: int first address, int last address (unsigned IPv4), ascending, merged
+ * </pre>
+ * Only the pages touched by lookups are brought into memory, so a list of millions of entries
+ * costs page cache rather than heap. Lookups use absolute reads only and are safe for concurrent
+ * readers. Files are produced by {@link BlocklistWriter}.
+ */
+final class BlocklistFile {
+
+    static final int MAGIC = 0x424C4B31; // "BLK1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 8;
+
+    enum Kind {
+        HASHES,
+        IP_RANGES
+    }
+
+    private final Kind kind;
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private BlocklistFile(Kind kind, MappedByteBuffer buffer, int size) {
+        this.kind = kind;
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    static BlocklistFile open(Path file, Kind expected) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(file + " is not a blocklist");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(file + " is not a version " + VERSION + " blocklist");
+            }
+            int kind = buffer.getInt(8);
+            int size = buffer.getInt(12);
+            if (kind != expected.ordinal()) {
+                throw new IOException(file + " holds kind " + kind + ", expected " + expected);
+            }
+            if (channel.size() != HEADER_BYTES + (long) size * RECORD_BYTES) {
+                throw new IOException(file + " is truncated");
+            }
+            return new BlocklistFile(expected, buffer, size);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    boolean containsHash(long hash) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = buffer.getLong(offset(mid));
+            if (key < hash) {
+                low = mid + 1;
+            } else if (key > hash) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean containsIp(int address) {
+        int low = 0;
+        int high = size - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Integer.compareUnsigned(buffer.getInt(offset(mid)), address) <= 0) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return candidate >= 0 && Integer.compareUnsigned(address, buffer.getInt(offset(candidate) + 4)) <= 0;
+    }
+
+    /**
+     * Streams every hash of a HASHES file in order, e.g. to fill a Bloom filter.
+     */
+    void forEachHash(LongConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(buffer.getLong(offset(i)));
+        }
+    }
+
+    /**
+     * Key of a card, device or merchant value: case-insensitive, surrounding blanks ignored.
+     */
+    static long valueHash(CharSequence value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return Hashing.hash64IgnoreCase(value, start, end);
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private static int offset(int record) {
+        return HEADER_BYTES + record * RECORD_BYTES;
+    }
+
+    static ByteBuffer header(Kind kind, int size) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(kind.ordinal()).putInt(size).flip();
+        return header;
+    }
+}
@@ -0,0 +1,209 @@
+package com.fraud.transaction.blocklist;
+
+import com.fraud.transaction.dto.BlocklistStatus;
+import com.fraud.transaction.util.BloomFilter;
+import com.fraud.transaction.util.Ipv4;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Card, device, IP and merchant blocklists checked on every transaction.
+ *
+ * Each list is a memory-mapped {@link BlocklistFile} in {@code transaction.blocklist.dir},
+ * published there by ops with {@link BlocklistWriter} (write, then rename). The directory is
+ * polled every {@code transaction.blocklist.poll-interval-ms}; a new or changed file is mapped
+ * and its Bloom filter built on the polling thread, then swapped in with a single volatile
+ * write, so lookups never wait for a reload and always see one complete list. A file that fails
+ * to load leaves the previous list in effect and is reported once, not retried until it changes
+ * again; a deleted file withdraws the list.
+ *
+ * For hashed lists the Bloom filter (~10 bits per entry at 1%) answers most lookups of values
+ * that are not listed without touching the mapped file; IP ranges are binary searched directly.
+ */
+@Service
+@Slf4j
+public class BlocklistService {
+
+    private static final BlocklistType[] TYPES = BlocklistType.values();
+
+    private final boolean enabled;
+    private final Path directory;
+    private final double bloomFalsePositiveRate;
+    private volatile LoadedList[] lists = new LoadedList[TYPES.length];
+    /** Version of each file last tried, loaded or not; only touched by the polling thread. */
+    private final FileVersion[] attempted = new FileVersion[TYPES.length];
+
+    private final Counter[] hits = new Counter[TYPES.length];
+    private final Counter reloadsSucceeded;
+    private final Counter reloadsFailed;
+
+    public BlocklistService(MeterRegistry meterRegistry,
+                            @Value("${transaction.blocklist.enabled}") boolean enabled,
+                            @Value("${transaction.blocklist.dir}") String directory,
+                            @Value("${transaction.blocklist.bloom-false-positive-rate}") double bloomFalsePositiveRate) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
+        for (BlocklistType type : TYPES) {
+            String tag = type.name().toLowerCase();
+            hits[type.ordinal()] = Counter.builder("transaction.blocklist.hits")
+                    .description("Transactions matching a blocklist")
+                    .tag("type", tag)
+                    .register(meterRegistry);
+            Gauge.builder("transaction.blocklist.entries", this, service -> service.entries(type))
+                    .description("Entries in the blocklist currently in effect")
+                    .tag("type", tag)
+                    .register(meterRegistry);
+        }
+        this.reloadsSucceeded = reloadCounter(meterRegistry, "success");
+        this.reloadsFailed = reloadCounter(meterRegistry, "failure");
+        if (enabled) {
+            reloadIfChanged();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the value is on the list of its type. Blank values and, for {@link BlocklistType#IP},
+     * anything but a dotted IPv4 address are never blocked.
+     */
+    public boolean isBlocked(BlocklistType type, String value) {
+        LoadedList list = lists[type.ordinal()];
+        if (list == null || !StringUtils.hasText(value)) {
+            return false;
+        }
+        if (type == BlocklistType.IP) {
+            long address = Ipv4.parse(value.trim());
+            return address >= 0 && list.file().containsIp((int) address);
+        }
+        long hash = BlocklistFile.valueHash(value);
+        return (list.bloom() == null || list.bloom().mightContain(hash)) && list.file().containsHash(hash);
+    }
+
+    /**
+     * {@link #isBlocked} for the scoring path, counting hits per type.
+     */
+    boolean check(BlocklistType type, String value) {
+        boolean blocked = isBlocked(type, value);
+        if (blocked) {
+            hits[type.ordinal()].increment();
+        }
+        return blocked;
+    }
+
+    public List<BlocklistStatus> status() {
+        LoadedList[] current = lists;
+        List<BlocklistStatus> status = new ArrayList<>(TYPES.length);
+        for (BlocklistType type : TYPES) {
+            LoadedList list = current[type.ordinal()];
+            String file = directory.resolve(type.fileName()).toString();
+            status.add(list == null
+                    ? new BlocklistStatus(type.name(), file, 0, 0, null, null)
+                    : new BlocklistStatus(type.name(), file, list.file().size(),
+                    list.bloom() != null ? list.bloom().sizeInBytes() : 0, list.modifiedAt(), list.loadedAt()));
+        }
+        return status;
+    }
+
+    /**
+     * Maps lists that were published, replaced or removed since the last poll and swaps them in.
+     */
+    @Scheduled(fixedDelayString = "${transaction.blocklist.poll-interval-ms}",
+            initialDelayString = "${transaction.blocklist.poll-interval-ms}")
+    public void reloadIfChanged() {
+        if (!enabled) {
+            return;
+        }
+        LoadedList[] current = lists;
+        LoadedList[] next = current.clone();
+        boolean changed = false;
+        for (BlocklistType type : TYPES) {
+            LoadedList loaded = current[type.ordinal()];
+            Path file = directory.resolve(type.fileName());
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                attempted[type.ordinal()] = null;
+                if (loaded != null) {
+                    log.warn("Blocklist {} was removed, {} list withdrawn", file, type);
+                    next[type.ordinal()] = null;
+                    changed = true;
+                }
+                continue;
+            } catch (IOException e) {
+                log.warn("Could not stat blocklist {}: {}", file, e.getMessage());
+                continue;
+            }
+            FileVersion version = new FileVersion(attributes.lastModifiedTime().toInstant(), attributes.size());
+            if (version.equals(attempted[type.ordinal()])) {
+                continue;
+            }
+            attempted[type.ordinal()] = version;
+            try {
+                next[type.ordinal()] = load(type, file, version.modifiedAt(), version.bytes());
+                changed = true;
+                reloadsSucceeded.increment();
+                log.info("Loaded {} blocklist from {}: {} entries", type, file, next[type.ordinal()].file().size());
+            } catch (IOException | RuntimeException e) {
+                reloadsFailed.increment();
+                log.warn("Could not load blocklist {}, keeping the previous {} list: {}", file, type, e.getMessage());
+            }
+        }
+        if (changed) {
+            lists = next;
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private LoadedList load(BlocklistType type, Path file, Instant modifiedAt, long bytes) throws IOException {
+        BlocklistFile blocklist = BlocklistFile.open(file, type.kind());
+        BloomFilter bloom = null;
+        if (type.kind() == BlocklistFile.Kind.HASHES && bloomFalsePositiveRate > 0 && blocklist.size() > 0) {
+            bloom = BloomFilter.forExpectedInsertions(blocklist.size(), bloomFalsePositiveRate);
+            blocklist.forEachHash(bloom::put);
+        }
+        return new LoadedList(blocklist, bloom, modifiedAt, bytes, Instant.now());
+    }
+
+    private double entries(BlocklistType type) {
+        LoadedList list = lists[type.ordinal()];
+        return list != null ? list.file().size() : 0;
+    }
+
+    private static Counter reloadCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transaction.blocklist.reloads")
+                .description("Blocklist files loaded after being published or changed")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One published list. The mapping of a replaced list is released once the last lookup that
+     * still references it is done and the buffer is collected.
+     */
+    private record LoadedList(BlocklistFile file, BloomFilter bloom, Instant modifiedAt, long bytes, Instant loadedAt) {
+    }
+
+    private record FileVersion(Instant modifiedAt, long bytes) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.fraud.transaction.blocklist;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.scoring.Feature;
+
+/**
+ * Lists checked on every transaction, each published as its own file in
+ * {@code transaction.blocklist.dir}.
+ */
+public enum BlocklistType {
+
+    CARD("cards.bin", Feature.BLOCKLISTED_CARD),
+    DEVICE("devices.bin", Feature.BLOCKLISTED_DEVICE),
+    /** IPv4 addresses and ranges; other address formats are never blocked. */
+    IP("ips.bin", Feature.BLOCKLISTED_IP),
+    MERCHANT("merchants.bin", Feature.BLOCKLISTED_MERCHANT);
+
+    private final String fileName;
+    private final Feature feature;
+
+    BlocklistType(String fileName, Feature feature) {
+        this.fileName = fileName;
+        this.feature = feature;
+    }
+
+    public String fileName() {
+        return fileName;
+    }
+
+    Feature feature() {
+        return feature;
+    }
+
+    BlocklistFile.Kind kind() {
+        return this == IP ? BlocklistFile.Kind.IP_RANGES : BlocklistFile.Kind.HASHES;
+    }
+
+    String keyOf(Transaction transaction) {
+        return switch (this) {
+            case CARD -> transaction.getCardNumberMasked();
+            case DEVICE -> transaction.getDeviceId();
+            case IP -> transaction.getIpAddress();
+            case MERCHANT -> transaction.getMerchantId();
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.fraud.transaction.blocklist;
+
+import com.fraud.transaction.util.AtomicFiles;
+import com.fraud.transaction.util.Ipv4;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds {@link BlocklistFile}s from plain-text lists, one entry per line (blank lines and lines
+ * starting with '#' are skipped). IP entries are a single IPv4 address, a CIDR block
+ * ({@code 10.0.0.0/8}) or an inclusive range ({@code 10.0.0.1-10.0.0.9}); overlapping and adjacent
+ * ranges are merged. Offline tool:
+ * <pre>
+ *   java -cp transaction-service.jar -Dloader.main=com.fraud.transaction.blocklist.BlocklistWriter \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher ip bad-ips.txt data/blocklist/ips.bin
+ * </pre>
+ * The output is written next to the target and renamed into place, so a running service picks up
+ * either the old or the new list, never a partial one.
+ */
+public final class BlocklistWriter {
+
+    private BlocklistWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        BlocklistType type = args.length == 3 ? parseType(args[0]) : null;
+        if (type == null) {
+            System.err.println("usage: BlocklistWriter card|device|ip|merchant <input.txt> <output.bin>");
+            System.exit(2);
+        }
+        try (Reader input = Files.newBufferedReader(Path.of(args[1]), StandardCharsets.UTF_8)) {
+            int records = write(type, input, Path.of(args[2]));
+            System.out.println("Wrote " + records + " records to " + args[2]);
+        }
+    }
+
+    public static int write(BlocklistType type, Reader input, Path output) throws IOException {
+        List<String> entries = read(input);
+        return type.kind() == BlocklistFile.Kind.IP_RANGES
+                ? writeIpRanges(entries, output)
+                : writeHashes(entries, output);
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private static int writeHashes(List<String> entries, Path output) throws IOException {
+        long[] hashes = new long[entries.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = BlocklistFile.valueHash(entries.get(i));
+        }
+        Arrays.sort(hashes);
+        ByteBuffer records = records(hashes.length);
+        int written = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i > 0 && hashes[i] == hashes[i - 1]) {
+                continue;
+            }
+            records.putLong(hashes[i]);
+            written++;
+        }
+        write(output, BlocklistFile.Kind.HASHES, written, records);
+        return written;
+    }
+
+    private static int writeIpRanges(List<String> entries, Path output) throws IOException {
+        List<long[]> ranges = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            ranges.add(parseRange(entry));
+        }
+        ranges.sort(Comparator.comparingLong(range -> range[0]));
+
+        ByteBuffer records = records(ranges.size());
+        int written = 0;
+        long first = -1;
+        long last = -1;
+        for (long[] range : ranges) {
+            if (first >= 0 && range[0] <= last + 1) {
+                last = Math.max(last, range[1]);
+                continue;
+            }
+            if (first >= 0) {
+                records.putInt((int) first).putInt((int) last);
+                written++;
+            }
+            first = range[0];
+            last = range[1];
+        }
+        if (first >= 0) {
+            records.putInt((int) first).putInt((int) last);
+            written++;
+        }
+        write(output, BlocklistFile.Kind.IP_RANGES, written, records);
+        return written;
+    }
+
+    private static long[] parseRange(String entry) {
+        int slash = entry.indexOf('/');
+        int dash = entry.indexOf('-');
+        long first;
+        long last;
+        if (slash > 0) {
+            first = Ipv4.parse(entry.substring(0, slash).trim());
+            int prefix = Integer.parseInt(entry.substring(slash + 1).trim());
+            if (first < 0 || prefix < 0 || prefix > 32) {
+                throw new IllegalArgumentException("Invalid CIDR block: " + entry);
+            }
+            long hostMask = (1L << (32 - prefix)) - 1;
+            first &= ~hostMask & 0xFFFFFFFFL;
+            last = first | hostMask;
+        } else if (dash > 0) {
+            first = Ipv4.parse(entry.substring(0, dash).trim());
+            last = Ipv4.parse(entry.substring(dash + 1).trim());
+        } else {
+            first = Ipv4.parse(entry);
+            last = first;
+        }
+        if (first < 0 || last < first) {
+            throw new IllegalArgumentException("Invalid IPv4 address or range: " + entry);
+        }
+        return new long[]{first, last};
+    }
+
+    private static List<String> read(Reader input) throws IOException {
+        List<String> entries = new ArrayList<>();
+        BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            String entry = line.trim();
+            if (!entry.isEmpty() && !entry.startsWith("#")) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static BlocklistType parseType(String type) {
+        try {
+            return BlocklistType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer records(int count) {
+        return ByteBuffer.allocate(count * BlocklistFile.RECORD_BYTES).order(ByteOrder.BIG_ENDIAN);
+    }
+
+    private static void write(Path output, BlocklistFile.Kind kind, int count, ByteBuffer records) throws IOException {
+        records.limit(count * BlocklistFile.RECORD_BYTES).position(0);
+        AtomicFiles.write(output, BlocklistFile.header(kind, count), records);
+    }
+}
@@ -0,0 +1,37 @@
+package com.fraud.transaction.bulk;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Body formats accepted by POST /api/transactions/bulk.
+ */
+public enum BulkFormat {
+
+    /** One CreateTransactionRequest JSON object per line. */
+    NDJSON(MediaType.APPLICATION_NDJSON),
+
+    /** A header line naming CreateTransactionRequest properties, then one row per line. */
+    CSV(MediaType.parseMediaType("text/csv"));
+
+    public static final String NDJSON_VALUE = MediaType.APPLICATION_NDJSON_VALUE;
+    public static final String CSV_VALUE = "text/csv";
+
+    private final MediaType mediaType;
+
+    BulkFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the content type is neither NDJSON nor CSV
+     */
+    public static BulkFormat forContentType(String contentType) {
+        MediaType type = MediaType.parseMediaType(contentType);
+        for (BulkFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(type)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported bulk content type: " + contentType);
+    }
+}
@@ -0,0 +1,126 @@
+package com.fraud.transaction.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fraud.transaction.api.request.CreateTransactionRequest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a bulk body one line at a time, so memory does not depend on the body size.
+ *
+ * Blank lines are skipped. A line that cannot be parsed comes back as a {@link Row} with an
+ * error instead of failing the whole body. CSV values may be quoted ("a, ""b""") but must not
+ * contain line breaks; empty values are treated as absent.
+ */
+public class BulkRowReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final ObjectReader requestReader;
+    private final ObjectMapper objectMapper;
+    private final BulkFormat format;
+    private String[] header;
+    private long lineNumber;
+
+    public BulkRowReader(InputStream body, BulkFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        this.requestReader = objectMapper.readerFor(CreateTransactionRequest.class);
+        this.objectMapper = objectMapper;
+        this.format = format;
+    }
+
+    /**
+     * The next data row, or null at the end of the body.
+     */
+    public Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == BulkFormat.CSV && header == null) {
+                header = splitCsv(line).stream().map(String::trim).toArray(String[]::new);
+                continue;
+            }
+            try {
+                return new Row(lineNumber, parse(line), null);
+            } catch (JsonProcessingException e) {
+                return new Row(lineNumber, null, "Unreadable row: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                return new Row(lineNumber, null, "Unreadable row: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * A data row and its 1-based line number in the body; exactly one of request and error is set.
+     */
+    public record Row(long line, CreateTransactionRequest request, String error) {
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private CreateTransactionRequest parse(String line) throws IOException {
+        if (format == BulkFormat.NDJSON) {
+            return requestReader.readValue(line);
+        }
+        List<String> values = splitCsv(line);
+        if (values.size() > header.length) {
+            throw new IllegalArgumentException(values.size() + " values for " + header.length + " columns");
+        }
+        ObjectNode node = objectMapper.createObjectNode();
+        for (int i = 0; i < values.size(); i++) {
+            if (!values.get(i).isEmpty()) {
+                node.put(header[i], values.get(i));
+            }
+        }
+        return requestReader.readValue(node);
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted value");
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,36 @@
+package com.fraud.transaction.cache;
+
+import com.fraud.common.constants.AppConstants;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts entries of {@link TransactionLookupCache} changed by other instances.
+ *
+ * Every instance is assigned the topic's single partition directly, without group management, so
+ * that each one sees every invalidation. It starts from the latest offset (entries cached before
+ * startup do not exist) and never commits offsets, so restarts leave no consumer groups behind.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "transaction.cache.invalidation.enabled", havingValue = "true")
+public class TransactionCacheInvalidationListener {
+
+    private final TransactionLookupCache transactionLookupCache;
+
+    @KafkaListener(topicPartitions = @TopicPartition(topic = AppConstants.TRANSACTION_CACHE_INVALIDATION_TOPIC,
+            partitions = "0"),
+            groupId = "transaction-cache-invalidation",
+            containerFactory = "cacheInvalidationKafkaListenerContainerFactory",
+            properties = {
+                    "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                    "auto.offset.reset=latest"
+            })
+    public void onInvalidation(ConsumerRecord<String, String> record) {
+        transactionLookupCache.onInvalidation(record.key(), record.value());
+    }
+}
@@ -0,0 +1,165 @@
+package com.fraud.transaction.cache;
+
+import com.fraud.common.constants.AppConstants;
+import com.fraud.transaction.dto.TransactionDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of {@link TransactionDto}s by business transaction ID, in front of
+ * GET /api/transactions/{transactionId}.
+ *
+ * Entries are bounded by {@code transaction.cache.max-size} and expire {@code transaction.cache.ttl}
+ * after they were written. Concurrent misses for the same ID share one load; lookups that fail
+ * (e.g. unknown ID) are not cached. Writes go through {@link #refreshAfterCommit} or
+ * {@link #invalidateAfterCommit}, which update this instance's entries once the transaction has
+ * committed and, with
+ * {@code transaction.cache.invalidation.enabled}, tells the other instances to drop theirs over
+ * {@link AppConstants#TRANSACTION_CACHE_INVALIDATION_TOPIC}. An invalidation that is lost (send
+ * failure, instance down) leaves at most a ttl of staleness.
+ *
+ * Hit, miss, eviction and size metrics are published as cache.* with tag cache=transactions.
+ */
+@Service
+@Slf4j
+public class TransactionLookupCache {
+
+    private final Cache<String, TransactionDto> cache;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final boolean broadcast;
+    /** Record key of this instance's invalidations, so that it can skip its own. */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Counter invalidationsSent;
+    private final Counter invalidationsFailed;
+    private final Counter invalidationsReceived;
+
+    public TransactionLookupCache(KafkaTemplate<String, Object> kafkaTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${transaction.cache.enabled}") boolean enabled,
+                                  @Value("${transaction.cache.max-size}") long maxSize,
+                                  @Value("${transaction.cache.ttl}") Duration ttl,
+                                  @Value("${transaction.cache.invalidation.enabled}") boolean broadcast) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.broadcast = broadcast;
+        if (enabled) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(ttl)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "transactions");
+        } else {
+            this.cache = null;
+        }
+
+        this.invalidationsSent = invalidationCounter(meterRegistry, "sent");
+        this.invalidationsFailed = invalidationCounter(meterRegistry, "failed");
+        this.invalidationsReceived = invalidationCounter(meterRegistry, "received");
+    }
+
+    /**
+     * The cached transaction, or the result of {@code loader} (cached) on a miss.
+     * Exceptions thrown by the loader propagate and nothing is cached.
+     */
+    public TransactionDto get(String transactionId, Function<String, TransactionDto> loader) {
+        if (cache == null) {
+            return loader.apply(transactionId);
+        }
+        return cache.get(transactionId, loader);
+    }
+
+    /**
+     * Replaces the entry with {@code updated} and broadcasts an invalidation, once the current
+     * transaction commits (immediately when there is none). Nothing happens on rollback.
+     */
+    public void refreshAfterCommit(TransactionDto updated) {
+        afterCommit(() -> {
+            if (cache != null) {
+                cache.put(updated.getTransactionId(), updated);
+            }
+            broadcast(updated.getTransactionId());
+        });
+    }
+
+    /**
+     * Drops the entries and broadcasts invalidations for {@code transactionIds} once the current
+     * transaction commits (immediately when there is none), for writes that do not produce DTOs.
+     */
+    public void invalidateAfterCommit(Collection<String> transactionIds) {
+        afterCommit(() -> {
+            if (cache != null) {
+                cache.invalidateAll(transactionIds);
+            }
+            transactionIds.forEach(this::broadcast);
+        });
+    }
+
+    /**
+     * Applies an invalidation received from the topic; the sender's own are ignored.
+     */
+    void onInvalidation(String senderId, String transactionId) {
+        if (instanceId.equals(senderId) || transactionId == null) {
+            return;
+        }
+        invalidationsReceived.increment();
+        if (cache != null) {
+            cache.invalidate(transactionId);
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private void afterCommit(Runnable action) {
+        if (cache == null && !broadcast) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void broadcast(String transactionId) {
+        if (!broadcast) {
+            return;
+        }
+        kafkaTemplate.send(AppConstants.TRANSACTION_CACHE_INVALIDATION_TOPIC, instanceId, transactionId)
+                .whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        invalidationsSent.increment();
+                    } else {
+                        invalidationsFailed.increment();
+                        log.warn("Could not broadcast cache invalidation for transactionId={}: {}",
+                                transactionId, ex.getMessage());
+                    }
+                });
+    }
+
+    private static Counter invalidationCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transaction.cache.invalidations")
+                .description("Cross-instance transaction cache invalidations")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
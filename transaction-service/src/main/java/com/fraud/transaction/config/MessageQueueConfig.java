@@ -2,25 +2,134 @@ package com.fraud.transaction.config;
 
 import com.fraud.common.constants.AppConstants;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Message queue configuration placeholder.
- * - Configure Kafka/Rabbit producers and consumers; define serializers/deserializers.
- * - Externalize broker addresses and credentials.
+ * Kafka configuration on top of Boot's auto-configured producer and consumer factories.
+ * - Declares the create-transaction, create-transaction-dlt and transaction-cache-invalidation topics.
+ * - Provides the KafkaTemplate that publishes to the retry and dead-letter topics.
+ * - Provides the listener container factories for the batch and cache invalidation listeners.
+ * Broker addresses and serializers are configured under spring.kafka in application.yml.
  */
 @Configuration
 public class MessageQueueConfig {
-    // TODO: Add KafkaTemplate / ConsumerFactory beans and topic configuration.
+
+    @Value("${transaction.kafka.topic.partitions}")
+    private int partitions;
+
+    @Value("${transaction.kafka.topic.replicas}")
+    private int replicas;
+
     /**
+     * create-transaction topic. The partition count bounds consumer parallelism
+     * (see transaction.kafka.consumer.concurrency); records are keyed by merchant or card.
+     * Note that Kafka only ever increases partitions of an existing topic, and doing so
+     * remaps keys to partitions.
      *
-     * @return
+     * @return the topic definition registered with the KafkaAdmin
      */
     @Bean
     public NewTopic createTransactionTopic() {
         return TopicBuilder
-                .name(AppConstants.CREATE_TRANSACTION_TOPIC).build();
+                .name(AppConstants.CREATE_TRANSACTION_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    /**
+     * create-transaction-dlt for the batch listener. In record mode the topic (together with
+     * create-transaction-retry-N) is declared by the {@code @RetryableTopic} infrastructure.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "transaction.kafka.consumer.batch.enabled", havingValue = "true")
+    public NewTopic createTransactionDeadLetterTopic() {
+        return TopicBuilder
+                .name(AppConstants.CREATE_TRANSACTION_DLT_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    /**
+     * transaction-cache-invalidation: transaction IDs changed on one instance, for the others to
+     * evict (see TransactionLookupCache). Ordering does not matter, so one partition is enough;
+     * TransactionCacheInvalidationListener is assigned that partition directly.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "transaction.cache.invalidation.enabled", havingValue = "true")
+    public NewTopic transactionCacheInvalidationTopic() {
+        return TopicBuilder
+                .name(AppConstants.TRANSACTION_CACHE_INVALIDATION_TOPIC)
+                .partitions(1)
+                .replicas(replicas)
+                .build();
+    }
+
+    /**
+     * Template used to publish to the retry and dead-letter topics. Records that failed
+     * deserialization are forwarded as their original bytes; everything else is written as JSON.
+     * Declared as {@link KafkaOperations} so that Boot still auto-configures the main KafkaTemplate.
+     */
+    @Bean
+    public KafkaOperations<String, Object> deadLetterKafkaTemplate(ProducerFactory<?, ?> kafkaProducerFactory) {
+        Map<Class<?>, Serializer<?>> serializers = new LinkedHashMap<>();
+        serializers.put(byte[].class, new ByteArraySerializer());
+        serializers.put(Object.class, new JsonSerializer<>().noTypeInfo());
+        ProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(
+                kafkaProducerFactory.getConfigurationProperties(),
+                new StringSerializer(), new DelegatingByTypeSerializer(serializers, true));
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * Listener container factory for {@code KafkaTransactionBatchEventListener}.
+     * Starts from Boot's auto-configured settings and only switches the listener to batch mode.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "transaction.kafka.consumer.batch.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    /**
+     * Listener container factory for {@code TransactionCacheInvalidationListener}. The listener is
+     * assigned its partition directly and starts from the latest offset on every start, so it never
+     * commits: with MANUAL ack mode and no acknowledgement, no consumer group is created on the broker.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "transaction.cache.invalidation.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> cacheInvalidationKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
     }
 }
@@ -0,0 +1,50 @@
+package com.fraud.transaction.controller;
+
+import com.fraud.transaction.blocklist.BlocklistService;
+import com.fraud.transaction.blocklist.BlocklistType;
+import com.fraud.transaction.dto.BlocklistStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/transactions/blocklist")
+@Slf4j
+public class BlocklistController {
+
+    private final BlocklistService blocklistService;
+
+    public BlocklistController(BlocklistService blocklistService) {
+        this.blocklistService = blocklistService;
+    }
+
+    /**
+     * The list currently in effect for each type on this instance.
+     */
+    @GetMapping
+    public ResponseEntity<List<BlocklistStatus>> getStatus() {
+        return ResponseEntity.ok(blocklistService.status());
+    }
+
+    @GetMapping("/check")
+    public ResponseEntity<Map<String, Boolean>> check(@RequestParam String type, @RequestParam String value) {
+        log.debug("Checking {} blocklist for {}", type, value);
+        return ResponseEntity.ok(Map.of("blocked", blocklistService.isBlocked(parseType(type), value)));
+    }
+
+    private static BlocklistType parseType(String type) {
+        try {
+            return BlocklistType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("type must be one of " + Arrays.toString(BlocklistType.values()));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.fraud.transaction.controller;
+
+import com.fraud.transaction.deadletter.DeadLetterReplayService;
+import com.fraud.transaction.dto.DeadLetterReplayResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/transactions/dlt")
+@Slf4j
+public class DeadLetterController {
+
+    private final DeadLetterReplayService deadLetterReplayService;
+
+    public DeadLetterController(DeadLetterReplayService deadLetterReplayService) {
+        this.deadLetterReplayService = deadLetterReplayService;
+    }
+
+    /**
+     * Re-publish dead-lettered records into create-transaction at a controlled rate.
+     * Blocks until the replay finishes; returns 409 Conflict while another replay is running.
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<DeadLetterReplayResult> replay(
+            @RequestParam(defaultValue = "${transaction.kafka.dlt.replay.max-records}") int maxRecords,
+            @RequestParam(defaultValue = "${transaction.kafka.dlt.replay.rate-per-second}") int ratePerSecond) {
+        log.info("Replaying up to {} dead-lettered records at {}/s", maxRecords, ratePerSecond);
+        return ResponseEntity.ok(deadLetterReplayService.replay(maxRecords, ratePerSecond));
+    }
+}
@@ -0,0 +1,34 @@
+package com.fraud.transaction.controller;
+
+import com.fraud.transaction.dto.FraudRingDto;
+import com.fraud.transaction.graph.FraudRingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/transactions/rings")
+@Slf4j
+public class FraudRingController {
+
+    private final FraudRingService fraudRingService;
+
+    public FraudRingController(FraudRingService fraudRingService) {
+        this.fraudRingService = fraudRingService;
+    }
+
+    /**
+     * Cards, devices and IPs connected to the given card, device or IP through shared
+     * transactions, served from the in-memory link graph (no table scan).
+     */
+    @GetMapping("/{cardOrDevice}")
+    public ResponseEntity<FraudRingDto> getRing(@PathVariable String cardOrDevice,
+                                                @RequestParam(defaultValue = "1000") int limit) {
+        log.debug("Fetching fraud ring for {}", cardOrDevice);
+        return ResponseEntity.ok(fraudRingService.findRing(cardOrDevice, limit));
+    }
+}
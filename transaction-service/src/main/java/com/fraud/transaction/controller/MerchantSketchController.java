@@ -0,0 +1,56 @@
+package com.fraud.transaction.controller;
+
+import com.fraud.transaction.dto.MerchantCardinalityDto;
+import com.fraud.transaction.sketch.MerchantSketchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/transactions/merchant-sketches")
+@Slf4j
+public class MerchantSketchController {
+
+    private final MerchantSketchService merchantSketchService;
+
+    public MerchantSketchController(MerchantSketchService merchantSketchService) {
+        this.merchantSketchService = merchantSketchService;
+    }
+
+    /**
+     * Estimated distinct cards of the merchant over the last {@code minutes} minutes on this instance.
+     */
+    @GetMapping("/{merchantId}")
+    public ResponseEntity<MerchantCardinalityDto> getDistinctCards(@PathVariable String merchantId,
+                                                                   @RequestParam(defaultValue = "1") int minutes) {
+        log.debug("Estimating distinct cards for merchant {} over {} minutes", merchantId, minutes);
+        return ResponseEntity.ok(merchantSketchService.estimate(merchantId, minutes));
+    }
+
+    /**
+     * The raw sketch behind {@link #getDistinctCards}, to be merged with other instances' sketches.
+     */
+    @GetMapping(value = "/{merchantId}/sketch", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> getSketch(@PathVariable String merchantId,
+                                            @RequestParam(defaultValue = "1") int minutes) {
+        return ResponseEntity.ok(merchantSketchService.exportSketch(merchantId, minutes));
+    }
+
+    /**
+     * Distinct count of the union of the posted sketches (the bodies of {@link #getSketch}
+     * from each instance, concatenated).
+     */
+    @PostMapping(value = "/union", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Long>> estimateUnion(@RequestBody byte[] sketches) {
+        return ResponseEntity.ok(Map.of("distinctCards", merchantSketchService.estimateUnion(sketches)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.fraud.transaction.controller;
+
+import com.fraud.transaction.dto.MerchantHourlyStatsDto;
+import com.fraud.transaction.rollup.MerchantHourlyRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/transactions/merchant")
+@Slf4j
+public class MerchantStatsController {
+
+    private final MerchantHourlyRollupService merchantHourlyRollupService;
+
+    public MerchantStatsController(MerchantHourlyRollupService merchantHourlyRollupService) {
+        this.merchantHourlyRollupService = merchantHourlyRollupService;
+    }
+
+    /**
+     * Hourly count, total amount, flagged count and average risk score of the merchant, per currency,
+     * for hours starting in [from, to); defaults to the last 24 hours including the current one.
+     * Served from merchant_hourly_stats, never from the transactions table.
+     */
+    @GetMapping("/{merchantId}/stats")
+    public ResponseEntity<List<MerchantHourlyStatsDto>> getStats(
+            @PathVariable String merchantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        LocalDateTime end = to != null ? to : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime start = from != null ? from : end.minusHours(24);
+        log.debug("Fetching hourly stats for merchant {} in [{}, {})", merchantId, start, end);
+        List<MerchantHourlyStatsDto> stats = merchantHourlyRollupService.getStats(merchantId, start, end);
+        log.info("Returning {} hourly stats rows for merchant {}", stats.size(), merchantId);
+        return ResponseEntity.ok(stats);
+    }
+}
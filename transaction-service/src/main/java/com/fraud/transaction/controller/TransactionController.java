@@ -1,19 +1,36 @@
 package com.fraud.transaction.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fraud.transaction.api.request.BulkFlagTransactionsRequest;
 import com.fraud.transaction.api.request.CreateTransactionRequest;
+import com.fraud.transaction.api.request.TransactionSearchRequest;
 import com.fraud.transaction.api.request.UpdateTransactionRequest;
+import com.fraud.transaction.bulk.BulkFormat;
+import com.fraud.transaction.dto.BulkFlagResult;
+import com.fraud.transaction.dto.BulkLoadResult;
 import com.fraud.transaction.dto.TransactionDto;
+import com.fraud.transaction.dto.TransactionPage;
 import com.fraud.transaction.api.request.FlagTransactionRequest;
 import com.fraud.transaction.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -21,10 +38,15 @@ import java.util.List;
 @Slf4j
 public class TransactionController {
 
+    /** Rows written between flushes of an NDJSON stream. */
+    private static final int STREAM_FLUSH_ROWS = 500;
+
     private final TransactionService transactionService;
+    private final ObjectWriter dtoWriter;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, ObjectMapper objectMapper) {
         this.transactionService = transactionService;
+        this.dtoWriter = objectMapper.writerFor(TransactionDto.class);
     }
 
     /**
@@ -79,6 +101,20 @@ public class TransactionController {
         return ResponseEntity.created(location).body(created);
     }
 
+    /**
+     * Bulk create from an NDJSON or CSV body streamed in the request, e.g. settlement backfills
+     * (see {@link TransactionService#createTransactionsBulk}). Returns a summary, not the rows.
+     */
+    @PostMapping(value = "/bulk", consumes = {BulkFormat.NDJSON_VALUE, BulkFormat.CSV_VALUE})
+    public ResponseEntity<BulkLoadResult> createTransactionsBulk(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+
+        log.debug("Bulk creating transactions from {}", contentType);
+        BulkLoadResult result = transactionService.createTransactionsBulk(body, BulkFormat.forContentType(contentType));
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Fetch all transactions.
      */
@@ -105,6 +141,18 @@ public class TransactionController {
         return ResponseEntity.ok(flagged);
     }
 
+    /**
+     * Flag many transactions at once, listed by ID or selected by a search filter
+     * (see {@link TransactionService#flagTransactions}).
+     */
+    @PatchMapping("/flag")
+    public ResponseEntity<BulkFlagResult> flagTransactions(@Valid @RequestBody BulkFlagTransactionsRequest request) {
+        log.debug("Bulk flagging transactions");
+        BulkFlagResult result = transactionService.flagTransactions(request);
+        log.info("Bulk flagged {} of {} transactions", result.getUpdated(), result.getMatched());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Fetch all flagged transactions.
      */
@@ -126,4 +174,88 @@ public class TransactionController {
         log.info("Returning {} transactions for merchant {}", list.size(), merchantId);
         return ResponseEntity.ok(list);
     }
+
+    /**
+     * Search by any combination of merchant, flag state, review status, channel, card type,
+     * amount range and transaction time range, e.g.
+     * {@code /search?merchantId=M1&flagged=true&from=2026-01-01T00:00:00&sort=AMOUNT_DESC&size=50}.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<TransactionDto>> searchTransactions(@Valid TransactionSearchRequest request) {
+        log.debug("Searching transactions with {}", request);
+        List<TransactionDto> results = transactionService.searchTransactions(request);
+        log.info("Search returned {} transactions", results.size());
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #getAllTransactions()}, newest first.
+     * Follow {@code nextCursor} until it is null.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<TransactionPage> getTransactionsPage(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(transactionService.getTransactionsPage(cursor, size));
+    }
+
+    @GetMapping("/flagged/page")
+    public ResponseEntity<TransactionPage> getFlaggedTransactionsPage(@RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(transactionService.getFlaggedTransactionsPage(cursor, size));
+    }
+
+    @GetMapping("/merchant/{merchantId}/page")
+    public ResponseEntity<TransactionPage> getByMerchantPage(@PathVariable String merchantId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "100") int size) {
+        return ResponseEntity.ok(transactionService.getTransactionsByMerchantPage(merchantId, cursor, size));
+    }
+
+    /**
+     * Streaming variant of {@link #getAllTransactions()}: one JSON object per line, written
+     * while the rows are read from the database.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTransactions() {
+        return ndjson("all", transactionService::streamTransactions);
+    }
+
+    @GetMapping(value = "/flagged/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFlaggedTransactions() {
+        return ndjson("flagged", transactionService::streamFlaggedTransactions);
+    }
+
+    @GetMapping(value = "/merchant/{merchantId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByMerchant(@PathVariable String merchantId) {
+        return ndjson("merchant " + merchantId, sink -> transactionService.streamTransactionsByMerchant(merchantId, sink));
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private ResponseEntity<StreamingResponseBody> ndjson(String listing, ToLongFunction<Consumer<TransactionDto>> query) {
+        StreamingResponseBody body = out -> {
+            long[] written = {0};
+            try {
+                long streamed = query.applyAsLong(dto -> writeLine(out, dto, ++written[0]));
+                out.flush();
+                log.info("Streamed {} transactions ({})", streamed, listing);
+            } catch (UncheckedIOException e) {
+                // client went away; the read-only transaction has been rolled back and the cursor closed
+                log.debug("Stream of {} transactions aborted after {} rows: {}", listing, written[0], e.getMessage());
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, TransactionDto dto, long row) {
+        try {
+            out.write(dtoWriter.writeValueAsBytes(dto));
+            out.write('\n');
+            if (row % STREAM_FLUSH_ROWS == 0) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
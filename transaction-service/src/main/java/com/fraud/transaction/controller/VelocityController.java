@@ -0,0 +1,44 @@
+package com.fraud.transaction.controller;
+
+import com.fraud.transaction.dto.VelocitySnapshot;
+import com.fraud.transaction.velocity.VelocityDimension;
+import com.fraud.transaction.velocity.VelocityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/transactions/velocity")
+@Slf4j
+public class VelocityController {
+
+    private final VelocityService velocityService;
+
+    public VelocityController(VelocityService velocityService) {
+        this.velocityService = velocityService;
+    }
+
+    /**
+     * Transaction count and amount sum over 1m/10m/1h for a card, device or IP,
+     * served from memory (this instance's view of the traffic).
+     */
+    @GetMapping
+    public ResponseEntity<VelocitySnapshot> getVelocity(@RequestParam String dimension, @RequestParam String key) {
+        log.debug("Fetching {} velocity for key={}", dimension, key);
+        return ResponseEntity.ok(velocityService.snapshot(parseDimension(dimension), key));
+    }
+
+    private static VelocityDimension parseDimension(String dimension) {
+        try {
+            return VelocityDimension.valueOf(dimension.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("dimension must be one of " + Arrays.toString(VelocityDimension.values()));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.fraud.transaction.deadletter;
+
+import com.fraud.common.constants.AppConstants;
+import com.fraud.transaction.dto.DeadLetterReplayResult;
+import com.fraud.transaction.exception.ReplayInProgressException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-publishes create-transaction-dlt into create-transaction at a bounded rate.
+ *
+ * Records are copied byte-for-byte (key, value and non-diagnostic headers), so compact and
+ * JSON payloads replay unchanged. The replay reads with its own consumer group and commits
+ * offsets only after the re-published records are acknowledged, so consecutive replays continue
+ * where the previous one stopped and a crash mid-replay at worst re-sends a record (which the
+ * idempotency key then absorbs). Only one replay runs at a time.
+ */
+@Service
+@Slf4j
+public class DeadLetterReplayService {
+
+    /** Headers written by the retry/DLT machinery; dropped so a replayed record starts fresh. */
+    private static final List<String> DIAGNOSTIC_HEADER_PREFIXES =
+            List.of("kafka_dlt-", "retry_topic-", SerializationUtils.DESERIALIZER_EXCEPTION_HEADER_PREFIX);
+
+    private final ConsumerFactory<byte[], byte[]> consumerFactory;
+    private final KafkaTemplate<byte[], byte[]> kafkaTemplate;
+    private final Duration pollTimeout;
+    private final Duration sendTimeout;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Counter replayed;
+
+    public DeadLetterReplayService(ConsumerFactory<?, ?> kafkaConsumerFactory,
+                                   ProducerFactory<?, ?> kafkaProducerFactory,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${transaction.kafka.dlt.replay.poll-timeout}") Duration pollTimeout,
+                                   @Value("${transaction.kafka.dlt.replay.send-timeout}") Duration sendTimeout) {
+        Map<String, Object> consumerProps = new HashMap<>(kafkaConsumerFactory.getConfigurationProperties());
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        this.consumerFactory = new DefaultKafkaConsumerFactory<>(consumerProps,
+                new ByteArrayDeserializer(), new ByteArrayDeserializer());
+        ProducerFactory<byte[], byte[]> producerFactory = new DefaultKafkaProducerFactory<>(
+                kafkaProducerFactory.getConfigurationProperties(), new ByteArraySerializer(), new ByteArraySerializer());
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.pollTimeout = pollTimeout;
+        this.sendTimeout = sendTimeout;
+        this.replayed = Counter.builder("transaction.kafka.dead.letters.replayed")
+                .description("Dead-lettered records re-published to create-transaction")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replays up to {@code maxRecords} dead-lettered records, sending at most
+     * {@code ratePerSecond} records per second. Returns when the limit is reached or a poll
+     * comes back empty.
+     *
+     * @throws IllegalArgumentException  if a limit is not positive
+     * @throws ReplayInProgressException if another replay is still running
+     * @throws KafkaException            if create-transaction does not acknowledge a poll's records
+     */
+    public DeadLetterReplayResult replay(int maxRecords, int ratePerSecond) {
+        if (maxRecords <= 0 || ratePerSecond <= 0) {
+            throw new IllegalArgumentException("maxRecords and ratePerSecond must be positive");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new ReplayInProgressException("A dead-letter replay is already running");
+        }
+        long started = System.nanoTime();
+        try (Consumer<byte[], byte[]> consumer = consumerFactory.createConsumer(
+                AppConstants.TRANSACTION_DLT_REPLAY_GROUP_ID, null, null)) {
+            consumer.subscribe(List.of(AppConstants.CREATE_TRANSACTION_DLT_TOPIC));
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+            long nextSend = System.nanoTime();
+            long count = 0;
+            boolean exhausted = false;
+
+            while (count < maxRecords) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(pollTimeout);
+                if (records.isEmpty()) {
+                    exhausted = true;
+                    break;
+                }
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>(records.count());
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    if (count == maxRecords) {
+                        break;
+                    }
+                    long wait = nextSend - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    nextSend = Math.max(nextSend, System.nanoTime() - intervalNanos) + intervalNanos;
+
+                    sends.add(kafkaTemplate.send(toCreateTransaction(record)));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                    count++;
+                }
+                awaitAcks(sends);
+                consumer.commitSync(offsets);
+                // records fetched beyond maxRecords are discarded; the committed offsets bring them back next time
+                replayed.increment(sends.size());
+            }
+
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            log.info("Replayed {} dead-lettered create-transaction records in {} ms", count, elapsedMillis);
+            return new DeadLetterReplayResult(count, exhausted, elapsedMillis);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private ProducerRecord<byte[], byte[]> toCreateTransaction(ConsumerRecord<byte[], byte[]> record) {
+        ProducerRecord<byte[], byte[]> replay = new ProducerRecord<>(AppConstants.CREATE_TRANSACTION_TOPIC,
+                record.key(), record.value());
+        for (Header header : record.headers()) {
+            if (DIAGNOSTIC_HEADER_PREFIXES.stream().noneMatch(header.key()::startsWith)) {
+                replay.headers().add(header);
+            }
+        }
+        return replay;
+    }
+
+    private void awaitAcks(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying dead-lettered records", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // nothing is committed for this poll, so the next replay starts from the same records
+            throw new KafkaException("Replay aborted, create-transaction did not acknowledge: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.fraud.transaction.dedup;
+
+import com.fraud.transaction.util.BloomFilter;
+import com.fraud.transaction.util.Hashing;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time-bucketed Bloom filter remembering idempotency keys seen within a sliding window.
+ * The window is split into a ring of buckets; keys are written into the bucket of the
+ * current time slice and a bucket is cleared when the ring wraps around to it, so memory
+ * stays fixed no matter how many keys arrive.
+ *
+ * A negative answer is definitive for the window; a positive answer must be confirmed
+ * against the database (false positives are possible, false negatives only for keys older
+ * than the window).
+ */
+public class IdempotencyKeyFilter {
+
+    private final BloomFilter[] buckets;
+    private final AtomicLongArray bucketEpochs;
+    private final long bucketMillis;
+    private final ReentrantLock rotationLock = new ReentrantLock();
+
+    public IdempotencyKeyFilter(Duration window, int bucketCount, long expectedKeysPerBucket, double falsePositiveRate) {
+        if (bucketCount <= 0 || window.toMillis() < bucketCount) {
+            throw new IllegalArgumentException("window must be at least one millisecond per bucket");
+        }
+        this.bucketMillis = window.toMillis() / bucketCount;
+        this.buckets = new BloomFilter[bucketCount];
+        this.bucketEpochs = new AtomicLongArray(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            // Per-bucket rate so that querying every bucket stays close to the configured rate
+            buckets[i] = BloomFilter.forExpectedInsertions(expectedKeysPerBucket, falsePositiveRate / bucketCount);
+            bucketEpochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    public void put(String key, long timestampMillis) {
+        long epoch = timestampMillis / bucketMillis;
+        int slot = (int) Math.floorMod(epoch, (long) buckets.length);
+        if (bucketEpochs.get(slot) != epoch) {
+            rotate(slot, epoch);
+        }
+        buckets[slot].put(Hashing.hash64(key));
+    }
+
+    public boolean mightContain(String key, long nowMillis) {
+        long hash = Hashing.hash64(key);
+        long currentEpoch = nowMillis / bucketMillis;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            long epoch = bucketEpochs.get(slot);
+            if (currentEpoch - epoch < buckets.length && buckets[slot].mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long sizeInBytes() {
+        long total = 0;
+        for (BloomFilter bucket : buckets) {
+            total += bucket.sizeInBytes();
+        }
+        return total;
+    }
+
+    private void rotate(int slot, long epoch) {
+        rotationLock.lock();
+        try {
+            long current = bucketEpochs.get(slot);
+            if (current < epoch) {
+                buckets[slot].clear();
+                bucketEpochs.set(slot, epoch);
+            }
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+}
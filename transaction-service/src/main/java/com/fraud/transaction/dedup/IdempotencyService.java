@@ -0,0 +1,197 @@
+package com.fraud.transaction.dedup;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Idempotency-key deduplication for transaction ingestion.
+ *
+ * Every create is first checked against an in-memory {@link IdempotencyKeyFilter}. A miss
+ * (the common path) costs no database round trip; only a probable hit is confirmed with a
+ * lookup on the unique idempotency_key column. Keys the filter has not seen (older than the
+ * dedup window, or ingested by another instance) are caught by the insert instead, which fails
+ * on transaction_idempotency_keys (see {@link #isDuplicateKey}); callers then return the stored
+ * transaction from {@link #findStored}.
+ *
+ * The filter is warmed from the database as a lifecycle bean in an early phase, so before the
+ * web server and the Kafka listener containers start taking requests.
+ */
+@Service
+@Slf4j
+public class IdempotencyService implements SmartLifecycle {
+
+    /** Before the web server (DEFAULT_PHASE - 1024) and the Kafka listener containers (DEFAULT_PHASE - 100). */
+    static final int WARM_UP_PHASE = SmartLifecycle.DEFAULT_PHASE - 2048;
+
+    /** Primary key of transaction_idempotency_keys (V8), violated by an insert repeating a stored key. */
+    private static final String KEY_CONSTRAINT = "transaction_idempotency_keys_pkey";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IdempotencyKeyFilter keyFilter;
+    private final boolean enabled;
+    private final Duration window;
+
+    private final Counter misses;
+    private final Counter duplicates;
+    private final Counter falsePositives;
+    private final Counter conflicts;
+    private volatile boolean running;
+
+    public IdempotencyService(TransactionRepository transactionRepository,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${transaction.dedup.enabled}") boolean enabled,
+                              @Value("${transaction.dedup.window}") Duration window,
+                              @Value("${transaction.dedup.buckets}") int buckets,
+                              @Value("${transaction.dedup.expected-keys-per-bucket}") long expectedKeysPerBucket,
+                              @Value("${transaction.dedup.false-positive-rate}") double falsePositiveRate) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.window = window;
+        this.keyFilter = new IdempotencyKeyFilter(window, buckets, expectedKeysPerBucket, falsePositiveRate);
+
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.duplicates = lookupCounter(meterRegistry, "duplicate");
+        this.falsePositives = lookupCounter(meterRegistry, "false_positive");
+        this.conflicts = lookupCounter(meterRegistry, "insert_conflict");
+        Gauge.builder("transaction.dedup.filter.bytes", keyFilter, IdempotencyKeyFilter::sizeInBytes)
+                .description("Memory held by the idempotency key filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the already persisted transaction for this idempotency key, if any.
+     * Blank keys are never deduplicated.
+     */
+    public Optional<Transaction> findDuplicate(String idempotencyKey) {
+        if (!enabled || !StringUtils.hasText(idempotencyKey)) {
+            return Optional.empty();
+        }
+        if (!keyFilter.mightContain(idempotencyKey, System.currentTimeMillis())) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        Optional<Transaction> existing = transactionRepository.findByIdempotencyKey(idempotencyKey);
+        if (existing.isPresent()) {
+            duplicates.increment();
+        } else {
+            falsePositives.increment();
+        }
+        return existing;
+    }
+
+    /**
+     * Remembers a key that has just been persisted.
+     */
+    public void record(String idempotencyKey) {
+        if (enabled && StringUtils.hasText(idempotencyKey)) {
+            keyFilter.put(idempotencyKey, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * The stored transaction for a key whose insert just failed with {@link #isDuplicateKey}: it was
+     * committed by another instance, or before the filter window. The key is added to the filter,
+     * so that further repeats are answered before an insert is attempted.
+     */
+    public Optional<Transaction> findStored(String idempotencyKey) {
+        Optional<Transaction> existing = transactionRepository.findByIdempotencyKey(idempotencyKey);
+        if (existing.isPresent()) {
+            conflicts.increment();
+            record(idempotencyKey);
+        }
+        return existing;
+    }
+
+    /**
+     * True if {@code failure} was caused by an insert repeating a stored idempotency key, i.e. the
+     * unique violation raised by the transaction_idempotency_keys trigger (V8).
+     */
+    public static boolean isDuplicateKey(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PSQLException psqlException) {
+                ServerErrorMessage message = psqlException.getServerErrorMessage();
+                return UNIQUE_VIOLATION.equals(psqlException.getSQLState()) && message != null
+                        && KEY_CONSTRAINT.equals(message.getConstraint());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Re-populates the filter with the keys of transactions within the dedup window so that a
+     * restart does not send every redelivery to the insert. Runs before requests are taken.
+     */
+    @Override
+    public void start() {
+        if (enabled) {
+            warmUp();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return WARM_UP_PHASE;
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    /**
+     * Keys are read from transaction_idempotency_keys by transaction_time (indexed), not by
+     * created_at across every partition, and are filed under that time.
+     */
+    private void warmUp() {
+        LocalDateTime since = LocalDateTime.now().minus(window);
+        ZoneId zone = ZoneId.systemDefault();
+        long[] loaded = {0};
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> keys = transactionRepository.streamIdempotencyKeysSince(since)) {
+                keys.forEach(row -> {
+                    long transactionMillis = ((LocalDateTime) row[1]).atZone(zone).toInstant().toEpochMilli();
+                    keyFilter.put((String) row[0], transactionMillis);
+                    loaded[0]++;
+                });
+            }
+        });
+        log.info("Loaded {} idempotency keys from the last {} into the dedup filter", loaded[0], window);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transaction.dedup.lookups")
+                .description("Idempotency key checks by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,48 @@
+package com.fraud.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a multi-record ingest (e.g. a Kafka poll consumed in batch mode).
+ * Duplicates (already ingested idempotency keys) are skipped and counted, not rejected.
+ * Rejected records are identified by their position in the submitted batch so that
+ * callers can correlate them back to offsets or input lines.
+ */
+@Data
+@NoArgsConstructor
+public class BatchIngestResult {
+
+    private long received;
+    private long accepted;
+    private long duplicates;
+    private List<RejectedRecord> rejected = new ArrayList<>();
+
+    public BatchIngestResult(long received) {
+        this.received = received;
+    }
+
+    public void accept() {
+        accepted++;
+    }
+
+    public void duplicate() {
+        duplicates++;
+    }
+
+    public void reject(long index, String reason) {
+        rejected.add(new RejectedRecord(index, reason));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRecord {
+        private long index;
+        private String reason;
+    }
+}
@@ -0,0 +1,24 @@
+package com.fraud.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The blocklist currently in effect for one type. {@code loadedAt} and {@code fileModifiedAt}
+ * are null and {@code entries} is 0 when no list has been published for the type.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlocklistStatus {
+
+    private String type;
+    private String file;
+    private int entries;
+    private long bloomFilterBytes;
+    private Instant fileModifiedAt;
+    private Instant loadedAt;
+}
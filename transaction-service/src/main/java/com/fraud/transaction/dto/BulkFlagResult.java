@@ -0,0 +1,19 @@
+package com.fraud.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of PATCH /api/transactions/flag. {@code matched} counts the distinct IDs submitted (or
+ * selected by the filter); {@code updated} counts the rows actually flagged, so the difference
+ * is IDs that do not exist.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkFlagResult {
+
+    private long matched;
+    private long updated;
+}
@@ -0,0 +1,54 @@
+package com.fraud.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of POST /api/transactions/bulk. Every rejected row is counted, but only the first
+ * {@value #MAX_REJECTION_DETAILS} carry a reason, so that the summary stays small for any body size.
+ * Duplicates (transaction ID or idempotency key already stored) are skipped, not rejected.
+ */
+@Data
+@NoArgsConstructor
+public class BulkLoadResult {
+
+    public static final int MAX_REJECTION_DETAILS = 1000;
+
+    private long received;
+    private long accepted;
+    private long duplicates;
+    private long rejected;
+    private List<RejectedRow> rejections = new ArrayList<>();
+    private long elapsedMillis;
+
+    public void received() {
+        received++;
+    }
+
+    public void accepted(long count) {
+        accepted += count;
+    }
+
+    public void duplicates(long count) {
+        duplicates += count;
+    }
+
+    public void reject(long line, String reason) {
+        rejected++;
+        if (rejections.size() < MAX_REJECTION_DETAILS) {
+            rejections.add(new RejectedRow(line, reason));
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRow {
+        private long line;
+        private String reason;
+    }
+}
@@ -0,0 +1,20 @@
+package com.fraud.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one replay of create-transaction-dlt back into create-transaction.
+ * {@code exhausted} is true when the replay stopped because the dead-letter topic had no more
+ * records for the replay group, false when it stopped at {@code maxRecords}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterReplayResult {
+
+    private long replayed;
+    private boolean exhausted;
+    private long elapsedMillis;
+}
@@ -0,0 +1,26 @@
+package com.fraud.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cards, devices and IPs linked to the queried entity through shared transactions.
+ * {@code truncated} is true when the component has more members than were returned.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FraudRingDto {
+
+    private String query;
+    private String matchedAs;
+    private int size;
+    private int cardCount;
+    private boolean truncated;
+    private List<String> cards;
+    private List<String> devices;
+    private List<String> ips;
+}
@@ -0,0 +1,20 @@
+package com.fraud.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estimated distinct cards of a merchant over the last {@code minutes} minutes, from this
+ * instance's sketches. {@code relativeError} is the sketch's standard error (e.g. 0.0325).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantCardinalityDto {
+
+    private String merchantId;
+    private int minutes;
+    private long distinctCards;
+    private double relativeError;
+}
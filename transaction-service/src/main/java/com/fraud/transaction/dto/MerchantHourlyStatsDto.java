@@ -0,0 +1,30 @@
+package com.fraud.transaction.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One hour of a merchant's transactions in one currency, from merchant_hourly_stats.
+ * {@code averageRiskScore} is null when none of the transactions had a risk score.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MerchantHourlyStatsDto {
+
+    private String merchantId;
+    private String currency;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime hour;
+
+    private long transactionCount;
+    private BigDecimal totalAmount;
+    private long flaggedCount;
+    private Double averageRiskScore;
+}
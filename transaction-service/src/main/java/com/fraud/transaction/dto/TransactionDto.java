@@ -1,8 +1,11 @@
 package com.fraud.transaction.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -10,10 +13,20 @@ import java.time.LocalDateTime;
 /**
  * Response DTO for transactions. This is intended for server -> client responses.
  * Fields that are system-managed are marked read-only (ignored during deserialization).
+ * The all-args constructor backs the JPQL projections in TransactionRepository (SELECT_DTO);
+ * keep the field order in sync with it.
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class TransactionDto {
 
+    /**
+     * Database id, used server-side as the keyset pagination key. Never serialized.
+     */
+    @JsonIgnore
+    private Long id;
+
     /**
      * Server-generated transaction id — read-only for clients.
      */
@@ -0,0 +1,20 @@
+package com.fraud.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing, newest first. Pass {@code nextCursor} back as
+ * {@code cursor} to get the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+
+    private List<TransactionDto> items;
+    private String nextCursor;
+}
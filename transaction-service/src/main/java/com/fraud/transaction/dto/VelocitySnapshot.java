@@ -0,0 +1,31 @@
+package com.fraud.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Velocity of one card, device or IP: transaction count and amount sum per window.
+ * {@code tracked} is false when the key had no activity in the last hour (all totals zero).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VelocitySnapshot {
+
+    private String dimension;
+    private String key;
+    private boolean tracked;
+    private List<Window> windows;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Window {
+        private String window;
+        private long count;
+        private double amountSum;
+    }
+}
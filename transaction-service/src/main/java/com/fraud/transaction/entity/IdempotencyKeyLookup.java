@@ -0,0 +1,30 @@
+package com.fraud.transaction.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity over the "transaction_idempotency_keys" table (V8 migration): every stored idempotency
+ * key with the transaction_time of its transaction, i.e. the partition of "transactions" that
+ * holds it.
+ *
+ * Used to warm the dedup filter and in subqueries that let lookups by key read a single
+ * partition. The table is maintained by triggers on "transactions", so the entity is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "transaction_idempotency_keys")
+@Getter
+@NoArgsConstructor
+public class IdempotencyKeyLookup {
+
+    @Id
+    @Column(name = "idempotency_key", length = 128)
+    private String idempotencyKey;
+
+    @Column(name = "transaction_time", nullable = false)
+    private LocalDateTime transactionTime;
+}
@@ -23,14 +23,20 @@ import java.time.LocalDateTime;
 @Builder
 public class Transaction {
 
+    /**
+     * Sequence-backed (not IDENTITY) so Hibernate can pre-allocate ids and batch INSERTs.
+     * allocationSize must match the INCREMENT BY of transactions_seq.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     /**
-     * Business-level unique transaction identifier.
+     * Business-level unique transaction identifier. Unique across partitions through the
+     * transaction_ids table (V11 migration), not through a constraint on this table.
      */
-    @Column(name = "transaction_id", nullable = false, unique = true, updatable = false, length = 64)
+    @Column(name = "transaction_id", nullable = false, updatable = false, length = 64)
     private String transactionId;
 
     @Column(nullable = false, precision = 15, scale = 2)
@@ -86,6 +92,13 @@ public class Transaction {
     @Column(name = "transaction_time")
     private LocalDateTime transactionTime;
 
+    /**
+     * Client-supplied idempotency key; unique when present, through the transaction_idempotency_keys
+     * table (V8 migration).
+     */
+    @Column(name = "idempotency_key", length = 128, updatable = false)
+    private String idempotencyKey;
+
     /**
      * Automatically managed creation timestamp.
      */
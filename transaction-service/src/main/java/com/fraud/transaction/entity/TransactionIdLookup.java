@@ -0,0 +1,29 @@
+package com.fraud.transaction.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity over the "transaction_ids" table (V11 migration): the transaction_time of every
+ * transaction ID, i.e. the partition of "transactions" that holds it.
+ *
+ * Only used in subqueries that let lookups by transaction ID read a single partition. The table
+ * is maintained by triggers on "transactions", so the entity is read-only.
+ */
+@Entity
+@Immutable
+@Table(name = "transaction_ids")
+@Getter
+@NoArgsConstructor
+public class TransactionIdLookup {
+
+    @Id
+    @Column(name = "transaction_id", length = 64)
+    private String transactionId;
+
+    @Column(name = "transaction_time", nullable = false)
+    private LocalDateTime transactionTime;
+}
@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,6 +23,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
     /**
      * Handle not-found resources.
      */
@@ -41,6 +46,41 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handle integrity violations. Only a unique violation (e.g. a concurrent retry with the same
+     * idempotency key) is a conflict; a foreign key violation (e.g. fk_transactions_merchant for an
+     * unknown merchant) is bad input, and anything else (not-null, check) is a bad request.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrity(DataIntegrityViolationException ex, HttpServletRequest request) {
+        log.debug("Data integrity violation: {}", ex.getMostSpecificCause().getMessage());
+        String sqlState = sqlState(ex);
+        HttpStatus status;
+        String message;
+        if (UNIQUE_VIOLATION.equals(sqlState)) {
+            status = HttpStatus.CONFLICT;
+            message = "Request conflicts with existing data";
+        } else if (FOREIGN_KEY_VIOLATION.equals(sqlState)) {
+            status = HttpStatus.UNPROCESSABLE_ENTITY;
+            message = "Request references data that does not exist";
+        } else {
+            status = HttpStatus.BAD_REQUEST;
+            message = "Request violates a data constraint";
+        }
+        ApiError error = new ApiError(status, message, request.getRequestURI());
+        return new ResponseEntity<>(error, status);
+    }
+
+    /**
+     * Handle a dead-letter replay requested while another one is running.
+     */
+    @ExceptionHandler(ReplayInProgressException.class)
+    public ResponseEntity<ApiError> handleReplayInProgress(ReplayInProgressException ex, HttpServletRequest request) {
+        log.debug("Replay refused: {}", ex.getMessage());
+        ApiError error = new ApiError(HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI());
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handle JSON parse errors / unreadable body.
      */
@@ -103,6 +143,18 @@ public class GlobalExceptionHandler {
 
     /* ----------------- Helpers ----------------- */
 
+    /**
+     * SQLState of the first {@link SQLException} in the cause chain, or null if there is none.
+     */
+    private String sqlState(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+
     private String formatFieldError(FieldError fe) {
         return fe.getField() + ": " + fe.getDefaultMessage();
     }
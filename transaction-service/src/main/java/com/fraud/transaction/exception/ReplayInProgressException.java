@@ -0,0 +1,11 @@
+package com.fraud.transaction.exception;
+
+/**
+ * Thrown when a dead-letter replay is requested while another one is still running.
+ */
+public class ReplayInProgressException extends RuntimeException {
+
+    public ReplayInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,171 @@
+package com.fraud.transaction.geo;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Last located sighting per card: where (quantised coordinates), when, and through which channel.
+ *
+ * One slot is 17 bytes (8 key + 4 coordinates + 4 time + 1 channel) in flat arrays, with no
+ * per-card objects and no separate index. The table is split into lock segments; inside a
+ * segment a card lives within {@link #PROBE} slots of its home position. When that window is full
+ * the least recently seen card in it is replaced, so memory stays fixed while inactive cards
+ * age out.
+ */
+final class CardLastSeenIndex {
+
+    static final int PROBE = 8;
+
+    /** 2020-01-01T00:00:00Z; times are stored as unsigned-int seconds from here. */
+    private static final long EPOCH_SECONDS = 1_577_836_800L;
+    private static final int SLOT_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES + 1;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder replaced = new LongAdder();
+
+    CardLastSeenIndex(int segmentCount, int maxCards) {
+        if (Integer.bitCount(segmentCount) != 1 || maxCards < segmentCount * PROBE) {
+            throw new IllegalArgumentException("segments must be a power of two and maxCards >= segments * " + PROBE);
+        }
+        int slotsPerSegment = Integer.highestOneBit(maxCards / segmentCount - 1) << 1;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(slotsPerSegment);
+        }
+        this.segmentMask = segmentCount - 1;
+    }
+
+    /**
+     * Quantises coordinates to 16 bits each (about 300 m latitude / 600 m longitude resolution).
+     */
+    static int quantise(float latitude, float longitude) {
+        int lat = Math.round((latitude + 90f) / 180f * 0xFFFF);
+        int lon = Math.round((longitude + 180f) / 360f * 0xFFFF);
+        return (lat << 16) | (lon & 0xFFFF);
+    }
+
+    static float latitude(int quantised) {
+        return (quantised >>> 16) / (float) 0xFFFF * 180f - 90f;
+    }
+
+    static float longitude(int quantised) {
+        return (quantised & 0xFFFF) / (float) 0xFFFF * 360f - 180f;
+    }
+
+    static int toStoredSeconds(long epochSecond) {
+        return (int) Math.max(1, epochSecond - EPOCH_SECONDS);
+    }
+
+    static long toEpochSecond(int storedSeconds) {
+        return (storedSeconds & 0xFFFFFFFFL) + EPOCH_SECONDS;
+    }
+
+    /**
+     * Writes the last sighting of the card into {@code previous} ([0] quantised coordinates,
+     * [1] stored seconds, [2] channel) without changing anything.
+     *
+     * @return whether a sighting exists
+     */
+    boolean find(long card, int[] previous) {
+        long key = card == 0 ? 1 : card; // 0 marks an empty slot
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            int home = (int) key & segment.mask;
+            for (int probe = 0; probe < PROBE; probe++) {
+                int slot = (home + probe) & segment.mask;
+                long stored = segment.keys[slot];
+                if (stored == key) {
+                    previous[0] = segment.coordinates[slot];
+                    previous[1] = segment.seconds[slot];
+                    previous[2] = segment.channels[slot];
+                    return true;
+                }
+                if (stored == 0) {
+                    return false;
+                }
+            }
+            return false;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Records a sighting of the card, unless it is older than the stored one (out-of-order
+     * delivery). A new card takes a free slot in its probe window, or replaces the least recently
+     * seen card there.
+     */
+    void record(long card, int coordinates, int seconds, byte channel) {
+        long key = card == 0 ? 1 : card;
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            int home = (int) key & segment.mask;
+            int target = -1;
+            int oldest = -1;
+            for (int probe = 0; probe < PROBE; probe++) {
+                int slot = (home + probe) & segment.mask;
+                long stored = segment.keys[slot];
+                if (stored == key) {
+                    if (Integer.compareUnsigned(seconds, segment.seconds[slot]) >= 0) {
+                        segment.store(slot, key, coordinates, seconds, channel);
+                    }
+                    return;
+                }
+                if (stored == 0) {
+                    target = slot;
+                    break;
+                }
+                if (oldest < 0 || Integer.compareUnsigned(segment.seconds[slot], segment.seconds[oldest]) < 0) {
+                    oldest = slot;
+                }
+            }
+            if (target < 0) {
+                target = oldest;
+                replaced.increment();
+            }
+            segment.store(target, key, coordinates, seconds, channel);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    long replaced() {
+        return replaced.sum();
+    }
+
+    long capacityBytes() {
+        return (long) segments.length * segments[0].keys.length * SLOT_BYTES;
+    }
+
+    private Segment segmentFor(long key) {
+        return segments[(int) (key >>> 40) & segmentMask];
+    }
+
+    private static final class Segment {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final int mask;
+        final long[] keys;
+        final int[] coordinates;
+        final int[] seconds;
+        final byte[] channels;
+
+        Segment(int slots) {
+            this.mask = slots - 1;
+            this.keys = new long[slots];
+            this.coordinates = new int[slots];
+            this.seconds = new int[slots];
+            this.channels = new byte[slots];
+        }
+
+        void store(int slot, long key, int coordinates, int seconds, byte channel) {
+            this.keys[slot] = key;
+            this.coordinates[slot] = coordinates;
+            this.seconds[slot] = seconds;
+            this.channels[slot] = channel;
+        }
+    }
+}
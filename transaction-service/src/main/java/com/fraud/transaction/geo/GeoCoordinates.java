@@ -0,0 +1,42 @@
+package com.fraud.transaction.geo;
+
+/**
+ * Latitude/longitude packed into one long (two float bit patterns), so lookups return a
+ * primitive instead of allocating a point object.
+ */
+public final class GeoCoordinates {
+
+    public static final long UNKNOWN = pack(Float.NaN, Float.NaN);
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private GeoCoordinates() {
+    }
+
+    public static long pack(float latitude, float longitude) {
+        return ((long) Float.floatToIntBits(latitude) << 32) | (Float.floatToIntBits(longitude) & 0xFFFFFFFFL);
+    }
+
+    public static float latitude(long packed) {
+        return Float.intBitsToFloat((int) (packed >>> 32));
+    }
+
+    public static float longitude(long packed) {
+        return Float.intBitsToFloat((int) packed);
+    }
+
+    public static boolean isKnown(long packed) {
+        return !Float.isNaN(latitude(packed));
+    }
+
+    /**
+     * Great-circle (haversine) distance in kilometres.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
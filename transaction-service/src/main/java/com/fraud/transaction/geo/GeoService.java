@@ -0,0 +1,220 @@
+package com.fraud.transaction.geo;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.util.Hashing;
+import com.fraud.transaction.util.Ipv4;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Impossible-travel detection: resolves where a transaction happened from offline geo tables and
+ * compares it with the card's previous located transaction.
+ *
+ * The tables ({@code ip-ranges.bin}, {@code locations.bin} in {@code transaction.geo.data-dir})
+ * are memory-mapped {@link GeoTable}s. When a file is missing it is built once from the bundled
+ * sample CSV ({@code classpath:geo/*.csv}); production data sets are built offline with
+ * {@link GeoTableWriter} and dropped into the directory before startup.
+ */
+@Service
+@Slf4j
+public class GeoService {
+
+    private static final String IP_RANGES_FILE = "ip-ranges.bin";
+    private static final String LOCATIONS_FILE = "locations.bin";
+    private static final ThreadLocal<int[]> PREVIOUS = ThreadLocal.withInitial(() -> new int[3]);
+
+    private final boolean enabled;
+    private final double minDistanceKm;
+    private final double maxPlausibleSpeedKmh;
+    private final long minIntervalSeconds;
+    private final GeoTable ipRanges;
+    private final GeoTable locations;
+    private final CardLastSeenIndex lastSeen;
+
+    private final Counter impossibleTravel;
+    private final Counter unlocated;
+
+    public GeoService(ResourceLoader resourceLoader,
+                      MeterRegistry meterRegistry,
+                      @Value("${transaction.geo.enabled}") boolean enabled,
+                      @Value("${transaction.geo.data-dir}") String dataDir,
+                      @Value("${transaction.geo.max-cards}") int maxCards,
+                      @Value("${transaction.geo.segments}") int segments,
+                      @Value("${transaction.geo.min-distance-km}") double minDistanceKm,
+                      @Value("${transaction.geo.min-interval-seconds}") long minIntervalSeconds,
+                      @Value("${transaction.geo.max-plausible-speed-kmh}") double maxPlausibleSpeedKmh) throws IOException {
+        this.enabled = enabled;
+        this.minDistanceKm = minDistanceKm;
+        this.minIntervalSeconds = Math.max(1, minIntervalSeconds);
+        this.maxPlausibleSpeedKmh = maxPlausibleSpeedKmh;
+        if (!enabled) {
+            this.ipRanges = null;
+            this.locations = null;
+            this.lastSeen = null;
+        } else {
+            Path directory = Path.of(dataDir);
+            this.ipRanges = openOrBuild(resourceLoader, directory.resolve(IP_RANGES_FILE), GeoTable.Kind.IP_RANGE, "classpath:geo/ip-ranges.csv");
+            this.locations = openOrBuild(resourceLoader, directory.resolve(LOCATIONS_FILE), GeoTable.Kind.LOCATION, "classpath:geo/locations.csv");
+            this.lastSeen = new CardLastSeenIndex(segments, maxCards);
+            FunctionCounter.builder("transaction.geo.last.seen.replaced", lastSeen, CardLastSeenIndex::replaced)
+                    .description("Cards dropped from the last-seen index to make room")
+                    .register(meterRegistry);
+            log.info("Geo tables: {} IP ranges, {} locations; last-seen index {} KB",
+                    ipRanges.size(), locations.size(), lastSeen.capacityBytes() >> 10);
+        }
+        this.impossibleTravel = Counter.builder("transaction.geo.impossible.travel")
+                .description("Transactions implying travel faster than transaction.geo.max-plausible-speed-kmh")
+                .register(meterRegistry);
+        this.unlocated = Counter.builder("transaction.geo.unlocated")
+                .description("Transactions whose location and IP could not be resolved")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Coordinates of the transaction: the location string if known, else the IPv4 address.
+     */
+    public long locate(String location, String ipAddress) {
+        if (!enabled) {
+            return GeoCoordinates.UNKNOWN;
+        }
+        if (StringUtils.hasText(location)) {
+            long byName = locations.locateName(location);
+            if (GeoCoordinates.isKnown(byName)) {
+                return byName;
+            }
+        }
+        if (StringUtils.hasText(ipAddress)) {
+            long address = Ipv4.parse(ipAddress.trim());
+            if (address >= 0) {
+                return ipRanges.locateIp((int) address);
+            }
+        }
+        return GeoCoordinates.UNKNOWN;
+    }
+
+    /**
+     * Compares the transaction with the card's previous located transaction, without recording it.
+     *
+     * @param pending scored transactions not committed yet, oldest first; the card's latest located
+     *                one among them counts as its previous sighting
+     * @param out     receives [0] distance in km and [1] implied speed in km/h (0 below
+     *                {@code min-distance-km}, which absorbs geolocation imprecision)
+     * @return false when there is nothing to compare (unknown location or first sighting)
+     */
+    boolean assessTravel(Transaction transaction, List<Transaction> pending, double[] out) {
+        if (!enabled || !StringUtils.hasText(transaction.getCardNumberMasked()) || transaction.getTransactionTime() == null) {
+            return false;
+        }
+        long here = locate(transaction.getLocation(), transaction.getIpAddress());
+        if (!GeoCoordinates.isKnown(here)) {
+            unlocated.increment();
+            return false;
+        }
+        long epochSecond = transaction.getTransactionTime().toEpochSecond(ZoneOffset.UTC);
+
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            Transaction earlier = pending.get(i);
+            if (!transaction.getCardNumberMasked().equals(earlier.getCardNumberMasked())
+                    || earlier.getTransactionTime() == null) {
+                continue;
+            }
+            long there = locate(earlier.getLocation(), earlier.getIpAddress());
+            if (GeoCoordinates.isKnown(there)) {
+                travel(GeoCoordinates.latitude(there), GeoCoordinates.longitude(there),
+                        earlier.getTransactionTime().toEpochSecond(ZoneOffset.UTC), here, epochSecond, out);
+                return true;
+            }
+        }
+
+        int[] previous = PREVIOUS.get();
+        if (!lastSeen.find(Hashing.hash64(transaction.getCardNumberMasked()), previous)) {
+            return false;
+        }
+        travel(CardLastSeenIndex.latitude(previous[0]), CardLastSeenIndex.longitude(previous[0]),
+                CardLastSeenIndex.toEpochSecond(previous[1]), here, epochSecond, out);
+        return true;
+    }
+
+    /**
+     * Records a committed transaction as the card's last sighting, if it can be located.
+     */
+    void recordSighting(Transaction transaction) {
+        if (!enabled || !StringUtils.hasText(transaction.getCardNumberMasked()) || transaction.getTransactionTime() == null) {
+            return;
+        }
+        long here = locate(transaction.getLocation(), transaction.getIpAddress());
+        if (!GeoCoordinates.isKnown(here)) {
+            return;
+        }
+        lastSeen.record(Hashing.hash64(transaction.getCardNumberMasked()),
+                CardLastSeenIndex.quantise(GeoCoordinates.latitude(here), GeoCoordinates.longitude(here)),
+                CardLastSeenIndex.toStoredSeconds(transaction.getTransactionTime().toEpochSecond(ZoneOffset.UTC)),
+                channelCode(transaction.getChannel()));
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private void travel(double fromLatitude, double fromLongitude, long fromEpochSecond, long here, long epochSecond,
+                        double[] out) {
+        double distanceKm = GeoCoordinates.distanceKm(fromLatitude, fromLongitude,
+                GeoCoordinates.latitude(here), GeoCoordinates.longitude(here));
+        long elapsedSeconds = Math.max(minIntervalSeconds, Math.abs(epochSecond - fromEpochSecond));
+        double speedKmh = distanceKm < minDistanceKm ? 0.0 : distanceKm / (elapsedSeconds / 3600.0);
+        if (speedKmh > maxPlausibleSpeedKmh) {
+            impossibleTravel.increment();
+        }
+        out[0] = distanceKm;
+        out[1] = speedKmh;
+    }
+
+    private static byte channelCode(String channel) {
+        if (channel == null) {
+            return 0;
+        }
+        switch (channel.toUpperCase(Locale.ROOT)) {
+            case "POS":
+                return 1;
+            case "ONLINE":
+                return 2;
+            case "MOBILE":
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    private static GeoTable openOrBuild(ResourceLoader resourceLoader, Path file, GeoTable.Kind kind,
+                                        String sampleLocation) throws IOException {
+        if (!Files.exists(file)) {
+            Resource sample = resourceLoader.getResource(sampleLocation);
+            try (Reader csv = new InputStreamReader(sample.getInputStream(), StandardCharsets.UTF_8)) {
+                int records = kind == GeoTable.Kind.IP_RANGE
+                        ? GeoTableWriter.writeIpRanges(csv, file)
+                        : GeoTableWriter.writeLocations(csv, file);
+                log.info("Built {} from {} ({} records)", file, sampleLocation, records);
+            }
+        }
+        return GeoTable.open(file, kind);
+    }
+}
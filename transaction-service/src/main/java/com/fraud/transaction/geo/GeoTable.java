@@ -0,0 +1,167 @@
+package com.fraud.transaction.geo;
+
+import com.fraud.transaction.util.Hashing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only, memory-mapped lookup table of fixed 16-byte records sorted by key, searched with
+ * binary search. Two kinds share the format:
+ * <pre>
+ *   header  int MAGIC, int VERSION, int kind, int record count
+ *   IP_RANGE  records: int first address, int last address (unsigned IPv4), float lat, float lon
+ *   LOCATION  records: long name hash (see {@link #locationHash}), float lat, float lon
+ * </pre>
+ * The file is mapped, not read, so the table costs page cache rather than heap, and lookups
+ * use absolute reads only, which makes a shared instance safe for concurrent readers.
+ * Files are produced by {@link GeoTableWriter}.
+ */
+public final class GeoTable {
+
+    static final int MAGIC = 0x47454F31; // "GEO1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+
+    public enum Kind {
+        IP_RANGE,
+        LOCATION
+    }
+
+    private final Kind kind;
+    private final MappedByteBuffer buffer;
+    private final int size;
+
+    private GeoTable(Kind kind, MappedByteBuffer buffer, int size) {
+        this.kind = kind;
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    public static GeoTable open(Path file, Kind expected) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException(file + " is not a version " + VERSION + " geo table");
+            }
+            int kind = buffer.getInt(8);
+            int size = buffer.getInt(12);
+            if (kind != expected.ordinal()) {
+                throw new IOException(file + " holds " + Kind.values()[kind] + " records, expected " + expected);
+            }
+            if (channel.size() != HEADER_BYTES + (long) size * RECORD_BYTES) {
+                throw new IOException(file + " is truncated");
+            }
+            return new GeoTable(expected, buffer, size);
+        }
+    }
+
+    /**
+     * Coordinates of the range containing the IPv4 address, or {@link GeoCoordinates#UNKNOWN}.
+     */
+    public long locateIp(int address) {
+        requireKind(Kind.IP_RANGE);
+        int low = 0;
+        int high = size - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Integer.compareUnsigned(buffer.getInt(offset(mid)), address) <= 0) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (candidate < 0 || Integer.compareUnsigned(address, buffer.getInt(offset(candidate) + 4)) > 0) {
+            return GeoCoordinates.UNKNOWN;
+        }
+        return GeoCoordinates.pack(buffer.getFloat(offset(candidate) + 8), buffer.getFloat(offset(candidate) + 12));
+    }
+
+    /**
+     * Coordinates for a location string, or {@link GeoCoordinates#UNKNOWN}. Matching ignores
+     * case and surrounding blanks; "City, Country" falls back to "City".
+     */
+    public long locateName(String location) {
+        requireKind(Kind.LOCATION);
+        int start = 0;
+        int end = location.length();
+        while (start < end && location.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && location.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return GeoCoordinates.UNKNOWN;
+        }
+        long found = locateHash(Hashing.hash64IgnoreCase(location, start, end));
+        if (GeoCoordinates.isKnown(found)) {
+            return found;
+        }
+        int comma = location.indexOf(',', start);
+        if (comma > start && comma < end) {
+            int cityEnd = comma;
+            while (cityEnd > start && location.charAt(cityEnd - 1) <= ' ') {
+                cityEnd--;
+            }
+            return locateHash(Hashing.hash64IgnoreCase(location, start, cityEnd));
+        }
+        return GeoCoordinates.UNKNOWN;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Key of a location name as stored in LOCATION tables.
+     */
+    static long locationHash(String name) {
+        String trimmed = name.trim();
+        return Hashing.hash64IgnoreCase(trimmed, 0, trimmed.length());
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private long locateHash(long hash) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = buffer.getLong(offset(mid));
+            if (key < hash) {
+                low = mid + 1;
+            } else if (key > hash) {
+                high = mid - 1;
+            } else {
+                return GeoCoordinates.pack(buffer.getFloat(offset(mid) + 8), buffer.getFloat(offset(mid) + 12));
+            }
+        }
+        return GeoCoordinates.UNKNOWN;
+    }
+
+    private static int offset(int record) {
+        return HEADER_BYTES + record * RECORD_BYTES;
+    }
+
+    private void requireKind(Kind required) {
+        if (kind != required) {
+            throw new IllegalStateException("Not a " + required + " table");
+        }
+    }
+
+    static ByteBuffer header(Kind kind, int size) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(kind.ordinal()).putInt(size).flip();
+        return header;
+    }
+}
@@ -0,0 +1,137 @@
+package com.fraud.transaction.geo;
+
+import com.fraud.transaction.util.AtomicFiles;
+import com.fraud.transaction.util.Ipv4;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Builds {@link GeoTable} files from CSV. Used at startup for the bundled sample data and as an
+ * offline tool for real data sets:
+ * <pre>
+ *   java -cp transaction-service.jar -Dloader.main=com.fraud.transaction.geo.GeoTableWriter \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher ip-ranges ranges.csv ip-ranges.bin
+ * </pre>
+ * CSV input (header line and lines starting with '#' are skipped):
+ * - ip-ranges: {@code first_ip,last_ip,latitude,longitude} (IPv4; overlapping ranges are rejected)
+ * - locations: {@code name,latitude,longitude} (the name may itself contain commas)
+ */
+public final class GeoTableWriter {
+
+    private GeoTableWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || !(args[0].equals("ip-ranges") || args[0].equals("locations"))) {
+            System.err.println("usage: GeoTableWriter ip-ranges|locations <input.csv> <output.bin>");
+            System.exit(2);
+        }
+        try (Reader csv = Files.newBufferedReader(Path.of(args[1]), StandardCharsets.UTF_8)) {
+            int records = args[0].equals("ip-ranges")
+                    ? writeIpRanges(csv, Path.of(args[2]))
+                    : writeLocations(csv, Path.of(args[2]));
+            System.out.println("Wrote " + records + " records to " + args[2]);
+        }
+    }
+
+    public static int writeIpRanges(Reader csv, Path output) throws IOException {
+        List<double[]> rows = new ArrayList<>();
+        for (String[] fields : parse(csv, 4)) {
+            long first = Ipv4.parse(fields[0].trim());
+            long last = Ipv4.parse(fields[1].trim());
+            if (first < 0 || last < 0 || first > last) {
+                throw new IllegalArgumentException("Invalid IPv4 range: " + fields[0] + " - " + fields[1]);
+            }
+            rows.add(new double[]{first, last, coordinate(fields[2], 90), coordinate(fields[3], 180)});
+        }
+        rows.sort(Comparator.comparingDouble(row -> row[0]));
+        for (int i = 1; i < rows.size(); i++) {
+            if (rows.get(i)[0] <= rows.get(i - 1)[1]) {
+                throw new IllegalArgumentException("Overlapping IPv4 ranges at row " + i);
+            }
+        }
+
+        ByteBuffer records = records(rows.size());
+        for (double[] row : rows) {
+            records.putInt((int) (long) row[0]).putInt((int) (long) row[1]).putFloat((float) row[2]).putFloat((float) row[3]);
+        }
+        write(output, GeoTable.Kind.IP_RANGE, rows.size(), records);
+        return rows.size();
+    }
+
+    public static int writeLocations(Reader csv, Path output) throws IOException {
+        List<long[]> rows = new ArrayList<>();
+        for (String[] fields : parse(csv, 3)) {
+            float latitude = (float) coordinate(fields[fields.length - 2], 90);
+            float longitude = (float) coordinate(fields[fields.length - 1], 180);
+            String name = String.join(",", Arrays.copyOf(fields, fields.length - 2));
+            rows.add(new long[]{GeoTable.locationHash(name), GeoCoordinates.pack(latitude, longitude)});
+        }
+        rows.sort(Comparator.comparingLong(row -> row[0]));
+
+        ByteBuffer records = records(rows.size());
+        long previous = 0;
+        int written = 0;
+        for (long[] row : rows) {
+            if (written > 0 && row[0] == previous) {
+                continue; // same name listed twice, first one wins
+            }
+            records.putLong(row[0]).putFloat(GeoCoordinates.latitude(row[1])).putFloat(GeoCoordinates.longitude(row[1]));
+            previous = row[0];
+            written++;
+        }
+        write(output, GeoTable.Kind.LOCATION, written, records);
+        return written;
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private static List<String[]> parse(Reader csv, int minFields) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        BufferedReader reader = csv instanceof BufferedReader buffered ? buffered : new BufferedReader(csv);
+        boolean header = true;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            if (header) {
+                header = false;
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length < minFields) {
+                throw new IllegalArgumentException("Expected at least " + minFields + " fields: " + line);
+            }
+            rows.add(fields);
+        }
+        return rows;
+    }
+
+    private static double coordinate(String value, double limit) {
+        double parsed = Double.parseDouble(value.trim());
+        if (Math.abs(parsed) > limit) {
+            throw new IllegalArgumentException("Coordinate out of range: " + value);
+        }
+        return parsed;
+    }
+
+    private static ByteBuffer records(int count) {
+        return ByteBuffer.allocate(count * GeoTable.RECORD_BYTES).order(ByteOrder.BIG_ENDIAN);
+    }
+
+    private static void write(Path output, GeoTable.Kind kind, int count, ByteBuffer records) throws IOException {
+        records.limit(count * GeoTable.RECORD_BYTES).position(0);
+        AtomicFiles.write(output, GeoTable.header(kind, count), records);
+    }
+}
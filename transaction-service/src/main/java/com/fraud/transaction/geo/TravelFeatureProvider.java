@@ -0,0 +1,56 @@
+package com.fraud.transaction.geo;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.scoring.Feature;
+import com.fraud.transaction.scoring.FeatureProvider;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Distance from, and implied speed since, the card's previous located transaction. Committed
+ * transactions become the card's last sighting; within a batch, so does the card's latest pending
+ * located transaction.
+ */
+@Component
+@Order(30)
+public class TravelFeatureProvider implements FeatureProvider {
+
+    private static final ThreadLocal<double[]> OUT = ThreadLocal.withInitial(() -> new double[2]);
+
+    private final GeoService geoService;
+
+    public TravelFeatureProvider(GeoService geoService) {
+        this.geoService = geoService;
+    }
+
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public void contribute(Transaction transaction, double[] features) {
+        contribute(transaction, List.of(), features);
+    }
+
+    @Override
+    public void contribute(Transaction transaction, List<Transaction> pending, double[] features) {
+        if (!geoService.isEnabled()) {
+            return;
+        }
+        double[] out = OUT.get();
+        if (geoService.assessTravel(transaction, pending, out)) {
+            features[Feature.TRAVEL_DISTANCE_KM.ordinal()] = out[0];
+            features[Feature.TRAVEL_SPEED_KMH.ordinal()] = out[1];
+        }
+    }
+
+    @Override
+    public void observe(Transaction transaction) {
+        if (geoService.isEnabled()) {
+            geoService.recordSighting(transaction);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.fraud.transaction.graph;
+
+import com.fraud.transaction.util.Hashing;
+import com.fraud.transaction.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Incremental graph of cards, devices and IPs that appeared in the same transaction, kept as
+ * connected components (union-find).
+ *
+ * Entity values are interned to dense int ids; all per-node state lives in primitive arrays
+ * sized up front. Union by size with path halving keeps {@link #link} and {@link #find} near
+ * O(1). Every component also threads its members on a circular list ({@code next}): splicing two
+ * circles is a swap of two pointers, so membership is maintained in O(1) per union and a
+ * component can be listed without scanning. Roots carry the component size and card count.
+ *
+ * A device or IP that already joined {@code maxMergesPerHub} components (a carrier NAT, a shared
+ * kiosk) stops merging, so one hub cannot collapse unrelated customers into a single ring.
+ * All operations run under one lock; each holds it for a few array accesses.
+ */
+final class EntityLinkGraph {
+
+    private static final int NONE = -1;
+    private static final EntityType[] TYPES = EntityType.values();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int capacity;
+    private final int maxMergesPerHub;
+    private final LongIntHashMap ids;
+    private final int[] parent;
+    private final int[] size;
+    private final int[] cards;
+    private final int[] next;
+    private final int[] merges;
+    private final byte[] types;
+    private final String[] values;
+    private int nodes;
+
+    EntityLinkGraph(int capacity, int maxMergesPerHub) {
+        this.capacity = capacity;
+        this.maxMergesPerHub = maxMergesPerHub;
+        this.ids = new LongIntHashMap(capacity, NONE);
+        this.parent = new int[capacity];
+        this.size = new int[capacity];
+        this.cards = new int[capacity];
+        this.next = new int[capacity];
+        this.merges = new int[capacity];
+        this.types = new byte[capacity];
+        this.values = new String[capacity];
+    }
+
+    /**
+     * Adds the entities (null for absent ones) and links each device/IP to the card.
+     *
+     * @param out receives [0] size and [1] card count of the card's component
+     * @return false when the card is absent or the graph is full
+     */
+    boolean link(String card, String device, String ip, int[] out) {
+        lock.lock();
+        try {
+            int cardId = intern(EntityType.CARD, card);
+            if (cardId == NONE) {
+                return false;
+            }
+            union(cardId, intern(EntityType.DEVICE, device));
+            union(cardId, intern(EntityType.IP, ip));
+            int root = find(cardId);
+            out[0] = size[root];
+            out[1] = cards[root];
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Size and card count the card's component would have after {@link #link} of these entities,
+     * without adding or linking anything. Devices and IPs that reached {@code maxMergesPerHub}
+     * are not counted, as {@link #link} would not merge them.
+     *
+     * @param out receives [0] size and [1] card count
+     * @return false when the card is absent, or unknown and the graph is full
+     */
+    boolean preview(String card, String device, String ip, int[] out) {
+        if (card == null || card.isBlank()) {
+            return false;
+        }
+        lock.lock();
+        try {
+            int cardId = ids.get(key(EntityType.CARD, card));
+            int added = 0;
+            int cardRoot = NONE;
+            if (cardId == NONE) {
+                if (nodes == capacity) {
+                    return false;
+                }
+                added++;
+                out[0] = 1;
+                out[1] = 1;
+            } else {
+                cardRoot = find(cardId);
+                out[0] = size[cardRoot];
+                out[1] = cards[cardRoot];
+            }
+            int deviceRoot = NONE;
+            int deviceId = device == null || device.isBlank() ? NONE : ids.get(key(EntityType.DEVICE, device));
+            if (deviceId != NONE) {
+                deviceRoot = find(deviceId);
+                if (deviceRoot != cardRoot && merges[deviceId] < maxMergesPerHub) {
+                    out[0] += size[deviceRoot];
+                    out[1] += cards[deviceRoot];
+                } else {
+                    deviceRoot = NONE;
+                }
+            } else if (device != null && !device.isBlank() && nodes + added < capacity) {
+                added++;
+                out[0]++;
+            }
+            int ipId = ip == null || ip.isBlank() ? NONE : ids.get(key(EntityType.IP, ip));
+            if (ipId != NONE) {
+                int ipRoot = find(ipId);
+                if (ipRoot != cardRoot && ipRoot != deviceRoot && merges[ipId] < maxMergesPerHub) {
+                    out[0] += size[ipRoot];
+                    out[1] += cards[ipRoot];
+                }
+            } else if (ip != null && !ip.isBlank() && nodes + added < capacity) {
+                out[0]++;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@link #preview} with the links of pending (scored, not yet committed) transactions applied
+     * first, without adding or linking anything. Each entry of {@code pending} is a
+     * {card, device, ip} triple as passed to {@link #link}. Components are merged in a scratch
+     * union-find over the roots the entities have now (and the entities not in the graph yet),
+     * with the same hub cap as {@link #link}; merges made by the pending links themselves do not
+     * count towards a hub's cap.
+     *
+     * @param out receives [0] size and [1] card count
+     * @return false when the card is absent, or unknown and the graph is full
+     */
+    boolean preview(String card, String device, String ip, List<String[]> pending, int[] out) {
+        if (pending.isEmpty()) {
+            return preview(card, device, ip, out);
+        }
+        if (card == null || card.isBlank()) {
+            return false;
+        }
+        lock.lock();
+        try {
+            Overlay overlay = new Overlay();
+            for (String[] link : pending) {
+                overlayLink(overlay, link[0], link[1], link[2]);
+            }
+            int root = overlayLink(overlay, card, device, ip);
+            if (root == NONE) {
+                return false;
+            }
+            out[0] = overlay.size.get(root);
+            out[1] = overlay.cards.get(root);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Visits the members of the component containing the entity, at most {@code limit} of them.
+     *
+     * @param out receives [0] size and [1] card count of the component, both 0 if the entity is unknown
+     * @return the component size, or 0 if the entity is unknown
+     */
+    int component(EntityType type, String value, int limit, Consumer<Member> visitor, int[] out) {
+        lock.lock();
+        try {
+            int id = ids.get(key(type, value));
+            if (id == NONE) {
+                out[0] = 0;
+                out[1] = 0;
+                return 0;
+            }
+            int visited = 0;
+            int member = id;
+            do {
+                if (visited++ == limit) {
+                    break;
+                }
+                visitor.accept(new Member(TYPES[types[member]], values[member]));
+                member = next[member];
+            } while (member != id);
+            int root = find(id);
+            out[0] = size[root];
+            out[1] = cards[root];
+            return out[0];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int cardCount(EntityType type, String value) {
+        lock.lock();
+        try {
+            int id = ids.get(key(type, value));
+            return id == NONE ? 0 : cards[find(id)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int nodes() {
+        return nodes;
+    }
+
+    boolean isFull() {
+        return nodes == capacity;
+    }
+
+    void clear() {
+        lock.lock();
+        try {
+            ids.clear();
+            Arrays.fill(values, 0, nodes, null);
+            nodes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    record Member(EntityType type, String value) {
+    }
+
+    /** Scratch union-find of {@link #preview(String, String, String, List, int[])}. */
+    private static final class Overlay {
+
+        final Map<Integer, Integer> roots = new HashMap<>();
+        final Map<Long, Integer> added = new HashMap<>();
+        final List<Integer> parent = new ArrayList<>();
+        final List<Integer> size = new ArrayList<>();
+        final List<Integer> cards = new ArrayList<>();
+
+        /** Node for a graph root (or a new one when {@code root} is NONE) of the given weight. */
+        int node(int root, int nodeSize, int nodeCards) {
+            if (root != NONE) {
+                Integer existing = roots.get(root);
+                if (existing != null) {
+                    return existing;
+                }
+            }
+            int node = parent.size();
+            parent.add(node);
+            size.add(nodeSize);
+            cards.add(nodeCards);
+            if (root != NONE) {
+                roots.put(root, node);
+            }
+            return node;
+        }
+
+        int find(int node) {
+            while (parent.get(node) != node) {
+                parent.set(node, parent.get(parent.get(node)));
+                node = parent.get(node);
+            }
+            return node;
+        }
+
+        void union(int a, int b) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return;
+            }
+            parent.set(b, a);
+            size.set(a, size.get(a) + size.get(b));
+            cards.set(a, cards.get(a) + cards.get(b));
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private int intern(EntityType type, String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        long key = key(type, value);
+        int id = ids.get(key);
+        if (id != NONE || nodes == capacity) {
+            return id;
+        }
+        id = nodes++;
+        ids.put(key, id);
+        parent[id] = id;
+        size[id] = 1;
+        cards[id] = type == EntityType.CARD ? 1 : 0;
+        next[id] = id;
+        merges[id] = 0;
+        types[id] = (byte) type.ordinal();
+        values[id] = value;
+        return id;
+    }
+
+    private int find(int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Merges the card's component with the entity's. {@code entity} is a device or IP.
+     */
+    private void union(int card, int entity) {
+        if (entity == NONE) {
+            return;
+        }
+        int a = find(card);
+        int b = find(entity);
+        if (a == b) {
+            return;
+        }
+        if (merges[entity] >= maxMergesPerHub) {
+            return;
+        }
+        merges[entity]++;
+        if (size[a] < size[b]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        parent[b] = a;
+        size[a] += size[b];
+        cards[a] += cards[b];
+        int afterA = next[a];
+        next[a] = next[b];
+        next[b] = afterA;
+    }
+
+    /**
+     * Links card, device and IP in the overlay as {@link #link} would in the graph. Caller holds the lock.
+     *
+     * @return the card's overlay root, or NONE when the card is absent or could not be added
+     */
+    private int overlayLink(Overlay overlay, String card, String device, String ip) {
+        int cardNode = overlayNode(overlay, EntityType.CARD, card);
+        if (cardNode == NONE) {
+            return NONE;
+        }
+        overlayUnion(overlay, cardNode, EntityType.DEVICE, device);
+        overlayUnion(overlay, cardNode, EntityType.IP, ip);
+        return overlay.find(cardNode);
+    }
+
+    private void overlayUnion(Overlay overlay, int cardNode, EntityType type, String value) {
+        int entityNode = overlayNode(overlay, type, value);
+        if (entityNode == NONE) {
+            return;
+        }
+        int id = ids.get(key(type, value));
+        if (id != NONE && merges[id] >= maxMergesPerHub) {
+            return;
+        }
+        overlay.union(cardNode, entityNode);
+    }
+
+    /**
+     * Overlay node of an entity: one per current graph root, so that entities already connected
+     * share it, and one per entity not in the graph yet while there is room for it.
+     */
+    private int overlayNode(Overlay overlay, EntityType type, String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        long key = key(type, value);
+        int id = ids.get(key);
+        if (id != NONE) {
+            int root = find(id);
+            return overlay.node(root, size[root], cards[root]);
+        }
+        Integer added = overlay.added.get(key);
+        if (added != null) {
+            return added;
+        }
+        if (nodes + overlay.added.size() >= capacity) {
+            return NONE;
+        }
+        int node = overlay.node(NONE, 1, type == EntityType.CARD ? 1 : 0);
+        overlay.added.put(key, node);
+        return node;
+    }
+
+    private static long key(EntityType type, String value) {
+        return Hashing.mix64(Hashing.hash64(value) + type.ordinal());
+    }
+}
@@ -0,0 +1,25 @@
+package com.fraud.transaction.graph;
+
+import com.fraud.transaction.entity.Transaction;
+
+import java.util.function.Function;
+
+/**
+ * Node types of the entity link graph.
+ */
+public enum EntityType {
+
+    CARD(Transaction::getCardNumberMasked),
+    DEVICE(Transaction::getDeviceId),
+    IP(Transaction::getIpAddress);
+
+    private final Function<Transaction, String> value;
+
+    EntityType(Function<Transaction, String> value) {
+        this.value = value;
+    }
+
+    String valueOf(Transaction transaction) {
+        return value.apply(transaction);
+    }
+}
@@ -0,0 +1,161 @@
+package com.fraud.transaction.graph;
+
+import com.fraud.transaction.dto.FraudRingDto;
+import com.fraud.transaction.entity.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fraud-ring signal: how many cards share devices/IPs with the current card, transitively.
+ *
+ * An {@link EntityLinkGraph} only grows, so each is bounded by {@code transaction.graph.max-nodes}
+ * (new entities are ignored once it is full) and links age out through two generations: every
+ * transaction is linked into both the active graph, which serves ring lookups, and a standby graph
+ * that started empty at the last reset. Every {@code transaction.graph.reset-interval-ms} the
+ * standby, already holding a full interval of links, becomes the active graph and the old active
+ * graph is cleared to become the next standby. The ring signal therefore always covers between one
+ * and two intervals of traffic and never drops back to empty. The graphs are per instance; they
+ * start empty on restart.
+ */
+@Service
+@Slf4j
+public class FraudRingService {
+
+    private static final ThreadLocal<int[]> LINKED = ThreadLocal.withInitial(() -> new int[2]);
+
+    private final boolean enabled;
+    private volatile Generations generations;
+    private final Counter graphFull;
+    private final Counter resets;
+
+    public FraudRingService(MeterRegistry meterRegistry,
+                            @Value("${transaction.graph.enabled}") boolean enabled,
+                            @Value("${transaction.graph.max-nodes}") int maxNodes,
+                            @Value("${transaction.graph.max-merges-per-hub}") int maxMergesPerHub) {
+        this.enabled = enabled;
+        int capacity = enabled ? maxNodes : 1;
+        this.generations = new Generations(new EntityLinkGraph(capacity, maxMergesPerHub),
+                new EntityLinkGraph(capacity, maxMergesPerHub));
+        this.graphFull = Counter.builder("transaction.graph.full")
+                .description("Transactions not linked because the graph reached transaction.graph.max-nodes")
+                .register(meterRegistry);
+        this.resets = Counter.builder("transaction.graph.resets")
+                .description("Scheduled rotations of the entity link graph generations")
+                .register(meterRegistry);
+        Gauge.builder("transaction.graph.nodes", this, service -> service.generations.active().nodes())
+                .description("Cards, devices and IPs in the entity link graph")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The ring the transaction's card would be in once the transaction is linked, without linking it.
+     *
+     * @param out receives [0] component size and [1] card count of the card's ring
+     */
+    boolean ring(Transaction transaction, int[] out) {
+        return enabled && generations.active().preview(transaction.getCardNumberMasked(), transaction.getDeviceId(),
+                transaction.getIpAddress(), out);
+    }
+
+    /**
+     * {@link #ring(Transaction, int[])} as if the {@code pending} transactions (scored, not yet
+     * committed) had been linked first.
+     */
+    boolean ring(Transaction transaction, List<Transaction> pending, int[] out) {
+        if (!enabled) {
+            return false;
+        }
+        if (pending.isEmpty()) {
+            return ring(transaction, out);
+        }
+        List<String[]> links = new ArrayList<>(pending.size());
+        for (Transaction earlier : pending) {
+            links.add(new String[]{earlier.getCardNumberMasked(), earlier.getDeviceId(), earlier.getIpAddress()});
+        }
+        return generations.active().preview(transaction.getCardNumberMasked(), transaction.getDeviceId(),
+                transaction.getIpAddress(), links, out);
+    }
+
+    /**
+     * Links the committed transaction's card, device and IP.
+     */
+    void link(Transaction transaction) {
+        if (!enabled) {
+            return;
+        }
+        Generations current = generations;
+        String card = transaction.getCardNumberMasked();
+        int[] linked = LINKED.get();
+        current.standby().link(card, transaction.getDeviceId(), transaction.getIpAddress(), linked);
+        if (!current.active().link(card, transaction.getDeviceId(), transaction.getIpAddress(), linked)
+                && current.active().isFull()) {
+            graphFull.increment();
+        }
+    }
+
+    /**
+     * The ring of a card, device or IP (tried in that order), with at most {@code limit} members.
+     */
+    public FraudRingDto findRing(String cardOrDevice, int limit) {
+        if (!StringUtils.hasText(cardOrDevice)) {
+            throw new IllegalArgumentException("cardOrDevice must not be null or blank");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        EntityLinkGraph graph = generations.active();
+        int[] ring = new int[2];
+        for (EntityType type : EntityType.values()) {
+            List<String> cards = new ArrayList<>();
+            List<String> devices = new ArrayList<>();
+            List<String> ips = new ArrayList<>();
+            int size = graph.component(type, cardOrDevice, limit, member -> {
+                switch (member.type()) {
+                    case CARD -> cards.add(member.value());
+                    case DEVICE -> devices.add(member.value());
+                    case IP -> ips.add(member.value());
+                }
+            }, ring);
+            if (size > 0) {
+                return new FraudRingDto(cardOrDevice, type.name(), size, ring[1], size > limit, cards, devices, ips);
+            }
+        }
+        throw new EntityNotFoundException("No card, device or IP seen with value: " + cardOrDevice);
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.graph.reset-interval-ms}",
+            initialDelayString = "${transaction.graph.reset-interval-ms}")
+    public void reset() {
+        if (!enabled) {
+            return;
+        }
+        Generations current = generations;
+        EntityLinkGraph retired = current.active();
+        int nodes = retired.nodes();
+        generations = new Generations(current.standby(), retired);
+        // a link() that read the previous generations may still land in the retired graph after
+        // this; it is a current link either way, so the new standby may keep it
+        retired.clear();
+        resets.increment();
+        log.info("Rotated entity link graph: serving {} nodes, dropped {} nodes",
+                current.standby().nodes(), nodes);
+    }
+
+    /** The graph serving lookups and the one filling up to replace it at the next reset. */
+    private record Generations(EntityLinkGraph active, EntityLinkGraph standby) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.fraud.transaction.graph;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.scoring.Feature;
+import com.fraud.transaction.scoring.FeatureProvider;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Exposes the size of the card's ring including this transaction's device and IP, and links
+ * committed transactions into the entity graph. Links of pending transactions of the same batch
+ * count towards the ring.
+ */
+@Component
+@Order(40)
+public class RingFeatureProvider implements FeatureProvider {
+
+    private static final ThreadLocal<int[]> OUT = ThreadLocal.withInitial(() -> new int[2]);
+
+    private final FraudRingService fraudRingService;
+
+    public RingFeatureProvider(FraudRingService fraudRingService) {
+        this.fraudRingService = fraudRingService;
+    }
+
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public void contribute(Transaction transaction, double[] features) {
+        contribute(transaction, List.of(), features);
+    }
+
+    @Override
+    public void contribute(Transaction transaction, List<Transaction> pending, double[] features) {
+        if (!fraudRingService.isEnabled()) {
+            return;
+        }
+        int[] out = OUT.get();
+        if (fraudRingService.ring(transaction, pending, out)) {
+            features[Feature.RING_SIZE.ordinal()] = out[0];
+            features[Feature.RING_CARDS.ordinal()] = out[1];
+        }
+    }
+
+    @Override
+    public void observe(Transaction transaction) {
+        if (fraudRingService.isEnabled()) {
+            fraudRingService.link(transaction);
+        }
+    }
+}
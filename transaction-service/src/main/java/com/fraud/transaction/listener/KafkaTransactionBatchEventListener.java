@@ -0,0 +1,99 @@
+package com.fraud.transaction.listener;
+
+import com.fraud.common.constants.AppConstants;
+import com.fraud.transaction.api.request.CreateTransactionRequest;
+import com.fraud.transaction.dto.BatchIngestResult;
+import com.fraud.transaction.service.TransactionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch variant of {@link KafkaTransactionEventListener}, enabled with
+ * {@code transaction.kafka.consumer.batch.enabled=true}. Each poll (up to
+ * {@code transaction.kafka.consumer.batch.max-poll-records} records) is persisted in one
+ * database transaction instead of one commit per record.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "transaction.kafka.consumer.batch.enabled", havingValue = "true")
+public class KafkaTransactionBatchEventListener {
+
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(KafkaTransactionBatchEventListener.class);
+
+    private final TransactionService transactionService;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final Counter deadLetters;
+
+    public KafkaTransactionBatchEventListener(TransactionService transactionService,
+                                              @Qualifier("deadLetterKafkaTemplate") KafkaOperations<String, Object> deadLetterKafkaTemplate,
+                                              MeterRegistry meterRegistry) {
+        this.transactionService = transactionService;
+        this.deadLetterRecoverer = new DeadLetterPublishingRecoverer(deadLetterKafkaTemplate,
+                (record, ex) -> new TopicPartition(AppConstants.CREATE_TRANSACTION_DLT_TOPIC, -1));
+        this.deadLetters = Counter.builder("transaction.kafka.dead.letters")
+                .description("create-transaction records routed to the dead-letter topic")
+                .tag("listener", "batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consumes a whole poll of create-transaction messages. Records that cannot be deserialized
+     * or are rejected by {@link TransactionService#createTransactions} are published to
+     * create-transaction-dlt with the failure cause in the {@code kafka_dlt-*} headers; they never
+     * cause the rest of the poll to be redelivered.
+     *
+     * @param records the records returned by a single poll
+     */
+    @KafkaListener(topics = AppConstants.CREATE_TRANSACTION_TOPIC, groupId = AppConstants.TRANSACTION_GROUP_ID,
+            containerFactory = "batchKafkaListenerContainerFactory",
+            concurrency = "${transaction.kafka.consumer.concurrency}",
+            properties = "max.poll.records=${transaction.kafka.consumer.batch.max-poll-records}")
+    public void createTransactions(List<ConsumerRecord<String, CreateTransactionRequest>> records) {
+        List<CreateTransactionRequest> requests = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, CreateTransactionRequest>> sources = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, CreateTransactionRequest> record : records) {
+            if (record.value() == null) {
+                DeserializationException deserializationFailure = SerializationUtils.getExceptionFromHeader(
+                        record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+                if (deserializationFailure != null) {
+                    deadLetter(record, deserializationFailure);
+                    continue;
+                }
+            }
+            requests.add(record.value());
+            sources.add(record);
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        BatchIngestResult result = transactionService.createTransactions(requests);
+        for (BatchIngestResult.RejectedRecord rejected : result.getRejected()) {
+            deadLetter(sources.get((int) rejected.getIndex()), new IllegalArgumentException(rejected.getReason()));
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private void deadLetter(ConsumerRecord<String, CreateTransactionRequest> record, Exception cause) {
+        log.warn("Dead-lettering create-transaction record {}-{}@{}: {}",
+                record.topic(), record.partition(), record.offset(), cause.getMessage());
+        deadLetterRecoverer.accept(record, cause);
+        deadLetters.increment();
+    }
+}
@@ -3,29 +3,124 @@ package com.fraud.transaction.listener;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fraud.common.constants.AppConstants;
 import com.fraud.transaction.api.request.CreateTransactionRequest;
+import com.fraud.transaction.dedup.IdempotencyService;
 import com.fraud.transaction.service.TransactionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
 @Component
+@Slf4j
+@ConditionalOnProperty(name = "transaction.kafka.consumer.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class KafkaTransactionEventListener {
 
     @Autowired
     private ObjectMapper objectMapper;
 
     private final TransactionService transactionService;
+    private final Validator validator;
+    private final Counter deadLetters;
 
-    public KafkaTransactionEventListener(TransactionService transactionService) {
+    public KafkaTransactionEventListener(TransactionService transactionService, Validator validator,
+                                         MeterRegistry meterRegistry) {
         this.transactionService = transactionService;
+        this.validator = validator;
+        this.deadLetters = Counter.builder("transaction.kafka.dead.letters")
+                .description("create-transaction records routed to the dead-letter topic")
+                .tag("listener", "record")
+                .register(meterRegistry);
     }
 
     /**
-     * This is to consume only the latest messages
+     * This is to consume only the latest messages.
+     * A failing record is re-published to create-transaction-retry-N (exponential backoff) and
+     * finally to create-transaction-dlt, so it never blocks its partition. Validation and
+     * deserialization failures cannot succeed on retry and go straight to the DLT; everything
+     * else (e.g. fk_transactions_merchant while the merchant is still being created) is retried.
+     * A redelivered record whose idempotency key is already stored is a duplicate, not a failure:
+     * it is acknowledged and never retried.
      * @param createTransactionRequest
      */
-    @KafkaListener(topics = AppConstants.CREATE_TRANSACTION_TOPIC, groupId = AppConstants.TRANSACTION_GROUP_ID)
+    @RetryableTopic(
+            attempts = "${transaction.kafka.retry.attempts}",
+            backoff = @Backoff(delayExpression = "${transaction.kafka.retry.backoff.delay}",
+                    multiplierExpression = "${transaction.kafka.retry.backoff.multiplier}",
+                    maxDelayExpression = "${transaction.kafka.retry.backoff.max-delay}"),
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltTopicSuffix = "-dlt",
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            exclude = ConstraintViolationException.class,
+            kafkaTemplate = "deadLetterKafkaTemplate",
+            numPartitions = "${transaction.kafka.topic.partitions}",
+            replicationFactor = "${transaction.kafka.topic.replicas}")
+    @KafkaListener(topics = AppConstants.CREATE_TRANSACTION_TOPIC, groupId = AppConstants.TRANSACTION_GROUP_ID,
+            concurrency = "${transaction.kafka.consumer.concurrency}")
     public void createTransaction(CreateTransactionRequest createTransactionRequest) {
-        transactionService.createTransaction(createTransactionRequest);
+        Set<ConstraintViolation<CreateTransactionRequest>> violations = validator.validate(createTransactionRequest);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        try {
+            transactionService.createTransaction(createTransactionRequest);
+        } catch (DataIntegrityViolationException e) {
+            if (!IdempotencyService.isDuplicateKey(e)) {
+                throw e;
+            }
+            log.info("Skipping create-transaction record with already stored idempotencyKey={}",
+                    createTransactionRequest.getIdempotencyKey());
+        }
+    }
+
+    /**
+     * Terminal handler for create-transaction-dlt. The record stays on the topic; it is only
+     * logged and counted here and can be re-published with POST /api/transactions/dlt/replay.
+     */
+    @DltHandler
+    public void onDeadLetter(ConsumerRecord<String, Object> record) {
+        deadLetters.increment();
+        log.error("create-transaction record key={} dead-lettered from {}-{}@{}: {} ({})", record.key(),
+                header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC),
+                header(record, KafkaHeaders.DLT_ORIGINAL_PARTITION),
+                header(record, KafkaHeaders.DLT_ORIGINAL_OFFSET),
+                header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE),
+                header(record, KafkaHeaders.DLT_EXCEPTION_FQCN));
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        if (header == null) {
+            return null;
+        }
+        // original partition/offset are written as big-endian int/long, the rest as UTF-8
+        byte[] value = header.value();
+        if (KafkaHeaders.DLT_ORIGINAL_PARTITION.equals(name) && value.length == Integer.BYTES) {
+            return String.valueOf(ByteBuffer.wrap(value).getInt());
+        }
+        if (KafkaHeaders.DLT_ORIGINAL_OFFSET.equals(name) && value.length == Long.BYTES) {
+            return String.valueOf(ByteBuffer.wrap(value).getLong());
+        }
+        return new String(value, StandardCharsets.UTF_8);
     }
 }
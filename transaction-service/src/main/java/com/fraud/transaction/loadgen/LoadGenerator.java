@@ -0,0 +1,129 @@
+package com.fraud.transaction.loadgen;
+
+import com.fraud.transaction.producer.TransactionProducerPipeline;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic load mode, enabled with {@code transaction.loadgen.enabled=true} (replaces the
+ * static transactions.json scheduler). A single pacing thread streams records from a
+ * {@link SyntheticTransactionGenerator} into the {@link TransactionProducerPipeline} at
+ * {@code transaction.loadgen.target-tps}, and reports achieved vs target rate.
+ *
+ * When the pipeline applies backpressure the achieved rate drops below target; at most one
+ * second of backlog is caught up afterwards so that a stall does not end in a burst.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "transaction.loadgen.enabled", havingValue = "true")
+public class LoadGenerator implements SmartLifecycle {
+
+    private final TransactionProducerPipeline transactionProducerPipeline;
+    private final LoadGeneratorSettings settings;
+    private final double targetTps;
+    private final long reportIntervalNanos;
+
+    private final AtomicLong sent = new AtomicLong();
+    private volatile double achievedTps;
+    private volatile boolean running;
+    private Thread generatorThread;
+
+    public LoadGenerator(TransactionProducerPipeline transactionProducerPipeline,
+                         MeterRegistry meterRegistry,
+                         @Value("${transaction.loadgen.target-tps}") double targetTps,
+                         @Value("${transaction.loadgen.report-interval}") Duration reportInterval,
+                         @Value("${transaction.loadgen.merchants}") List<String> merchants,
+                         @Value("${transaction.loadgen.currency}") String currency,
+                         @Value("${transaction.loadgen.card-pool-size}") int cardPoolSize,
+                         @Value("${transaction.loadgen.device-pool-size}") int devicePoolSize,
+                         @Value("${transaction.loadgen.ip-pool-size}") int ipPoolSize,
+                         @Value("${transaction.loadgen.amount.median}") double amountMedian,
+                         @Value("${transaction.loadgen.amount.sigma}") double amountSigma,
+                         @Value("${transaction.loadgen.channels}") List<String> channels,
+                         @Value("${transaction.loadgen.channel-weights}") List<Double> channelWeights,
+                         @Value("${transaction.loadgen.fraud.burst-rate}") double burstRate,
+                         @Value("${transaction.loadgen.fraud.card-testing-rate}") double cardTestingRate,
+                         @Value("${transaction.loadgen.fraud.geo-jump-rate}") double geoJumpRate) {
+        if (targetTps <= 0) {
+            throw new IllegalArgumentException("transaction.loadgen.target-tps must be positive");
+        }
+        this.transactionProducerPipeline = transactionProducerPipeline;
+        this.targetTps = targetTps;
+        this.reportIntervalNanos = reportInterval.toNanos();
+        this.settings = new LoadGeneratorSettings(merchants, currency, cardPoolSize, devicePoolSize, ipPoolSize,
+                amountMedian, amountSigma, channels, channelWeights, burstRate, cardTestingRate, geoJumpRate);
+
+        Gauge.builder("transaction.loadgen.tps", () -> targetTps).tag("rate", "target").register(meterRegistry);
+        Gauge.builder("transaction.loadgen.tps", () -> achievedTps).tag("rate", "achieved").register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        generatorThread = new Thread(this::generate, "txn-loadgen");
+        generatorThread.setDaemon(true);
+        generatorThread.start();
+        log.info("Load generator started at target {} tps", targetTps);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (generatorThread != null) {
+            generatorThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void generate() {
+        SyntheticTransactionGenerator generator = new SyntheticTransactionGenerator(settings, System.nanoTime());
+        long startNanos = System.nanoTime();
+        long scheduled = 0;
+        long lastReportNanos = startNanos;
+        long lastReportCount = 0;
+        long maxBacklog = Math.max(1, (long) targetTps);
+
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                long due = (long) ((now - startNanos) / 1_000_000_000.0 * targetTps);
+                if (due - scheduled > maxBacklog) {
+                    scheduled = due - maxBacklog;
+                }
+                if (scheduled < due) {
+                    transactionProducerPipeline.submit(generator.next());
+                    sent.incrementAndGet();
+                    scheduled++;
+                } else {
+                    LockSupport.parkNanos(200_000);
+                }
+
+                if (now - lastReportNanos >= reportIntervalNanos) {
+                    long count = sent.get();
+                    achievedTps = (count - lastReportCount) * 1_000_000_000.0 / (now - lastReportNanos);
+                    log.info("Load generator: target {} tps, achieved {} tps, {} in flight, {} sent",
+                            targetTps, Math.round(achievedTps), transactionProducerPipeline.inFlight(), count);
+                    lastReportNanos = now;
+                    lastReportCount = count;
+                }
+            }
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Load generator stopped after {} records", sent.get());
+    }
+}
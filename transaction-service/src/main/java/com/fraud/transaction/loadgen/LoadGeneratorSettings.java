@@ -0,0 +1,30 @@
+package com.fraud.transaction.loadgen;
+
+import java.util.List;
+
+/**
+ * Distribution settings for {@link SyntheticTransactionGenerator}, bound from {@code transaction.loadgen.*}.
+ */
+public record LoadGeneratorSettings(
+        List<String> merchants,
+        String currency,
+        int cardPoolSize,
+        int devicePoolSize,
+        int ipPoolSize,
+        double amountMedian,
+        double amountSigma,
+        List<String> channels,
+        List<Double> channelWeights,
+        double burstRate,
+        double cardTestingRate,
+        double geoJumpRate) {
+
+    public LoadGeneratorSettings {
+        if (merchants.isEmpty() || channels.isEmpty() || channels.size() != channelWeights.size()) {
+            throw new IllegalArgumentException("loadgen needs merchants and one weight per channel");
+        }
+        if (cardPoolSize <= 0 || devicePoolSize <= 0 || ipPoolSize <= 0) {
+            throw new IllegalArgumentException("loadgen pool sizes must be positive");
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.fraud.transaction.loadgen;
+
+import com.fraud.transaction.api.request.CreateTransactionRequest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates an endless stream of production-like {@link CreateTransactionRequest}s, one per
+ * {@link #next()} call (nothing is materialized up-front).
+ *
+ * Normal traffic draws merchants, cards, devices, IPs, channels and log-normal amounts from the
+ * configured pools. Each card has a stable home device, IP and location. On top of that, fraud
+ * patterns are injected at configurable rates:
+ * - burst: one card fires a rapid run of transactions
+ * - card testing: many distinct cards make tiny purchases at one merchant
+ * - geo jump: a card transacts from a far-away location right after its home location
+ *
+ * Not thread-safe; intended to be driven by a single generator thread.
+ */
+public class SyntheticTransactionGenerator {
+
+    static final List<String> LOCATIONS = List.of(
+            "Mumbai", "New York", "Toronto", "London", "Paris", "Berlin", "Singapore", "Sydney");
+
+    private static final int BURST_LENGTH = 12;
+    private static final int CARD_TESTING_LENGTH = 25;
+
+    private final LoadGeneratorSettings settings;
+    private final SplittableRandom random;
+    private final String runId;
+    private final double[] channelCumulativeWeights;
+    private long sequence;
+
+    // Pattern state: the remaining records of the pattern currently being injected
+    private int burstRemaining;
+    private int burstCard;
+    private int cardTestingRemaining;
+    private String cardTestingMerchant;
+    private int geoJumpCard = -1;
+
+    public SyntheticTransactionGenerator(LoadGeneratorSettings settings, long seed) {
+        this.settings = settings;
+        this.random = new SplittableRandom(seed);
+        this.runId = Long.toString(seed & 0xffffffL, 36);
+        this.channelCumulativeWeights = new double[settings.channels().size()];
+        double total = 0;
+        for (int i = 0; i < channelCumulativeWeights.length; i++) {
+            total += settings.channelWeights().get(i);
+            channelCumulativeWeights[i] = total;
+        }
+        for (int i = 0; i < channelCumulativeWeights.length; i++) {
+            channelCumulativeWeights[i] /= total;
+        }
+    }
+
+    public CreateTransactionRequest next() {
+        sequence++;
+        if (burstRemaining > 0) {
+            burstRemaining--;
+            return normal(burstCard, randomMerchant());
+        }
+        if (cardTestingRemaining > 0) {
+            cardTestingRemaining--;
+            CreateTransactionRequest request = normal(random.nextInt(settings.cardPoolSize()), cardTestingMerchant);
+            request.setAmount(BigDecimal.valueOf(100 + random.nextInt(100), 2));
+            request.setChannel("Online");
+            return request;
+        }
+        if (geoJumpCard >= 0) {
+            CreateTransactionRequest request = normal(geoJumpCard, randomMerchant());
+            request.setLocation(farFrom(homeLocation(geoJumpCard)));
+            geoJumpCard = -1;
+            return request;
+        }
+
+        double dice = random.nextDouble();
+        if (dice < settings.burstRate()) {
+            burstCard = random.nextInt(settings.cardPoolSize());
+            burstRemaining = BURST_LENGTH - 1;
+            return normal(burstCard, randomMerchant());
+        }
+        dice -= settings.burstRate();
+        if (dice < settings.cardTestingRate()) {
+            cardTestingMerchant = randomMerchant();
+            cardTestingRemaining = CARD_TESTING_LENGTH;
+            return next();
+        }
+        dice -= settings.cardTestingRate();
+        if (dice < settings.geoJumpRate()) {
+            geoJumpCard = random.nextInt(settings.cardPoolSize());
+            return normal(geoJumpCard, randomMerchant());
+        }
+        return normal(random.nextInt(settings.cardPoolSize()), randomMerchant());
+    }
+
+    private CreateTransactionRequest normal(int card, String merchantId) {
+        return CreateTransactionRequest.builder()
+                .amount(logNormalAmount())
+                .currency(settings.currency())
+                .merchantId(merchantId)
+                .cardNumberMasked(maskedCard(card))
+                .cardType((card & 1) == 0 ? "DEBIT" : "CREDIT")
+                .transactionType("PURCHASE")
+                .responseCode("00")
+                .channel(randomChannel())
+                .ipAddress(homeIp(card))
+                .deviceId("DEV-" + Math.floorMod(card * 31, settings.devicePoolSize()))
+                .location(homeLocation(card))
+                .idempotencyKey("lg-" + runId + "-" + sequence)
+                .build();
+    }
+
+    private BigDecimal logNormalAmount() {
+        double gaussian = gaussian();
+        double amount = settings.amountMedian() * Math.exp(settings.amountSigma() * gaussian);
+        return BigDecimal.valueOf(Math.max(0.01, amount)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Box-Muller transform; SplittableRandom has no nextGaussian on Java 17.
+     */
+    private double gaussian() {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    private String randomMerchant() {
+        List<String> merchants = settings.merchants();
+        return merchants.get(random.nextInt(merchants.size()));
+    }
+
+    private String randomChannel() {
+        double dice = random.nextDouble();
+        for (int i = 0; i < channelCumulativeWeights.length; i++) {
+            if (dice < channelCumulativeWeights[i]) {
+                return settings.channels().get(i);
+            }
+        }
+        return settings.channels().get(channelCumulativeWeights.length - 1);
+    }
+
+    private static String maskedCard(int card) {
+        return "4" + pad(card / 10000 % 1000, 3) + "-****-****-" + pad(card % 10000, 4);
+    }
+
+    private String homeIp(int card) {
+        int host = Math.floorMod(card * 7919, settings.ipPoolSize());
+        return "10." + ((host >>> 16) & 0xff) + "." + ((host >>> 8) & 0xff) + "." + (host & 0xff);
+    }
+
+    private static String homeLocation(int card) {
+        return LOCATIONS.get(Math.floorMod(card, LOCATIONS.size()));
+    }
+
+    private String farFrom(String location) {
+        int home = LOCATIONS.indexOf(location);
+        return LOCATIONS.get((home + 1 + random.nextInt(LOCATIONS.size() - 1)) % LOCATIONS.size());
+    }
+
+    private static String pad(int value, int width) {
+        String digits = Integer.toString(value);
+        return "0".repeat(Math.max(0, width - digits.length())) + digits;
+    }
+}
@@ -29,6 +29,8 @@ public interface TransactionMapper {
     })
     Transaction fromCreateRequest(CreateTransactionRequest request);
 
+    List<Transaction> fromCreateRequests(List<CreateTransactionRequest> requests);
+
     // UpdateRequest -> Entity (in-place). Ignore nulls (configured at mapper level). Also avoid overwriting audit fields.
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mappings({
@@ -37,7 +39,8 @@ public interface TransactionMapper {
             @Mapping(target = "createdAt", ignore = true),
             @Mapping(target = "updatedAt", ignore = true),
             @Mapping(target = "flaggedAt", ignore = true),
-            @Mapping(target = "flaggedBy", ignore = true)
+            @Mapping(target = "flaggedBy", ignore = true),
+            @Mapping(target = "idempotencyKey", ignore = true)
     })
     void updateFromUpdateRequest(UpdateTransactionRequest request, @MappingTarget Transaction entity);
 }
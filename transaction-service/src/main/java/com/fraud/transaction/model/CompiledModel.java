@@ -0,0 +1,181 @@
+package com.fraud.transaction.model;
+
+import com.fraud.transaction.scoring.Feature;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, compiled form of a {@link ModelDefinition}.
+ *
+ * All trees are concatenated into two flat arrays: {@code nodes} holds {@link #NODE_INTS} ints
+ * per node (feature index into the scoring vector, left, right and missing-value child as
+ * absolute node numbers) and {@code splits} holds the threshold of a split or the value of a
+ * leaf. A node's ints share a cache line, so {@link #predict} is a tight loop with two array
+ * reads per level: no boxing, no maps, no allocation. Leaves store {@link #LEAF} as their feature.
+ */
+public final class CompiledModel {
+
+    private static final int LEAF = -1;
+    private static final int NODE_INTS = 4;
+
+    private final String version;
+    private final boolean logistic;
+    private final double baseScore;
+    private final int[] linearFeature;
+    private final double[] linearWeight;
+    private final int[] treeRoot;
+    private final int[] nodes;
+    private final double[] splits;
+
+    private CompiledModel(String version, boolean logistic, double baseScore, int linearTerms, int trees, int nodes) {
+        this.version = version;
+        this.logistic = logistic;
+        this.baseScore = baseScore;
+        this.linearFeature = new int[linearTerms];
+        this.linearWeight = new double[linearTerms];
+        this.treeRoot = new int[trees];
+        this.nodes = new int[nodes * NODE_INTS];
+        this.splits = new double[nodes];
+    }
+
+    /**
+     * Validates and flattens a model definition.
+     *
+     * @throws IllegalArgumentException if the definition is incomplete or a tree is malformed
+     */
+    static CompiledModel compile(ModelDefinition definition) {
+        Objects.requireNonNull(definition, "definition must not be null");
+        List<Feature> features = definition.features() == null ? List.of() : definition.features();
+        if (features.stream().anyMatch(Objects::isNull)) { // List.of(...).contains(null) throws
+            throw new IllegalArgumentException("Unknown feature in features");
+        }
+        double[] weights = definition.weights() == null ? new double[0] : definition.weights();
+        List<ModelDefinition.Tree> trees = definition.trees() == null ? List.of() : definition.trees();
+        if (weights.length != 0 && weights.length != features.size()) {
+            throw new IllegalArgumentException("weights must have one entry per feature");
+        }
+        if (weights.length == 0 && trees.isEmpty()) {
+            throw new IllegalArgumentException("A model needs weights, trees or both");
+        }
+        if (!Double.isFinite(definition.baseScore())) {
+            throw new IllegalArgumentException("baseScore must be finite");
+        }
+
+        int nodes = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            nodes += validate(trees.get(t), t, features.size());
+        }
+        CompiledModel model = new CompiledModel(definition.version(), definition.link() == ModelDefinition.Link.LOGISTIC,
+                definition.baseScore(), weights.length, trees.size(), nodes);
+        for (int i = 0; i < weights.length; i++) {
+            if (!Double.isFinite(weights[i])) {
+                throw new IllegalArgumentException("weights[" + i + "] must be finite");
+            }
+            model.linearFeature[i] = features.get(i).ordinal();
+            model.linearWeight[i] = weights[i];
+        }
+        int base = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            ModelDefinition.Tree tree = trees.get(t);
+            model.treeRoot[t] = base;
+            for (int n = 0; n < tree.feature().length; n++) {
+                int node = base + n;
+                int at = node * NODE_INTS;
+                if (tree.feature()[n] < 0) {
+                    model.nodes[at] = LEAF;
+                    model.splits[node] = tree.value()[n];
+                    continue;
+                }
+                boolean missingLeft = tree.missingLeft() != null && tree.missingLeft()[n];
+                model.nodes[at] = features.get(tree.feature()[n]).ordinal();
+                model.nodes[at + 1] = base + tree.left()[n];
+                model.nodes[at + 2] = base + tree.right()[n];
+                model.nodes[at + 3] = missingLeft ? base + tree.left()[n] : base + tree.right()[n];
+                model.splits[node] = tree.threshold()[n];
+            }
+            base += tree.feature().length;
+        }
+        return model;
+    }
+
+    /**
+     * Scores a feature vector indexed by {@link Feature#ordinal()}.
+     *
+     * @return a probability in [0, 1] for logistic models, else the raw score
+     */
+    public double predict(double[] features) {
+        double raw = baseScore;
+        for (int i = 0; i < linearFeature.length; i++) {
+            double value = features[linearFeature[i]];
+            if (value == value) { // NaN contributes nothing
+                raw += linearWeight[i] * value;
+            }
+        }
+        for (int root : treeRoot) {
+            int node = root;
+            int feature;
+            while ((feature = nodes[node * NODE_INTS]) != LEAF) {
+                double value = features[feature];
+                double threshold = splits[node];
+                // unknown features are rare, so that branch predicts well; the split compiles to a conditional move
+                int child = value != value ? 3 : 1 + (value >= threshold ? 1 : 0);
+                node = nodes[node * NODE_INTS + child];
+            }
+            raw += splits[node];
+        }
+        return logistic ? 1.0 / (1.0 + Math.exp(-raw)) : raw;
+    }
+
+    public String version() {
+        return version;
+    }
+
+    public int trees() {
+        return treeRoot.length;
+    }
+
+    public int nodes() {
+        return splits.length;
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    /**
+     * @return the node count of the tree
+     */
+    private static int validate(ModelDefinition.Tree tree, int index, int featureCount) {
+        String name = "Tree #" + index;
+        if (tree == null || tree.feature() == null || tree.feature().length == 0) {
+            throw new IllegalArgumentException(name + " has no nodes");
+        }
+        int nodes = tree.feature().length;
+        if (tree.threshold() == null || tree.threshold().length != nodes
+                || tree.left() == null || tree.left().length != nodes
+                || tree.right() == null || tree.right().length != nodes
+                || tree.value() == null || tree.value().length != nodes
+                || (tree.missingLeft() != null && tree.missingLeft().length != nodes)) {
+            throw new IllegalArgumentException(name + ": all node arrays must have the same length");
+        }
+        for (int n = 0; n < nodes; n++) {
+            int feature = tree.feature()[n];
+            if (feature < 0) {
+                if (!Double.isFinite(tree.value()[n])) {
+                    throw new IllegalArgumentException(name + " leaf " + n + " has a non-finite value");
+                }
+                continue;
+            }
+            if (feature >= featureCount) {
+                throw new IllegalArgumentException(name + " node " + n + " references feature " + feature);
+            }
+            // children after their parent: every walk terminates and visits each node at most once
+            if (tree.left()[n] <= n || tree.left()[n] >= nodes || tree.right()[n] <= n || tree.right()[n] >= nodes) {
+                throw new IllegalArgumentException(name + " node " + n + " has invalid children");
+            }
+            if (Double.isNaN(tree.threshold()[n])) {
+                throw new IllegalArgumentException(name + " node " + n + " has no threshold");
+            }
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,35 @@
+package com.fraud.transaction.model;
+
+import com.fraud.transaction.scoring.Feature;
+
+import java.util.List;
+
+/**
+ * JSON form of an offline-trained model (see {@code transaction.model.location}).
+ *
+ * The raw score is {@code baseScore + sum(weights[i] * features[i]) + sum(tree outputs)};
+ * a logistic regression only uses {@code weights}, a gradient-boosted ensemble only
+ * {@code trees}. With {@code link = LOGISTIC} the raw score is mapped through the sigmoid to a
+ * probability. Unknown (NaN) features contribute nothing to the linear term and follow each
+ * node's {@code missingLeft} direction in trees.
+ *
+ * @param features inputs of the model; {@code weights} and tree {@code feature} entries index into this list
+ */
+public record ModelDefinition(String version, Link link, double baseScore, List<Feature> features,
+                              double[] weights, List<Tree> trees) {
+
+    public enum Link {
+        IDENTITY,
+        LOGISTIC
+    }
+
+    /**
+     * One tree as parallel node arrays (node 0 is the root). A node with {@code feature[n] < 0}
+     * is a leaf returning {@code value[n]}; otherwise the walk continues at {@code left[n]} when
+     * the feature is below {@code threshold[n]}, else at {@code right[n]}. Children must have a
+     * higher index than their parent, as XGBoost and LightGBM dumps already do.
+     */
+    public record Tree(int[] feature, double[] threshold, int[] left, int[] right, double[] value,
+                       boolean[] missingLeft) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.fraud.transaction.model;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.scoring.Feature;
+import com.fraud.transaction.scoring.FeatureProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the model over everything the other providers produced and exposes its output as
+ * {@link Feature#MODEL_SCORE}, so rules can weigh it like any other signal. Ordered last.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ModelFeatureProvider implements FeatureProvider {
+
+    private final ModelScorer modelScorer;
+
+    public ModelFeatureProvider(ModelScorer modelScorer) {
+        this.modelScorer = modelScorer;
+    }
+
+    @Override
+    public void contribute(Transaction transaction, double[] features) {
+        if (modelScorer.isEnabled()) {
+            features[Feature.MODEL_SCORE.ordinal()] = modelScorer.predict(features);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.fraud.transaction.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline-trained model (gradient-boosted trees and/or logistic regression) evaluated on the
+ * scoring feature vector.
+ *
+ * The model file is loaded and compiled at startup and polled for changes like the rule file:
+ * a changed file is compiled off the scoring path and swapped in atomically, an invalid one is
+ * rejected and the previous model stays active.
+ *
+ * Inference latency is recorded for 1 in {@code transaction.model.timing-sample-rate} predictions
+ * only, as updating the percentile timer costs a noticeable share of a single inference.
+ */
+@Service
+@Slf4j
+public class ModelScorer {
+
+    private final ObjectMapper objectMapper;
+    private final Resource modelResource;
+    private final boolean enabled;
+    private final int timingSampleMask;
+
+    private volatile CompiledModel model;
+    private volatile long modelLastModified;
+
+    private final Timer latency;
+    private final Counter reloadsSucceeded;
+    private final Counter reloadsFailed;
+
+    public ModelScorer(ObjectMapper objectMapper,
+                       ResourceLoader resourceLoader,
+                       MeterRegistry meterRegistry,
+                       @Value("${transaction.model.enabled}") boolean enabled,
+                       @Value("${transaction.model.location}") String modelLocation,
+                       @Value("${transaction.model.timing-sample-rate}") int timingSampleRate) {
+        if (Integer.bitCount(timingSampleRate) != 1) {
+            throw new IllegalArgumentException("transaction.model.timing-sample-rate must be a power of two");
+        }
+        this.objectMapper = objectMapper;
+        this.modelResource = resourceLoader.getResource(modelLocation);
+        this.enabled = enabled;
+        this.timingSampleMask = timingSampleRate - 1;
+
+        this.latency = Timer.builder("transaction.model.latency")
+                .description("Model inference time per transaction (sampled, see transaction.model.timing-sample-rate)")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.reloadsSucceeded = reloadCounter(meterRegistry, "success");
+        this.reloadsFailed = reloadCounter(meterRegistry, "failure");
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            this.modelLastModified = modelResource.lastModified();
+            this.model = load(modelResource);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Cannot load scoring model from " + modelLocation, e);
+        }
+        Gauge.builder("transaction.model.trees", this, scorer -> scorer.model.trees())
+                .description("Trees in the active model")
+                .register(meterRegistry);
+        log.info("Loaded scoring model {} ({} trees, {} nodes) from {}", model.version(), model.trees(),
+                model.nodes(), modelLocation);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Scores a feature vector indexed by {@link com.fraud.transaction.scoring.Feature#ordinal()}.
+     */
+    public double predict(double[] features) {
+        if ((ThreadLocalRandom.current().nextInt() & timingSampleMask) != 0) {
+            return model.predict(features);
+        }
+        long start = System.nanoTime();
+        double score = model.predict(features);
+        latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return score;
+    }
+
+    public CompiledModel activeModel() {
+        return model;
+    }
+
+    /**
+     * Reads and compiles a model file.
+     */
+    public CompiledModel load(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return CompiledModel.compile(objectMapper.readValue(in, ModelDefinition.class));
+        }
+    }
+
+    /**
+     * Re-reads the model file when its modification time changed. Resources without a
+     * modification time (e.g. inside the application jar) are loaded once at startup only.
+     */
+    @Scheduled(fixedDelayString = "${transaction.model.reload-interval-ms}")
+    public void reloadIfChanged() {
+        if (!enabled) {
+            return;
+        }
+        long modified;
+        try {
+            modified = modelResource.lastModified();
+        } catch (IOException e) {
+            return;
+        }
+        if (modified == modelLastModified) {
+            return;
+        }
+        modelLastModified = modified;
+        try {
+            CompiledModel reloaded = load(modelResource);
+            model = reloaded;
+            reloadsSucceeded.increment();
+            log.info("Reloaded scoring model {} ({} trees)", reloaded.version(), reloaded.trees());
+        } catch (IOException | RuntimeException e) {
+            reloadsFailed.increment();
+            log.error("Rejected scoring model {}, keeping model {}: {}", modelResource, model.version(), e.getMessage());
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private static Counter reloadCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transaction.model.reloads")
+                .description("Model file reloads")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
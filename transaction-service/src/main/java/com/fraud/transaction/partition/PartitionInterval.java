@@ -0,0 +1,51 @@
+package com.fraud.transaction.partition;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Range covered by one transactions partition (transaction.partition.interval).
+ */
+public enum PartitionInterval {
+
+    DAY(DateTimeFormatter.ofPattern("yyyy_MM_dd")) {
+        @Override
+        LocalDate start(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        LocalDate next(LocalDate start) {
+            return start.plusDays(1);
+        }
+    },
+
+    MONTH(DateTimeFormatter.ofPattern("yyyy_MM")) {
+        @Override
+        LocalDate start(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        LocalDate next(LocalDate start) {
+            return start.plusMonths(1);
+        }
+    };
+
+    private final DateTimeFormatter suffix;
+
+    PartitionInterval(DateTimeFormatter suffix) {
+        this.suffix = suffix;
+    }
+
+    /** First day of the interval containing {@code date}. */
+    abstract LocalDate start(LocalDate date);
+
+    /** First day of the interval after the one starting at {@code start}. */
+    abstract LocalDate next(LocalDate start);
+
+    /** Table name of the partition starting at {@code start}, e.g. transactions_p2026_10. */
+    String partitionName(LocalDate start) {
+        return "transactions_p" + suffix.format(start);
+    }
+}
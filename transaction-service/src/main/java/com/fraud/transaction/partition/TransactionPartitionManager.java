@@ -0,0 +1,251 @@
+package com.fraud.transaction.partition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the range partitions of public.transactions (see V8): keeps partitions created
+ * {@code transaction.partition.premake} intervals ahead so that inserts never fall into the
+ * default partition, and retires partitions that ended more than {@code transaction.partition.retention}
+ * ago by detaching them (kept as standalone tables for archiving) or dropping them.
+ *
+ * Runs on startup and then every {@code transaction.partition.interval-ms}. Each DDL statement runs in
+ * its own transaction with {@code transaction.partition.lock-timeout}, so that it gives up (and is
+ * retried on the next run) instead of queueing traffic behind its lock on the parent table.
+ * Partitions are matched by range, not by name, so changing the interval only affects partitions
+ * created afterwards; ranges already covered are never created twice.
+ */
+@Component
+@Slf4j
+public class TransactionPartitionManager {
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\('([^']+)'\\) TO \\('([^']+)'\\)");
+
+    private static final String IS_PARTITIONED = "select count(*) from pg_partitioned_table "
+            + "where partrelid = to_regclass('public.transactions')";
+
+    private static final String LIST_PARTITIONS = "select c.relname, pg_get_expr(c.relpartbound, c.oid) "
+            + "from pg_inherits i join pg_class c on c.oid = i.inhrelid "
+            + "where i.inhparent = 'public.transactions'::regclass";
+
+    // by the detached table's own rows, not by time range: rows of that range that sit in the
+    // default partition are not retired and keep their entries
+    private static final String DELETE_IDEMPOTENCY_KEYS = "delete from public.transaction_idempotency_keys k "
+            + "using public.%s d where k.idempotency_key = d.idempotency_key";
+
+    private static final String DELETE_TRANSACTION_IDS = "delete from public.transaction_ids i "
+            + "using public.%s d where i.transaction_id = d.transaction_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final PartitionInterval interval;
+    private final int premake;
+    private final Duration retention;
+    private final boolean dropExpired;
+    private final long lockTimeoutMillis;
+    private final AtomicInteger partitionCount = new AtomicInteger();
+
+    private final Counter created;
+    private final Counter retired;
+    private final Counter failures;
+
+    public TransactionPartitionManager(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${transaction.partition.enabled}") boolean enabled,
+                                       @Value("${transaction.partition.interval}") PartitionInterval interval,
+                                       @Value("${transaction.partition.premake}") int premake,
+                                       @Value("${transaction.partition.retention}") Duration retention,
+                                       @Value("${transaction.partition.retention-action}") String retentionAction,
+                                       @Value("${transaction.partition.lock-timeout}") Duration lockTimeout) {
+        if (!"DETACH".equals(retentionAction) && !"DROP".equals(retentionAction)) {
+            throw new IllegalArgumentException("transaction.partition.retention-action must be DETACH or DROP");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.interval = interval;
+        this.premake = Math.max(1, premake);
+        this.retention = retention;
+        this.dropExpired = "DROP".equals(retentionAction);
+        this.lockTimeoutMillis = lockTimeout.toMillis();
+
+        this.created = Counter.builder("transaction.partition.created")
+                .description("transactions partitions created ahead of time")
+                .register(meterRegistry);
+        this.retired = Counter.builder("transaction.partition.retired")
+                .description("transactions partitions detached or dropped by the retention policy")
+                .tag("action", retentionAction.toLowerCase())
+                .register(meterRegistry);
+        this.failures = Counter.builder("transaction.partition.failures")
+                .description("Partition DDL statements that failed (retried on the next run)")
+                .register(meterRegistry);
+        Gauge.builder("transaction.partition.count", partitionCount, AtomicInteger::get)
+                .description("Range partitions of transactions (the default partition is not counted)")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.partition.interval-ms}",
+            initialDelayString = "${transaction.partition.interval-ms}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (jdbcTemplate.queryForObject(IS_PARTITIONED, Integer.class) == 0) {
+                log.warn("public.transactions is not partitioned, skipping partition maintenance");
+                return;
+            }
+            List<Partition> partitions = listPartitions();
+            LocalDate today = LocalDate.now();
+            createAhead(partitions, today);
+            if (!retention.isZero()) {
+                retire(partitions, today.atStartOfDay().minus(retention));
+            }
+            partitionCount.set(listPartitions().size());
+        } catch (DataAccessException e) {
+            failures.increment();
+            log.error("Partition maintenance failed: {}", e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    /**
+     * Creates partitions for every part of [start of the current interval, end of the
+     * premake-th next interval) that no partition covers yet.
+     */
+    private void createAhead(List<Partition> partitions, LocalDate today) {
+        LocalDate start = interval.start(today);
+        for (int i = 0; i <= premake; i++) {
+            LocalDate end = interval.next(start);
+            for (Partition gap : gaps(partitions, start.atStartOfDay(), end.atStartOfDay())) {
+                boolean wholeInterval = gap.from().equals(start.atStartOfDay()) && gap.to().equals(end.atStartOfDay());
+                String name = wholeInterval ? interval.partitionName(start)
+                        : PartitionInterval.DAY.partitionName(gap.from().toLocalDate());
+                String sql = "create table public." + name + " partition of public.transactions for values from ('"
+                        + gap.from() + "') to ('" + gap.to() + "')";
+                if (executeDdl(sql, "create " + name)) {
+                    created.increment();
+                    partitions.add(new Partition(name, gap.from(), gap.to()));
+                    log.info("Created partition {} for [{}, {})", name, gap.from(), gap.to());
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Detaches (and drops) partitions that end at or before {@code cutoff}, together with the
+     * idempotency keys and transaction_ids entries of the rows in the detached table.
+     */
+    private void retire(List<Partition> partitions, LocalDateTime cutoff) {
+        for (Partition partition : partitions) {
+            if (partition.to().isAfter(cutoff)) {
+                continue;
+            }
+            boolean done = executeDdl(() -> {
+                jdbcTemplate.execute("alter table public.transactions detach partition public." + partition.name());
+                jdbcTemplate.update(DELETE_IDEMPOTENCY_KEYS.formatted(partition.name()));
+                jdbcTemplate.update(DELETE_TRANSACTION_IDS.formatted(partition.name()));
+                if (dropExpired) {
+                    jdbcTemplate.execute("drop table public." + partition.name());
+                }
+            }, "retire " + partition.name());
+            if (done) {
+                retired.increment();
+                log.info("{} expired partition {} ([{}, {}))", dropExpired ? "Dropped" : "Detached",
+                        partition.name(), partition.from(), partition.to());
+            }
+        }
+    }
+
+    private List<Partition> listPartitions() {
+        List<Partition> partitions = new ArrayList<>();
+        jdbcTemplate.query(LIST_PARTITIONS, rs -> {
+            Matcher bound = RANGE_BOUND.matcher(rs.getString(2));
+            if (bound.find()) {
+                partitions.add(new Partition(rs.getString(1), parseBound(bound.group(1)), parseBound(bound.group(2))));
+            }
+        });
+        return partitions;
+    }
+
+    /**
+     * Parts of [from, to) not covered by any partition.
+     */
+    static List<Partition> gaps(List<Partition> partitions, LocalDateTime from, LocalDateTime to) {
+        List<Partition> overlapping = partitions.stream()
+                .filter(p -> p.from().isBefore(to) && p.to().isAfter(from))
+                .sorted(Comparator.comparing(Partition::from))
+                .toList();
+        List<Partition> gaps = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (Partition p : overlapping) {
+            if (p.from().isAfter(cursor)) {
+                gaps.add(new Partition(null, cursor, p.from()));
+            }
+            if (p.to().isAfter(cursor)) {
+                cursor = p.to();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            gaps.add(new Partition(null, cursor, to));
+        }
+        return gaps;
+    }
+
+    private boolean executeDdl(String sql, String description) {
+        return executeDdl(() -> jdbcTemplate.execute(sql), description);
+    }
+
+    private boolean executeDdl(Runnable ddl, String description) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("set local lock_timeout = " + lockTimeoutMillis);
+                ddl.run();
+            });
+            return true;
+        } catch (DataAccessException e) {
+            failures.increment();
+            log.warn("Partition maintenance could not {}: {}", description, e.getMostSpecificCause().getMessage());
+            return false;
+        }
+    }
+
+    private static LocalDateTime parseBound(String value) {
+        return LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+
+    /**
+     * A partition (or an uncovered range, without name) and its [from, to) bounds.
+     */
+    record Partition(String name, LocalDateTime from, LocalDateTime to) {
+    }
+}
@@ -3,23 +3,54 @@ package com.fraud.transaction.producer;
 import com.fraud.common.constants.AppConstants;
 import com.fraud.transaction.api.request.CreateTransactionRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class KafkaTransactionEventProducer {
 
+    /**
+     * Which request field becomes the Kafka record key (and therefore the partition).
+     */
+    public enum PartitionKey {
+        MERCHANT,
+        CARD
+    }
+
     @Autowired
     private KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Value("${transaction.kafka.partition-key}")
+    private PartitionKey partitionKey;
+
     /**
      * Publishes a new transaction request to the Kafka topic responsible for
      * processing transaction creation. The request object is sent as the
      * message value, and the topic name is taken from application constants.
+     * Records are keyed by merchant (or card) so that all events for the same key land
+     * on the same partition and are consumed in order.
      *
      * @param createTransactionRequest the transaction data to be produced to Kafka
+     * @return future completed when the broker acknowledges (or rejects) the record
+     */
+    public CompletableFuture<SendResult<String, Object>> createTransaction(CreateTransactionRequest createTransactionRequest){
+        return this.kafkaTemplate.send(AppConstants.CREATE_TRANSACTION_TOPIC, recordKey(createTransactionRequest),
+                createTransactionRequest);
+    }
+
+    /**
+     * Resolves the record key for the configured strategy. Falls back to the merchant id
+     * when the card is missing so that keyed records never end up round-robined.
      */
-    public void createTransaction(CreateTransactionRequest createTransactionRequest){
-        this.kafkaTemplate.send(AppConstants.CREATE_TRANSACTION_TOPIC, createTransactionRequest);
+    private String recordKey(CreateTransactionRequest createTransactionRequest) {
+        if (partitionKey == PartitionKey.CARD && StringUtils.hasText(createTransactionRequest.getCardNumberMasked())) {
+            return createTransactionRequest.getCardNumberMasked();
+        }
+        return createTransactionRequest.getMerchantId();
     }
 }
@@ -8,6 +8,10 @@ import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -16,34 +20,52 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+/**
+ * Demo publisher that replays the static transactions.json seed on a fixed rate.
+ * Disabled when the synthetic load generator ({@code transaction.loadgen.enabled}) is on.
+ */
 @Component
 @Slf4j
+@ConditionalOnProperty(name = "transaction.loadgen.enabled", havingValue = "false", matchIfMissing = true)
 public class KafkaTransactionProducerScheduler {
 
-    private final KafkaTransactionEventProducer kafkaTransactionEventProducer;
+    private final TransactionProducerPipeline transactionProducerPipeline;
 
-    public KafkaTransactionProducerScheduler(KafkaTransactionEventProducer kafkaTransactionEventProducer) {
-        this.kafkaTransactionEventProducer = kafkaTransactionEventProducer;
+    public KafkaTransactionProducerScheduler(TransactionProducerPipeline transactionProducerPipeline) {
+        this.transactionProducerPipeline = transactionProducerPipeline;
     }
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private Environment environment;
+
     @Value("${transaction.threadPool.size}")
     private int fixedThreadPoolSize;
 
     @Value("${transaction.batch.size}")
     private int batchSize;
 
-    private ExecutorService executor;
+    private Executor executor;
+
+    private volatile List<CreateTransactionRequest> transactionRequestSeed;
 
+    /**
+     * Uses one virtual thread per batch when spring.threads.virtual.enabled is set on Java 21+,
+     * otherwise the fixed pool of transaction.threadPool.size platform threads. In both cases the
+     * producer pipeline's in-flight limit, not the thread count, bounds the load on Kafka.
+     */
     @PostConstruct
     public void initExecutor() {
-        this.executor = Executors.newFixedThreadPool(fixedThreadPoolSize);
+        this.executor = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("txn-producer-")
+                : Executors.newFixedThreadPool(fixedThreadPoolSize);
     }
 
     /**
@@ -101,16 +123,22 @@ public class KafkaTransactionProducerScheduler {
     }
 
     /**
-     * Processes a batch of CreateTransactionRequest objects by sending each request
-     * to the Kafka transaction event producer. This method loops through the batch
-     * and publishes every transaction one by one.
+     * Processes a batch of CreateTransactionRequest objects by submitting each request
+     * to the {@link TransactionProducerPipeline}. The pipeline bounds the number of
+     * unacknowledged sends, so this worker blocks (not the scheduler thread) when the
+     * broker falls behind; acks, failures and retries are handled asynchronously.
      *
      * @param transactionRequestBatch the list of transaction requests to process;
      *                                expected to be non-null and non-empty
      */
     private void processTransactionRequestBatch(List<CreateTransactionRequest> transactionRequestBatch) {
-        for (CreateTransactionRequest transactionRequest : transactionRequestBatch) {
-            kafkaTransactionEventProducer.createTransaction(transactionRequest);
+        try {
+            for (CreateTransactionRequest transactionRequest : transactionRequestBatch) {
+                transactionProducerPipeline.submit(transactionRequest);
+            }
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for producer capacity, dropping rest of batch");
         }
     }
 
@@ -144,19 +172,24 @@ public class KafkaTransactionProducerScheduler {
 
 
     /**
-     * Loads a list of transaction seed data from the transactions.json file
-     * located in the classpath. The JSON content is deserialized into a list
-     * of CreateTransactionRequest objects. If the file is missing or the content
-     * cannot be parsed, an empty list is returned and the error is logged.
+     * Returns the transaction seed data from the transactions.json file located in the
+     * classpath. The file is parsed on first use and cached, so ticks no longer re-read it.
+     * If the file is missing or the content cannot be parsed, an empty list is returned,
+     * the error is logged and loading is retried on the next tick.
      *
      * @return a list of transaction seed requests, or an empty list if loading fails
      */
     public List<CreateTransactionRequest> getTransactionRequestSeed() {
+        List<CreateTransactionRequest> seed = transactionRequestSeed;
+        if (seed != null) {
+            return seed;
+        }
         TypeReference<List<CreateTransactionRequest>> typeReference = new TypeReference<>() {
         };
-        InputStream inputStream = TypeReference.class.getResourceAsStream("/json/transactions.json");
-        try {
-            return objectMapper.readValue(inputStream, typeReference);
+        try (InputStream inputStream = TypeReference.class.getResourceAsStream("/json/transactions.json")) {
+            seed = List.copyOf(objectMapper.readValue(inputStream, typeReference));
+            transactionRequestSeed = seed;
+            return seed;
         } catch (Exception exception) {
             log.error("Failed to convert transactions into batches.", exception);
             return Collections.emptyList();
@@ -165,6 +198,8 @@ public class KafkaTransactionProducerScheduler {
 
     @PreDestroy
     public void shutdownExecutor() {
-        executor.shutdown();
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
     }
 }
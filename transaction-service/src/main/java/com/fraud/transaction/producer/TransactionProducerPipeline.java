@@ -0,0 +1,182 @@
+package com.fraud.transaction.producer;
+
+import com.fraud.transaction.api.request.CreateTransactionRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.ApiException;
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backpressure-aware front end for {@link KafkaTransactionEventProducer}.
+ *
+ * At most {@code transaction.kafka.producer.max-in-flight} records may be unacknowledged at
+ * any time; submitters block on a permit instead of piling records into the producer buffer.
+ * Completion is tracked through the send futures: acks, ack latency and failures are recorded
+ * as metrics. A record keeps its permit until it is acknowledged or given up on.
+ *
+ * Every record is stamped with an idempotency key before its first send, so that any copy of
+ * it that reaches the topic more than once is stored only once by the listeners.
+ *
+ * Transient errors (leader changes, timeouts, not enough replicas) are retried by the
+ * idempotent Kafka producer itself ({@code enable.idempotence}, {@code retries}, bounded by
+ * {@code delivery.timeout.ms}), which keeps records in order within their partition. Only a
+ * send the producer has given up on (its delivery timeout expired, or it failed before reaching
+ * the producer, e.g. on max.block.ms) is re-sent from a dedicated retry thread with exponential
+ * backoff; non-retriable errors (record too large, serialization, authorization) are not.
+ * A re-sent record is appended after records submitted since, so it can arrive out of order
+ * relative to them for the same key: a partition key sees its events in submission order
+ * except across such a re-send.
+ */
+@Component
+@Slf4j
+public class TransactionProducerPipeline {
+
+    private final KafkaTransactionEventProducer kafkaTransactionEventProducer;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final ScheduledExecutorService retryScheduler;
+
+    private final Counter acked;
+    private final Counter failed;
+    private final Counter retried;
+    private final Counter exhausted;
+    private final Timer ackLatency;
+
+    public TransactionProducerPipeline(KafkaTransactionEventProducer kafkaTransactionEventProducer,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${transaction.kafka.producer.max-in-flight}") int maxInFlight,
+                                       @Value("${transaction.kafka.producer.retry.max-attempts}") int maxAttempts,
+                                       @Value("${transaction.kafka.producer.retry.backoff}") Duration retryBackoff) {
+        this.kafkaTransactionEventProducer = kafkaTransactionEventProducer;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "txn-producer-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.acked = sendCounter(meterRegistry, "acked");
+        this.failed = sendCounter(meterRegistry, "failed");
+        this.retried = sendCounter(meterRegistry, "retried");
+        this.exhausted = sendCounter(meterRegistry, "exhausted");
+        this.ackLatency = Timer.builder("transaction.producer.ack.latency")
+                .description("Time from send to broker acknowledgement")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("transaction.producer.in.flight", permits, p -> maxInFlight - p.availablePermits())
+                .description("Records sent but not yet acknowledged")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends one record, blocking the calling worker while the in-flight limit is reached.
+     * A request without an idempotency key is sent as a copy stamped with a fresh key; the
+     * caller's request is never modified, so a shared request can be submitted again as a new
+     * transaction.
+     *
+     * @param createTransactionRequest the transaction data to be produced to Kafka
+     * @throws InterruptedException if the caller is interrupted while waiting for a permit
+     */
+    public void submit(CreateTransactionRequest createTransactionRequest) throws InterruptedException {
+        CreateTransactionRequest keyed = createTransactionRequest;
+        if (!StringUtils.hasText(createTransactionRequest.getIdempotencyKey())) {
+            keyed = createTransactionRequest.toBuilder()
+                    .idempotencyKey(UUID.randomUUID().toString())
+                    .build();
+        }
+        permits.acquire();
+        send(keyed, 1);
+    }
+
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    private void send(CreateTransactionRequest createTransactionRequest, int attempt) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTransactionEventProducer.createTransaction(createTransactionRequest);
+        } catch (RuntimeException ex) {
+            // e.g. serialization failure or max.block.ms exceeded while fetching metadata
+            future = CompletableFuture.failedFuture(ex);
+        }
+        future.whenComplete((result, ex) -> {
+            if (ex == null) {
+                acked.increment();
+                ackLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                permits.release();
+            } else {
+                onFailure(createTransactionRequest, attempt, ex);
+            }
+        });
+    }
+
+    /**
+     * Runs on the producer I/O thread, so it only schedules the re-send and never blocks.
+     * The producer has already retried transient errors within its delivery timeout by now.
+     */
+    private void onFailure(CreateTransactionRequest createTransactionRequest, int attempt, Throwable ex) {
+        failed.increment();
+        if (attempt >= maxAttempts || !isRetriable(ex) || retryScheduler.isShutdown()) {
+            exhausted.increment();
+            permits.release();
+            log.error("Giving up on transaction for merchant {} after {} attempts: {}",
+                    createTransactionRequest.getMerchantId(), attempt, ex.getMessage());
+            return;
+        }
+        retried.increment();
+        long delayMillis = retryBackoffMillis << Math.min(attempt - 1, 10);
+        retryScheduler.schedule(() -> send(createTransactionRequest, attempt + 1), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdown();
+    }
+
+    /**
+     * Whether sending again can succeed: the producer ran out of time on a retriable error, or the
+     * send failed before a record was handed to the producer (e.g. no metadata within max.block.ms).
+     */
+    static boolean isRetriable(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException) {
+                return true;
+            }
+            if (cause instanceof ApiException || cause instanceof SerializationException) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static Counter sendCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transaction.producer.sends")
+                .description("create-transaction sends by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.fraud.transaction.repository;
+
+import com.fraud.transaction.entity.Transaction;
+
+import java.util.List;
+
+/**
+ * Custom fragment of {@link TransactionRepository}: inserts through the PostgreSQL COPY protocol.
+ */
+public interface TransactionCopyRepository {
+
+    /**
+     * Inserts new (unsaved) transactions in a few statements: COPY into a session-local staging
+     * table, then one INSERT ... SELECT into transactions. Rows whose transaction ID or idempotency
+     * key already exists are skipped, as are rows referencing an unknown merchant.
+     * Must run inside a transaction. Assigns ids to the given entities.
+     */
+    CopyResult copyInsert(List<Transaction> transactions);
+
+    /**
+     * @param inserted         positions (in the submitted list) of the rows actually inserted
+     * @param unknownMerchants positions of rows skipped for an unknown merchant
+     */
+    record CopyResult(List<Integer> inserted, List<Integer> unknownMerchants) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.fraud.transaction.repository;
+
+import com.fraud.transaction.entity.Transaction;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * COPY-based implementation of {@link TransactionCopyRepository}.
+ *
+ * Ids come from transactions_seq in blocks of its increment, exactly as the entity's pooled
+ * generator uses it (block {@code [v - 49, v]} for a drawn value {@code v}), so bulk-loaded and
+ * JPA-inserted rows never collide. Duplicates are filtered or absorbed by ON CONFLICT DO NOTHING and
+ * the merchant foreign key is checked up front, so one bad row never fails the whole chunk.
+ */
+class TransactionCopyRepositoryImpl implements TransactionCopyRepository {
+
+    /** Increment of transactions_seq, the allocationSize of {@link Transaction#getId()}. */
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String COLUMNS = "id, transaction_id, amount, currency, merchant_id, card_number_masked, "
+            + "card_type, transaction_type, response_code, is_flagged, flag_reason, risk_score, review_status, "
+            + "channel, ip_address, device_id, location, transaction_time, idempotency_key, created_at, updated_at, "
+            + "flagged_at, flagged_by";
+
+    // session-local; created once per pooled connection and emptied by every commit
+    private static final String CREATE_STAGING = "create temp table if not exists transactions_copy_staging "
+            + "(chunk_index integer, like public.transactions) on commit delete rows";
+
+    private static final String ALLOCATE_IDS = "select nextval('transactions_seq') from generate_series(1, ?)";
+
+    private static final String COPY_STAGING = "copy transactions_copy_staging (chunk_index, " + COLUMNS + ") "
+            + "from stdin";
+
+    private static final String UNKNOWN_MERCHANTS = "select s.chunk_index from transactions_copy_staging s "
+            + "where not exists (select 1 from merchants m where m.merchant_id = s.merchant_id)";
+
+    // transaction IDs and idempotency keys are unique through transaction_ids (V11) and
+    // transaction_idempotency_keys (V8), whose trigger-raised violations ON CONFLICT cannot absorb:
+    // known ones and repeats within the chunk are filtered here
+    private static final String INSERT_FROM_STAGING = "with inserted as (insert into transactions (" + COLUMNS + ") "
+            + "select distinct on (coalesce(s.idempotency_key, s.transaction_id)) " + COLUMNS
+            + " from (select distinct on (transaction_id) * from transactions_copy_staging "
+            + "order by transaction_id, chunk_index) s "
+            + "where exists (select 1 from merchants m where m.merchant_id = s.merchant_id) "
+            + "and not exists (select 1 from transaction_ids i where i.transaction_id = s.transaction_id) "
+            + "and not exists (select 1 from transaction_idempotency_keys k where k.idempotency_key = s.idempotency_key) "
+            + "order by coalesce(s.idempotency_key, s.transaction_id), s.chunk_index "
+            + "on conflict do nothing returning id) "
+            + "select s.chunk_index from transactions_copy_staging s join inserted using (id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    TransactionCopyRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public CopyResult copyInsert(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return new CopyResult(List.of(), List.of());
+        }
+        jdbcTemplate.execute(CREATE_STAGING);
+        assignIds(transactions);
+
+        String rows = encode(transactions);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING, new StringReader(rows));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        List<Integer> unknownMerchants = jdbcTemplate.queryForList(UNKNOWN_MERCHANTS, Integer.class);
+        List<Integer> inserted = jdbcTemplate.queryForList(INSERT_FROM_STAGING, Integer.class);
+        return new CopyResult(inserted, unknownMerchants);
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private void assignIds(List<Transaction> transactions) {
+        int blocks = (transactions.size() + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> highs = jdbcTemplate.queryForList(ALLOCATE_IDS, Long.class, blocks);
+        for (int i = 0; i < transactions.size(); i++) {
+            long high = highs.get(i / ID_BLOCK_SIZE);
+            transactions.get(i).setId(high - ID_BLOCK_SIZE + 1 + i % ID_BLOCK_SIZE);
+        }
+    }
+
+    /**
+     * Rows in COPY text format: tab-separated, \N for null, backslash escapes.
+     */
+    private static String encode(List<Transaction> transactions) {
+        StringBuilder out = new StringBuilder(transactions.size() * 256);
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction t = transactions.get(i);
+            out.append(i);
+            field(out, t.getId());
+            field(out, t.getTransactionId());
+            field(out, t.getAmount());
+            field(out, t.getCurrency());
+            field(out, t.getMerchantId());
+            field(out, t.getCardNumberMasked());
+            field(out, t.getCardType());
+            field(out, t.getTransactionType());
+            field(out, t.getResponseCode());
+            field(out, t.getIsFlagged());
+            field(out, t.getFlagReason());
+            field(out, t.getRiskScore());
+            field(out, t.getReviewStatus());
+            field(out, t.getChannel());
+            field(out, t.getIpAddress());
+            field(out, t.getDeviceId());
+            field(out, t.getLocation());
+            field(out, t.getTransactionTime());
+            field(out, t.getIdempotencyKey());
+            field(out, t.getCreatedAt());
+            field(out, t.getUpdatedAt());
+            field(out, t.getFlaggedAt());
+            field(out, t.getFlaggedBy());
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    private static void field(StringBuilder out, Object value) {
+        out.append('\t');
+        if (value == null) {
+            out.append("\\N");
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+    }
+}
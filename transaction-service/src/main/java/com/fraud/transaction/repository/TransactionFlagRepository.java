@@ -0,0 +1,31 @@
+package com.fraud.transaction.repository;
+
+import com.fraud.transaction.dto.TransactionDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Custom fragment of {@link TransactionRepository}: flagging as single SQL statements, without
+ * loading the entities first.
+ */
+public interface TransactionFlagRepository {
+
+    /**
+     * Flags one transaction and returns it as updated, in one round trip.
+     * A null {@code reviewStatus} leaves the review status unchanged.
+     *
+     * @return empty if no transaction has this ID
+     */
+    Optional<TransactionDto> flagReturning(String transactionId, String reason, String reviewStatus,
+                                           String flaggedBy, LocalDateTime flaggedAt);
+
+    /**
+     * Flags every listed transaction in one statement. Unknown IDs are ignored.
+     *
+     * @return the number of transactions updated
+     */
+    int flagAll(Collection<String> transactionIds, String reason, String reviewStatus,
+                String flaggedBy, LocalDateTime flaggedAt);
+}
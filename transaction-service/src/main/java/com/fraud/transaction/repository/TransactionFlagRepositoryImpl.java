@@ -0,0 +1,76 @@
+package com.fraud.transaction.repository;
+
+import com.fraud.transaction.dto.TransactionDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC implementation of {@link TransactionFlagRepository}. Runs in the caller's transaction
+ * (the JPA transaction manager exposes its connection to {@link JdbcTemplate}); the statements
+ * bypass the persistence context, so callers must not hold the affected entities.
+ */
+class TransactionFlagRepositoryImpl implements TransactionFlagRepository {
+
+    private static final String SET_FLAG = "update transactions set is_flagged = true, flag_reason = ?, "
+            + "review_status = coalesce(?, review_status), flagged_by = ?, flagged_at = ?, updated_at = ? ";
+
+    // the transaction_time from transaction_ids (V11) lets PostgreSQL update one partition only
+    private static final String FLAG_RETURNING = SET_FLAG + "where transaction_id = ? and transaction_time = "
+            + "(select k.transaction_time from transaction_ids k where k.transaction_id = ?) "
+            + "returning id, transaction_id, amount, currency, merchant_id, card_number_masked, card_type, "
+            + "transaction_type, response_code, is_flagged, flag_reason, risk_score, review_status, channel, "
+            + "ip_address, device_id, location, transaction_time, created_at, updated_at, flagged_at, flagged_by";
+
+    private static final String FLAG_ALL = SET_FLAG + "where transaction_id = any (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    TransactionFlagRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<TransactionDto> flagReturning(String transactionId, String reason, String reviewStatus,
+                                                  String flaggedBy, LocalDateTime flaggedAt) {
+        List<TransactionDto> updated = jdbcTemplate.query(FLAG_RETURNING, TransactionFlagRepositoryImpl::toDto,
+                reason, reviewStatus, flaggedBy, flaggedAt, flaggedAt, transactionId, transactionId);
+        return updated.stream().findFirst();
+    }
+
+    @Override
+    public int flagAll(Collection<String> transactionIds, String reason, String reviewStatus,
+                       String flaggedBy, LocalDateTime flaggedAt) {
+        if (transactionIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(FLAG_ALL, (PreparedStatement ps) -> {
+            ps.setString(1, reason);
+            ps.setString(2, reviewStatus);
+            ps.setString(3, flaggedBy);
+            ps.setObject(4, flaggedAt);
+            ps.setObject(5, flaggedAt);
+            ps.setArray(6, ps.getConnection().createArrayOf("varchar", transactionIds.toArray()));
+        });
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private static TransactionDto toDto(ResultSet rs, int rowNum) throws SQLException {
+        return new TransactionDto(rs.getLong("id"), rs.getString("transaction_id"), rs.getBigDecimal("amount"),
+                rs.getString("currency"), rs.getString("merchant_id"), rs.getString("card_number_masked"),
+                rs.getString("card_type"), rs.getString("transaction_type"), rs.getString("response_code"),
+                rs.getObject("is_flagged", Boolean.class), rs.getString("flag_reason"),
+                rs.getObject("risk_score", Integer.class), rs.getString("review_status"), rs.getString("channel"),
+                rs.getString("ip_address"), rs.getString("device_id"), rs.getString("location"),
+                rs.getObject("transaction_time", LocalDateTime.class), rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class), rs.getObject("flagged_at", LocalDateTime.class),
+                rs.getString("flagged_by"));
+    }
+}
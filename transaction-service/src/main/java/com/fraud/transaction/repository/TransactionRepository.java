@@ -1,27 +1,50 @@
 package com.fraud.transaction.repository;
 
+import com.fraud.transaction.dto.TransactionDto;
 import com.fraud.transaction.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionSearchRepository,
+        TransactionFlagRepository, TransactionCopyRepository {
 
     /**
-     * Find all transactions that are flagged as suspicious.
+     * Read path: builds {@link TransactionDto}s straight from the result set with a JPQL constructor
+     * expression. Nothing enters the persistence context (no entity, no dirty-checking snapshot)
+     * and no mapper copy is made. The argument order must match the {@link TransactionDto} constructor.
      */
-    List<Transaction> findByIsFlaggedTrue();
+    String SELECT_DTO = "select new com.fraud.transaction.dto.TransactionDto(t.id, t.transactionId, t.amount, "
+            + "t.currency, t.merchantId, t.cardNumberMasked, t.cardType, t.transactionType, t.responseCode, "
+            + "t.isFlagged, t.flagReason, t.riskScore, t.reviewStatus, t.channel, t.ipAddress, t.deviceId, "
+            + "t.location, t.transactionTime, t.createdAt, t.updatedAt, t.flaggedAt, t.flaggedBy) "
+            + "from Transaction t ";
 
     /**
-     * Find all transactions for a given merchant.
-     *
-     * @param merchantId merchant identifier
-     * @return list of transactions
+     * Rows fetched per round trip by the stream* queries. With the PostgreSQL driver this only
+     * takes effect inside a transaction (autocommit off), where it turns into a server-side cursor.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Appended to lookups by {@code :transactionId}: transaction_id is not the partition key, so
+     * without it the lookup probes ux_transactions_transaction_id in every partition. With the
+     * transaction_time from transaction_ids (V11), PostgreSQL skips all other partitions once the
+     * subquery has run (run-time pruning, so plain EXPLAIN still lists them).
      */
-    List<Transaction> findByMerchantId(String merchantId);
+    String IN_ITS_PARTITION = "and t.transactionTime = (select k.transactionTime from TransactionIdLookup k "
+            + "where k.transactionId = :transactionId)";
 
     /**
      * Find a transaction by its business transaction ID (not the database ID).
@@ -29,5 +52,84 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      * @param transactionId unique transaction ID
      * @return Optional of Transaction (empty if not found)
      */
-    Optional<Transaction> findByTransactionId(String transactionId);
+    @Query("from Transaction t where t.transactionId = :transactionId " + IN_ITS_PARTITION)
+    Optional<Transaction> findByTransactionId(@Param("transactionId") String transactionId);
+
+    /**
+     * Find a transaction by the client-supplied idempotency key. Reads only the partition named by
+     * transaction_idempotency_keys (V8), like {@link #IN_ITS_PARTITION} for transaction IDs.
+     *
+     * @param idempotencyKey idempotency key from the create request
+     * @return Optional of Transaction (empty if the key has not been used)
+     */
+    @Query("from Transaction t where t.idempotencyKey = :idempotencyKey and t.transactionTime = "
+            + "(select k.transactionTime from IdempotencyKeyLookup k where k.idempotencyKey = :idempotencyKey)")
+    Optional<Transaction> findByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
+
+    /**
+     * Stream (idempotencyKey, transactionTime) pairs of the keys whose transaction is not older than
+     * the given time, from transaction_idempotency_keys (indexed on transaction_time).
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select k.idempotencyKey, k.transactionTime from IdempotencyKeyLookup k where k.transactionTime >= :since")
+    Stream<Object[]> streamIdempotencyKeysSince(@Param("since") LocalDateTime since);
+
+    /* ----------------- DTO projections ----------------- */
+
+    @Query(SELECT_DTO + "where t.transactionId = :transactionId " + IN_ITS_PARTITION)
+    Optional<TransactionDto> findDtoByTransactionId(@Param("transactionId") String transactionId);
+
+    @Query(SELECT_DTO)
+    List<TransactionDto> findAllDtos();
+
+    /**
+     * Find all transactions that are flagged as suspicious.
+     */
+    @Query(SELECT_DTO + "where t.isFlagged = true")
+    List<TransactionDto> findFlaggedDtos();
+
+    /**
+     * Find all transactions for a given merchant.
+     *
+     * @param merchantId merchant identifier
+     */
+    @Query(SELECT_DTO + "where t.merchantId = :merchantId")
+    List<TransactionDto> findDtosByMerchantId(@Param("merchantId") String merchantId);
+
+    /**
+     * Keyset pages, newest first: the rows with an id below {@code afterId} (the last id of the
+     * previous page, or {@link Long#MAX_VALUE} for the first page).
+     * <p>
+     * id says nothing about the partition (backfills carry old transaction times), so these and
+     * the streams below merge the id-ordered indexes of every partition: each page costs one
+     * index descent per partition plus the rows returned. That grows with the partitions kept
+     * (transaction.partition.retention over the interval, plus premake and the default partition),
+     * not with the rows in them.
+     */
+    @Query(SELECT_DTO + "where t.id < :afterId order by t.id desc")
+    List<TransactionDto> findDtoPage(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SELECT_DTO + "where t.isFlagged = true and t.id < :afterId order by t.id desc")
+    List<TransactionDto> findFlaggedDtoPage(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(SELECT_DTO + "where t.merchantId = :merchantId and t.id < :afterId order by t.id desc")
+    List<TransactionDto> findDtoPageByMerchantId(@Param("merchantId") String merchantId,
+                                                 @Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Forward-only streams over the same listings, newest first.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + "order by t.id desc")
+    Stream<TransactionDto> streamAllDtos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + "where t.isFlagged = true order by t.id desc")
+    Stream<TransactionDto> streamFlaggedDtos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(SELECT_DTO + "where t.merchantId = :merchantId order by t.id desc")
+    Stream<TransactionDto> streamDtosByMerchantId(@Param("merchantId") String merchantId);
 }
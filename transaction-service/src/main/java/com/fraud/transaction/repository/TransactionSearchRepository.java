@@ -0,0 +1,24 @@
+package com.fraud.transaction.repository;
+
+import com.fraud.transaction.api.request.TransactionSearchRequest;
+import com.fraud.transaction.dto.TransactionDto;
+
+import java.util.List;
+
+/**
+ * Custom fragment of {@link TransactionRepository} for queries built at runtime.
+ */
+public interface TransactionSearchRepository {
+
+    /**
+     * Transactions matching every criterion set in the request, in the requested order,
+     * at most {@code request.getSize()} of them.
+     */
+    List<TransactionDto> search(TransactionSearchRequest request);
+
+    /**
+     * Business IDs of the transactions matching the request's criteria, in id order, at most
+     * {@code limit} of them. The request's sort and size are ignored.
+     */
+    List<String> searchTransactionIds(TransactionSearchRequest request, int limit);
+}
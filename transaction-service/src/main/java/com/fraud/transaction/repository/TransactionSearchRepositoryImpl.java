@@ -0,0 +1,108 @@
+package com.fraud.transaction.repository;
+
+import com.fraud.transaction.api.request.TransactionSearchRequest;
+import com.fraud.transaction.dto.TransactionDto;
+import com.fraud.transaction.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria-API implementation of {@link TransactionSearchRepository}.
+ *
+ * Only the criteria that are set become predicates, so every filter shape is a plain
+ * conjunction of equality and range conditions that the V7 and V10 indexes serve
+ * (TransactionSearchIndexTest checks the plans). Rows are projected straight into
+ * {@link TransactionDto}s like the fixed queries in {@link TransactionRepository}.
+ */
+class TransactionSearchRepositoryImpl implements TransactionSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionDto> search(TransactionSearchRequest request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionDto> query = cb.createQuery(TransactionDto.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        query.select(cb.construct(TransactionDto.class, t.get("id"), t.get("transactionId"), t.get("amount"),
+                t.get("currency"), t.get("merchantId"), t.get("cardNumberMasked"), t.get("cardType"),
+                t.get("transactionType"), t.get("responseCode"), t.get("isFlagged"), t.get("flagReason"),
+                t.get("riskScore"), t.get("reviewStatus"), t.get("channel"), t.get("ipAddress"), t.get("deviceId"),
+                t.get("location"), t.get("transactionTime"), t.get("createdAt"), t.get("updatedAt"),
+                t.get("flaggedAt"), t.get("flaggedBy")));
+        query.where(predicates(cb, t, request).toArray(Predicate[]::new));
+        query.orderBy(order(cb, t, request.getSort()));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(request.getSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<String> searchTransactionIds(TransactionSearchRequest request, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        query.select(t.get("transactionId"));
+        query.where(predicates(cb, t, request).toArray(Predicate[]::new));
+        query.orderBy(cb.asc(t.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<Transaction> t, TransactionSearchRequest request) {
+        List<Predicate> predicates = new ArrayList<>();
+        equal(cb, predicates, t.get("merchantId"), request.getMerchantId());
+        equal(cb, predicates, t.get("reviewStatus"), request.getReviewStatus());
+        equal(cb, predicates, t.get("channel"), request.getChannel());
+        equal(cb, predicates, t.get("cardType"), request.getCardType());
+        if (request.getFlagged() != null) {
+            predicates.add(cb.equal(t.get("isFlagged"), request.getFlagged()));
+        }
+        if (request.getMinAmount() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("amount"), request.getMinAmount()));
+        }
+        if (request.getMaxAmount() != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.get("amount"), request.getMaxAmount()));
+        }
+        if (request.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.get("transactionTime"), request.getFrom()));
+        }
+        if (request.getTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.get("transactionTime"), request.getTo()));
+        }
+        return predicates;
+    }
+
+    private static void equal(CriteriaBuilder cb, List<Predicate> predicates, Path<String> path, String value) {
+        if (StringUtils.hasText(value)) {
+            predicates.add(cb.equal(path, value));
+        }
+    }
+
+    private static List<Order> order(CriteriaBuilder cb, Root<Transaction> t, TransactionSearchRequest.Sort sort) {
+        return switch (sort) {
+            case TIME_DESC -> List.of(cb.desc(t.get("transactionTime")), cb.desc(t.get("id")));
+            case TIME_ASC -> List.of(cb.asc(t.get("transactionTime")), cb.asc(t.get("id")));
+            case AMOUNT_DESC -> List.of(cb.desc(t.get("amount")), cb.desc(t.get("id")));
+            case AMOUNT_ASC -> List.of(cb.asc(t.get("amount")), cb.asc(t.get("id")));
+            case RISK_SCORE_DESC -> List.of(cb.desc(t.get("riskScore")), cb.desc(t.get("id")));
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.fraud.transaction.rollup;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Aggregates of one merchant, currency and hour accumulated since the last flush.
+ * Amounts are kept in cents. Once retired (idle and dropped from the store) it refuses updates,
+ * so that nothing is added to an instance that will never be flushed again.
+ */
+final class MerchantHourlyRollup {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long count;
+    private long amountCents;
+    private long flagged;
+    private long riskScoreSum;
+    private long riskScoreCount;
+    private boolean retired;
+
+    /**
+     * @return false if the rollup was retired and the caller must add to its replacement
+     */
+    boolean add(long count, long amountCents, long flagged, long riskScoreSum, long riskScoreCount) {
+        lock.lock();
+        try {
+            if (retired) {
+                return false;
+            }
+            this.count += count;
+            this.amountCents += amountCents;
+            this.flagged += flagged;
+            this.riskScoreSum += riskScoreSum;
+            this.riskScoreCount += riskScoreCount;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes everything accumulated since the last drain, or null if nothing was.
+     */
+    Delta drain() {
+        lock.lock();
+        try {
+            if (count == 0) {
+                return null;
+            }
+            Delta delta = new Delta(count, amountCents, flagged, riskScoreSum, riskScoreCount);
+            count = 0;
+            amountCents = 0;
+            flagged = 0;
+            riskScoreSum = 0;
+            riskScoreCount = 0;
+            return delta;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retires the rollup if nothing was added since the last drain.
+     */
+    boolean retireIfIdle() {
+        lock.lock();
+        try {
+            retired = count == 0;
+            return retired;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    record Delta(long count, long amountCents, long flagged, long riskScoreSum, long riskScoreCount) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.fraud.transaction.rollup;
+
+import com.fraud.transaction.dto.MerchantHourlyStatsDto;
+import com.fraud.transaction.entity.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per merchant, currency and hour rollups (count, total amount, flagged count, average risk score)
+ * for merchant dashboards, so that they never aggregate the transactions table.
+ *
+ * The ingest paths {@link #record} each persisted transaction into an in-memory
+ * {@link MerchantHourlyRollup} keyed by its transaction_time hour. Every
+ * {@code transaction.rollup.flush-interval-ms} the accumulated deltas are drained and added to
+ * merchant_hourly_stats with one batched upsert, in a single transaction and in key order (so that
+ * instances flushing the same keys do not deadlock). If the upsert fails, the deltas are put back
+ * and go out with the next flush. Flagged counts reflect the flag set at ingest (scoring), not
+ * flags applied later.
+ */
+@Service
+@Slf4j
+public class MerchantHourlyRollupService {
+
+    /** Longest range served by {@link #getStats}. */
+    public static final Duration MAX_RANGE = Duration.ofDays(31);
+
+    private static final String UPSERT = "insert into merchant_hourly_stats (merchant_id, currency, hour_start, "
+            + "transaction_count, total_amount, flagged_count, risk_score_sum, risk_score_count, updated_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "on conflict (merchant_id, hour_start, currency) do update set "
+            + "transaction_count = merchant_hourly_stats.transaction_count + excluded.transaction_count, "
+            + "total_amount = merchant_hourly_stats.total_amount + excluded.total_amount, "
+            + "flagged_count = merchant_hourly_stats.flagged_count + excluded.flagged_count, "
+            + "risk_score_sum = merchant_hourly_stats.risk_score_sum + excluded.risk_score_sum, "
+            + "risk_score_count = merchant_hourly_stats.risk_score_count + excluded.risk_score_count, "
+            + "updated_at = excluded.updated_at";
+
+    private static final String SELECT_STATS = "select merchant_id, currency, hour_start, transaction_count, "
+            + "total_amount, flagged_count, risk_score_sum, risk_score_count from merchant_hourly_stats "
+            + "where merchant_id = ? and hour_start >= ? and hour_start < ? order by hour_start, currency";
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::merchantId)
+            .thenComparing(RollupKey::hour)
+            .thenComparing(RollupKey::currency);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxKeys;
+    private final Map<RollupKey, MerchantHourlyRollup> rollups = new ConcurrentHashMap<>();
+
+    private final Counter untracked;
+    private final Counter flushedRows;
+    private final Counter flushFailures;
+
+    public MerchantHourlyRollupService(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${transaction.rollup.enabled}") boolean enabled,
+                                       @Value("${transaction.rollup.max-keys}") int maxKeys) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+
+        this.untracked = Counter.builder("transaction.rollup.untracked")
+                .description("Transactions not rolled up because transaction.rollup.max-keys was reached")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("transaction.rollup.flushed.rows")
+                .description("Merchant/currency/hour deltas upserted into merchant_hourly_stats")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("transaction.rollup.flush.failures")
+                .description("Rollup flushes that failed and were kept for the next flush")
+                .register(meterRegistry);
+        Gauge.builder("transaction.rollup.keys", rollups, Map::size)
+                .description("Merchant/currency/hour rollups held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a persisted transaction to its merchant/currency/hour rollup.
+     */
+    public void record(Transaction transaction) {
+        if (!enabled || !StringUtils.hasText(transaction.getMerchantId())
+                || !StringUtils.hasText(transaction.getCurrency())
+                || transaction.getTransactionTime() == null || transaction.getAmount() == null) {
+            return;
+        }
+        RollupKey key = new RollupKey(transaction.getMerchantId(), transaction.getCurrency(),
+                transaction.getTransactionTime().truncatedTo(ChronoUnit.HOURS));
+        long amountCents = transaction.getAmount().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        long flagged = Boolean.TRUE.equals(transaction.getIsFlagged()) ? 1 : 0;
+        Integer riskScore = transaction.getRiskScore();
+        add(key, new MerchantHourlyRollup.Delta(1, amountCents, flagged,
+                riskScore == null ? 0 : riskScore, riskScore == null ? 0 : 1));
+    }
+
+    /**
+     * Hourly rollups of a merchant for hours starting in [from, to), oldest first.
+     * Rows are at most one flush interval behind ingest.
+     *
+     * @throws IllegalArgumentException if the range is empty or longer than {@link #MAX_RANGE}
+     */
+    public List<MerchantHourlyStatsDto> getStats(String merchantId, LocalDateTime from, LocalDateTime to) {
+        if (!StringUtils.hasText(merchantId)) {
+            throw new IllegalArgumentException("Merchant ID must not be null or empty.");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw new IllegalArgumentException("The range must not exceed " + MAX_RANGE.toDays() + " days");
+        }
+        return jdbcTemplate.query(SELECT_STATS, (rs, rowNum) -> {
+            long riskScoreCount = rs.getLong("risk_score_count");
+            return new MerchantHourlyStatsDto(rs.getString("merchant_id"), rs.getString("currency"),
+                    rs.getObject("hour_start", LocalDateTime.class), rs.getLong("transaction_count"),
+                    rs.getBigDecimal("total_amount"), rs.getLong("flagged_count"),
+                    riskScoreCount == 0 ? null : (double) rs.getLong("risk_score_sum") / riskScoreCount);
+        }, merchantId, from, to);
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.rollup.flush-interval-ms}",
+            initialDelayString = "${transaction.rollup.flush-interval-ms}")
+    public void flush() {
+        if (!enabled || rollups.isEmpty()) {
+            return;
+        }
+        // rollups of earlier hours that stayed idle for a whole interval are dropped
+        LocalDateTime idleBefore = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(1);
+        List<Map.Entry<RollupKey, MerchantHourlyRollup.Delta>> drained = new ArrayList<>();
+        rollups.forEach((key, rollup) -> {
+            MerchantHourlyRollup.Delta delta = rollup.drain();
+            if (delta != null) {
+                drained.add(Map.entry(key, delta));
+            } else if (key.hour().isBefore(idleBefore) && rollup.retireIfIdle()) {
+                rollups.remove(key, rollup);
+            }
+        });
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        drained.sort(Map.Entry.comparingByKey(KEY_ORDER));
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>(drained.size());
+        for (Map.Entry<RollupKey, MerchantHourlyRollup.Delta> entry : drained) {
+            RollupKey key = entry.getKey();
+            MerchantHourlyRollup.Delta delta = entry.getValue();
+            rows.add(new Object[]{key.merchantId(), key.currency(), key.hour(), delta.count(),
+                    BigDecimal.valueOf(delta.amountCents(), 2), delta.flagged(), delta.riskScoreSum(),
+                    delta.riskScoreCount(), now});
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT, rows));
+            flushedRows.increment(rows.size());
+            log.debug("Flushed {} merchant hourly rollups", rows.size());
+        } catch (DataAccessException e) {
+            flushFailures.increment();
+            log.error("Could not flush {} merchant hourly rollups, keeping them for the next flush: {}",
+                    rows.size(), e.getMostSpecificCause().getMessage());
+            drained.forEach(entry -> add(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private void add(RollupKey key, MerchantHourlyRollup.Delta delta) {
+        while (true) {
+            MerchantHourlyRollup rollup = rollups.get(key);
+            if (rollup == null) {
+                if (rollups.size() >= maxKeys) {
+                    untracked.increment(delta.count());
+                    return;
+                }
+                rollup = rollups.computeIfAbsent(key, k -> new MerchantHourlyRollup());
+            }
+            if (rollup.add(delta.count(), delta.amountCents(), delta.flagged(), delta.riskScoreSum(),
+                    delta.riskScoreCount())) {
+                return;
+            }
+            // retired by a concurrent flush; it is being removed, the next lookup creates a fresh one
+            Thread.onSpinWait();
+        }
+    }
+
+    private record RollupKey(String merchantId, String currency, LocalDateTime hour) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.fraud.transaction.scoring;
+
+/**
+ * Named slots of the scoring feature vector. The ordinal is the index into the
+ * {@code double[]} handed to {@link FeatureProvider}s and {@link RulePlan}; rules reference
+ * features by name, so new features are appended without touching existing rule files.
+ * A slot left at {@link Double#NaN} is "unknown" and never satisfies a rule.
+ */
+public enum Feature {
+
+    /** Transaction amount in its own currency. */
+    AMOUNT,
+    /** Hour of day (0-23) of transactionTime. */
+    HOUR_OF_DAY,
+    /** 1 for the Online channel, else 0. */
+    CHANNEL_ONLINE,
+    /** 1 for the Mobile channel, else 0. */
+    CHANNEL_MOBILE,
+    /** 1 when no deviceId was supplied, else 0. */
+    MISSING_DEVICE,
+    /** 1 when no ipAddress was supplied, else 0. */
+    MISSING_IP,
+    /** 1 when the response code is anything but "00" (approved), else 0. */
+    RESPONSE_DECLINED,
+
+    /** Transactions of the card (cardNumberMasked) in the last 1m/10m/1h, including this one. */
+    CARD_COUNT_1M,
+    CARD_COUNT_10M,
+    CARD_COUNT_1H,
+    /** Amount sum of the card over the last hour, including this transaction. */
+    CARD_AMOUNT_1H,
+    /** Same as the CARD_* velocity features, per deviceId. */
+    DEVICE_COUNT_1M,
+    DEVICE_COUNT_10M,
+    DEVICE_COUNT_1H,
+    DEVICE_AMOUNT_1H,
+    /** Same as the CARD_* velocity features, per ipAddress. */
+    IP_COUNT_1M,
+    IP_COUNT_10M,
+    IP_COUNT_1H,
+    IP_AMOUNT_1H,
+
+    /** z-score of the amount against all previous amounts of the merchant in this currency. */
+    AMOUNT_ZSCORE,
+    /** z-score against the exponentially weighted (recent) mean and variance of the merchant. */
+    AMOUNT_EWMA_ZSCORE,
+    /** Fraction (0..1) of the merchant's previous amounts below this one. */
+    AMOUNT_PERCENTILE,
+    /** Amount divided by the merchant's exponentially weighted mean amount. */
+    AMOUNT_TO_EWMA_RATIO,
+
+    /** Distance in km from the card's previous located transaction. */
+    TRAVEL_DISTANCE_KM,
+    /** Speed in km/h implied by that distance and the time between the two transactions. */
+    TRAVEL_SPEED_KMH,
+
+    /** Cards, devices and IPs transitively linked to the card through shared devices/IPs. */
+    RING_SIZE,
+    /** Distinct cards in that ring, including this one. */
+    RING_CARDS,
+
+    /** Estimated distinct cards at the merchant in the current minute, including this one. */
+    MERCHANT_DISTINCT_CARDS_1M,
+    /** Estimated distinct cards at the merchant over transaction.sketch.window-minutes. */
+    MERCHANT_DISTINCT_CARDS_WINDOW,
+
+    /** 1 when the card, device, IP or merchant is on its blocklist, else 0. */
+    BLOCKLISTED_CARD,
+    BLOCKLISTED_DEVICE,
+    BLOCKLISTED_IP,
+    BLOCKLISTED_MERCHANT,
+
+    /** Output of the offline-trained model over the features above (a probability for logistic models). */
+    MODEL_SCORE;
+
+    private static final Feature[] VALUES = values();
+
+    public static int count() {
+        return VALUES.length;
+    }
+}
@@ -0,0 +1,58 @@
+package com.fraud.transaction.scoring;
+
+import com.fraud.transaction.entity.Transaction;
+
+import java.util.List;
+
+/**
+ * Contributes feature values for a transaction about to be scored.
+ *
+ * Providers are Spring beans run in {@link org.springframework.core.annotation.Order} sequence
+ * on the ingest thread, so they must be cheap and must not block: read only in-memory state and
+ * write into {@code features} by {@link Feature#ordinal()}. Slots a provider cannot fill are
+ * left untouched (NaN).
+ */
+public interface FeatureProvider {
+
+    /**
+     * Fills this provider's features. Never changes provider state: the transaction may still
+     * fail validation or roll back, and the latency budget may skip the call.
+     */
+    void contribute(Transaction transaction, double[] features);
+
+    /**
+     * {@link #contribute(Transaction, double[])} for a transaction scored as part of a batch.
+     * {@code pending} holds the transactions of the same batch scored before it, oldest first:
+     * they are not committed yet, so {@link #observe} has not seen them. Stateful providers fold
+     * them into their features as if they had been observed, so that a burst arriving in one
+     * batch scores the same as one arriving record by record. Never changes provider state.
+     * The default ignores {@code pending}.
+     */
+    default void contribute(Transaction transaction, List<Transaction> pending, double[] features) {
+        contribute(transaction, features);
+    }
+
+    /**
+     * Records a committed transaction in the provider's in-memory state (velocity windows, amount
+     * statistics, last sightings, the entity graph, card sketches). Called once per transaction
+     * after its insert commits, and never skipped, so the stores see exactly what was ingested.
+     * Only called on providers that are {@link #isStateful()}.
+     */
+    default void observe(Transaction transaction) {
+    }
+
+    /**
+     * True when {@link #observe} keeps in-memory state.
+     */
+    default boolean isStateful() {
+        return false;
+    }
+
+    /**
+     * True for checks that must run on every transaction whatever the latency budget, such as the
+     * blocklist. The engine runs these first, ahead of every provider the budget may skip.
+     */
+    default boolean isMandatory() {
+        return false;
+    }
+}
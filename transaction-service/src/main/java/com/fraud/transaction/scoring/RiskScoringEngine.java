@@ -0,0 +1,334 @@
+package com.fraud.transaction.scoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.transaction.entity.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inline rule-based risk scoring for the create-transaction path.
+ *
+ * For every transaction the {@link FeatureProvider}s fill a reusable feature vector, the active
+ * {@link RulePlan} is evaluated against it and the result is written to riskScore, isFlagged,
+ * flagReason and reviewStatus before the entity is persisted. Any client-supplied riskScore is
+ * overwritten.
+ *
+ * Providers share a latency budget: once it is spent the remaining providers are skipped (their
+ * features stay unknown) and counted per provider, so a slow read cannot stall ingestion.
+ * Mandatory providers (the blocklist) run first and are never skipped. Scoring only reads
+ * provider state; the stateful stores are updated by {@link #observe} once the transaction is
+ * committed, so rolled-back or rejected transactions never reach them. A batch is scored with
+ * {@link #scoreBatch}, which shows each transaction's providers the earlier, not yet committed
+ * transactions of the batch, so a burst within one batch still counts.
+ * The rule file is polled and a new plan is swapped in atomically when it changes; an invalid
+ * file is rejected and the previous plan stays active.
+ *
+ * When shadow scoring is enabled, a copy of the features and the result is handed to
+ * {@link ShadowScoringService}, which never blocks this path.
+ */
+@Service
+@Slf4j
+public class RiskScoringEngine {
+
+    public static final String STATUS_APPROVED = "Approved";
+    public static final String STATUS_PENDING_REVIEW = "Pending Review";
+    public static final String STATUS_FLAGGED = "Flagged";
+    public static final String FLAGGED_BY = "FraudSystem";
+
+    private static final int FLAG_REASON_MAX_LENGTH = 255;
+    private static final ThreadLocal<double[]> FEATURES = ThreadLocal.withInitial(() -> new double[Feature.count()]);
+
+    private final FeatureProvider[] featureProviders;
+    private final FeatureProvider[] statefulProviders;
+    private final Counter[] providerSkipped;
+    private final ShadowScoringService shadowScoringService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Resource rulesResource;
+    private final boolean enabled;
+    private final long latencyBudgetNanos;
+    private final int timingSampleMask;
+    private final Map<String, RuleStats> ruleStats = new ConcurrentHashMap<>();
+
+    private volatile RulePlan plan;
+    private volatile long rulesLastModified;
+
+    private final Timer latency;
+    private final Counter budgetExceeded;
+    private final Counter approved;
+    private final Counter pendingReview;
+    private final Counter flagged;
+    private final Counter reloadsSucceeded;
+    private final Counter reloadsFailed;
+
+    public RiskScoringEngine(List<FeatureProvider> featureProviders,
+                             ShadowScoringService shadowScoringService,
+                             ObjectMapper objectMapper,
+                             ResourceLoader resourceLoader,
+                             MeterRegistry meterRegistry,
+                             @Value("${transaction.scoring.enabled}") boolean enabled,
+                             @Value("${transaction.scoring.rules-location}") String rulesLocation,
+                             @Value("${transaction.scoring.latency-budget}") Duration latencyBudget,
+                             @Value("${transaction.scoring.rule-timing-sample-rate}") int ruleTimingSampleRate) {
+        if (Integer.bitCount(ruleTimingSampleRate) != 1) {
+            throw new IllegalArgumentException("transaction.scoring.rule-timing-sample-rate must be a power of two");
+        }
+        // mandatory checks first (stable sort keeps the @Order sequence otherwise)
+        this.featureProviders = featureProviders.stream()
+                .sorted(Comparator.comparing(provider -> !provider.isMandatory()))
+                .toArray(FeatureProvider[]::new);
+        this.statefulProviders = Arrays.stream(this.featureProviders)
+                .filter(FeatureProvider::isStateful)
+                .toArray(FeatureProvider[]::new);
+        this.shadowScoringService = shadowScoringService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.rulesResource = resourceLoader.getResource(rulesLocation);
+        this.enabled = enabled;
+        this.latencyBudgetNanos = latencyBudget.toNanos();
+        this.timingSampleMask = ruleTimingSampleRate - 1;
+
+        this.latency = Timer.builder("transaction.scoring.latency")
+                .description("Feature extraction plus rule evaluation per transaction")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.budgetExceeded = Counter.builder("transaction.scoring.budget.exceeded")
+                .description("Transactions whose feature extraction overran the latency budget")
+                .register(meterRegistry);
+        this.providerSkipped = new Counter[this.featureProviders.length];
+        for (int i = 0; i < this.featureProviders.length; i++) {
+            this.providerSkipped[i] = Counter.builder("transaction.scoring.provider.skipped")
+                    .description("Transactions on which a feature provider was skipped for the latency budget")
+                    .tag("provider", ClassUtils.getUserClass(this.featureProviders[i]).getSimpleName())
+                    .register(meterRegistry);
+        }
+        this.approved = decisionCounter(STATUS_APPROVED);
+        this.pendingReview = decisionCounter(STATUS_PENDING_REVIEW);
+        this.flagged = decisionCounter(STATUS_FLAGGED);
+        this.reloadsSucceeded = reloadCounter("success");
+        this.reloadsFailed = reloadCounter("failure");
+
+        try {
+            this.rulesLastModified = lastModified();
+            this.plan = load();
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Cannot load scoring rules from " + rulesLocation, e);
+        }
+        Gauge.builder("transaction.scoring.rules.active", this, engine -> engine.plan.size())
+                .description("Rules in the active plan")
+                .register(meterRegistry);
+        log.info("Loaded scoring rule set {} ({} rules) from {}", plan.version(), plan.size(), rulesLocation);
+    }
+
+    /**
+     * Scores the transaction in place. A no-op when {@code transaction.scoring.enabled=false}.
+     */
+    public void score(Transaction transaction) {
+        if (!enabled) {
+            return;
+        }
+        score(transaction, List.of());
+    }
+
+    /**
+     * Scores the transactions of one batch in place, in order. Each one is scored as if the
+     * earlier ones had already been observed (see {@link FeatureProvider#contribute(Transaction, List, double[])}).
+     * A no-op when {@code transaction.scoring.enabled=false}.
+     */
+    public void scoreBatch(List<Transaction> transactions) {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < transactions.size(); i++) {
+            score(transactions.get(i), transactions.subList(0, i));
+        }
+    }
+
+    /**
+     * Records a committed transaction in the stateful providers' stores. Called after the insert
+     * commits, never for backfilled rows. A no-op when {@code transaction.scoring.enabled=false}.
+     */
+    public void observe(Transaction transaction) {
+        if (!enabled) {
+            return;
+        }
+        for (FeatureProvider provider : statefulProviders) {
+            provider.observe(transaction);
+        }
+    }
+
+    /**
+     * Scores a backfilled (historical) transaction in place with the stateless providers only.
+     * The stateful stores describe live traffic (they stamp what they observe with the wall
+     * clock), so an old row is neither scored against them nor recorded in them; their features
+     * stay unknown here instead. No latency budget applies, and nothing goes to the latency timer or to shadow
+     * scoring, which compare live traffic only. A no-op when {@code transaction.scoring.enabled=false}.
+     */
+    public void scoreStateless(Transaction transaction) {
+        if (!enabled) {
+            return;
+        }
+        double[] features = FEATURES.get();
+        Arrays.fill(features, Double.NaN);
+        for (FeatureProvider provider : featureProviders) {
+            if (!provider.isStateful()) {
+                provider.contribute(transaction, features);
+            }
+        }
+
+        RulePlan active = plan;
+        long fired = active.evaluate(features);
+        active.recordHits(fired);
+        apply(transaction, active, fired);
+    }
+
+    /**
+     * Re-reads the rule file when its modification time changed. Resources without a
+     * modification time (e.g. inside the application jar) are loaded once at startup only.
+     */
+    @Scheduled(fixedDelayString = "${transaction.scoring.reload-interval-ms}")
+    public void reloadIfChanged() {
+        long modified;
+        try {
+            modified = lastModified();
+        } catch (IOException e) {
+            return;
+        }
+        if (modified == rulesLastModified) {
+            return;
+        }
+        rulesLastModified = modified;
+        try {
+            RulePlan reloaded = load();
+            plan = reloaded;
+            reloadsSucceeded.increment();
+            log.info("Reloaded scoring rule set {} ({} rules)", reloaded.version(), reloaded.size());
+        } catch (IOException | RuntimeException e) {
+            reloadsFailed.increment();
+            log.error("Rejected scoring rules {}, keeping rule set {}: {}", rulesResource, plan.version(), e.getMessage());
+        }
+    }
+
+    public RulePlan activePlan() {
+        return plan;
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    /** Caller checked {@link #enabled}. */
+    private void score(Transaction transaction, List<Transaction> pending) {
+        long start = System.nanoTime();
+        double[] features = FEATURES.get();
+        Arrays.fill(features, Double.NaN);
+        for (int i = 0; i < featureProviders.length; i++) {
+            FeatureProvider provider = featureProviders[i];
+            if (!provider.isMandatory() && System.nanoTime() - start > latencyBudgetNanos) {
+                providerSkipped[i].increment();
+                continue;
+            }
+            provider.contribute(transaction, pending, features);
+        }
+
+        RulePlan active = plan;
+        long fired = (ThreadLocalRandom.current().nextInt() & timingSampleMask) == 0
+                ? active.evaluateTimed(features)
+                : active.evaluate(features);
+        active.recordHits(fired);
+        apply(transaction, active, fired);
+        shadowScoringService.submit(features, active, transaction.getRiskScore());
+
+        long elapsed = System.nanoTime() - start;
+        latency.record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed > latencyBudgetNanos) {
+            budgetExceeded.increment();
+        }
+    }
+
+    private void apply(Transaction transaction, RulePlan active, long fired) {
+        int score = active.score(fired);
+        transaction.setRiskScore(score);
+        if (score < active.reviewThreshold()) {
+            transaction.setIsFlagged(Boolean.FALSE);
+            transaction.setReviewStatus(STATUS_APPROVED);
+            approved.increment();
+            return;
+        }
+
+        String reasons = active.reasons(fired);
+        transaction.setIsFlagged(Boolean.TRUE);
+        transaction.setFlagReason(reasons.length() > FLAG_REASON_MAX_LENGTH ? reasons.substring(0, FLAG_REASON_MAX_LENGTH) : reasons);
+        transaction.setFlaggedAt(LocalDateTime.now());
+        transaction.setFlaggedBy(FLAGGED_BY);
+        if (score >= active.flagThreshold()) {
+            transaction.setReviewStatus(STATUS_FLAGGED);
+            flagged.increment();
+        } else {
+            transaction.setReviewStatus(STATUS_PENDING_REVIEW);
+            pendingReview.increment();
+        }
+    }
+
+    private RulePlan load() throws IOException {
+        try (InputStream in = rulesResource.getInputStream()) {
+            RuleSetDefinition definition = objectMapper.readValue(in, RuleSetDefinition.class);
+            return RulePlan.compile(definition, this::statsFor);
+        }
+    }
+
+    private long lastModified() throws IOException {
+        return rulesResource.lastModified();
+    }
+
+    private RuleStats statsFor(String ruleId) {
+        return ruleStats.computeIfAbsent(ruleId, id -> {
+            RuleStats stats = new RuleStats();
+            FunctionCounter.builder("transaction.scoring.rule.hits", stats, RuleStats::hits)
+                    .description("Transactions on which the rule fired")
+                    .tag("rule", id)
+                    .register(meterRegistry);
+            FunctionTimer.builder("transaction.scoring.rule.time", stats,
+                            RuleStats::timedEvaluations, RuleStats::timedNanos, TimeUnit.NANOSECONDS)
+                    .description("Evaluation time of the rule (sampled, see transaction.scoring.rule-timing-sample-rate)")
+                    .tag("rule", id)
+                    .register(meterRegistry);
+            return stats;
+        });
+    }
+
+    private Counter decisionCounter(String decision) {
+        return Counter.builder("transaction.scoring.decisions")
+                .description("Scored transactions by review status")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+
+    private Counter reloadCounter(String outcome) {
+        return Counter.builder("transaction.scoring.rules.reloads")
+                .description("Rule file reloads")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
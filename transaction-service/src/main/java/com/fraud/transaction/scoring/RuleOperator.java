@@ -0,0 +1,14 @@
+package com.fraud.transaction.scoring;
+
+/**
+ * Comparison of a feature value against a rule threshold. Every comparison with NaN is
+ * false, so a missing feature never fires a rule (NEQ included).
+ */
+public enum RuleOperator {
+    GT,
+    GTE,
+    LT,
+    LTE,
+    EQ,
+    NEQ
+}
@@ -0,0 +1,19 @@
+package com.fraud.transaction.scoring;
+
+import java.util.List;
+
+/**
+ * JSON form of a rule set (see {@code transaction.scoring.rules-location}).
+ *
+ * The risk score is the sum of the weights of all fired rules, capped at 100. Scores at or
+ * above {@code reviewThreshold} are flagged for review, at or above {@code flagThreshold} they
+ * are flagged outright.
+ */
+public record RuleSetDefinition(String version, int reviewThreshold, int flagThreshold, List<Rule> rules) {
+
+    /**
+     * Fires when {@code feature operator threshold} holds, adding {@code weight} points.
+     */
+    public record Rule(String id, Feature feature, RuleOperator operator, double threshold, int weight, String reason) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.fraud.transaction.scoring;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-rule counters backing the {@code transaction.scoring.rule.*} meters. Kept per rule id,
+ * not per plan, so the meters stay monotonic across hot reloads.
+ */
+final class RuleStats {
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder timedEvaluations = new LongAdder();
+    final LongAdder timedNanos = new LongAdder();
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long timedEvaluations() {
+        return timedEvaluations.sum();
+    }
+
+    double timedNanos() {
+        return timedNanos.sum();
+    }
+}
@@ -0,0 +1,266 @@
+package com.fraud.transaction.scoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.transaction.model.CompiledModel;
+import com.fraud.transaction.model.ModelScorer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Champion/challenger shadow scoring.
+ *
+ * After the champion (the active rules and model) has scored a transaction,
+ * {@link RiskScoringEngine} hands a copy of the feature vector and the champion's score to
+ * {@link #submit}. The copy goes on a bounded, lock-free queue; when the queue is full the sample
+ * is dropped and counted, so the create-transaction path never waits on shadow work. Each queued
+ * sample releases one permit of a {@link Semaphore}; idle workers block acquiring a permit, so
+ * submitting is a few CAS operations plus, only when a worker is asleep, an unpark, and never
+ * takes a lock shared with the workers. Workers re-score the copy with the challenger (rules from
+ * {@code transaction.shadow.rules-location} and/or a model from
+ * {@code transaction.shadow.model-location}; whichever is not set falls back to the champion's)
+ * and record agreement, score deltas and challenger latency.
+ *
+ * Challengers only see the recorded feature vector: stateful providers (velocity, statistics,
+ * graph) are not run a second time, so shadowing neither double-counts traffic nor touches them.
+ */
+@Service
+@Slf4j
+public class ShadowScoringService {
+
+    private final ObjectMapper objectMapper;
+    private final ModelScorer modelScorer;
+    private final boolean enabled;
+    private final Resource rulesResource;
+    private final Resource modelResource;
+    private final int capacity;
+    private final Queue<Sample> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Semaphore available = new Semaphore(0);
+    private final ExecutorService workers;
+
+    private volatile RulePlan challengerPlan;
+    private volatile CompiledModel challengerModel;
+    private volatile long rulesLastModified;
+    private volatile long modelLastModified;
+
+    private final Counter dropped;
+    private final Counter agreed;
+    private final Counter disagreed;
+    private final DistributionSummary scoreDelta;
+    private final DistributionSummary modelScoreDelta;
+    private final Timer challengerLatency;
+    private final Timer queueDelay;
+
+    public ShadowScoringService(ObjectMapper objectMapper,
+                                ModelScorer modelScorer,
+                                ResourceLoader resourceLoader,
+                                MeterRegistry meterRegistry,
+                                @Value("${transaction.shadow.enabled}") boolean enabled,
+                                @Value("${transaction.shadow.rules-location:}") String rulesLocation,
+                                @Value("${transaction.shadow.model-location:}") String modelLocation,
+                                @Value("${transaction.shadow.queue-capacity}") int capacity,
+                                @Value("${transaction.shadow.workers}") int workerCount) {
+        this.objectMapper = objectMapper;
+        this.modelScorer = modelScorer;
+        this.capacity = capacity;
+        this.rulesResource = StringUtils.hasText(rulesLocation) ? resourceLoader.getResource(rulesLocation) : null;
+        this.modelResource = StringUtils.hasText(modelLocation) ? resourceLoader.getResource(modelLocation) : null;
+        if (enabled && rulesResource == null && modelResource == null) {
+            throw new IllegalArgumentException("transaction.shadow.enabled needs a rules-location or a model-location");
+        }
+        this.enabled = enabled;
+
+        this.dropped = Counter.builder("transaction.shadow.dropped")
+                .description("Shadow samples dropped because the queue was full")
+                .register(meterRegistry);
+        this.agreed = agreementCounter(meterRegistry, "agree");
+        this.disagreed = agreementCounter(meterRegistry, "disagree");
+        this.scoreDelta = DistributionSummary.builder("transaction.shadow.score.delta")
+                .description("Absolute difference between challenger and champion risk scores")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.modelScoreDelta = DistributionSummary.builder("transaction.shadow.model.score.delta")
+                .description("Absolute difference between challenger and champion MODEL_SCORE")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.challengerLatency = Timer.builder("transaction.shadow.latency")
+                .description("Challenger model plus rule evaluation per sample")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder("transaction.shadow.queue.delay")
+                .description("Time a sample waited for a shadow worker")
+                .register(meterRegistry);
+        Gauge.builder("transaction.shadow.queue.size", queued, AtomicInteger::get)
+                .description("Shadow samples waiting for a worker")
+                .register(meterRegistry);
+
+        if (!enabled) {
+            this.workers = null;
+            return;
+        }
+        try {
+            reload(true);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Cannot load challenger from " + rulesLocation + " / " + modelLocation, e);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "txn-shadow-scoring-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+        log.info("Shadow scoring enabled: challenger rules {}, challenger model {}, {} workers",
+                challengerPlan != null ? challengerPlan.version() : "(champion)",
+                challengerModel != null ? challengerModel.version() : "(champion)", workerCount);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a copy of the champion's inputs and result for the challenger. Never blocks: when
+     * {@code transaction.shadow.queue-capacity} samples are already waiting the sample is dropped.
+     */
+    void submit(double[] features, RulePlan championPlan, int championScore) {
+        if (!enabled) {
+            return;
+        }
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(new Sample(features.clone(), championPlan, championScore, System.nanoTime()));
+        available.release();
+    }
+
+    /**
+     * Re-reads challenger files whose modification time changed.
+     */
+    @Scheduled(fixedDelayString = "${transaction.shadow.reload-interval-ms}")
+    public void reloadIfChanged() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reload(false);
+        } catch (IOException | RuntimeException e) {
+            log.error("Rejected challenger, keeping the previous one: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private void work() {
+        while (true) {
+            try {
+                available.acquire();
+            } catch (InterruptedException e) {
+                return; // shutdownNow
+            }
+            // every permit is released after its sample was offered, so poll() finds one
+            Sample sample = queue.poll();
+            queued.decrementAndGet();
+            try {
+                evaluate(sample);
+            } catch (RuntimeException e) {
+                log.warn("Shadow scoring failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void evaluate(Sample sample) {
+        long start = System.nanoTime();
+        queueDelay.record(start - sample.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        double[] features = sample.features();
+        double championModelScore = features[Feature.MODEL_SCORE.ordinal()];
+
+        CompiledModel model = challengerModel;
+        if (model != null) {
+            features[Feature.MODEL_SCORE.ordinal()] = model.predict(features);
+        }
+        RulePlan plan = challengerPlan != null ? challengerPlan : sample.championPlan();
+        int score = plan.score(plan.evaluate(features));
+        challengerLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        boolean agree = decision(plan, score) == decision(sample.championPlan(), sample.championScore());
+        (agree ? agreed : disagreed).increment();
+        scoreDelta.record(Math.abs(score - sample.championScore()));
+        if (model != null && !Double.isNaN(championModelScore)) {
+            modelScoreDelta.record(Math.abs(features[Feature.MODEL_SCORE.ordinal()] - championModelScore));
+        }
+    }
+
+    /** 0 approved, 1 pending review, 2 flagged. */
+    private static int decision(RulePlan plan, int score) {
+        if (score >= plan.flagThreshold()) {
+            return 2;
+        }
+        return score >= plan.reviewThreshold() ? 1 : 0;
+    }
+
+    private void reload(boolean force) throws IOException {
+        if (rulesResource != null) {
+            long modified = rulesResource.lastModified();
+            if (force || modified != rulesLastModified) {
+                rulesLastModified = modified;
+                try (InputStream in = rulesResource.getInputStream()) {
+                    // challenger rules get their own counters so they never mix with the champion's
+                    challengerPlan = RulePlan.compile(objectMapper.readValue(in, RuleSetDefinition.class), id -> new RuleStats());
+                }
+                log.info("Loaded challenger rule set {}", challengerPlan.version());
+            }
+        }
+        if (modelResource != null) {
+            long modified = modelResource.lastModified();
+            if (force || modified != modelLastModified) {
+                modelLastModified = modified;
+                challengerModel = modelScorer.load(modelResource);
+                log.info("Loaded challenger model {}", challengerModel.version());
+            }
+        }
+    }
+
+    private static Counter agreementCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transaction.shadow.decisions")
+                .description("Challenger decisions compared with the champion's")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Sample(double[] features, RulePlan championPlan, int championScore, long enqueuedNanos) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.fraud.transaction.scoring;
+
+import com.fraud.transaction.entity.Transaction;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Features read straight off the transaction fields.
+ */
+@Component
+@Order(0)
+public class TransactionFeatureProvider implements FeatureProvider {
+
+    @Override
+    public void contribute(Transaction transaction, double[] features) {
+        if (transaction.getAmount() != null) {
+            features[Feature.AMOUNT.ordinal()] = transaction.getAmount().doubleValue();
+        }
+        if (transaction.getTransactionTime() != null) {
+            features[Feature.HOUR_OF_DAY.ordinal()] = transaction.getTransactionTime().getHour();
+        }
+        if (transaction.getChannel() != null) {
+            features[Feature.CHANNEL_ONLINE.ordinal()] = flag("Online".equalsIgnoreCase(transaction.getChannel()));
+            features[Feature.CHANNEL_MOBILE.ordinal()] = flag("Mobile".equalsIgnoreCase(transaction.getChannel()));
+        }
+        features[Feature.MISSING_DEVICE.ordinal()] = flag(!StringUtils.hasText(transaction.getDeviceId()));
+        features[Feature.MISSING_IP.ordinal()] = flag(!StringUtils.hasText(transaction.getIpAddress()));
+        if (transaction.getResponseCode() != null) {
+            features[Feature.RESPONSE_DECLINED.ordinal()] = flag(!"00".equals(transaction.getResponseCode()));
+        }
+    }
+
+    private static double flag(boolean value) {
+        return value ? 1.0 : 0.0;
+    }
+}
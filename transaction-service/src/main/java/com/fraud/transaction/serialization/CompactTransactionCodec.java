@@ -0,0 +1,288 @@
+package com.fraud.transaction.serialization;
+
+import com.fraud.transaction.api.request.CreateTransactionRequest;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Versioned, schema-based binary codec for {@link CreateTransactionRequest}.
+ *
+ * Layout (version 1):
+ * <pre>
+ *   byte    MAGIC (0xC7, never the first byte of a JSON document)
+ *   byte    version
+ *   varint  presence bitmask, one bit per field in schema order (null fields are omitted)
+ *   fields  in schema order:
+ *           amount           byte scale + zig-zag varlong unscaled value
+ *           strings          varint byte length + UTF-8 bytes
+ *           riskScore        zig-zag varint
+ *           transactionTime  zig-zag varlong epoch second (UTC) + varint nano
+ * </pre>
+ * Field names are never written; adding a field means appending it to the schema and
+ * bumping {@link #VERSION}, while older versions stay decodable.
+ */
+public final class CompactTransactionCodec {
+
+    public static final byte MAGIC = (byte) 0xC7;
+    public static final byte VERSION = 1;
+
+    private static final int AMOUNT = 0;
+    private static final int CURRENCY = 1;
+    private static final int MERCHANT_ID = 2;
+    private static final int CARD_NUMBER_MASKED = 3;
+    private static final int CARD_TYPE = 4;
+    private static final int TRANSACTION_TYPE = 5;
+    private static final int RESPONSE_CODE = 6;
+    private static final int RISK_SCORE = 7;
+    private static final int CHANNEL = 8;
+    private static final int IP_ADDRESS = 9;
+    private static final int DEVICE_ID = 10;
+    private static final int LOCATION = 11;
+    private static final int TRANSACTION_TIME = 12;
+    private static final int IDEMPOTENCY_KEY = 13;
+
+    private static final ThreadLocal<Writer> WRITERS = ThreadLocal.withInitial(() -> new Writer(256));
+
+    private CompactTransactionCodec() {
+    }
+
+    public static boolean isCompact(byte[] data) {
+        return data != null && data.length > 1 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(CreateTransactionRequest request) {
+        int presence = presence(request);
+        Writer out = WRITERS.get();
+        out.reset();
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarLong(presence);
+
+        if (request.getAmount() != null) {
+            BigDecimal amount = request.getAmount();
+            BigInteger unscaled = amount.unscaledValue();
+            if (unscaled.bitLength() > 63 || amount.scale() < Byte.MIN_VALUE || amount.scale() > Byte.MAX_VALUE) {
+                throw new SerializationException("amount out of range for compact encoding: " + amount);
+            }
+            out.writeByte((byte) amount.scale());
+            out.writeZigZagLong(unscaled.longValue());
+        }
+        out.writeString(request.getCurrency());
+        out.writeString(request.getMerchantId());
+        out.writeString(request.getCardNumberMasked());
+        out.writeString(request.getCardType());
+        out.writeString(request.getTransactionType());
+        out.writeString(request.getResponseCode());
+        if (request.getRiskScore() != null) {
+            out.writeZigZagLong(request.getRiskScore());
+        }
+        out.writeString(request.getChannel());
+        out.writeString(request.getIpAddress());
+        out.writeString(request.getDeviceId());
+        out.writeString(request.getLocation());
+        if (request.getTransactionTime() != null) {
+            LocalDateTime time = request.getTransactionTime();
+            out.writeZigZagLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeVarLong(time.getNano());
+        }
+        out.writeString(request.getIdempotencyKey());
+        return out.toByteArray();
+    }
+
+    public static CreateTransactionRequest decode(byte[] data) {
+        if (!isCompact(data)) {
+            throw new SerializationException("not a compact transaction payload");
+        }
+        Reader in = new Reader(data, 1);
+        int version = in.readByte();
+        if (version != 1) {
+            throw new SerializationException("unsupported compact transaction version " + version);
+        }
+        try {
+            long presence = in.readVarLong();
+            CreateTransactionRequest request = new CreateTransactionRequest();
+            if (has(presence, AMOUNT)) {
+                int scale = in.readByte();
+                request.setAmount(BigDecimal.valueOf(in.readZigZagLong(), scale));
+            }
+            request.setCurrency(in.readString(presence, CURRENCY));
+            request.setMerchantId(in.readString(presence, MERCHANT_ID));
+            request.setCardNumberMasked(in.readString(presence, CARD_NUMBER_MASKED));
+            request.setCardType(in.readString(presence, CARD_TYPE));
+            request.setTransactionType(in.readString(presence, TRANSACTION_TYPE));
+            request.setResponseCode(in.readString(presence, RESPONSE_CODE));
+            if (has(presence, RISK_SCORE)) {
+                request.setRiskScore((int) in.readZigZagLong());
+            }
+            request.setChannel(in.readString(presence, CHANNEL));
+            request.setIpAddress(in.readString(presence, IP_ADDRESS));
+            request.setDeviceId(in.readString(presence, DEVICE_ID));
+            request.setLocation(in.readString(presence, LOCATION));
+            if (has(presence, TRANSACTION_TIME)) {
+                long epochSecond = in.readZigZagLong();
+                int nano = (int) in.readVarLong();
+                request.setTransactionTime(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+            }
+            request.setIdempotencyKey(in.readString(presence, IDEMPOTENCY_KEY));
+            return request;
+        } catch (ArrayIndexOutOfBoundsException truncated) {
+            throw new SerializationException("truncated compact transaction payload", truncated);
+        } catch (DateTimeException malformed) {
+            throw new SerializationException("malformed compact transaction payload", malformed);
+        }
+    }
+
+    private static int presence(CreateTransactionRequest request) {
+        int presence = 0;
+        presence |= bit(request.getAmount(), AMOUNT);
+        presence |= bit(request.getCurrency(), CURRENCY);
+        presence |= bit(request.getMerchantId(), MERCHANT_ID);
+        presence |= bit(request.getCardNumberMasked(), CARD_NUMBER_MASKED);
+        presence |= bit(request.getCardType(), CARD_TYPE);
+        presence |= bit(request.getTransactionType(), TRANSACTION_TYPE);
+        presence |= bit(request.getResponseCode(), RESPONSE_CODE);
+        presence |= bit(request.getRiskScore(), RISK_SCORE);
+        presence |= bit(request.getChannel(), CHANNEL);
+        presence |= bit(request.getIpAddress(), IP_ADDRESS);
+        presence |= bit(request.getDeviceId(), DEVICE_ID);
+        presence |= bit(request.getLocation(), LOCATION);
+        presence |= bit(request.getTransactionTime(), TRANSACTION_TIME);
+        presence |= bit(request.getIdempotencyKey(), IDEMPOTENCY_KEY);
+        return presence;
+    }
+
+    private static int bit(Object value, int field) {
+        return value == null ? 0 : 1 << field;
+    }
+
+    private static boolean has(long presence, int field) {
+        return (presence & (1L << field)) != 0;
+    }
+
+    /**
+     * Growable output buffer, reused per thread; only the final copy is allocated per message.
+     */
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void reset() {
+            position = 0;
+        }
+
+        void writeByte(byte value) {
+            ensure(1);
+            buffer[position++] = value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeZigZagLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        /**
+         * Null strings are skipped (their presence bit is clear). ASCII is copied char by char
+         * without an intermediate byte[]; anything else goes through the UTF-8 encoder.
+         */
+        void writeString(String value) {
+            if (value == null) {
+                return;
+            }
+            int length = value.length();
+            boolean ascii = true;
+            for (int i = 0; i < length && ascii; i++) {
+                ascii = value.charAt(i) < 0x80;
+            }
+            if (ascii) {
+                writeVarLong(length);
+                ensure(length);
+                for (int i = 0; i < length; i++) {
+                    buffer[position++] = (byte) value.charAt(i);
+                }
+            } else {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                writeVarLong(utf8.length);
+                ensure(utf8.length);
+                System.arraycopy(utf8, 0, buffer, position, utf8.length);
+                position += utf8.length;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        int readByte() {
+            return data[position++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                if (shift > 63) {
+                    throw new SerializationException("malformed varint in compact transaction payload");
+                }
+                current = data[position++];
+                value |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return value;
+        }
+
+        long readZigZagLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString(long presence, int field) {
+            if (!has(presence, field)) {
+                return null;
+            }
+            // compared as a long against the bytes left, so a huge varint cannot overflow the bounds check
+            long length = readVarLong();
+            if (length < 0 || length > data.length - position) {
+                throw new SerializationException("string length out of bounds in compact transaction payload");
+            }
+            String value = new String(data, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
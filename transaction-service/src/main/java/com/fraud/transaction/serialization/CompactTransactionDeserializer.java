@@ -0,0 +1,44 @@
+package com.fraud.transaction.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Kafka deserializer that accepts both wire formats: payloads starting with
+ * {@link CompactTransactionCodec#MAGIC} are decoded as compact binary, everything else is
+ * handed to a {@link JsonDeserializer} configured from the same consumer properties.
+ * This keeps topics readable while producers are switched between formats.
+ */
+public class CompactTransactionDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (CompactTransactionCodec.isCompact(data)) {
+            return CompactTransactionCodec.decode(data);
+        }
+        return jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (CompactTransactionCodec.isCompact(data)) {
+            return CompactTransactionCodec.decode(data);
+        }
+        return jsonDeserializer.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
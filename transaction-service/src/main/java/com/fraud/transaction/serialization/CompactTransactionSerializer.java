@@ -0,0 +1,24 @@
+package com.fraud.transaction.serialization;
+
+import com.fraud.transaction.api.request.CreateTransactionRequest;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer writing {@link CreateTransactionRequest} in the {@link CompactTransactionCodec} format.
+ * Selected per topic through {@code DelegatingByTopicSerializer} (see application.yml).
+ */
+public class CompactTransactionSerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (!(data instanceof CreateTransactionRequest request)) {
+            throw new SerializationException("compact format only supports CreateTransactionRequest, got "
+                    + data.getClass().getName() + " for topic " + topic);
+        }
+        return CompactTransactionCodec.encode(request);
+    }
+}
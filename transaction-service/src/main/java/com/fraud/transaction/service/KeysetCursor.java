@@ -0,0 +1,42 @@
+package com.fraud.transaction.service;
+
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque page cursor for listings ordered by id descending: the id of the last row returned,
+ * versioned and base64url-encoded so clients do not build or depend on it.
+ */
+final class KeysetCursor {
+
+    private static final String PREFIX = "v1:";
+
+    private KeysetCursor() {
+    }
+
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @return the id to continue below, or {@link Long#MAX_VALUE} for the first page
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode}
+     */
+    static long decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (decoded.startsWith(PREFIX)) {
+                return Long.parseLong(decoded.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through: malformed base64 or id
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+}
@@ -1,78 +1,279 @@
 package com.fraud.transaction.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.transaction.api.request.BulkFlagTransactionsRequest;
 import com.fraud.transaction.api.request.CreateTransactionRequest;
+import com.fraud.transaction.api.request.TransactionSearchRequest;
 import com.fraud.transaction.api.request.UpdateTransactionRequest;
+import com.fraud.transaction.bulk.BulkFormat;
+import com.fraud.transaction.bulk.BulkRowReader;
+import com.fraud.transaction.cache.TransactionLookupCache;
+import com.fraud.transaction.dedup.IdempotencyService;
+import com.fraud.transaction.dto.BatchIngestResult;
+import com.fraud.transaction.dto.BulkFlagResult;
+import com.fraud.transaction.dto.BulkLoadResult;
 import com.fraud.transaction.dto.TransactionDto;
+import com.fraud.transaction.dto.TransactionPage;
 import com.fraud.transaction.entity.Transaction;
 import com.fraud.transaction.mapper.TransactionMapper;
 import com.fraud.transaction.api.request.FlagTransactionRequest;
+import com.fraud.transaction.repository.TransactionCopyRepository;
 import com.fraud.transaction.repository.TransactionRepository;
+import com.fraud.transaction.rollup.MerchantHourlyRollupService;
+import com.fraud.transaction.scoring.RiskScoringEngine;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
 
+    /** Upper bound of {@code size} for the keyset-paginated listings. */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /** Most transactions one bulk flag request may touch. */
+    public static final int MAX_BULK_FLAG = 100_000;
+
+    /** Transactions flagged per UPDATE statement (and per database transaction) by a bulk flag. */
+    private static final int BULK_FLAG_CHUNK_SIZE = 1000;
+
+    private static final String FLAGGED_BY = "system"; // fixed for now
+
+    /** Rows per COPY (and per database transaction) of a bulk load; bounds its memory. */
+    private static final int BULK_LOAD_CHUNK_SIZE = 5000;
+
     private final TransactionRepository transactionRepository;
     private final TransactionMapper transactionMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final IdempotencyService idempotencyService;
+    private final RiskScoringEngine riskScoringEngine;
+    private final TransactionLookupCache transactionLookupCache;
+    private final ObjectMapper objectMapper;
+    private final MerchantHourlyRollupService merchantHourlyRollupService;
 
-    @Transactional(readOnly = true)
+    /**
+     * Served from {@link TransactionLookupCache}; not transactional, so that a hit does not take a
+     * connection (the repository query runs in its own read-only transaction on a miss).
+     */
     public TransactionDto getTransactionById(String transId) {
         if (!StringUtils.hasText(transId)) {
             throw new IllegalArgumentException("transactionId must not be null or blank");
         }
 
-        Transaction transaction = transactionRepository.findByTransactionId(transId)
-                .orElseThrow(() -> new EntityNotFoundException("Transaction not found with id: " + transId));
-
-        return transactionMapper.toDto(transaction);
+        return transactionLookupCache.get(transId, id -> transactionRepository.findDtoByTransactionId(id)
+                .orElseThrow(() -> new EntityNotFoundException("Transaction not found with id: " + id)));
     }
 
     /**
      * Create a new transaction from a CreateTransactionRequest.
+     * - Returns the existing transaction if the idempotency key was already ingested, whether the
+     *   dedup filter knew the key or the insert found it stored (another instance, an older key)
      * - Ensures transactionId exists (generates UUID if absent)
      * - Ensures isFlagged is not null (defaults to false)
      * - Ensures createdAt/transactionTime are set
+     * - Scores the transaction (riskScore, isFlagged, flagReason, reviewStatus) before it is persisted,
+     *   and records it in the scoring stores once committed
      */
-    @Transactional
     public TransactionDto createTransaction(CreateTransactionRequest createRequest) {
         Objects.requireNonNull(createRequest, "createRequest must not be null");
 
+        Optional<Transaction> duplicate = idempotencyService.findDuplicate(createRequest.getIdempotencyKey());
+        if (duplicate.isPresent()) {
+            log.info("Idempotency key already used, returning transactionId={}", duplicate.get().getTransactionId());
+            return transactionMapper.toDto(duplicate.get());
+        }
+
         Transaction entity = transactionMapper.fromCreateRequest(createRequest);
+        applyCreateDefaults(entity);
+        riskScoringEngine.score(entity);
 
-        // Ensure transactionId is present (generated by server if not supplied)
-        if (!StringUtils.hasText(entity.getTransactionId())) {
-            entity.setTransactionId(UUID.randomUUID().toString());
+        Transaction saved;
+        try {
+            // flushed inside the transaction, so that a repeated key fails here and not at commit
+            saved = transactionTemplate.execute(status -> {
+                Transaction inserted = transactionRepository.saveAndFlush(entity);
+                // only once the row is committed: a rolled-back insert must neither count in the rollup
+                // or the scoring stores nor turn a retry of its idempotency key into a duplicate, as in
+                // the batch and bulk paths
+                afterCommit(() -> {
+                    idempotencyService.record(inserted.getIdempotencyKey());
+                    merchantHourlyRollupService.record(inserted);
+                    riskScoringEngine.observe(inserted);
+                });
+                return inserted;
+            });
+        } catch (DataIntegrityViolationException insertFailure) {
+            if (!IdempotencyService.isDuplicateKey(insertFailure)) {
+                throw insertFailure;
+            }
+            Transaction stored = idempotencyService.findStored(entity.getIdempotencyKey())
+                    .orElseThrow(() -> insertFailure);
+            log.info("Idempotency key already stored, returning transactionId={}", stored.getTransactionId());
+            return transactionMapper.toDto(stored);
         }
+        log.info("Created transaction with transactionId={}", saved.getTransactionId());
+        return transactionMapper.toDto(saved);
+    }
 
-        // Ensure sensible defaults
-        if (entity.getIsFlagged() == null) {
-            entity.setIsFlagged(Boolean.FALSE);
+    /**
+     * Create many transactions at once (used by the batch Kafka listener).
+     * - Requests failing bean validation are rejected up-front and never reach the database
+     * - Already ingested idempotency keys (including repeats within the batch) are skipped
+     * - Valid requests are mapped in bulk, scored in order (each one seeing the earlier ones of the batch
+     *   as if already recorded), and written in one transaction using JDBC batching; committed ones are
+     *   then recorded in the scoring stores
+     * - If the batch write fails (e.g. fk_transactions_merchant), every record is retried in its
+     *   own transaction so that one bad record does not roll back the rest of the batch
+     */
+    public BatchIngestResult createTransactions(List<CreateTransactionRequest> createRequests) {
+        Objects.requireNonNull(createRequests, "createRequests must not be null");
+        BatchIngestResult result = new BatchIngestResult(createRequests.size());
+
+        List<CreateTransactionRequest> valid = new ArrayList<>(createRequests.size());
+        List<Integer> positions = new ArrayList<>(createRequests.size());
+        Set<String> batchKeys = new HashSet<>();
+        for (int i = 0; i < createRequests.size(); i++) {
+            String violation = validate(createRequests.get(i));
+            if (violation != null) {
+                result.reject(i, violation);
+                continue;
+            }
+            String idempotencyKey = createRequests.get(i).getIdempotencyKey();
+            if (StringUtils.hasText(idempotencyKey) && (!batchKeys.add(idempotencyKey)
+                    || idempotencyService.findDuplicate(idempotencyKey).isPresent())) {
+                result.duplicate();
+                continue;
+            }
+            valid.add(createRequests.get(i));
+            positions.add(i);
+        }
+        if (valid.isEmpty()) {
+            return result;
         }
 
-        LocalDateTime now = LocalDateTime.now();
-        if (entity.getCreatedAt() == null) {
-            entity.setCreatedAt(now);
+        List<Transaction> entities = transactionMapper.fromCreateRequests(valid);
+        for (Transaction entity : entities) {
+            applyCreateDefaults(entity);
         }
-        if (entity.getTransactionTime() == null) {
-            entity.setTransactionTime(now);
+        riskScoringEngine.scoreBatch(entities);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                transactionRepository.saveAll(entities);
+                transactionRepository.flush();
+            });
+            result.setAccepted(entities.size());
+            for (Transaction entity : entities) {
+                idempotencyService.record(entity.getIdempotencyKey());
+                merchantHourlyRollupService.record(entity);
+                riskScoringEngine.observe(entity);
+            }
+        } catch (DataAccessException batchFailure) {
+            log.warn("Batch insert of {} transactions failed, retrying records individually: {}",
+                    entities.size(), batchFailure.getMostSpecificCause().getMessage());
+            for (int i = 0; i < entities.size(); i++) {
+                Transaction entity = entities.get(i);
+                entity.setId(null); // id from the rolled-back attempt is discarded
+                try {
+                    transactionTemplate.executeWithoutResult(status -> transactionRepository.saveAndFlush(entity));
+                    idempotencyService.record(entity.getIdempotencyKey());
+                    merchantHourlyRollupService.record(entity);
+                    riskScoringEngine.observe(entity);
+                    result.accept();
+                } catch (DataAccessException recordFailure) {
+                    if (IdempotencyService.isDuplicateKey(recordFailure)) {
+                        // stored by another instance or before the filter window
+                        idempotencyService.record(entity.getIdempotencyKey());
+                        result.duplicate();
+                    } else {
+                        result.reject(positions.get(i), recordFailure.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
         }
 
-        Transaction saved = transactionRepository.save(entity);
-        log.info("Created transaction with transactionId={}", saved.getTransactionId());
-        return transactionMapper.toDto(saved);
+        log.info("Batch created {} of {} transactions ({} duplicates, {} rejected)",
+                result.getAccepted(), result.getReceived(), result.getDuplicates(), result.getRejected().size());
+        return result;
+    }
+
+    /**
+     * Create transactions from an NDJSON or CSV body (e.g. settlement backfills), streaming:
+     * rows are parsed, validated, defaulted and scored one at a time and written with
+     * {@link TransactionRepository#copyInsert} in chunks of {@value #BULK_LOAD_CHUNK_SIZE}, each in its own
+     * transaction, so memory stays the same whatever the body size.
+     * - Rows failing parsing or bean validation are rejected with the reason
+     * - Rows whose transaction ID or idempotency key is already stored are counted as duplicates
+     * - Rows for an unknown merchant are rejected (fk_transactions_merchant is checked up front)
+     * - Rows are scored with the stateless providers only, so historical rows never enter the
+     *   velocity, amount, travel, graph or sketch stores
+     * - If a chunk fails as a whole, its rows are rejected with the cause and loading continues
+     */
+    public BulkLoadResult createTransactionsBulk(InputStream body, BulkFormat format) throws IOException {
+        Objects.requireNonNull(body, "body must not be null");
+        long started = System.nanoTime();
+        BulkLoadResult result = new BulkLoadResult();
+        List<Transaction> chunk = new ArrayList<>(BULK_LOAD_CHUNK_SIZE);
+        long[] lines = new long[BULK_LOAD_CHUNK_SIZE];
+
+        try (BulkRowReader reader = new BulkRowReader(body, format, objectMapper)) {
+            BulkRowReader.Row row;
+            while ((row = reader.next()) != null) {
+                result.received();
+                String violation = row.error() != null ? row.error() : validate(row.request());
+                if (violation != null) {
+                    result.reject(row.line(), violation);
+                    continue;
+                }
+                Transaction entity = transactionMapper.fromCreateRequest(row.request());
+                applyCreateDefaults(entity);
+                riskScoringEngine.scoreStateless(entity);
+
+                lines[chunk.size()] = row.line();
+                chunk.add(entity);
+                if (chunk.size() == BULK_LOAD_CHUNK_SIZE) {
+                    copyChunk(chunk, lines, result);
+                    chunk.clear();
+                }
+            }
+        }
+        copyChunk(chunk, lines, result);
+
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Bulk created {} of {} transactions ({} duplicates, {} rejected) in {} ms", result.getAccepted(),
+                result.getReceived(), result.getDuplicates(), result.getRejected(), result.getElapsedMillis());
+        return result;
     }
 
     /**
@@ -97,7 +298,9 @@ public class TransactionService {
 
         Transaction saved = transactionRepository.save(existing);
         log.info("Updated transaction transactionId={}", transactionId);
-        return transactionMapper.toDto(saved);
+        TransactionDto updated = transactionMapper.toDto(saved);
+        transactionLookupCache.refreshAfterCommit(updated);
+        return updated;
     }
 
     @Transactional
@@ -107,34 +310,67 @@ public class TransactionService {
         }
         Objects.requireNonNull(request, "request must not be null");
 
-        Transaction txn = transactionRepository.findByTransactionId(transactionId)
+        // one UPDATE ... RETURNING instead of load, dirty-check and save
+        TransactionDto flagged = transactionRepository.flagReturning(transactionId, request.getComment(), null,
+                        FLAGGED_BY, LocalDateTime.now())
                 .orElseThrow(() -> new EntityNotFoundException("Transaction not found with id: " + transactionId));
+        log.info("Transaction {} flagged successfully by {}", transactionId, FLAGGED_BY);
 
-        txn.setIsFlagged(true);
-        txn.setFlagReason(request.getComment());
-        txn.setFlaggedAt(LocalDateTime.now());
-        txn.setFlaggedBy("system"); // fixed for now
-        txn.setUpdatedAt(LocalDateTime.now());
+        transactionLookupCache.refreshAfterCommit(flagged);
+        return flagged;
+    }
 
-        Transaction saved = transactionRepository.save(txn);
-        log.info("Transaction {} flagged successfully by system", transactionId);
+    /**
+     * Flag many transactions, listed by ID or selected by a search filter, with set-based
+     * UPDATE statements of {@value #BULK_FLAG_CHUNK_SIZE} IDs each. Every chunk commits on its own,
+     * so row locks are held briefly; if a chunk fails, the chunks before it stay flagged and
+     * re-submitting the request is safe.
+     *
+     * @throws IllegalArgumentException unless exactly one of IDs and filter is given, or when more
+     *                                  than {@value #MAX_BULK_FLAG} transactions would be flagged
+     */
+    public BulkFlagResult flagTransactions(BulkFlagTransactionsRequest request) {
+        Objects.requireNonNull(request, "request must not be null");
+        boolean byIds = request.getTransactionIds() != null && !request.getTransactionIds().isEmpty();
+        if (byIds == (request.getFilter() != null)) {
+            throw new IllegalArgumentException("Exactly one of transactionIds and filter must be given");
+        }
 
-        return transactionMapper.toDto(saved);
+        List<String> transactionIds = byIds
+                ? request.getTransactionIds().stream().filter(StringUtils::hasText).distinct().toList()
+                : transactionRepository.searchTransactionIds(request.getFilter(), MAX_BULK_FLAG + 1);
+        if (transactionIds.size() > MAX_BULK_FLAG) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_FLAG + " transactions can be flagged at once");
+        }
+
+        LocalDateTime flaggedAt = LocalDateTime.now();
+        long updated = 0;
+        for (int from = 0; from < transactionIds.size(); from += BULK_FLAG_CHUNK_SIZE) {
+            List<String> chunk = transactionIds.subList(from, Math.min(transactionIds.size(), from + BULK_FLAG_CHUNK_SIZE));
+            Integer count = transactionTemplate.execute(status -> {
+                transactionLookupCache.invalidateAfterCommit(chunk);
+                return transactionRepository.flagAll(chunk, request.getReason(), request.getReviewStatus(),
+                        FLAGGED_BY, flaggedAt);
+            });
+            updated += count == null ? 0 : count;
+        }
+
+        log.info("Bulk flagged {} of {} transactions", updated, transactionIds.size());
+        return new BulkFlagResult(transactionIds.size(), updated);
     }
 
     @Transactional(readOnly = true)
     public List<TransactionDto> getAllTransactions() {
-        List<Transaction> all = transactionRepository.findAll();
-        return transactionMapper.toDtoList(all);
+        return transactionRepository.findAllDtos();
     }
 
     @Transactional(readOnly = true)
     public List<TransactionDto> getFlaggedTransactions() {
-        List<Transaction> flagged = transactionRepository.findByIsFlaggedTrue();
+        List<TransactionDto> flagged = transactionRepository.findFlaggedDtos();
         if (flagged.isEmpty()) {
             log.debug("No flagged transactions found.");
         }
-        return transactionMapper.toDtoList(flagged);
+        return flagged;
     }
 
     @Transactional(readOnly = true)
@@ -143,10 +379,194 @@ public class TransactionService {
             throw new IllegalArgumentException("Merchant ID must not be null or empty.");
         }
 
-        List<Transaction> merchantTransactions = transactionRepository.findByMerchantId(merchantId);
+        List<TransactionDto> merchantTransactions = transactionRepository.findDtosByMerchantId(merchantId);
         if (merchantTransactions.isEmpty()) {
             log.debug("No transactions found for merchant ID: {}", merchantId);
         }
-        return transactionMapper.toDtoList(merchantTransactions);
+        return merchantTransactions;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TransactionDto> searchTransactions(TransactionSearchRequest request) {
+        if (request.getMinAmount() != null && request.getMaxAmount() != null
+                && request.getMinAmount().compareTo(request.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("minAmount must not be greater than maxAmount");
+        }
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (request.getSort() == null) {
+            request.setSort(TransactionSearchRequest.Sort.TIME_DESC);
+        }
+        return transactionRepository.search(request);
+    }
+
+    /**
+     * Keyset-paginated variants of the listings above, newest (highest id) first. Each page is
+     * one index range scan of at most {@code size + 1} rows, however deep the client pages.
+     *
+     * @param cursor {@link TransactionPage#getNextCursor()} of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionsPage(String cursor, int size) {
+        return page(cursor, size, transactionRepository::findDtoPage);
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionPage getFlaggedTransactionsPage(String cursor, int size) {
+        return page(cursor, size, transactionRepository::findFlaggedDtoPage);
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionsByMerchantPage(String merchantId, String cursor, int size) {
+        if (!StringUtils.hasText(merchantId)) {
+            throw new IllegalArgumentException("Merchant ID must not be null or empty.");
+        }
+        return page(cursor, size, (afterId, limit) ->
+                transactionRepository.findDtoPageByMerchantId(merchantId, afterId, limit));
+    }
+
+    /**
+     * Streaming variants of the listings above: rows are read through a forward-only JDBC
+     * cursor and handed to {@code sink} one at a time, newest first. They are projected straight
+     * into DTOs and never enter the persistence context, so heap use does not grow with the
+     * result size. The connection is held until the sink has seen
+     * every row.
+     *
+     * @return the number of rows streamed
+     */
+    @Transactional(readOnly = true)
+    public long streamTransactions(Consumer<TransactionDto> sink) {
+        return stream(transactionRepository::streamAllDtos, sink);
+    }
+
+    @Transactional(readOnly = true)
+    public long streamFlaggedTransactions(Consumer<TransactionDto> sink) {
+        return stream(transactionRepository::streamFlaggedDtos, sink);
+    }
+
+    @Transactional(readOnly = true)
+    public long streamTransactionsByMerchant(String merchantId, Consumer<TransactionDto> sink) {
+        if (!StringUtils.hasText(merchantId)) {
+            throw new IllegalArgumentException("Merchant ID must not be null or empty.");
+        }
+        return stream(() -> transactionRepository.streamDtosByMerchantId(merchantId), sink);
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    /**
+     * Runs {@code action} once the current transaction commits (immediately when there is none).
+     * Nothing happens on rollback.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Server-side defaults shared by the single and batch create paths.
+     * - Ensures transactionId exists (generates UUID if absent)
+     * - Ensures isFlagged is not null (defaults to false)
+     * - Ensures createdAt/transactionTime are set
+     */
+    private void applyCreateDefaults(Transaction entity) {
+        if (!StringUtils.hasText(entity.getTransactionId())) {
+            entity.setTransactionId(UUID.randomUUID().toString());
+        }
+        if (entity.getIsFlagged() == null) {
+            entity.setIsFlagged(Boolean.FALSE);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (entity.getCreatedAt() == null) {
+            entity.setCreatedAt(now);
+        }
+        if (entity.getUpdatedAt() == null) {
+            entity.setUpdatedAt(entity.getCreatedAt());
+        }
+        if (entity.getTransactionTime() == null) {
+            entity.setTransactionTime(now);
+        }
+    }
+
+    /**
+     * Returns the first bean validation violation formatted as "field: message", or null if valid.
+     * The REST path validates via @Valid; Kafka payloads are validated here.
+     */
+    private String validate(CreateTransactionRequest request) {
+        if (request == null) {
+            return "request must not be null";
+        }
+        Set<ConstraintViolation<CreateTransactionRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<CreateTransactionRequest> violation = violations.iterator().next();
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private void copyChunk(List<Transaction> chunk, long[] lines, BulkLoadResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        TransactionCopyRepository.CopyResult copied;
+        try {
+            copied = transactionTemplate.execute(status -> transactionRepository.copyInsert(chunk));
+        } catch (DataAccessException chunkFailure) {
+            String reason = chunkFailure.getMostSpecificCause().getMessage();
+            log.warn("Bulk insert of {} transactions failed: {}", chunk.size(), reason);
+            for (int i = 0; i < chunk.size(); i++) {
+                result.reject(lines[i], reason);
+            }
+            return;
+        }
+
+        boolean[] skipped = new boolean[chunk.size()];
+        for (int position : copied.unknownMerchants()) {
+            skipped[position] = true;
+            result.reject(lines[position], "merchantId: unknown merchant " + chunk.get(position).getMerchantId());
+        }
+        result.accepted(copied.inserted().size());
+        result.duplicates(chunk.size() - copied.unknownMerchants().size() - copied.inserted().size());
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!skipped[i]) {
+                idempotencyService.record(chunk.get(i).getIdempotencyKey());
+            }
+        }
+        for (int position : copied.inserted()) {
+            merchantHourlyRollupService.record(chunk.get(position));
+        }
+    }
+
+    private TransactionPage page(String cursor, int size, BiFunction<Long, Limit, List<TransactionDto>> query) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // one extra row tells whether another page follows without a COUNT(*)
+        List<TransactionDto> rows = query.apply(KeysetCursor.decode(cursor), Limit.of(size + 1));
+        boolean more = rows.size() > size;
+        List<TransactionDto> items = more ? rows.subList(0, size) : rows;
+        String nextCursor = more ? KeysetCursor.encode(items.get(size - 1).getId()) : null;
+        return new TransactionPage(items, nextCursor);
+    }
+
+    private long stream(Supplier<Stream<TransactionDto>> query, Consumer<TransactionDto> sink) {
+        long count = 0;
+        try (Stream<TransactionDto> rows = query.get()) {
+            for (TransactionDto row : (Iterable<TransactionDto>) rows::iterator) {
+                sink.accept(row);
+                count++;
+            }
+        }
+        return count;
     }
 }
@@ -0,0 +1,165 @@
+package com.fraud.transaction.sketch;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Distinct cards of one merchant as a ring of one-minute {@link HyperLogLog} buckets.
+ *
+ * All buckets share one {@code byte[]} of {@code buckets * 2^precision} registers, so memory per
+ * merchant is fixed. A bucket is cleared when its slot is reused for a new minute; window
+ * estimates merge the buckets still inside the window into a caller-supplied scratch range.
+ * Both estimates are cached and only recomputed when a register changes or the minute moves on,
+ * so scoring a card already counted this minute costs one register compare.
+ */
+final class MerchantCardSketch {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int precision;
+    private final int m;
+    private final byte[] registers;
+    private final long[] bucketMinute;
+    private volatile long lastMinute = EMPTY;
+    private long estimatedMinute = EMPTY;
+    private double minuteEstimate;
+    private double windowEstimate;
+
+    MerchantCardSketch(int precision, int buckets) {
+        this.precision = precision;
+        this.m = 1 << precision;
+        this.registers = new byte[buckets * m];
+        this.bucketMinute = new long[buckets];
+        Arrays.fill(bucketMinute, EMPTY);
+    }
+
+    static long bytesPerMerchant(int precision, int buckets) {
+        return (long) buckets * ((1 << precision) + Long.BYTES);
+    }
+
+    long lastMinute() {
+        return lastMinute;
+    }
+
+    /**
+     * Writes the estimates as they would be with the card added to the bucket of {@code minute},
+     * without adding it: [0] distinct cards in this minute, [1] distinct cards over all buckets.
+     * A card that would not change a register is answered from the cached estimates.
+     *
+     * @param scratch at least {@code 2^precision} bytes, overwritten
+     */
+    void estimateWith(long cardHash, long minute, byte[] scratch, double[] out) {
+        int index = HyperLogLog.index(cardHash, precision);
+        int rank = HyperLogLog.rank(cardHash, precision);
+        lock.lock();
+        try {
+            int bucket = (int) Math.floorMod(minute, (long) bucketMinute.length);
+            boolean current = bucketMinute[bucket] == minute;
+            if (current && minute == estimatedMinute && rank <= registers[bucket * m + index]) {
+                out[0] = minuteEstimate;
+                out[1] = windowEstimate;
+                return;
+            }
+            if (current) {
+                System.arraycopy(registers, bucket * m, scratch, 0, m);
+            } else {
+                Arrays.fill(scratch, 0, m, (byte) 0);
+            }
+            scratch[index] = (byte) Math.max(scratch[index], rank);
+            out[0] = HyperLogLog.estimate(scratch, 0, m);
+            mergeWindow(minute, bucketMinute.length, scratch);
+            scratch[index] = (byte) Math.max(scratch[index], rank);
+            out[1] = HyperLogLog.estimate(scratch, 0, m);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@link #estimateWith(long, long, byte[], double[])} with several cards added at once, e.g. a
+     * transaction's card together with those of its batch that are not committed yet.
+     *
+     * @param scratch at least {@code 2^precision} bytes, overwritten
+     */
+    void estimateWith(long[] cardHashes, int count, long minute, byte[] scratch, double[] out) {
+        lock.lock();
+        try {
+            int bucket = (int) Math.floorMod(minute, (long) bucketMinute.length);
+            if (bucketMinute[bucket] == minute) {
+                System.arraycopy(registers, bucket * m, scratch, 0, m);
+            } else {
+                Arrays.fill(scratch, 0, m, (byte) 0);
+            }
+            for (int i = 0; i < count; i++) {
+                HyperLogLog.add(scratch, 0, precision, cardHashes[i]);
+            }
+            out[0] = HyperLogLog.estimate(scratch, 0, m);
+            mergeWindow(minute, bucketMinute.length, scratch);
+            for (int i = 0; i < count; i++) {
+                HyperLogLog.add(scratch, 0, precision, cardHashes[i]);
+            }
+            out[1] = HyperLogLog.estimate(scratch, 0, m);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the card to the bucket of {@code minute} and refreshes the cached estimates.
+     *
+     * @param scratch at least {@code 2^precision} bytes, overwritten
+     */
+    void add(long cardHash, long minute, byte[] scratch) {
+        lock.lock();
+        try {
+            int offset = bucket(minute) * m;
+            if (HyperLogLog.add(registers, offset, precision, cardHash) || minute != estimatedMinute) {
+                minuteEstimate = HyperLogLog.estimate(registers, offset, m);
+                windowEstimate = mergeWindow(minute, bucketMinute.length, scratch);
+                estimatedMinute = minute;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Union of the last {@code minutes} buckets (up to and including {@code minute}).
+     */
+    HyperLogLog union(long minute, int minutes) {
+        byte[] union = new byte[m];
+        lock.lock();
+        try {
+            mergeWindow(minute, Math.min(minutes, bucketMinute.length), union);
+        } finally {
+            lock.unlock();
+        }
+        return new HyperLogLog(precision, union);
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    /** Slot of {@code minute}, cleared first if it still holds an older minute. Caller holds the lock. */
+    private int bucket(long minute) {
+        int bucket = (int) Math.floorMod(minute, (long) bucketMinute.length);
+        if (bucketMinute[bucket] != minute) {
+            Arrays.fill(registers, bucket * m, (bucket + 1) * m, (byte) 0);
+            bucketMinute[bucket] = minute;
+            lastMinute = Math.max(lastMinute, minute);
+        }
+        return bucket;
+    }
+
+    /** Caller holds the lock. */
+    private double mergeWindow(long minute, int minutes, byte[] scratch) {
+        Arrays.fill(scratch, 0, m, (byte) 0);
+        for (int bucket = 0; bucket < bucketMinute.length; bucket++) {
+            long age = minute - bucketMinute[bucket];
+            if (bucketMinute[bucket] != EMPTY && age >= 0 && age < minutes) {
+                HyperLogLog.merge(scratch, 0, registers, bucket * m, m);
+            }
+        }
+        return HyperLogLog.estimate(scratch, 0, m);
+    }
+}
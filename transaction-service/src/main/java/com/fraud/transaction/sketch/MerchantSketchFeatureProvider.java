@@ -0,0 +1,69 @@
+package com.fraud.transaction.sketch;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.scoring.Feature;
+import com.fraud.transaction.scoring.FeatureProvider;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exposes the distinct-card estimates of the merchant including this card as features, and adds
+ * the cards of committed transactions to the merchant's sketch. Cards of pending transactions of
+ * the same batch at the same merchant are counted as well.
+ */
+@Component
+@Order(50)
+public class MerchantSketchFeatureProvider implements FeatureProvider {
+
+    private static final ThreadLocal<double[]> OUT = ThreadLocal.withInitial(() -> new double[2]);
+
+    private final MerchantSketchService merchantSketchService;
+
+    public MerchantSketchFeatureProvider(MerchantSketchService merchantSketchService) {
+        this.merchantSketchService = merchantSketchService;
+    }
+
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public void contribute(Transaction transaction, double[] features) {
+        contribute(transaction, List.of(), features);
+    }
+
+    @Override
+    public void contribute(Transaction transaction, List<Transaction> pending, double[] features) {
+        if (!merchantSketchService.isEnabled()) {
+            return;
+        }
+        List<String> pendingCards = List.of();
+        String merchantId = transaction.getMerchantId();
+        for (Transaction earlier : pending) {
+            if (StringUtils.hasText(earlier.getCardNumberMasked()) && merchantId != null
+                    && merchantId.equals(earlier.getMerchantId())) {
+                if (pendingCards.isEmpty()) {
+                    pendingCards = new ArrayList<>();
+                }
+                pendingCards.add(earlier.getCardNumberMasked());
+            }
+        }
+        double[] out = OUT.get();
+        if (merchantSketchService.estimateWith(merchantId, transaction.getCardNumberMasked(), pendingCards, out)) {
+            features[Feature.MERCHANT_DISTINCT_CARDS_1M.ordinal()] = out[0];
+            features[Feature.MERCHANT_DISTINCT_CARDS_WINDOW.ordinal()] = out[1];
+        }
+    }
+
+    @Override
+    public void observe(Transaction transaction) {
+        if (merchantSketchService.isEnabled()) {
+            merchantSketchService.observe(transaction.getMerchantId(), transaction.getCardNumberMasked());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.fraud.transaction.sketch;
+
+import com.fraud.transaction.dto.MerchantCardinalityDto;
+import com.fraud.transaction.util.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distinct cards per merchant over the last {@code transaction.sketch.window-minutes} minutes,
+ * for card-testing detection without {@code COUNT(DISTINCT card_number_masked)} queries.
+ *
+ * Every merchant gets a {@link MerchantCardSketch} of fixed size; merchants beyond
+ * {@code transaction.sketch.max-merchants} are not tracked, and merchants idle for a whole window
+ * are dropped by the sweep. Sketches are per instance: the raw sketch export and
+ * {@link #estimateUnion} let the same estimate be computed cluster-wide by merging them.
+ */
+@Service
+@Slf4j
+public class MerchantSketchService {
+
+    private final boolean enabled;
+    private final int precision;
+    private final int windowMinutes;
+    private final int maxMerchants;
+    private final Map<String, MerchantCardSketch> sketches = new ConcurrentHashMap<>();
+    private final ThreadLocal<byte[]> scratch;
+    private final Counter untracked;
+    private volatile long maxDistinctCards;
+
+    public MerchantSketchService(MeterRegistry meterRegistry,
+                                 @Value("${transaction.sketch.enabled}") boolean enabled,
+                                 @Value("${transaction.sketch.precision}") int precision,
+                                 @Value("${transaction.sketch.window-minutes}") int windowMinutes,
+                                 @Value("${transaction.sketch.max-merchants}") int maxMerchants) {
+        HyperLogLog.checkPrecision(precision);
+        if (windowMinutes <= 0) {
+            throw new IllegalArgumentException("transaction.sketch.window-minutes must be positive");
+        }
+        this.enabled = enabled;
+        this.precision = precision;
+        this.windowMinutes = windowMinutes;
+        this.maxMerchants = maxMerchants;
+        this.scratch = ThreadLocal.withInitial(() -> new byte[1 << precision]);
+
+        this.untracked = Counter.builder("transaction.sketch.untracked")
+                .description("Transactions not counted because transaction.sketch.max-merchants was reached")
+                .register(meterRegistry);
+        Gauge.builder("transaction.sketch.merchants", sketches, Map::size)
+                .description("Merchants with a distinct-card sketch")
+                .register(meterRegistry);
+        Gauge.builder("transaction.sketch.distinct.cards.max", this, service -> service.maxDistinctCards)
+                .description("Highest distinct-card estimate of any merchant over the window, as of the last sweep")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Merchant sketches use ~{} KB per merchant, up to {} merchants",
+                    MerchantCardSketch.bytesPerMerchant(precision, windowMinutes) >> 10, maxMerchants);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Writes the estimates as they would be with the card in the merchant's current minute,
+     * without adding it: [0] distinct cards this minute, [1] distinct cards over the window.
+     *
+     * @return false when nothing was computed (disabled, missing key or merchant not tracked yet)
+     */
+    boolean estimateWith(String merchantId, String card, double[] out) {
+        if (!enabled || !StringUtils.hasText(merchantId) || !StringUtils.hasText(card)) {
+            return false;
+        }
+        MerchantCardSketch sketch = sketches.get(merchantId);
+        if (sketch == null) {
+            return false;
+        }
+        sketch.estimateWith(Hashing.hash64(card), currentMinute(), scratch.get(), out);
+        return true;
+    }
+
+    /**
+     * {@link #estimateWith(String, String, double[])} with the cards of the merchant's pending
+     * (scored, not yet committed) transactions added as well. A merchant not tracked yet is
+     * estimated from those cards alone.
+     *
+     * @return false when nothing was computed (disabled, missing key, or merchant not tracked yet
+     *         and no pending cards)
+     */
+    boolean estimateWith(String merchantId, String card, List<String> pendingCards, double[] out) {
+        if (pendingCards.isEmpty()) {
+            return estimateWith(merchantId, card, out);
+        }
+        if (!enabled || !StringUtils.hasText(merchantId) || !StringUtils.hasText(card)) {
+            return false;
+        }
+        long[] hashes = new long[pendingCards.size() + 1];
+        hashes[0] = Hashing.hash64(card);
+        for (int i = 0; i < pendingCards.size(); i++) {
+            hashes[i + 1] = Hashing.hash64(pendingCards.get(i));
+        }
+        byte[] registers = scratch.get();
+        MerchantCardSketch sketch = sketches.get(merchantId);
+        if (sketch != null) {
+            sketch.estimateWith(hashes, hashes.length, currentMinute(), registers, out);
+            return true;
+        }
+        int m = 1 << precision;
+        Arrays.fill(registers, 0, m, (byte) 0);
+        for (long hash : hashes) {
+            HyperLogLog.add(registers, 0, precision, hash);
+        }
+        out[0] = HyperLogLog.estimate(registers, 0, m);
+        out[1] = out[0];
+        return true;
+    }
+
+    /**
+     * Adds the card of a committed transaction to the merchant's current minute.
+     */
+    void observe(String merchantId, String card) {
+        if (!enabled || !StringUtils.hasText(merchantId) || !StringUtils.hasText(card)) {
+            return;
+        }
+        MerchantCardSketch sketch = sketches.get(merchantId);
+        if (sketch == null) {
+            if (sketches.size() >= maxMerchants) {
+                untracked.increment();
+                return;
+            }
+            sketch = sketches.computeIfAbsent(merchantId, k -> new MerchantCardSketch(precision, windowMinutes));
+        }
+        sketch.add(Hashing.hash64(card), currentMinute(), scratch.get());
+    }
+
+    public MerchantCardinalityDto estimate(String merchantId, int minutes) {
+        HyperLogLog union = union(merchantId, minutes);
+        return new MerchantCardinalityDto(merchantId, Math.min(minutes, windowMinutes), union.estimate(),
+                HyperLogLog.relativeError(precision));
+    }
+
+    /**
+     * The merchant's sketch over the last {@code minutes} minutes in {@link HyperLogLog#toByteArray()}
+     * form, for merging with other instances' sketches.
+     */
+    public byte[] exportSketch(String merchantId, int minutes) {
+        return union(merchantId, minutes).toByteArray();
+    }
+
+    /**
+     * Distinct count of the union of serialized sketches laid end to end (e.g. the exports of
+     * every instance for one merchant).
+     *
+     * @throws IllegalArgumentException if the bytes are not whole sketches of one precision
+     */
+    public long estimateUnion(byte[] sketchBytes) {
+        if (sketchBytes == null || sketchBytes.length == 0) {
+            throw new IllegalArgumentException("At least one sketch is required");
+        }
+        HyperLogLog union = HyperLogLog.fromByteArray(sketchBytes, 0);
+        int size = HyperLogLog.serializedSize(union.precision());
+        for (int offset = size; offset < sketchBytes.length; offset += size) {
+            union.merge(HyperLogLog.fromByteArray(sketchBytes, offset));
+        }
+        return union.estimate();
+    }
+
+    /**
+     * Drops merchants without transactions for a whole window and refreshes the max gauge.
+     */
+    @Scheduled(fixedDelayString = "${transaction.sketch.sweep-interval-ms}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        long minute = currentMinute();
+        long max = 0;
+        int removed = 0;
+        for (Map.Entry<String, MerchantCardSketch> entry : sketches.entrySet()) {
+            MerchantCardSketch sketch = entry.getValue();
+            if (minute - sketch.lastMinute() >= windowMinutes) {
+                sketches.remove(entry.getKey(), sketch);
+                removed++;
+            } else {
+                max = Math.max(max, sketch.union(minute, windowMinutes).estimate());
+            }
+        }
+        maxDistinctCards = max;
+        if (removed > 0) {
+            log.debug("Dropped {} idle merchant sketches", removed);
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private HyperLogLog union(String merchantId, int minutes) {
+        if (!StringUtils.hasText(merchantId)) {
+            throw new IllegalArgumentException("merchantId must not be null or blank");
+        }
+        if (minutes <= 0) {
+            throw new IllegalArgumentException("minutes must be positive");
+        }
+        MerchantCardSketch sketch = sketches.get(merchantId);
+        if (sketch == null) {
+            throw new EntityNotFoundException("No recent transactions for merchant: " + merchantId);
+        }
+        return sketch.union(currentMinute(), minutes);
+    }
+
+    private static long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+    }
+}
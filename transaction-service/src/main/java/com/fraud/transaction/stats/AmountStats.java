@@ -0,0 +1,130 @@
+package com.fraud.transaction.stats;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Running statistics of the amounts of one merchant in one currency, all updated in O(1)
+ * (O(log buckets) for the histogram) per transaction:
+ * - Welford mean/variance over the whole history
+ * - exponentially weighted mean/variance, which follows recent behaviour
+ * - a {@link LogHistogram} for percentiles
+ */
+final class AmountStats {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double ewmaAlpha;
+    private final LogHistogram histogram;
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double ewmaMean;
+    private double ewmaVariance;
+
+    AmountStats(double ewmaAlpha, double relativeAccuracy, double maxAmount) {
+        this.ewmaAlpha = ewmaAlpha;
+        this.histogram = new LogHistogram(relativeAccuracy, maxAmount);
+    }
+
+    /**
+     * Writes the position of {@code amount} relative to the history so far into {@code out},
+     * without adding it. The features are NaN until {@code minSamples} amounts have been seen.
+     *
+     * @param out receives z-score, EWMA z-score, percentile (0..1) and ratio to the EWMA mean
+     */
+    void score(double amount, long minSamples, double[] out) {
+        lock.lock();
+        try {
+            if (count >= minSamples) {
+                out[0] = zScore(amount, mean, m2 / (count - 1));
+                out[1] = zScore(amount, ewmaMean, ewmaVariance);
+                out[2] = histogram.rank(amount);
+                out[3] = ewmaMean > 0 ? amount / ewmaMean : Double.NaN;
+            } else {
+                out[0] = out[1] = out[2] = out[3] = Double.NaN;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the amount to the history.
+     */
+    void add(double amount) {
+        lock.lock();
+        try {
+            count++;
+            double delta = amount - mean;
+            mean += delta / count;
+            m2 += delta * (amount - mean);
+
+            if (count == 1) {
+                ewmaMean = amount;
+                ewmaVariance = 0;
+            } else {
+                double diff = amount - ewmaMean;
+                double increment = ewmaAlpha * diff;
+                ewmaMean += increment;
+                ewmaVariance = (1 - ewmaAlpha) * (ewmaVariance + diff * increment);
+            }
+            histogram.add(amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    AmountStatsSnapshot.Entry snapshot(String merchantId, String currency) {
+        lock.lock();
+        try {
+            int nonEmpty = 0;
+            for (int i = 0; i < histogram.size(); i++) {
+                if (histogram.count(i) != 0) {
+                    nonEmpty++;
+                }
+            }
+            int[] buckets = new int[nonEmpty];
+            long[] counts = new long[nonEmpty];
+            for (int i = 0, j = 0; i < histogram.size(); i++) {
+                long bucketCount = histogram.count(i);
+                if (bucketCount != 0) {
+                    buckets[j] = i;
+                    counts[j++] = bucketCount;
+                }
+            }
+            return new AmountStatsSnapshot.Entry(merchantId, currency, count, mean, m2, ewmaMean, ewmaVariance, buckets, counts);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Restores a snapshot into this (empty) instance. The histogram is only restored when it was
+     * written with the same bucket layout.
+     */
+    void restore(AmountStatsSnapshot.Entry entry, boolean sameHistogramLayout) {
+        lock.lock();
+        try {
+            count = entry.count();
+            mean = entry.mean();
+            m2 = entry.m2();
+            ewmaMean = entry.ewmaMean();
+            ewmaVariance = entry.ewmaVariance();
+            if (sameHistogramLayout && entry.buckets() != null && entry.counts() != null) {
+                for (int i = 0; i < entry.buckets().length; i++) {
+                    if (entry.buckets()[i] >= 0 && entry.buckets()[i] < histogram.size()) {
+                        histogram.add(entry.buckets()[i], entry.counts()[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private static double zScore(double value, double mean, double variance) {
+        return variance > 0 ? (value - mean) / Math.sqrt(variance) : Double.NaN;
+    }
+}
@@ -0,0 +1,53 @@
+package com.fraud.transaction.stats;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.scoring.Feature;
+import com.fraud.transaction.scoring.FeatureProvider;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Positions the amount within its merchant's history, and adds committed amounts to that history.
+ * Pending transactions of the same batch are not folded in: one batch barely moves a merchant's
+ * long-run amount statistics.
+ */
+@Component
+@Order(20)
+public class AmountStatsFeatureProvider implements FeatureProvider {
+
+    private static final ThreadLocal<double[]> OUT = ThreadLocal.withInitial(() -> new double[4]);
+
+    private final MerchantAmountStatsService merchantAmountStatsService;
+
+    public AmountStatsFeatureProvider(MerchantAmountStatsService merchantAmountStatsService) {
+        this.merchantAmountStatsService = merchantAmountStatsService;
+    }
+
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public void contribute(Transaction transaction, double[] features) {
+        if (!merchantAmountStatsService.isEnabled() || transaction.getAmount() == null) {
+            return;
+        }
+        double[] out = OUT.get();
+        if (merchantAmountStatsService.score(transaction.getMerchantId(), transaction.getCurrency(),
+                transaction.getAmount().doubleValue(), out)) {
+            features[Feature.AMOUNT_ZSCORE.ordinal()] = out[0];
+            features[Feature.AMOUNT_EWMA_ZSCORE.ordinal()] = out[1];
+            features[Feature.AMOUNT_PERCENTILE.ordinal()] = out[2];
+            features[Feature.AMOUNT_TO_EWMA_RATIO.ordinal()] = out[3];
+        }
+    }
+
+    @Override
+    public void observe(Transaction transaction) {
+        if (merchantAmountStatsService.isEnabled() && transaction.getAmount() != null) {
+            merchantAmountStatsService.add(transaction.getMerchantId(), transaction.getCurrency(),
+                    transaction.getAmount().doubleValue());
+        }
+    }
+}
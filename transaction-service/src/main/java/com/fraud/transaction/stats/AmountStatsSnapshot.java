@@ -0,0 +1,15 @@
+package com.fraud.transaction.stats;
+
+import java.util.List;
+
+/**
+ * On-disk form of the merchant amount statistics (JSON). Histograms are stored sparsely as
+ * parallel bucket/count arrays and are only valid for the {@code relativeAccuracy} and
+ * {@code maxAmount} they were written with.
+ */
+record AmountStatsSnapshot(long createdAt, double relativeAccuracy, double maxAmount, List<Entry> entries) {
+
+    record Entry(String merchantId, String currency, long count, double mean, double m2,
+                 double ewmaMean, double ewmaVariance, int[] buckets, long[] counts) {
+    }
+}
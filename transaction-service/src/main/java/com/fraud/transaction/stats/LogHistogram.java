@@ -0,0 +1,93 @@
+package com.fraud.transaction.stats;
+
+/**
+ * Approximate quantile sketch over positive values with bounded relative error
+ * (logarithmic buckets, as in DDSketch).
+ *
+ * Bucket i covers {@code (MIN_VALUE * gamma^(i-1), MIN_VALUE * gamma^i]} with
+ * {@code gamma = (1 + a) / (1 - a)}, so any value is known to within relative accuracy {@code a}.
+ * Values at or below {@link #MIN_VALUE} share bucket 0, values beyond the top bucket are clamped
+ * into it. Counts live in a Fenwick tree, making both {@link #add} and {@link #rank} O(log buckets)
+ * with a fixed footprint. Not thread-safe.
+ */
+final class LogHistogram {
+
+    static final double MIN_VALUE = 0.01;
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private final int size;
+    private final long[] tree;
+    private long total;
+
+    LogHistogram(double relativeAccuracy, double maxValue) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1 || maxValue <= MIN_VALUE) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1) and maxValue above " + MIN_VALUE);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+        this.size = (int) Math.ceil(Math.log(maxValue / MIN_VALUE) / logGamma) + 1;
+        this.tree = new long[size + 1];
+    }
+
+    void add(double value) {
+        add(index(value), 1);
+    }
+
+    /**
+     * Fraction of recorded values below {@code value}, counting values in the same bucket as
+     * half (mid-rank). NaN when nothing has been recorded.
+     */
+    double rank(double value) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        int index = index(value);
+        long below = prefix(index - 1);
+        long same = prefix(index) - below;
+        return (below + 0.5 * same) / total;
+    }
+
+    long total() {
+        return total;
+    }
+
+    int size() {
+        return size;
+    }
+
+    double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    long count(int index) {
+        return prefix(index) - prefix(index - 1);
+    }
+
+    void add(int index, long count) {
+        total += count;
+        for (int i = index + 1; i <= size; i += i & -i) {
+            tree[i] += count;
+        }
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private int index(double value) {
+        if (!(value > MIN_VALUE)) {
+            return 0;
+        }
+        return Math.min(size - 1, (int) Math.ceil(Math.log(value / MIN_VALUE) / logGamma));
+    }
+
+    /**
+     * Sum of the counts of buckets 0..index (0 for a negative index).
+     */
+    private long prefix(int index) {
+        long sum = 0;
+        for (int i = index + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
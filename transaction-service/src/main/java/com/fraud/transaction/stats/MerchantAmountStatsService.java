@@ -0,0 +1,206 @@
+package com.fraud.transaction.stats;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental amount statistics per merchant and currency, so that scoring can tell how unusual
+ * an amount is for its merchant without querying the transactions table.
+ *
+ * Each committed amount updates its {@link AmountStats} in place. The whole store is written to
+ * {@code transaction.stats.snapshot.path} periodically and on shutdown (write to a temp file,
+ * then atomic rename) and restored from it on startup, so the statistics survive restarts.
+ */
+@Service
+@Slf4j
+public class MerchantAmountStatsService {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final double ewmaAlpha;
+    private final double relativeAccuracy;
+    private final double maxAmount;
+    private final long minSamples;
+    private final int maxKeys;
+    private final Path snapshotPath;
+    private final Map<String, AmountStats> stats = new ConcurrentHashMap<>();
+
+    private final Counter untracked;
+    private final Counter snapshotsWritten;
+    private final Counter snapshotsFailed;
+
+    public MerchantAmountStatsService(ObjectMapper objectMapper,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${transaction.stats.enabled}") boolean enabled,
+                                      @Value("${transaction.stats.ewma-alpha}") double ewmaAlpha,
+                                      @Value("${transaction.stats.relative-accuracy}") double relativeAccuracy,
+                                      @Value("${transaction.stats.max-amount}") double maxAmount,
+                                      @Value("${transaction.stats.min-samples}") long minSamples,
+                                      @Value("${transaction.stats.max-keys}") int maxKeys,
+                                      @Value("${transaction.stats.snapshot.path:}") String snapshotPath) {
+        if (ewmaAlpha <= 0 || ewmaAlpha >= 1) {
+            throw new IllegalArgumentException("transaction.stats.ewma-alpha must be in (0, 1)");
+        }
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ewmaAlpha = ewmaAlpha;
+        this.relativeAccuracy = relativeAccuracy;
+        this.maxAmount = maxAmount;
+        this.minSamples = Math.max(2, minSamples);
+        this.maxKeys = maxKeys;
+        this.snapshotPath = StringUtils.hasText(snapshotPath) ? Path.of(snapshotPath) : null;
+
+        this.untracked = Counter.builder("transaction.stats.untracked")
+                .description("Amounts not recorded because transaction.stats.max-keys was reached")
+                .register(meterRegistry);
+        this.snapshotsWritten = snapshotCounter(meterRegistry, "success");
+        this.snapshotsFailed = snapshotCounter(meterRegistry, "failure");
+        Gauge.builder("transaction.stats.keys", stats, Map::size)
+                .description("Merchant/currency pairs with amount statistics")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Writes how unusual {@code amount} is for the merchant/currency into {@code out} (see
+     * {@link AmountStats#score}), without adding it to the statistics.
+     *
+     * @return false when nothing was computed (disabled, missing key or merchant not tracked yet)
+     */
+    boolean score(String merchantId, String currency, double amount, double[] out) {
+        if (!enabled || !StringUtils.hasText(merchantId) || !StringUtils.hasText(currency)) {
+            return false;
+        }
+        AmountStats amountStats = stats.get(key(merchantId, currency));
+        if (amountStats == null) {
+            return false;
+        }
+        amountStats.score(amount, minSamples, out);
+        return true;
+    }
+
+    /**
+     * Adds the amount of a committed transaction to the merchant/currency statistics.
+     */
+    void add(String merchantId, String currency, double amount) {
+        if (!enabled || !StringUtils.hasText(merchantId) || !StringUtils.hasText(currency)) {
+            return;
+        }
+        String key = key(merchantId, currency);
+        AmountStats amountStats = stats.get(key);
+        if (amountStats == null) {
+            if (stats.size() >= maxKeys) {
+                untracked.increment();
+                return;
+            }
+            amountStats = stats.computeIfAbsent(key, k -> newStats());
+        }
+        amountStats.add(amount);
+    }
+
+    @PostConstruct
+    void restore() {
+        if (!enabled || snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+        try {
+            AmountStatsSnapshot snapshot = objectMapper.readValue(snapshotPath.toFile(), AmountStatsSnapshot.class);
+            boolean sameLayout = snapshot.relativeAccuracy() == relativeAccuracy && snapshot.maxAmount() == maxAmount;
+            for (AmountStatsSnapshot.Entry entry : snapshot.entries()) {
+                AmountStats restored = newStats();
+                restored.restore(entry, sameLayout);
+                stats.put(key(entry.merchantId(), entry.currency()), restored);
+            }
+            log.info("Restored amount statistics for {} merchant/currency pairs from {}{}", snapshot.entries().size(),
+                    snapshotPath, sameLayout ? "" : " (histogram layout changed, percentiles start empty)");
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore amount statistics from {}, starting empty: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.stats.snapshot.interval-ms}",
+            initialDelayString = "${transaction.stats.snapshot.interval-ms}")
+    public void snapshot() {
+        if (!enabled || snapshotPath == null) {
+            return;
+        }
+        List<AmountStatsSnapshot.Entry> entries = new ArrayList<>(stats.size());
+        stats.forEach((key, value) -> {
+            int separator = key.indexOf('|');
+            entries.add(value.snapshot(key.substring(0, separator), key.substring(separator + 1)));
+        });
+        Path temp = null;
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            temp = Files.createTempFile(parent, snapshotPath.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temp.toFile(),
+                    new AmountStatsSnapshot(System.currentTimeMillis(), relativeAccuracy, maxAmount, entries));
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotsWritten.increment();
+            log.debug("Wrote amount statistics for {} merchant/currency pairs to {}", entries.size(), snapshotPath);
+        } catch (IOException e) {
+            snapshotsFailed.increment();
+            log.error("Could not write amount statistics snapshot to {}: {}", snapshotPath, e.getMessage());
+        } finally {
+            deleteTemp(temp);
+        }
+    }
+
+    @PreDestroy
+    void snapshotOnShutdown() {
+        snapshot();
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    /**
+     * Removes the temp file of a snapshot that failed before its rename; a no-op after the rename.
+     */
+    private static void deleteTemp(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary snapshot file {}: {}", temp, e.getMessage());
+        }
+    }
+
+    private AmountStats newStats() {
+        return new AmountStats(ewmaAlpha, relativeAccuracy, maxAmount);
+    }
+
+    private static String key(String merchantId, String currency) {
+        return merchantId + '|' + currency;
+    }
+
+    private static Counter snapshotCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("transaction.stats.snapshots")
+                .description("Amount statistics snapshots written")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.fraud.transaction.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe Bloom filter over pre-computed 64-bit hashes (see {@link Hashing}).
+ * Bits are set with CAS so concurrent writers never block each other.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long numBits;
+    private final int numHashes;
+
+    public BloomFilter(long numBits, int numHashes) {
+        if (numBits <= 0 || numHashes <= 0) {
+            throw new IllegalArgumentException("numBits and numHashes must be positive");
+        }
+        this.words = new AtomicLongArray((int) ((numBits + 63) >>> 6));
+        this.numBits = (long) words.length() << 6;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Sizes the filter for the expected number of insertions at the requested false-positive rate.
+     */
+    public static BloomFilter forExpectedInsertions(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and falsePositiveRate in (0, 1)");
+        }
+        long numBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+        return new BloomFilter(numBits, numHashes);
+    }
+
+    public void put(long hash) {
+        long h1 = hash;
+        long h2 = Hashing.mix64(hash) | 1L;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = Hashing.mix64(hash) | 1L;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0L);
+        }
+    }
+
+    public long sizeInBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+}
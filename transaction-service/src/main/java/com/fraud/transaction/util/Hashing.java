@@ -0,0 +1,54 @@
+package com.fraud.transaction.util;
+
+/**
+ * Allocation-free 64-bit hashing used by the in-memory fraud stores
+ * (Bloom filters, primitive-keyed maps, sketches).
+ * Not cryptographic; only intended for even bucket distribution.
+ */
+public final class Hashing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars of the value, finished with {@link #mix64(long)}
+     * so that short keys still spread across all bits.
+     */
+    public static long hash64(CharSequence value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * {@link #hash64(CharSequence)} of {@code value.subSequence(start, end)} with ASCII letters
+     * lower-cased, without creating the substring.
+     */
+    public static long hash64IgnoreCase(CharSequence value, int start, int end) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            hash ^= (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+            hash *= FNV_PRIME;
+        }
+        return mix64(hash);
+    }
+
+    /**
+     * MurmurHash3 fmix64 finalizer.
+     */
+    public static long mix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
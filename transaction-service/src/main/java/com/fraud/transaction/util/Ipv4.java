@@ -0,0 +1,40 @@
+package com.fraud.transaction.util;
+
+/**
+ * IPv4 helpers shared by the geo tables and the blocklist.
+ */
+public final class Ipv4 {
+
+    private Ipv4() {
+    }
+
+    /**
+     * Parses a dotted IPv4 address without allocating.
+     *
+     * @return the address as an int, or {@code -1L} if it is not IPv4
+     */
+    public static long parse(CharSequence value) {
+        int address = 0;
+        int octets = 0;
+        int octet = -1;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1L;
+                }
+            } else if (c == '.' && octet >= 0 && octets < 3) {
+                address = (address << 8) | octet;
+                octets++;
+                octet = -1;
+            } else {
+                return -1L;
+            }
+        }
+        if (octets != 3 || octet < 0) {
+            return -1L;
+        }
+        return ((address << 8) | octet) & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,125 @@
+package com.fraud.transaction.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to int values (linear probing,
+ * backward-shift deletion). No boxing and no per-entry objects: two flat arrays hold
+ * everything. Not thread-safe; callers guard it with their own lock.
+ */
+public class LongIntHashMap {
+
+    private static final float MAX_LOAD = 0.5f;
+
+    private final int missingValue;
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    /**
+     * @param expectedSize entries the map holds without rehashing
+     * @param missingValue value returned by {@link #get} and {@link #remove} for absent keys
+     */
+    public LongIntHashMap(int expectedSize, int missingValue) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) Math.ceil(expectedSize / MAX_LOAD)) - 1) << 1;
+        this.missingValue = missingValue;
+        allocate(capacity);
+    }
+
+    public int get(long key) {
+        for (int i = slot(key); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return missingValue;
+    }
+
+    public void put(long key, int value) {
+        int i = slot(key);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        used[i] = true;
+        keys[i] = key;
+        values[i] = value;
+        if (++size > mask * MAX_LOAD) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    public int remove(long key) {
+        int i = slot(key);
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                int removed = values[i];
+                shiftBack(i);
+                size--;
+                return removed;
+            }
+        }
+        return missingValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private int slot(long key) {
+        return (int) Hashing.mix64(key) & mask;
+    }
+
+    /**
+     * Closes the gap at {@code hole} by moving back later entries of the probe sequence,
+     * so lookups never need tombstones.
+     */
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            if (!used[i]) {
+                break;
+            }
+            int home = slot(keys[i]);
+            // entry at i may move to hole only if hole lies cyclically in [home, i)
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        used[hole] = false;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+}
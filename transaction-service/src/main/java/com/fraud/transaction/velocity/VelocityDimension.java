@@ -0,0 +1,41 @@
+package com.fraud.transaction.velocity;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.scoring.Feature;
+
+import java.util.function.Function;
+
+/**
+ * Transaction attributes tracked by the velocity store, with the feature slots each one feeds.
+ */
+public enum VelocityDimension {
+
+    CARD(Transaction::getCardNumberMasked, Feature.CARD_COUNT_1M, Feature.CARD_COUNT_10M, Feature.CARD_COUNT_1H, Feature.CARD_AMOUNT_1H),
+    DEVICE(Transaction::getDeviceId, Feature.DEVICE_COUNT_1M, Feature.DEVICE_COUNT_10M, Feature.DEVICE_COUNT_1H, Feature.DEVICE_AMOUNT_1H),
+    IP(Transaction::getIpAddress, Feature.IP_COUNT_1M, Feature.IP_COUNT_10M, Feature.IP_COUNT_1H, Feature.IP_AMOUNT_1H);
+
+    private final Function<Transaction, String> key;
+    private final Feature[] countFeatures;
+    private final Feature amount1h;
+
+    VelocityDimension(Function<Transaction, String> key, Feature count1m, Feature count10m, Feature count1h, Feature amount1h) {
+        this.key = key;
+        this.countFeatures = new Feature[]{count1m, count10m, count1h};
+        this.amount1h = amount1h;
+    }
+
+    String keyOf(Transaction transaction) {
+        return key.apply(transaction);
+    }
+
+    /**
+     * Count feature for window {@code w} (index into {@link VelocityWindow#values()}).
+     */
+    Feature countFeature(int w) {
+        return countFeatures[w];
+    }
+
+    Feature amount1hFeature() {
+        return amount1h;
+    }
+}
@@ -0,0 +1,82 @@
+package com.fraud.transaction.velocity;
+
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.scoring.Feature;
+import com.fraud.transaction.scoring.FeatureProvider;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Exposes the per-window counts (including this transaction) and the 1h amount sum per card,
+ * device and IP as features, and records committed transactions in the velocity store.
+ * Pending transactions of the same batch with the same key count in every window.
+ */
+@Component
+@Order(10)
+public class VelocityFeatureProvider implements FeatureProvider {
+
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[VelocityWindow.values().length]);
+    private static final ThreadLocal<double[]> SUMS = ThreadLocal.withInitial(() -> new double[VelocityWindow.values().length]);
+
+    private final VelocityService velocityService;
+
+    public VelocityFeatureProvider(VelocityService velocityService) {
+        this.velocityService = velocityService;
+    }
+
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public void contribute(Transaction transaction, double[] features) {
+        contribute(transaction, List.of(), features);
+    }
+
+    @Override
+    public void contribute(Transaction transaction, List<Transaction> pending, double[] features) {
+        if (!velocityService.isEnabled()) {
+            return;
+        }
+        int[] counts = COUNTS.get();
+        double[] sums = SUMS.get();
+        for (VelocityDimension dimension : VelocityDimension.values()) {
+            String key = dimension.keyOf(transaction);
+            if (!velocityService.countWith(dimension, key, amount(transaction), counts, sums)) {
+                continue;
+            }
+            int pendingCount = 0;
+            double pendingSum = 0.0;
+            for (Transaction earlier : pending) {
+                if (key.equals(dimension.keyOf(earlier))) {
+                    pendingCount++;
+                    pendingSum += amount(earlier);
+                }
+            }
+            for (VelocityWindow window : VelocityWindow.values()) {
+                counts[window.ordinal()] += pendingCount;
+                sums[window.ordinal()] += pendingSum;
+                features[dimension.countFeature(window.ordinal()).ordinal()] = counts[window.ordinal()];
+            }
+            features[dimension.amount1hFeature().ordinal()] = sums[VelocityWindow.ONE_HOUR.ordinal()];
+        }
+    }
+
+    @Override
+    public void observe(Transaction transaction) {
+        if (!velocityService.isEnabled()) {
+            return;
+        }
+        double amount = amount(transaction);
+        for (VelocityDimension dimension : VelocityDimension.values()) {
+            velocityService.record(dimension, dimension.keyOf(transaction), amount);
+        }
+    }
+
+    private static double amount(Transaction transaction) {
+        return transaction.getAmount() != null ? transaction.getAmount().doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,123 @@
+package com.fraud.transaction.velocity;
+
+import com.fraud.transaction.dto.VelocitySnapshot;
+import com.fraud.transaction.util.Hashing;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory velocity (transactions and amount per card, device and IP over 1m/10m/1h),
+ * replacing COUNT(*) queries on the transactions table. One {@link VelocityStore} per
+ * {@link VelocityDimension}; memory is bounded by {@code transaction.velocity.max-keys-per-dimension}.
+ * State is per instance and starts empty on restart.
+ */
+@Service
+@Slf4j
+public class VelocityService {
+
+    private static final VelocityWindow[] WINDOWS = VelocityWindow.values();
+
+    private final boolean enabled;
+    private final VelocityStore[] stores = new VelocityStore[VelocityDimension.values().length];
+
+    public VelocityService(MeterRegistry meterRegistry,
+                           @Value("${transaction.velocity.enabled}") boolean enabled,
+                           @Value("${transaction.velocity.stripes}") int stripes,
+                           @Value("${transaction.velocity.max-keys-per-dimension}") int maxKeysPerDimension) {
+        this.enabled = enabled;
+        for (VelocityDimension dimension : VelocityDimension.values()) {
+            VelocityStore store = new VelocityStore(stripes, maxKeysPerDimension);
+            stores[dimension.ordinal()] = store;
+            String tag = dimension.name().toLowerCase();
+            Gauge.builder("transaction.velocity.keys", store, VelocityStore::size)
+                    .description("Keys currently tracked")
+                    .tag("dimension", tag)
+                    .register(meterRegistry);
+            FunctionCounter.builder("transaction.velocity.evictions", store, VelocityStore::idleEvictions)
+                    .description("Keys dropped from the velocity store")
+                    .tags("dimension", tag, "reason", "idle")
+                    .register(meterRegistry);
+            FunctionCounter.builder("transaction.velocity.evictions", store, VelocityStore::capacityEvictions)
+                    .description("Keys dropped from the velocity store")
+                    .tags("dimension", tag, "reason", "capacity")
+                    .register(meterRegistry);
+        }
+        if (enabled) {
+            log.info("Velocity store reserves ~{} MB for {} keys per dimension",
+                    (long) VelocityStore.bytesPerKey() * maxKeysPerDimension * stores.length >> 20, maxKeysPerDimension);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Writes the window totals the key would have with this transaction recorded, without
+     * recording it. Blank keys are not tracked.
+     *
+     * @return false if the key is blank
+     */
+    boolean countWith(VelocityDimension dimension, String key, double amount, int[] counts, double[] sums) {
+        if (!enabled || !StringUtils.hasText(key)) {
+            return false;
+        }
+        stores[dimension.ordinal()].read(Hashing.hash64(key), System.currentTimeMillis(), counts, sums);
+        for (VelocityWindow window : WINDOWS) {
+            counts[window.ordinal()]++;
+            sums[window.ordinal()] += amount;
+        }
+        return true;
+    }
+
+    /**
+     * Records one committed transaction for the key. Blank keys are not tracked.
+     */
+    void record(VelocityDimension dimension, String key, double amount) {
+        if (enabled && StringUtils.hasText(key)) {
+            stores[dimension.ordinal()].record(Hashing.hash64(key), amount, System.currentTimeMillis());
+        }
+    }
+
+    public VelocitySnapshot snapshot(VelocityDimension dimension, String key) {
+        if (!StringUtils.hasText(key)) {
+            throw new IllegalArgumentException("key must not be null or blank");
+        }
+        int[] counts = new int[WINDOWS.length];
+        double[] sums = new double[WINDOWS.length];
+        boolean tracked = stores[dimension.ordinal()].read(Hashing.hash64(key), System.currentTimeMillis(), counts, sums);
+
+        List<VelocitySnapshot.Window> windows = new ArrayList<>(WINDOWS.length);
+        for (VelocityWindow window : WINDOWS) {
+            windows.add(new VelocitySnapshot.Window(window.label(), counts[window.ordinal()], sums[window.ordinal()]));
+        }
+        return new VelocitySnapshot(dimension.name(), key, tracked, windows);
+    }
+
+    /**
+     * Reclaims keys idle for longer than the largest window.
+     */
+    @Scheduled(fixedDelayString = "${transaction.velocity.sweep-interval-ms}")
+    public void evictIdleKeys() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (VelocityStore store : stores) {
+            evicted += store.sweep(now);
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle velocity keys", evicted);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.fraud.transaction.velocity;
+
+import com.fraud.transaction.util.LongIntHashMap;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sliding-window counts and amount sums per key for one {@link VelocityDimension}.
+ *
+ * Keys are 64-bit hashes of the attribute value. The store is split into lock stripes chosen by
+ * the key hash; each stripe owns a fixed number of slots and keeps every per-slot value in flat
+ * primitive arrays (one bucket ring per {@link VelocityWindow}), so an update touches a handful
+ * of array cells under one uncontended lock and allocates nothing. Rings are advanced lazily on
+ * access. All memory is reserved up front: keys idle for longer than the largest window are
+ * reclaimed by {@link #sweep}, and when a stripe is full a CLOCK (second-chance) hand evicts a
+ * key that was not touched since the hand last passed it.
+ */
+final class VelocityStore {
+
+    private static final VelocityWindow[] WINDOWS = VelocityWindow.values();
+    private static final int[] BUCKET_OFFSET = new int[WINDOWS.length];
+    private static final int BUCKETS_PER_KEY;
+    private static final long IDLE_MILLIS;
+
+    static {
+        int offset = 0;
+        long longest = 0;
+        for (VelocityWindow window : WINDOWS) {
+            BUCKET_OFFSET[window.ordinal()] = offset;
+            offset += window.buckets();
+            longest = Math.max(longest, window.spanMillis());
+        }
+        BUCKETS_PER_KEY = offset;
+        IDLE_MILLIS = longest;
+    }
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final LongAdder idleEvictions = new LongAdder();
+    private final LongAdder capacityEvictions = new LongAdder();
+
+    VelocityStore(int stripeCount, int maxKeys) {
+        if (Integer.bitCount(stripeCount) != 1 || maxKeys < stripeCount) {
+            throw new IllegalArgumentException("stripes must be a power of two and maxKeys >= stripes");
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxKeys / stripeCount);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Approximate heap held per key, for sizing {@code max-keys-per-dimension}.
+     */
+    static int bytesPerKey() {
+        // counts + amounts per bucket, ring heads per window, key, lastSeen, CLOCK bit, free stack, index (~2 entries)
+        return BUCKETS_PER_KEY * (Integer.BYTES + Float.BYTES) + WINDOWS.length * Integer.BYTES
+                + Long.BYTES + Long.BYTES + 1 + Integer.BYTES + 2 * (Long.BYTES + Integer.BYTES + 1);
+    }
+
+    /**
+     * Adds one transaction for the key.
+     */
+    void record(long key, double amount, long nowMillis) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.index.get(key);
+            if (slot < 0) {
+                slot = stripe.allocate(key, nowMillis);
+            }
+            stripe.lastSeen[slot] = nowMillis;
+            stripe.referenced[slot] = true;
+            for (VelocityWindow window : WINDOWS) {
+                int epoch = (int) (nowMillis / window.bucketMillis());
+                stripe.advance(slot, window, epoch);
+                stripe.add(slot, window, epoch, amount);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the window totals of a key without recording anything.
+     *
+     * @param counts receives the count per window, indexed by {@link VelocityWindow#ordinal()}
+     * @param sums   receives the amount sum per window, same indexing
+     * @return false (and zero totals) when the key is not tracked
+     */
+    boolean read(long key, long nowMillis, int[] counts, double[] sums) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.index.get(key);
+            if (slot < 0) {
+                Arrays.fill(counts, 0);
+                Arrays.fill(sums, 0.0);
+                return false;
+            }
+            stripe.read(slot, nowMillis, counts, sums);
+            return true;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Frees keys with no activity within the longest window. Locks one stripe at a time.
+     *
+     * @return number of keys evicted
+     */
+    int sweep(long nowMillis) {
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (int slot = 0; slot < stripe.capacity; slot++) {
+                    long seen = stripe.lastSeen[slot];
+                    if (seen != 0 && nowMillis - seen > IDLE_MILLIS) {
+                        stripe.index.remove(stripe.keys[slot]);
+                        stripe.release(slot);
+                        evicted++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        idleEvictions.add(evicted);
+        return evicted;
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            // racy read of a counter, good enough for a gauge
+            size += stripe.capacity - stripe.freeCount;
+        }
+        return size;
+    }
+
+    long idleEvictions() {
+        return idleEvictions.sum();
+    }
+
+    long capacityEvictions() {
+        return capacityEvictions.sum();
+    }
+
+    private Stripe stripeFor(long key) {
+        return stripes[(int) (key >>> 32) & stripeMask];
+    }
+
+    private final class Stripe {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final int capacity;
+        final LongIntHashMap index;
+        final long[] keys;
+        final long[] lastSeen;
+        final boolean[] referenced;
+        final int[] heads;
+        final int[] counts;
+        final float[] amounts;
+        final int[] free;
+        int freeCount;
+        int hand;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.index = new LongIntHashMap(capacity, -1);
+            this.keys = new long[capacity];
+            this.lastSeen = new long[capacity];
+            this.referenced = new boolean[capacity];
+            this.heads = new int[capacity * WINDOWS.length];
+            this.counts = new int[capacity * BUCKETS_PER_KEY];
+            this.amounts = new float[capacity * BUCKETS_PER_KEY];
+            this.free = new int[capacity];
+            for (int i = 0; i < capacity; i++) {
+                free[i] = capacity - 1 - i;
+            }
+            this.freeCount = capacity;
+        }
+
+        int allocate(long key, long nowMillis) {
+            int slot;
+            if (freeCount > 0) {
+                slot = free[--freeCount];
+            } else {
+                slot = evictByClock();
+            }
+            keys[slot] = key;
+            index.put(key, slot);
+            for (VelocityWindow window : WINDOWS) {
+                heads[slot * WINDOWS.length + window.ordinal()] = (int) (nowMillis / window.bucketMillis());
+            }
+            return slot;
+        }
+
+        /**
+         * Second-chance sweep: skips (and un-marks) recently referenced slots, evicts the first
+         * unreferenced one. Terminates within two passes.
+         */
+        int evictByClock() {
+            while (true) {
+                int slot = hand;
+                hand = (hand + 1) % capacity;
+                if (referenced[slot]) {
+                    referenced[slot] = false;
+                    continue;
+                }
+                index.remove(keys[slot]);
+                clear(slot);
+                capacityEvictions.increment();
+                return slot;
+            }
+        }
+
+        void release(int slot) {
+            clear(slot);
+            free[freeCount++] = slot;
+        }
+
+        void clear(int slot) {
+            lastSeen[slot] = 0;
+            referenced[slot] = false;
+            int base = slot * BUCKETS_PER_KEY;
+            for (int b = 0; b < BUCKETS_PER_KEY; b++) {
+                counts[base + b] = 0;
+                amounts[base + b] = 0f;
+            }
+        }
+
+        /**
+         * Moves the ring head of a window forward to {@code epoch}, zeroing the buckets skipped.
+         */
+        void advance(int slot, VelocityWindow window, int epoch) {
+            int headIndex = slot * WINDOWS.length + window.ordinal();
+            int head = heads[headIndex];
+            if (epoch <= head) {
+                return;
+            }
+            int n = window.buckets();
+            int base = slot * BUCKETS_PER_KEY + BUCKET_OFFSET[window.ordinal()];
+            for (int step = 1, steps = Math.min(n, epoch - head); step <= steps; step++) {
+                int bucket = base + (head + step) % n;
+                counts[bucket] = 0;
+                amounts[bucket] = 0f;
+            }
+            heads[headIndex] = epoch;
+        }
+
+        /**
+         * Counts the transaction in the bucket of {@code epoch}, unless the clock went back so far
+         * that the bucket already left the window.
+         */
+        void add(int slot, VelocityWindow window, int epoch, double amount) {
+            int n = window.buckets();
+            if (heads[slot * WINDOWS.length + window.ordinal()] - epoch >= n) {
+                return;
+            }
+            int bucket = slot * BUCKETS_PER_KEY + BUCKET_OFFSET[window.ordinal()] + epoch % n;
+            counts[bucket]++;
+            amounts[bucket] += (float) amount;
+        }
+
+        /**
+         * Sums the buckets of every window that still fall inside it at {@code nowMillis}.
+         */
+        void read(int slot, long nowMillis, int[] countsOut, double[] sumsOut) {
+            for (VelocityWindow window : WINDOWS) {
+                int n = window.buckets();
+                int head = heads[slot * WINDOWS.length + window.ordinal()];
+                int lag = (int) (nowMillis / window.bucketMillis()) - head;
+                int base = slot * BUCKETS_PER_KEY + BUCKET_OFFSET[window.ordinal()];
+                int count = 0;
+                double sum = 0;
+                // the head bucket and the ones before it that have not slid out yet
+                for (int k = 0, valid = n - Math.max(0, lag); k < valid; k++) {
+                    int bucket = base + (head - k) % n;
+                    count += counts[bucket];
+                    sum += amounts[bucket];
+                }
+                countsOut[window.ordinal()] = count;
+                sumsOut[window.ordinal()] = sum;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.fraud.transaction.velocity;
+
+/**
+ * Windows maintained per key. Each window is a ring of time buckets, so it slides in steps of
+ * one bucket: the reported total covers between {@code (buckets - 1) * bucketMillis} and
+ * {@code buckets * bucketMillis} of history.
+ */
+public enum VelocityWindow {
+
+    ONE_MINUTE("1m", 6, 10_000),
+    TEN_MINUTES("10m", 10, 60_000),
+    ONE_HOUR("1h", 6, 600_000);
+
+    private final String label;
+    private final int buckets;
+    private final int bucketMillis;
+
+    VelocityWindow(String label, int buckets, int bucketMillis) {
+        this.label = label;
+        this.buckets = buckets;
+        this.bucketMillis = bucketMillis;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    int buckets() {
+        return buckets;
+    }
+
+    int bucketMillis() {
+        return bucketMillis;
+    }
+
+    long spanMillis() {
+        return (long) buckets * bucketMillis;
+    }
+}
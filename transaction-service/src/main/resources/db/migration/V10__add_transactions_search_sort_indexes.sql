@@ -0,0 +1,17 @@
+-- Sort orders of GET /api/transactions/search that V7 could not serve from an index. Without
+-- them, RISK_SCORE_DESC and an amount sort behind a selective filter read and sort every
+-- matching row. Channel and card type have a handful of values each, so ix_transactions_amount
+-- filtered on them is already cheap and gets no composite index.
+CREATE INDEX IF NOT EXISTS ix_transactions_merchant_id_amount
+    ON public.transactions (merchant_id, amount);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_review_status_amount
+    ON public.transactions (review_status, amount);
+
+-- Flagged plus an amount range or amount order; partial like ix_transactions_flagged_time.
+CREATE INDEX IF NOT EXISTS ix_transactions_flagged_amount
+    ON public.transactions (amount)
+    WHERE is_flagged;
+
+CREATE INDEX IF NOT EXISTS ix_transactions_risk_score
+    ON public.transactions (risk_score);
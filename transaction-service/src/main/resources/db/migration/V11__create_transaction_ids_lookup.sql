@@ -0,0 +1,63 @@
+-- Partition pruning for lookups by transaction ID. transaction_id is not the partition key, so
+-- "where transaction_id = ?" probes ux_transactions_transaction_id in every partition (one
+-- index descent per partition: current, premade, retained and default). transaction_ids maps
+-- each ID to its transaction_time; the get, flag and update lookups add
+-- "transaction_time = (select ... from transaction_ids ...)", which PostgreSQL uses to prune
+-- down to one partition at execution time (see TransactionPartitionPruningTest). The UPDATE
+-- Hibernate issues after the update lookup is by id only and still probes the primary key of
+-- every partition, as do the keyset listings ordered by id.
+--
+-- Its primary key also makes transaction_id unique across partitions again, which
+-- ux_transactions_transaction_id (unique together with transaction_time) does not.
+--
+-- Kept up to date by triggers:
+--  * insert adds the row (a repeated transaction_id fails with a unique violation)
+--  * an update of transaction_time moves it along; a move to another partition is run as a
+--    delete and an insert, whose triggers fire in that order
+--  * delete removes it, and releases the row's idempotency key so that the insert half of a
+--    partition move can claim it again (transactions_claim_idempotency_key, V8)
+-- Retired partitions are detached, which fires no triggers: TransactionPartitionManager deletes
+-- their rows here by range, as for transaction_idempotency_keys.
+
+CREATE TABLE IF NOT EXISTS public.transaction_ids
+(
+    transaction_id   VARCHAR(64) PRIMARY KEY,
+    transaction_time TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_transaction_ids_time
+    ON public.transaction_ids (transaction_time);
+
+INSERT INTO public.transaction_ids (transaction_id, transaction_time)
+SELECT transaction_id, transaction_time
+FROM public.transactions;
+
+ALTER TABLE public.transaction_ids OWNER TO fraud_user;
+
+CREATE OR REPLACE FUNCTION public.transactions_track_transaction_id() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO public.transaction_ids (transaction_id, transaction_time)
+        VALUES (NEW.transaction_id, NEW.transaction_time);
+    ELSIF TG_OP = 'UPDATE' THEN
+        UPDATE public.transaction_ids
+        SET transaction_time = NEW.transaction_time
+        WHERE transaction_id = NEW.transaction_id;
+    ELSE
+        DELETE FROM public.transaction_ids
+        WHERE transaction_id = OLD.transaction_id;
+        IF OLD.idempotency_key IS NOT NULL THEN
+            DELETE FROM public.transaction_idempotency_keys
+            WHERE idempotency_key = OLD.idempotency_key;
+        END IF;
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_transactions_track_transaction_id
+    AFTER INSERT OR DELETE OR UPDATE OF transaction_time ON public.transactions
+    FOR EACH ROW
+EXECUTE FUNCTION public.transactions_track_transaction_id();
@@ -0,0 +1,8 @@
+-- Hibernate pooled sequence for transactions.id (allocationSize = 50).
+-- IDENTITY columns disable JDBC insert batching, so the entity now draws ids from this sequence.
+-- The sequence starts well above the existing ids so pooled blocks never collide with seeded rows.
+CREATE SEQUENCE IF NOT EXISTS public.transactions_seq INCREMENT BY 50;
+
+SELECT setval('public.transactions_seq', COALESCE((SELECT MAX(id) FROM public.transactions), 0) + 100, false);
+
+ALTER SEQUENCE public.transactions_seq OWNER TO fraud_user;
@@ -0,0 +1,7 @@
+-- Persisted idempotency key backing the in-memory dedup filter.
+-- Partial unique index: requests without a key are never deduplicated.
+ALTER TABLE public.transactions ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(128);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_transactions_idempotency_key
+    ON public.transactions (idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
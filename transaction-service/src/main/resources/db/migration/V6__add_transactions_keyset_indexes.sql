@@ -0,0 +1,8 @@
+-- Keyset pagination and streaming walk transactions by id descending.
+-- The primary key covers the unfiltered listing; these cover the flagged and per-merchant ones.
+CREATE INDEX IF NOT EXISTS ix_transactions_merchant_id_id
+    ON public.transactions (merchant_id, id);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_flagged_id
+    ON public.transactions (id)
+    WHERE is_flagged;
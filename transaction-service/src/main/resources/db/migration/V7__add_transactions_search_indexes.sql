@@ -0,0 +1,25 @@
+-- Indexes for GET /api/transactions/search. Equality filters lead, transaction_time follows so
+-- that a filter plus a time range (and the default newest-first order) is one index range scan.
+CREATE INDEX IF NOT EXISTS ix_transactions_merchant_id_time
+    ON public.transactions (merchant_id, transaction_time);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_review_status_time
+    ON public.transactions (review_status, transaction_time);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_channel_time
+    ON public.transactions (channel, transaction_time);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_card_type_time
+    ON public.transactions (card_type, transaction_time);
+
+-- Flagged rows are a small fraction of the table; a partial index keeps this one small.
+CREATE INDEX IF NOT EXISTS ix_transactions_flagged_time
+    ON public.transactions (transaction_time)
+    WHERE is_flagged;
+
+-- Time-only and amount-only searches.
+CREATE INDEX IF NOT EXISTS ix_transactions_time
+    ON public.transactions (transaction_time);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_amount
+    ON public.transactions (amount);
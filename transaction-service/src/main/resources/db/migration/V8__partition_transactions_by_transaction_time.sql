@@ -0,0 +1,130 @@
+-- Declarative range partitioning of transactions on transaction_time, one partition per month.
+-- This rewrites the table; on a large table run it in a maintenance window. From then on
+-- TransactionPartitionManager keeps future partitions created and applies the retention policy.
+--
+-- Unique indexes of a partitioned table must contain the partition key, so:
+--  * the primary key becomes (id, transaction_time) and transaction_id is unique together with
+--    transaction_time; both id and transaction_id are generated server-side and stay unique
+--  * idempotency keys remain globally unique through transaction_idempotency_keys, which a
+--    trigger fills on insert (a repeated key still fails with a unique violation)
+
+ALTER TABLE public.transactions RENAME TO transactions_unpartitioned;
+
+-- The partition key cannot be null in the primary key; the service always sets it
+UPDATE public.transactions_unpartitioned
+SET transaction_time = COALESCE(created_at, now())
+WHERE transaction_time IS NULL;
+
+CREATE TABLE public.transactions
+(
+    LIKE public.transactions_unpartitioned INCLUDING DEFAULTS
+) PARTITION BY RANGE (transaction_time);
+
+ALTER TABLE public.transactions ALTER COLUMN transaction_time SET NOT NULL;
+
+ALTER TABLE public.transactions OWNER TO fraud_user;
+
+-- Monthly partitions from the oldest existing row up to three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(transaction_time) FROM public.transactions_unpartitioned), now()));
+    last_month  DATE := date_trunc('month', now() + INTERVAL '3 months');
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS public.%I PARTITION OF public.transactions FOR VALUES FROM (%L) TO (%L)',
+                       'transactions_p' || to_char(month_start, 'YYYY_MM'),
+                       month_start,
+                       (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END
+$$;
+
+-- Catches rows outside every partition (e.g. a backfill older than the first partition)
+CREATE TABLE IF NOT EXISTS public.transactions_default PARTITION OF public.transactions DEFAULT;
+
+INSERT INTO public.transactions SELECT * FROM public.transactions_unpartitioned;
+
+DROP TABLE public.transactions_unpartitioned;
+
+-- Constraints and indexes are created on the parent and cascade to every partition
+ALTER TABLE public.transactions ADD CONSTRAINT transactions_pkey PRIMARY KEY (id, transaction_time);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_transactions_transaction_id
+    ON public.transactions (transaction_id, transaction_time);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_idempotency_key
+    ON public.transactions (idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
+
+ALTER TABLE public.transactions
+ADD CONSTRAINT fk_transactions_merchant
+FOREIGN KEY (merchant_id)
+REFERENCES public.merchants (merchant_id)
+ON UPDATE CASCADE
+ON DELETE RESTRICT;
+
+-- V6
+CREATE INDEX IF NOT EXISTS ix_transactions_merchant_id_id
+    ON public.transactions (merchant_id, id);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_flagged_id
+    ON public.transactions (id)
+    WHERE is_flagged;
+
+-- V7
+CREATE INDEX IF NOT EXISTS ix_transactions_merchant_id_time
+    ON public.transactions (merchant_id, transaction_time);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_review_status_time
+    ON public.transactions (review_status, transaction_time);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_channel_time
+    ON public.transactions (channel, transaction_time);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_card_type_time
+    ON public.transactions (card_type, transaction_time);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_flagged_time
+    ON public.transactions (transaction_time)
+    WHERE is_flagged;
+
+CREATE INDEX IF NOT EXISTS ix_transactions_time
+    ON public.transactions (transaction_time);
+
+CREATE INDEX IF NOT EXISTS ix_transactions_amount
+    ON public.transactions (amount);
+
+-- Global idempotency key uniqueness; rows are removed with their partition by the retention policy
+CREATE TABLE IF NOT EXISTS public.transaction_idempotency_keys
+(
+    idempotency_key VARCHAR(128) PRIMARY KEY,
+    transaction_time TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_transaction_idempotency_keys_time
+    ON public.transaction_idempotency_keys (transaction_time);
+
+INSERT INTO public.transaction_idempotency_keys (idempotency_key, transaction_time)
+SELECT idempotency_key, transaction_time
+FROM public.transactions
+WHERE idempotency_key IS NOT NULL;
+
+ALTER TABLE public.transaction_idempotency_keys OWNER TO fraud_user;
+
+CREATE OR REPLACE FUNCTION public.transactions_claim_idempotency_key() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF NEW.idempotency_key IS NOT NULL THEN
+        INSERT INTO public.transaction_idempotency_keys (idempotency_key, transaction_time)
+        VALUES (NEW.idempotency_key, NEW.transaction_time);
+    END IF;
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_transactions_claim_idempotency_key
+    AFTER INSERT ON public.transactions
+    FOR EACH ROW
+EXECUTE FUNCTION public.transactions_claim_idempotency_key();
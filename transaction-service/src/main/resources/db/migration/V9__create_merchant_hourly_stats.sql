@@ -0,0 +1,18 @@
+-- Per merchant, currency and hour aggregates, upserted as deltas by MerchantHourlyRollupService
+-- (several instances add up). Serves /api/transactions/merchant/{merchantId}/stats without
+-- reading transactions; the primary key covers the merchant + hour range lookup.
+CREATE TABLE IF NOT EXISTS public.merchant_hourly_stats
+(
+    merchant_id VARCHAR(255) NOT NULL,
+    currency VARCHAR(255) NOT NULL,
+    hour_start TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    total_amount NUMERIC(38,2) NOT NULL,
+    flagged_count BIGINT NOT NULL,
+    risk_score_sum BIGINT NOT NULL,
+    risk_score_count BIGINT NOT NULL,
+    updated_at TIMESTAMP(6) WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT merchant_hourly_stats_pkey PRIMARY KEY (merchant_id, hour_start, currency)
+);
+
+ALTER TABLE public.merchant_hourly_stats OWNER TO fraud_user;
@@ -0,0 +1,61 @@
+package com.fraud.transaction.api.request;
+
+import com.fraud.transaction.scoring.RiskScoringEngine;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkFlagTransactionsRequestTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void acceptsTheScoringEngineStatusesOrNone() {
+        for (String status : new String[]{RiskScoringEngine.STATUS_PENDING_REVIEW, RiskScoringEngine.STATUS_FLAGGED,
+                RiskScoringEngine.STATUS_APPROVED, null}) {
+            assertThat(validator.validate(request(status))).as("reviewStatus %s", status).isEmpty();
+        }
+    }
+
+    @Test
+    void rejectsOtherStatuses() {
+        for (String status : new String[]{"PENDING_REVIEW", "pending review", "Flagged ", "Escalated", ""}) {
+            Set<ConstraintViolation<BulkFlagTransactionsRequest>> violations = validator.validate(request(status));
+
+            assertThat(violations).as("reviewStatus '%s'", status).singleElement()
+                    .satisfies(violation -> {
+                        assertThat(violation.getPropertyPath()).hasToString("reviewStatus");
+                        assertThat(violation.getMessage()).contains(RiskScoringEngine.STATUS_PENDING_REVIEW);
+                    });
+        }
+    }
+
+    private static BulkFlagTransactionsRequest request(String reviewStatus) {
+        BulkFlagTransactionsRequest request = new BulkFlagTransactionsRequest();
+        request.setTransactionIds(List.of("T001"));
+        request.setReason("Chargeback ring");
+        request.setReviewStatus(reviewStatus);
+        return request;
+    }
+}
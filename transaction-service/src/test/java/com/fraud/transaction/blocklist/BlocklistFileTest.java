@@ -0,0 +1,144 @@
+package com.fraud.transaction.blocklist;
+
+import com.fraud.transaction.util.Ipv4;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BlocklistFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsHashesIgnoringCaseAndBlanks() throws IOException {
+        BlocklistFile file = open(BlocklistType.DEVICE, """
+                # devices seen in chargeback rings
+                device-7F3A
+
+                  device-0001
+                DEVICE-7f3a
+                """);
+
+        assertThat(file.kind()).isEqualTo(BlocklistFile.Kind.HASHES);
+        assertThat(file.size()).isEqualTo(2);
+        assertThat(file.containsHash(BlocklistFile.valueHash("device-7f3a"))).isTrue();
+        assertThat(file.containsHash(BlocklistFile.valueHash("  Device-0001\t"))).isTrue();
+        assertThat(file.containsHash(BlocklistFile.valueHash("device-0002"))).isFalse();
+        assertThat(file.containsHash(BlocklistFile.valueHash("# devices seen in chargeback rings"))).isFalse();
+    }
+
+    @Test
+    void binarySearchFindsEveryHashOfALargeList() throws IOException {
+        StringBuilder entries = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            entries.append("card-").append(i).append('\n');
+        }
+        BlocklistFile file = open(BlocklistType.CARD, entries.toString());
+
+        assertThat(file.size()).isEqualTo(5000);
+        for (int i = 0; i < 5000; i++) {
+            assertThat(file.containsHash(BlocklistFile.valueHash("card-" + i))).isTrue();
+        }
+        assertThat(file.containsHash(BlocklistFile.valueHash("card-5000"))).isFalse();
+        assertThat(file.containsHash(Long.MIN_VALUE)).isFalse();
+        assertThat(file.containsHash(Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void streamsHashesInAscendingOrder() throws IOException {
+        BlocklistFile file = open(BlocklistType.MERCHANT, "M001\nM002\nM003\n");
+        List<Long> hashes = new ArrayList<>();
+
+        file.forEachHash(hashes::add);
+
+        assertThat(hashes).hasSize(3).isSorted()
+                .contains(BlocklistFile.valueHash("M001"), BlocklistFile.valueHash("M002"),
+                        BlocklistFile.valueHash("M003"));
+    }
+
+    @Test
+    void findsIpsInsideMergedRangesOnly() throws IOException {
+        BlocklistFile file = open(BlocklistType.IP, """
+                203.0.113.7
+                10.0.0.0/24
+                10.0.1.0-10.0.1.9
+                10.0.0.128/25
+                198.51.100.10 - 198.51.100.20
+                255.255.255.255
+                """);
+
+        // 10.0.0.0/24 absorbs the /25 and is adjacent to 10.0.1.0-10.0.1.9
+        assertThat(file.kind()).isEqualTo(BlocklistFile.Kind.IP_RANGES);
+        assertThat(file.size()).isEqualTo(4);
+        assertThat(contains(file, "10.0.0.0")).isTrue();
+        assertThat(contains(file, "10.0.0.255")).isTrue();
+        assertThat(contains(file, "10.0.1.9")).isTrue();
+        assertThat(contains(file, "203.0.113.7")).isTrue();
+        // above 2^31: the keys must compare unsigned
+        assertThat(contains(file, "198.51.100.15")).isTrue();
+        assertThat(contains(file, "255.255.255.255")).isTrue();
+
+        assertThat(contains(file, "9.255.255.255")).isFalse();
+        assertThat(contains(file, "10.0.1.10")).isFalse();
+        assertThat(contains(file, "198.51.100.21")).isFalse();
+        assertThat(contains(file, "203.0.113.6")).isFalse();
+        assertThat(contains(file, "203.0.113.8")).isFalse();
+        assertThat(contains(file, "0.0.0.0")).isFalse();
+    }
+
+    @Test
+    void emptyListsFindNothing() throws IOException {
+        assertThat(open(BlocklistType.CARD, "# nothing yet\n").containsHash(BlocklistFile.valueHash("x"))).isFalse();
+        assertThat(contains(open(BlocklistType.IP, ""), "10.0.0.1")).isFalse();
+    }
+
+    @Test
+    void rejectsMalformedIpEntries() {
+        assertThatThrownBy(() -> open(BlocklistType.IP, "10.0.0.0/33\n")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> open(BlocklistType.IP, "10.0.0.9-10.0.0.1\n"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> open(BlocklistType.IP, "2001:db8::1\n")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void openRejectsWrongKindBadMagicAndTruncation() throws IOException {
+        Path hashes = dir.resolve("cards.bin");
+        BlocklistWriter.write(BlocklistType.CARD, new StringReader("card-1\ncard-2\n"), hashes);
+        assertThatThrownBy(() -> BlocklistFile.open(hashes, BlocklistFile.Kind.IP_RANGES))
+                .isInstanceOf(IOException.class);
+
+        byte[] bytes = Files.readAllBytes(hashes);
+        Path truncated = Files.write(dir.resolve("truncated.bin"), Arrays.copyOf(bytes, bytes.length - 1));
+        assertThatThrownBy(() -> BlocklistFile.open(truncated, BlocklistFile.Kind.HASHES))
+                .isInstanceOf(IOException.class);
+
+        bytes[0] = 0;
+        Path badMagic = Files.write(dir.resolve("bad-magic.bin"), bytes);
+        assertThatThrownBy(() -> BlocklistFile.open(badMagic, BlocklistFile.Kind.HASHES))
+                .isInstanceOf(IOException.class);
+
+        Path tiny = Files.write(dir.resolve("tiny.bin"), new byte[3]);
+        assertThatThrownBy(() -> BlocklistFile.open(tiny, BlocklistFile.Kind.HASHES)).isInstanceOf(IOException.class);
+    }
+
+    private BlocklistFile open(BlocklistType type, String entries) throws IOException {
+        Path file = dir.resolve(type.fileName());
+        BlocklistWriter.write(type, new StringReader(entries), file);
+        return BlocklistFile.open(file, type.kind());
+    }
+
+    private static boolean contains(BlocklistFile file, String ip) {
+        return file.containsIp((int) Ipv4.parse(ip));
+    }
+}
@@ -0,0 +1,59 @@
+package com.fraud.transaction.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyKeyFilterTest {
+
+    private static final long BUCKET_MILLIS = 1000;
+    private static final long START = 1_000_000 * BUCKET_MILLIS;
+
+    private final IdempotencyKeyFilter filter = new IdempotencyKeyFilter(Duration.ofSeconds(4), 4, 1000, 0.001);
+
+    @Test
+    void remembersKeysWithinTheWindow() {
+        filter.put("key-1", START);
+
+        assertThat(filter.mightContain("key-1", START)).isTrue();
+        assertThat(filter.mightContain("key-1", START + 3 * BUCKET_MILLIS)).isTrue();
+        assertThat(filter.mightContain("key-2", START)).isFalse();
+    }
+
+    @Test
+    void forgetsKeysOnceTheirBucketLeavesTheWindow() {
+        filter.put("old", START);
+
+        assertThat(filter.mightContain("old", START + 4 * BUCKET_MILLIS)).isFalse();
+    }
+
+    @Test
+    void reusedBucketsAreClearedBeforeNewKeys() {
+        filter.put("old", START);
+        filter.put("new", START + 4 * BUCKET_MILLIS);
+
+        assertThat(filter.mightContain("new", START + 4 * BUCKET_MILLIS)).isTrue();
+        // same slot of the ring, so "old" was cleared and not merely expired
+        assertThat(filter.mightContain("old", START + 3 * BUCKET_MILLIS)).isFalse();
+    }
+
+    @Test
+    void keysFiledUnderAnEarlierTimeExpireEarlier() {
+        // as the warm-up files keys under their transaction_time
+        filter.put("warm", START - 2 * BUCKET_MILLIS);
+        filter.put("live", START);
+
+        assertThat(filter.mightContain("warm", START + BUCKET_MILLIS)).isTrue();
+        assertThat(filter.mightContain("warm", START + 2 * BUCKET_MILLIS)).isFalse();
+        assertThat(filter.mightContain("live", START + 2 * BUCKET_MILLIS)).isTrue();
+    }
+
+    @Test
+    void rejectsWindowsShorterThanOneMillisecondPerBucket() {
+        assertThatThrownBy(() -> new IdempotencyKeyFilter(Duration.ofMillis(3), 4, 1000, 0.001))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
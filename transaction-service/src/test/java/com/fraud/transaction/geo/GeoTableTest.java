@@ -0,0 +1,131 @@
+package com.fraud.transaction.geo;
+
+import com.fraud.transaction.util.Ipv4;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeoTableTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void locatesIpsInsideRangesOnly() throws IOException {
+        GeoTable table = ipTable("""
+                first_ip,last_ip,latitude,longitude
+                192.0.2.0,192.0.2.255,40.5,-74.0
+                10.0.0.0,10.0.0.255,1.0,2.0
+                255.255.255.0,255.255.255.255,-33.5,151.0
+                128.1.0.0,128.1.255.255,19.0,72.5
+                """);
+
+        assertThat(table.size()).isEqualTo(4);
+        assertThat(locate(table, "10.0.0.0")).containsExactly(1.0f, 2.0f);
+        assertThat(locate(table, "10.0.0.255")).containsExactly(1.0f, 2.0f);
+        // above 2^31: the keys must compare unsigned
+        assertThat(locate(table, "128.1.7.9")).containsExactly(19.0f, 72.5f);
+        assertThat(locate(table, "192.0.2.128")).containsExactly(40.5f, -74.0f);
+        assertThat(locate(table, "255.255.255.255")).containsExactly(-33.5f, 151.0f);
+
+        assertThat(locate(table, "9.255.255.255")).isNull();
+        assertThat(locate(table, "10.0.1.0")).isNull();
+        assertThat(locate(table, "192.0.3.0")).isNull();
+        assertThat(locate(table, "0.0.0.0")).isNull();
+    }
+
+    @Test
+    void locatesNamesIgnoringCaseBlanksAndCountry() throws IOException {
+        GeoTable table = locationTable("""
+                name,latitude,longitude
+                Mumbai,19.0,72.5
+                New York,40.5,-74.0
+                Washington, D.C.,38.5,-77.0
+                """);
+
+        assertThat(unpack(table.locateName("mumbai"))).containsExactly(19.0f, 72.5f);
+        assertThat(unpack(table.locateName("  NEW YORK "))).containsExactly(40.5f, -74.0f);
+        assertThat(unpack(table.locateName("New York, US"))).containsExactly(40.5f, -74.0f);
+        assertThat(unpack(table.locateName("Washington, D.C."))).containsExactly(38.5f, -77.0f);
+        assertThat(GeoCoordinates.isKnown(table.locateName("Atlantis"))).isFalse();
+        assertThat(GeoCoordinates.isKnown(table.locateName("   "))).isFalse();
+    }
+
+    @Test
+    void binarySearchFindsEveryNameOfALargeTable() throws IOException {
+        StringBuilder csv = new StringBuilder("name,latitude,longitude\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append("city-").append(i).append(',').append(i % 90).append(',').append(i % 180).append('\n');
+        }
+        GeoTable table = locationTable(csv.toString());
+
+        assertThat(table.size()).isEqualTo(5000);
+        for (int i = 0; i < 5000; i++) {
+            assertThat(unpack(table.locateName("city-" + i))).containsExactly((float) (i % 90), (float) (i % 180));
+        }
+        assertThat(GeoCoordinates.isKnown(table.locateName("city-5000"))).isFalse();
+    }
+
+    @Test
+    void emptyTablesFindNothing() throws IOException {
+        assertThat(locate(ipTable("first_ip,last_ip,latitude,longitude\n"), "10.0.0.1")).isNull();
+        assertThat(GeoCoordinates.isKnown(locationTable("name,latitude,longitude\n").locateName("Mumbai"))).isFalse();
+    }
+
+    @Test
+    void rejectsOverlappingRanges() {
+        assertThatThrownBy(() -> ipTable("""
+                first_ip,last_ip,latitude,longitude
+                10.0.0.0,10.0.0.255,1,2
+                10.0.0.255,10.0.1.255,1,2
+                """)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void openRejectsWrongKindBadMagicAndTruncation() throws IOException {
+        Path ranges = dir.resolve("ranges.bin");
+        GeoTableWriter.writeIpRanges(new StringReader("h\n10.0.0.0,10.0.0.255,1,2\n"), ranges);
+        assertThatThrownBy(() -> GeoTable.open(ranges, GeoTable.Kind.LOCATION)).isInstanceOf(IOException.class);
+
+        byte[] bytes = Files.readAllBytes(ranges);
+        Path truncated = Files.write(dir.resolve("truncated.bin"), Arrays.copyOf(bytes, bytes.length - 1));
+        assertThatThrownBy(() -> GeoTable.open(truncated, GeoTable.Kind.IP_RANGE)).isInstanceOf(IOException.class);
+
+        bytes[0] = 0;
+        Path badMagic = Files.write(dir.resolve("bad-magic.bin"), bytes);
+        assertThatThrownBy(() -> GeoTable.open(badMagic, GeoTable.Kind.IP_RANGE)).isInstanceOf(IOException.class);
+
+        Path tiny = Files.write(dir.resolve("tiny.bin"), new byte[3]);
+        assertThatThrownBy(() -> GeoTable.open(tiny, GeoTable.Kind.IP_RANGE)).isInstanceOf(IOException.class);
+    }
+
+    private GeoTable ipTable(String csv) throws IOException {
+        Path file = dir.resolve("ip-ranges.bin");
+        GeoTableWriter.writeIpRanges(new StringReader(csv), file);
+        return GeoTable.open(file, GeoTable.Kind.IP_RANGE);
+    }
+
+    private GeoTable locationTable(String csv) throws IOException {
+        Path file = dir.resolve("locations.bin");
+        GeoTableWriter.writeLocations(new StringReader(csv), file);
+        return GeoTable.open(file, GeoTable.Kind.LOCATION);
+    }
+
+    private static float[] locate(GeoTable table, String ip) {
+        return unpack(table.locateIp((int) Ipv4.parse(ip)));
+    }
+
+    private static float[] unpack(long packed) {
+        return GeoCoordinates.isKnown(packed)
+                ? new float[]{GeoCoordinates.latitude(packed), GeoCoordinates.longitude(packed)}
+                : null;
+    }
+}
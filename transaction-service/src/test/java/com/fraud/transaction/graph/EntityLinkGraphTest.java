@@ -0,0 +1,206 @@
+package com.fraud.transaction.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityLinkGraphTest {
+
+    private final int[] out = new int[2];
+
+    @Test
+    void linksCardDeviceAndIpOfOneTransaction() {
+        EntityLinkGraph graph = new EntityLinkGraph(16, 100);
+
+        assertThat(graph.link("card-1", "device-1", "10.0.0.1", out)).isTrue();
+
+        assertThat(out).containsExactly(3, 1);
+        assertThat(graph.nodes()).isEqualTo(3);
+    }
+
+    @Test
+    void sharedDeviceMergesTwoCardsIntoOneRing() {
+        EntityLinkGraph graph = new EntityLinkGraph(16, 100);
+        graph.link("card-1", "device-1", "10.0.0.1", out);
+
+        graph.link("card-2", "device-1", "10.0.0.2", out);
+
+        assertThat(out).containsExactly(5, 2);
+        assertThat(graph.cardCount(EntityType.IP, "10.0.0.1")).isEqualTo(2);
+        assertThat(graph.cardCount(EntityType.CARD, "card-3")).isZero();
+    }
+
+    @Test
+    void absentCardIsNotLinked() {
+        EntityLinkGraph graph = new EntityLinkGraph(16, 100);
+
+        assertThat(graph.link(null, "device-1", "10.0.0.1", out)).isFalse();
+        assertThat(graph.link(" ", "device-1", "10.0.0.1", out)).isFalse();
+        assertThat(graph.nodes()).isZero();
+    }
+
+    @Test
+    void sameValueOfDifferentTypesAreDistinctNodes() {
+        EntityLinkGraph graph = new EntityLinkGraph(16, 100);
+
+        graph.link("shared", "shared", null, out);
+
+        assertThat(out).containsExactly(2, 1);
+    }
+
+    @Test
+    void componentVisitsEveryMemberOnceUpToTheLimit() {
+        EntityLinkGraph graph = new EntityLinkGraph(64, 100);
+        for (int i = 0; i < 10; i++) {
+            graph.link("card-" + i, "device-" + (i / 2), "10.0.0." + (i % 3), out);
+        }
+        List<EntityLinkGraph.Member> members = new ArrayList<>();
+
+        int size = graph.component(EntityType.CARD, "card-7", Integer.MAX_VALUE, members::add, out);
+
+        assertThat(size).isEqualTo(10 + 5 + 3);
+        assertThat(out).containsExactly(size, 10);
+        assertThat(members).hasSize(size).doesNotHaveDuplicates();
+        assertThat(members).filteredOn(member -> member.type() == EntityType.CARD).hasSize(10);
+
+        List<EntityLinkGraph.Member> limited = new ArrayList<>();
+        assertThat(graph.component(EntityType.DEVICE, "device-0", 4, limited::add, out)).isEqualTo(size);
+        assertThat(limited).hasSize(4);
+
+        assertThat(graph.component(EntityType.CARD, "unknown", 10, members::add, out)).isZero();
+        assertThat(out).containsExactly(0, 0);
+    }
+
+    @Test
+    void hubStopsMergingAfterItsCap() {
+        EntityLinkGraph graph = new EntityLinkGraph(64, 3);
+
+        for (int i = 0; i < 10; i++) {
+            graph.link("card-" + i, "kiosk", null, out);
+        }
+
+        // the hub merged three cards into its component, the rest stay on their own
+        assertThat(graph.cardCount(EntityType.DEVICE, "kiosk")).isEqualTo(3);
+        assertThat(graph.cardCount(EntityType.CARD, "card-9")).isEqualTo(1);
+    }
+
+    @Test
+    void stopsAddingNodesWhenFull() {
+        EntityLinkGraph graph = new EntityLinkGraph(4, 100);
+        graph.link("card-1", "device-1", "10.0.0.1", out);
+
+        assertThat(graph.link("card-2", "device-2", "10.0.0.2", out)).isTrue();
+        assertThat(out).containsExactly(1, 1);
+        assertThat(graph.isFull()).isTrue();
+        assertThat(graph.link("card-3", "device-1", null, out)).isFalse();
+        // known entities still link
+        assertThat(graph.link("card-1", "device-1", null, out)).isTrue();
+        assertThat(out).containsExactly(3, 1);
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        EntityLinkGraph graph = new EntityLinkGraph(16, 100);
+        graph.link("card-1", "device-1", "10.0.0.1", out);
+
+        graph.clear();
+
+        assertThat(graph.nodes()).isZero();
+        assertThat(graph.cardCount(EntityType.CARD, "card-1")).isZero();
+        graph.link("card-2", "device-1", null, out);
+        assertThat(out).containsExactly(2, 1);
+    }
+
+    @Test
+    void matchesNaiveComponentsUnderRandomLinks() {
+        SplittableRandom random = new SplittableRandom(5);
+        EntityLinkGraph graph = new EntityLinkGraph(10_000, Integer.MAX_VALUE);
+        Map<String, Set<String>> components = new HashMap<>();
+
+        for (int i = 0; i < 3000; i++) {
+            String card = "C" + random.nextInt(2000);
+            String device = random.nextInt(4) == 0 ? null : "D" + random.nextInt(1500);
+            String ip = random.nextInt(4) == 0 ? null : "I" + random.nextInt(1500);
+            graph.link(card, device, ip, out);
+
+            Set<String> merged = components.computeIfAbsent(card, k -> new HashSet<>(Set.of(k)));
+            for (String other : new String[]{device, ip}) {
+                if (other != null) {
+                    Set<String> otherComponent = components.computeIfAbsent(other, k -> new HashSet<>(Set.of(k)));
+                    if (otherComponent != merged) {
+                        merged.addAll(otherComponent);
+                        for (String member : otherComponent) {
+                            components.put(member, merged);
+                        }
+                    }
+                }
+            }
+            assertThat(out[0]).isEqualTo(merged.size());
+            assertThat(out[1]).isEqualTo((int) merged.stream().filter(member -> member.startsWith("C")).count());
+        }
+    }
+
+    @Test
+    void previewMatchesTheRingAfterLinking() {
+        SplittableRandom random = new SplittableRandom(3);
+        EntityLinkGraph graph = new EntityLinkGraph(40, 3);
+        int[] preview = new int[2];
+
+        for (int i = 0; i < 200; i++) {
+            String card = "card-" + random.nextInt(30);
+            String device = random.nextInt(4) == 0 ? null : "device-" + random.nextInt(10);
+            String ip = random.nextInt(4) == 0 ? null : "10.0.0." + random.nextInt(8);
+            int nodes = graph.nodes();
+
+            boolean previewed = graph.preview(card, device, ip, preview);
+
+            assertThat(graph.nodes()).isEqualTo(nodes);
+            assertThat(graph.link(card, device, ip, out)).isEqualTo(previewed);
+            if (previewed) {
+                assertThat(preview).as("transaction %d", i).containsExactly(out);
+            }
+        }
+        assertThat(graph.isFull()).isTrue();
+    }
+
+    @Test
+    void previewWithPendingLinksMatchesTheRingAfterLinkingThem() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] preview = new int[2];
+
+        for (int round = 0; round < 50; round++) {
+            EntityLinkGraph graph = new EntityLinkGraph(200, Integer.MAX_VALUE);
+            EntityLinkGraph linked = new EntityLinkGraph(200, Integer.MAX_VALUE);
+            for (int i = 0; i < 20; i++) {
+                String[] link = randomLink(random);
+                graph.link(link[0], link[1], link[2], out);
+                linked.link(link[0], link[1], link[2], out);
+            }
+            List<String[]> pending = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                String[] link = randomLink(random);
+                pending.add(link);
+                linked.link(link[0], link[1], link[2], out);
+            }
+            String[] current = randomLink(random);
+            int nodes = graph.nodes();
+
+            assertThat(graph.preview(current[0], current[1], current[2], pending, preview)).isTrue();
+            assertThat(graph.nodes()).isEqualTo(nodes);
+            linked.link(current[0], current[1], current[2], out);
+            assertThat(preview).as("round %d", round).containsExactly(out);
+        }
+    }
+
+    private static String[] randomLink(SplittableRandom random) {
+        return new String[]{"card-" + random.nextInt(25), "device-" + random.nextInt(15), "10.0.0." + random.nextInt(15)};
+    }
+}
@@ -0,0 +1,144 @@
+package com.fraud.transaction.model;
+
+import com.fraud.transaction.scoring.Feature;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class CompiledModelTest {
+
+    private static final List<Feature> FEATURES = List.of(Feature.AMOUNT, Feature.HOUR_OF_DAY);
+
+    @Test
+    void splitsGoLeftBelowTheThresholdAndRightAtOrAboveIt() {
+        CompiledModel model = trees(stump(0, 100.0, -1.0, 2.0, null));
+
+        assertThat(model.predict(features(99.99, 0))).isEqualTo(-1.0);
+        assertThat(model.predict(features(100.0, 0))).isEqualTo(2.0);
+        assertThat(model.predict(features(150.0, 0))).isEqualTo(2.0);
+    }
+
+    @Test
+    void missingFeaturesFollowMissingLeft() {
+        CompiledModel left = trees(stump(0, 100.0, -1.0, 2.0, new boolean[]{true, false, false}));
+        CompiledModel right = trees(stump(0, 100.0, -1.0, 2.0, new boolean[]{false, false, false}));
+
+        assertThat(left.predict(features(Double.NaN, 0))).isEqualTo(-1.0);
+        assertThat(right.predict(features(Double.NaN, 0))).isEqualTo(2.0);
+    }
+
+    @Test
+    void missingFeaturesGoRightWithoutMissingLeft() {
+        CompiledModel model = trees(stump(0, 100.0, -1.0, 2.0, null));
+
+        assertThat(model.predict(features(Double.NaN, 0))).isEqualTo(2.0);
+    }
+
+    @Test
+    void missingFeaturesAddNothingToTheLinearTerm() {
+        CompiledModel model = CompiledModel.compile(new ModelDefinition("v1", ModelDefinition.Link.IDENTITY, 1.0,
+                FEATURES, new double[]{2.0, 3.0}, null));
+
+        assertThat(model.predict(features(4.0, 2.0))).isEqualTo(15.0);
+        assertThat(model.predict(features(Double.NaN, 2.0))).isEqualTo(7.0);
+    }
+
+    @Test
+    void logisticModelsMapTheRawScoreThroughTheSigmoid() {
+        CompiledModel model = CompiledModel.compile(new ModelDefinition("v1", ModelDefinition.Link.LOGISTIC, 0.0,
+                FEATURES, new double[]{1.0, 0.0}, null));
+
+        assertThat(model.predict(features(0.0, 0))).isEqualTo(0.5);
+        assertThat(model.predict(features(Math.log(3.0), 0))).isCloseTo(0.75, offset(1e-12));
+        assertThat(model.predict(features(-Math.log(3.0), 0))).isCloseTo(0.25, offset(1e-12));
+    }
+
+    @Test
+    void treesAreWalkedFromTheirOwnOffsetInTheFlatArrays() {
+        // amount < 50 ? 10 : (hour < 12 ? 20 : 30)
+        ModelDefinition.Tree deeper = new ModelDefinition.Tree(
+                new int[]{0, -1, 1, -1, -1},
+                new double[]{50.0, 0, 12.0, 0, 0},
+                new int[]{1, 0, 3, 0, 0},
+                new int[]{2, 0, 4, 0, 0},
+                new double[]{0, 10.0, 0, 20.0, 30.0},
+                null);
+        CompiledModel model = trees(stump(0, 100.0, 1.0, 2.0, null), deeper, stump(1, 6.0, 100.0, 200.0, null));
+
+        assertThat(model.trees()).isEqualTo(3);
+        assertThat(model.nodes()).isEqualTo(11);
+        assertThat(model.predict(features(30.0, 3.0))).isEqualTo(1.0 + 10.0 + 100.0);
+        assertThat(model.predict(features(80.0, 18.0))).isEqualTo(1.0 + 30.0 + 200.0);
+        assertThat(model.predict(features(120.0, 8.0))).isEqualTo(2.0 + 20.0 + 200.0);
+    }
+
+    @Test
+    void rejectsNodeArraysOfDifferentLengths() {
+        ModelDefinition.Tree tree = new ModelDefinition.Tree(new int[]{0, -1, -1}, new double[]{1.0, 0, 0},
+                new int[]{1, 0, 0}, new int[]{2, 0}, new double[]{0, 1.0, 2.0}, null);
+
+        assertThatThrownBy(() -> trees(tree))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("same length");
+    }
+
+    @Test
+    void rejectsChildrenAtOrBeforeTheirParent() {
+        ModelDefinition.Tree selfLoop = new ModelDefinition.Tree(new int[]{0, -1, -1}, new double[]{1.0, 0, 0},
+                new int[]{0, 0, 0}, new int[]{2, 0, 0}, new double[]{0, 1.0, 2.0}, null);
+        ModelDefinition.Tree backwards = new ModelDefinition.Tree(new int[]{0, 0, -1, -1},
+                new double[]{1.0, 2.0, 0, 0}, new int[]{1, 0, 0, 0}, new int[]{2, 3, 0, 0},
+                new double[]{0, 0, 1.0, 2.0}, null);
+
+        assertThatThrownBy(() -> trees(selfLoop))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("node 0 has invalid children");
+        assertThatThrownBy(() -> trees(backwards))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("node 1 has invalid children");
+    }
+
+    @Test
+    void rejectsFeaturesOutsideTheModelsFeatureList() {
+        assertThatThrownBy(() -> trees(stump(FEATURES.size(), 1.0, 1.0, 2.0, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("references feature 2");
+    }
+
+    @Test
+    void rejectsNonFiniteLeaves() {
+        assertThatThrownBy(() -> trees(stump(0, 1.0, 1.0, Double.POSITIVE_INFINITY, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("leaf 2 has a non-finite value");
+        assertThatThrownBy(() -> trees(stump(0, 1.0, Double.NaN, 2.0, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("leaf 1 has a non-finite value");
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private static CompiledModel trees(ModelDefinition.Tree... trees) {
+        return CompiledModel.compile(new ModelDefinition("v1", ModelDefinition.Link.IDENTITY, 0.0, FEATURES, null,
+                List.of(trees)));
+    }
+
+    /** {@code feature < threshold ? left : right}. */
+    private static ModelDefinition.Tree stump(int feature, double threshold, double left, double right,
+                                              boolean[] missingLeft) {
+        return new ModelDefinition.Tree(new int[]{feature, -1, -1}, new double[]{threshold, 0, 0},
+                new int[]{1, 0, 0}, new int[]{2, 0, 0}, new double[]{0, left, right}, missingLeft);
+    }
+
+    private static double[] features(double amount, double hourOfDay) {
+        double[] features = new double[Feature.values().length];
+        Arrays.fill(features, Double.NaN);
+        features[Feature.AMOUNT.ordinal()] = amount;
+        features[Feature.HOUR_OF_DAY.ordinal()] = hourOfDay;
+        return features;
+    }
+}
@@ -0,0 +1,81 @@
+package com.fraud.transaction.partition;
+
+import com.fraud.transaction.partition.TransactionPartitionManager.Partition;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionPartitionManagerTest {
+
+    private static final LocalDateTime OCT = LocalDateTime.of(2026, 10, 1, 0, 0);
+    private static final LocalDateTime NOV = LocalDateTime.of(2026, 11, 1, 0, 0);
+    private static final LocalDateTime DEC = LocalDateTime.of(2026, 12, 1, 0, 0);
+
+    @Test
+    void noPartitionsLeaveTheWholeRange() {
+        assertThat(TransactionPartitionManager.gaps(List.of(), OCT, NOV))
+                .containsExactly(new Partition(null, OCT, NOV));
+    }
+
+    @Test
+    void coveredRangesHaveNoGaps() {
+        List<Partition> monthly = List.of(partition(OCT, NOV), partition(NOV, DEC));
+
+        assertThat(TransactionPartitionManager.gaps(monthly, OCT, NOV)).isEmpty();
+        assertThat(TransactionPartitionManager.gaps(monthly, OCT, DEC)).isEmpty();
+        // a partition wider than the range covers it, e.g. a monthly one after switching to DAY
+        assertThat(TransactionPartitionManager.gaps(monthly, OCT.plusDays(3), OCT.plusDays(4))).isEmpty();
+    }
+
+    @Test
+    void findsGapsBeforeBetweenAndAfterPartitions() {
+        // daily partitions for Oct 2-3 and Oct 5, unsorted as pg_inherits returns them
+        List<Partition> daily = List.of(partition(day(5), day(6)), partition(day(2), day(3)),
+                partition(day(3), day(4)));
+
+        assertThat(TransactionPartitionManager.gaps(daily, OCT, NOV)).containsExactly(
+                new Partition(null, OCT, day(2)),
+                new Partition(null, day(4), day(5)),
+                new Partition(null, day(6), NOV));
+    }
+
+    @Test
+    void partitionsOverlappingTheBoundsClipTheGaps() {
+        List<Partition> partitions = List.of(partition(OCT.minusDays(10), day(3)), partition(day(28), DEC));
+
+        assertThat(TransactionPartitionManager.gaps(partitions, OCT, NOV))
+                .containsExactly(new Partition(null, day(3), day(28)));
+    }
+
+    @Test
+    void ignoresPartitionsOutsideTheRange() {
+        List<Partition> partitions = List.of(partition(OCT.minusMonths(1), OCT), partition(NOV, DEC));
+
+        assertThat(TransactionPartitionManager.gaps(partitions, OCT, NOV))
+                .containsExactly(new Partition(null, OCT, NOV));
+    }
+
+    @Test
+    void createdGapsCloseTheRange() {
+        List<Partition> partitions = new ArrayList<>(List.of(partition(day(10), day(20))));
+
+        for (Partition gap : TransactionPartitionManager.gaps(partitions, OCT, NOV)) {
+            partitions.add(partition(gap.from(), gap.to()));
+        }
+
+        assertThat(partitions).hasSize(3);
+        assertThat(TransactionPartitionManager.gaps(partitions, OCT, NOV)).isEmpty();
+    }
+
+    private static LocalDateTime day(int dayOfMonth) {
+        return OCT.withDayOfMonth(dayOfMonth);
+    }
+
+    private static Partition partition(LocalDateTime from, LocalDateTime to) {
+        return new Partition(PartitionInterval.DAY.partitionName(from.toLocalDate()), from, to);
+    }
+}
@@ -0,0 +1,173 @@
+package com.fraud.transaction.producer;
+
+import com.fraud.transaction.api.request.CreateTransactionRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionProducerPipelineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecordingProducer producer = new RecordingProducer();
+    private TransactionProducerPipeline pipeline;
+
+    @AfterEach
+    void shutdown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void stampsAnIdempotencyKeyBeforeTheFirstSend() throws Exception {
+        pipeline = pipeline(10, 3);
+        CreateTransactionRequest unkeyed = request(null);
+        CreateTransactionRequest keyed = request("client-key");
+
+        pipeline.submit(unkeyed);
+        pipeline.submit(keyed);
+
+        assertThat(producer.sent.get(0).key()).isNotBlank();
+        assertThat(producer.sent.get(1).key()).isEqualTo("client-key");
+    }
+
+    @Test
+    void resubmittingAnUnkeyedRequestSendsItUnderAFreshKey() throws Exception {
+        pipeline = pipeline(10, 3);
+        CreateTransactionRequest seed = request(null);
+
+        pipeline.submit(seed);
+        pipeline.submit(seed);
+
+        assertThat(seed.getIdempotencyKey()).isNull();
+        assertThat(producer.sent.get(0).key()).isNotBlank();
+        assertThat(producer.sent.get(1).key()).isNotBlank().isNotEqualTo(producer.sent.get(0).key());
+    }
+
+    @Test
+    void producerTimeoutsAreResentWithTheSameKeyUntilTheAttemptsRunOut() throws Exception {
+        pipeline = pipeline(10, 3);
+        producer.failWith = new KafkaException("send failed", new TimeoutException("delivery timeout"));
+
+        pipeline.submit(request(null));
+
+        assertThat(producer.attempts.await(5, TimeUnit.SECONDS)).isTrue();
+        waitFor(() -> sends("exhausted") == 1.0);
+        assertThat(producer.sent).hasSize(3);
+        assertThat(producer.sent).extracting(Sent::key).containsOnly(producer.sent.get(0).key());
+        assertThat(sends("retried")).isEqualTo(2.0);
+        assertThat(pipeline.inFlight()).isZero();
+    }
+
+    @Test
+    void nonRetriableFailuresAreNotResent() throws Exception {
+        pipeline = pipeline(10, 3);
+        producer.failWith = new KafkaException("send failed", new RecordTooLargeException("too large"));
+
+        pipeline.submit(request(null));
+
+        waitFor(() -> sends("exhausted") == 1.0);
+        assertThat(producer.sent).hasSize(1);
+        assertThat(sends("retried")).isZero();
+        assertThat(pipeline.inFlight()).isZero();
+    }
+
+    @Test
+    void submittersBlockWhileTheInFlightLimitIsReached() throws Exception {
+        pipeline = pipeline(2, 1);
+        producer.complete = false;
+        pipeline.submit(request(null));
+        pipeline.submit(request(null));
+
+        CountDownLatch submitted = new CountDownLatch(1);
+        Thread submitter = new Thread(() -> {
+            try {
+                pipeline.submit(request(null));
+                submitted.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        submitter.start();
+
+        assertThat(submitted.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(pipeline.inFlight()).isEqualTo(2);
+
+        producer.pending.poll().complete(null);
+
+        assertThat(submitted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(pipeline.inFlight()).isEqualTo(2);
+        assertThat(sends("acked")).isEqualTo(1.0);
+        submitter.join();
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private TransactionProducerPipeline pipeline(int maxInFlight, int maxAttempts) {
+        return new TransactionProducerPipeline(producer, meterRegistry, maxInFlight, maxAttempts, Duration.ofMillis(1));
+    }
+
+    private double sends(String outcome) {
+        return meterRegistry.get("transaction.producer.sends").tag("outcome", outcome).counter().count();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static CreateTransactionRequest request(String idempotencyKey) {
+        return CreateTransactionRequest.builder()
+                .merchantId("M-1")
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+
+    private record Sent(String key) {
+    }
+
+    /** Completes, fails or holds each send as configured and records the key it was sent with. */
+    private static class RecordingProducer extends KafkaTransactionEventProducer {
+
+        final List<Sent> sent = new CopyOnWriteArrayList<>();
+        final ConcurrentLinkedQueue<CompletableFuture<SendResult<String, Object>>> pending =
+                new ConcurrentLinkedQueue<>();
+        final CountDownLatch attempts = new CountDownLatch(3);
+        volatile Throwable failWith;
+        volatile boolean complete = true;
+
+        @Override
+        public CompletableFuture<SendResult<String, Object>> createTransaction(
+                CreateTransactionRequest createTransactionRequest) {
+            sent.add(new Sent(createTransactionRequest.getIdempotencyKey()));
+            attempts.countDown();
+            if (failWith != null) {
+                return CompletableFuture.failedFuture(failWith);
+            }
+            if (complete) {
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<SendResult<String, Object>> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.fraud.transaction.repository;
+
+import com.fraud.transaction.api.request.TransactionSearchRequest;
+import com.fraud.transaction.entity.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks which partitions of public.transactions each supported access path reads, from the
+ * scan counters PostgreSQL keeps per table for the session (pg_stat_xact_user_tables). Lookups by transaction ID are pruned at run time, which plain
+ * EXPLAIN does not show, and the flag lookup is an UPDATE that EXPLAIN ANALYZE would run anyway.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionPartitionPruningTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("frauddb")
+            .withUsername("fraud_user")
+            .withPassword("fraud_pass");
+
+    private static final int ROWS = 50_000;
+
+    /**
+     * Scans and heap tuples fetched per partition in this session. The counters include earlier
+     * transactions of the session until they are flushed, so callers take differences.
+     */
+    private static final String PARTITION_SCANS = "select s.relname, s.seq_scan + coalesce(s.idx_scan, 0), "
+            + "s.seq_tup_read + coalesce(s.idx_tup_fetch, 0) "
+            + "from pg_stat_xact_user_tables s join pg_inherits i on i.inhrelid = s.relid "
+            + "where i.inhparent = 'public.transactions'::regclass";
+
+    private static boolean seeded;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        // about three and a half months, so the rows span four or five monthly partitions
+        jdbcTemplate.update("INSERT INTO public.merchants (merchant_id, name, created_at, updated_at) "
+                + "SELECT 'MP' || lpad(m::text, 2, '0'), 'Pruning ' || m, now(), now() "
+                + "FROM generate_series(1, 20) AS m");
+        jdbcTemplate.update("INSERT INTO public.transactions (id, transaction_id, amount, currency, merchant_id, "
+                + "transaction_type, is_flagged, review_status, transaction_time, created_at, updated_at) "
+                + "SELECT nextval('public.transactions_seq'), 'PRUNE-' || n, 10 + n % 500, 'USD', "
+                + "'MP' || lpad((1 + n % 20)::text, 2, '0'), 'Purchase', n % 50 = 0, 'Approved', "
+                + "now() - n * INTERVAL '3 minutes', now(), now() "
+                + "FROM generate_series(1, ?) AS n", ROWS);
+        jdbcTemplate.execute("ANALYZE public.transactions");
+        jdbcTemplate.execute("ANALYZE public.transaction_ids");
+        seeded = true;
+    }
+
+    @Test
+    void lookupsByTransactionIdReadOnePartition() {
+        for (String transactionId : new String[]{"PRUNE-10", "PRUNE-25000", "PRUNE-49990"}) {
+            Set<String> expected = Set.of(partitionOf(transactionId));
+
+            assertThat(partitionsRead(() -> assertThat(transactionRepository.findDtoByTransactionId(transactionId))
+                    .isPresent()).keySet()).as("get %s", transactionId).isEqualTo(expected);
+            assertThat(partitionsRead(() -> assertThat(transactionRepository.findByTransactionId(transactionId))
+                    .isPresent()).keySet()).as("update lookup %s", transactionId).isEqualTo(expected);
+            assertThat(partitionsRead(() -> assertThat(transactionRepository.flagReturning(transactionId, "Pruning",
+                    null, "Test", LocalDateTime.now())).isPresent()).keySet())
+                    .as("flag %s", transactionId).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void unknownTransactionIdsReadNoPartition() {
+        assertThat(partitionsRead(() -> assertThat(transactionRepository.findDtoByTransactionId("PRUNE-0"))
+                .isEmpty())).isEmpty();
+        assertThat(partitionsRead(() -> assertThat(transactionRepository.flagReturning("PRUNE-0", "Pruning",
+                null, "Test", LocalDateTime.now())).isEmpty())).isEmpty();
+    }
+
+    @Test
+    void transactionsMovedToAnotherPartitionAreStillFound() {
+        String transactionId = "PRUNE-20";
+        String before = partitionOf(transactionId);
+
+        transactionTemplate.executeWithoutResult(status -> transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow()
+                .setTransactionTime(LocalDateTime.now().minusDays(100)));
+
+        String after = partitionOf(transactionId);
+        assertThat(after).isNotEqualTo(before);
+        assertThat(partitionsRead(() -> assertThat(transactionRepository.findDtoByTransactionId(transactionId))
+                .isPresent()).keySet()).containsExactly(after);
+    }
+
+    @Test
+    void timeRangeSearchesReadTheOverlappingPartitionsOnly() {
+        TransactionSearchRequest request = new TransactionSearchRequest();
+        request.setFrom(LocalDateTime.now().minusDays(40));
+        request.setTo(LocalDateTime.now().minusDays(33));
+        request.setSort(TransactionSearchRequest.Sort.TIME_DESC);
+        Set<String> overlapping = Set.copyOf(jdbcTemplate.queryForList("select distinct tableoid::regclass::text "
+                + "from public.transactions where transaction_time between ? and ?", String.class,
+                request.getFrom(), request.getTo()));
+
+        Map<String, Long> read = partitionsRead(() -> transactionRepository.search(request));
+
+        assertThat(overlapping).isNotEmpty().hasSizeLessThanOrEqualTo(2);
+        assertThat(overlapping).containsAll(read.keySet());
+    }
+
+    /**
+     * Keyset listings are not pruned; they descend the id index of every partition once, so the
+     * rows fetched stay within the page size plus one per partition.
+     */
+    @Test
+    void keysetPagesFetchAboutOnePageFromEveryPartition() {
+        int partitions = jdbcTemplate.queryForObject("select count(*) from pg_inherits "
+                + "where inhparent = 'public.transactions'::regclass", Integer.class);
+
+        Map<String, Long> page = partitionsRead(() ->
+                assertThat(transactionRepository.findDtoPage(Long.MAX_VALUE, Limit.of(50))).hasSize(50));
+        Map<String, Long> merchantPage = partitionsRead(() ->
+                assertThat(transactionRepository.findDtoPageByMerchantId("MP07", Long.MAX_VALUE, Limit.of(50)))
+                        .hasSize(50));
+
+        assertThat(page.values().stream().mapToLong(Long::longValue).sum()).isLessThanOrEqualTo(51 + partitions);
+        assertThat(merchantPage.values().stream().mapToLong(Long::longValue).sum()).isLessThanOrEqualTo(51 + partitions);
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    /**
+     * Runs {@code access} in a transaction and returns the partitions it scanned, with the heap
+     * tuples it fetched from each.
+     */
+    private Map<String, Long> partitionsRead(Runnable access) {
+        return transactionTemplate.execute(status -> {
+            Map<String, long[]> before = partitionScans();
+            access.run();
+            Map<String, Long> read = new HashMap<>();
+            partitionScans().forEach((partition, after) -> {
+                long[] start = before.getOrDefault(partition, new long[2]);
+                if (after[0] > start[0]) {
+                    read.put(partition, after[1] - start[1]);
+                }
+            });
+            return read;
+        });
+    }
+
+    private Map<String, long[]> partitionScans() {
+        Map<String, long[]> scans = new HashMap<>();
+        jdbcTemplate.query(PARTITION_SCANS, rs -> {
+            scans.put(rs.getString(1), new long[]{rs.getLong(2), rs.getLong(3)});
+        });
+        return scans;
+    }
+
+    private String partitionOf(String transactionId) {
+        return jdbcTemplate.queryForObject("select tableoid::regclass::text from public.transactions "
+                + "where transaction_id = ?", String.class, transactionId);
+    }
+}
@@ -0,0 +1,169 @@
+package com.fraud.transaction.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.transaction.api.request.TransactionSearchRequest;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAINs the SQL that {@link TransactionSearchRepositoryImpl} generates for every supported
+ * search shape (no filter or one equality filter, each optionally with a time and/or amount
+ * range, under every sort) and fails if any of them reads a populated partition sequentially.
+ * Criteria values are rendered inline so the captured SQL can be explained as is.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.fraud.transaction.repository.TransactionSearchIndexTest$LastStatement"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionSearchIndexTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("frauddb")
+            .withUsername("fraud_user")
+            .withPassword("fraud_pass");
+
+    private static final int ROWS = 200_000;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void everySupportedSearchShapeIsServedByAnIndex() throws Exception {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        seed(jdbc);
+        Set<String> populated = new HashSet<>(jdbc.queryForList("SELECT c.relname FROM pg_class c "
+                + "JOIN pg_inherits i ON i.inhrelid = c.oid "
+                + "WHERE i.inhparent = 'public.transactions'::regclass AND c.reltuples > 1000", String.class));
+        assertThat(populated).isNotEmpty();
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Consumer<TransactionSearchRequest>> filters = new LinkedHashMap<>();
+        filters.put("none", request -> { });
+        filters.put("merchantId", request -> request.setMerchantId("MS017"));
+        filters.put("reviewStatus", request -> request.setReviewStatus("Pending Review"));
+        filters.put("channel", request -> request.setChannel("Online"));
+        filters.put("cardType", request -> request.setCardType("AMEX"));
+        filters.put("flagged", request -> request.setFlagged(true));
+        Map<String, Consumer<TransactionSearchRequest>> ranges = new LinkedHashMap<>();
+        ranges.put("", request -> { });
+        ranges.put("+time", request -> {
+            request.setFrom(now.minusDays(14));
+            request.setTo(now.minusDays(7));
+        });
+        ranges.put("+amount", request -> {
+            request.setMinAmount(new BigDecimal("1500"));
+            request.setMaxAmount(new BigDecimal("1600"));
+        });
+        ranges.put("+time+amount", ranges.get("+time").andThen(ranges.get("+amount")));
+
+        List<String> sequential = new ArrayList<>();
+        int shapes = 0;
+        for (var filter : filters.entrySet()) {
+            for (var range : ranges.entrySet()) {
+                for (TransactionSearchRequest.Sort sort : TransactionSearchRequest.Sort.values()) {
+                    TransactionSearchRequest request = new TransactionSearchRequest();
+                    filter.getValue().accept(request);
+                    range.getValue().accept(request);
+                    request.setSort(sort);
+
+                    transactionRepository.search(request);
+                    String sql = LastStatement.sql.replace("?", String.valueOf(request.getSize()));
+                    JsonNode plan = objectMapper.readTree(jdbc.queryForObject("EXPLAIN (FORMAT JSON) " + sql,
+                            String.class)).get(0).get("Plan");
+                    Set<String> scanned = new HashSet<>();
+                    collectSeqScans(plan, scanned);
+                    scanned.retainAll(populated);
+                    if (!scanned.isEmpty()) {
+                        sequential.add(filter.getKey() + range.getKey() + " " + sort + ": Seq Scan on " + scanned);
+                    }
+                    shapes++;
+                }
+            }
+        }
+
+        assertThat(shapes).isEqualTo(filters.size() * ranges.size() * TransactionSearchRequest.Sort.values().length);
+        assertThat(sequential).isEmpty();
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    /**
+     * 200 merchants and about four months of traffic: 2% flagged, 5% pending review, three
+     * channels and card types, so the planner sees production-like selectivities.
+     */
+    private static void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO public.merchants (merchant_id, name, created_at, updated_at) "
+                + "SELECT 'MS' || lpad(m::text, 3, '0'), 'Search ' || m, now(), now() "
+                + "FROM generate_series(1, 200) AS m");
+        jdbc.update("INSERT INTO public.transactions (id, transaction_id, amount, currency, merchant_id, "
+                + "card_number_masked, card_type, transaction_type, response_code, is_flagged, risk_score, "
+                + "review_status, channel, transaction_time, created_at, updated_at) "
+                + "SELECT nextval('public.transactions_seq'), 'SEARCH-' || n, round((random() * 2000)::numeric, 2), "
+                + "'USD', 'MS' || lpad((1 + n % 200)::text, 3, '0'), '4111-****-****-1111', "
+                + "(ARRAY['VISA', 'MASTERCARD', 'AMEX'])[1 + n % 3], 'Purchase', '00', n % 50 = 0, "
+                + "(random() * 100)::int, "
+                + "CASE WHEN n % 50 = 0 THEN 'Flagged' WHEN n % 20 = 0 THEN 'Pending Review' ELSE 'Approved' END, "
+                + "(ARRAY['POS', 'Online', 'Mobile'])[1 + n % 3], now() - n * INTERVAL '1 minute', now(), now() "
+                + "FROM generate_series(1, ?) AS n", ROWS);
+        jdbc.execute("ANALYZE public.transactions");
+    }
+
+    private static void collectSeqScans(JsonNode node, Set<String> relations) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            relations.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, relations);
+        }
+    }
+
+    /**
+     * Keeps the last SQL statement Hibernate prepared. Tests run on one thread.
+     */
+    public static class LastStatement implements StatementInspector {
+
+        static volatile String sql;
+
+        @Override
+        public String inspect(String statement) {
+            sql = statement;
+            return statement;
+        }
+    }
+}
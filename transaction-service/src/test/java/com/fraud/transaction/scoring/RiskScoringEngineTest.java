@@ -0,0 +1,182 @@
+package com.fraud.transaction.scoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.transaction.entity.Transaction;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RiskScoringEngineTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void providersPastTheBudgetAreSkipped() {
+        SlowStatefulProvider stateful = new SlowStatefulProvider();
+        StatelessProvider stateless = new StatelessProvider();
+        SlowStatefulProvider laterStateful = new SlowStatefulProvider();
+        RiskScoringEngine engine = engine(Duration.ofNanos(1), stateful, stateless, laterStateful);
+
+        for (int i = 0; i < 3; i++) {
+            engine.score(transaction());
+        }
+
+        // scoring only reads, so stateful providers are skipped like any other
+        assertThat(laterStateful.calls).hasValue(0);
+        assertThat(stateless.calls).hasValue(0);
+        assertThat(skipped("StatelessProvider")).isEqualTo(3.0);
+        assertThat(skipped("SlowStatefulProvider")).isEqualTo(6.0 - stateful.calls.get());
+        assertThat(meterRegistry.get("transaction.scoring.budget.exceeded").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void onlyCommittedTransactionsReachTheStatefulStores() {
+        SlowStatefulProvider stateful = new SlowStatefulProvider();
+        StatelessProvider stateless = new StatelessProvider();
+        RiskScoringEngine engine = engine(Duration.ofSeconds(10), stateful, stateless);
+        Transaction transaction = transaction();
+
+        engine.score(transaction);
+
+        assertThat(stateful.calls).hasValue(1);
+        assertThat(stateful.observed).hasValue(0);
+
+        engine.observe(transaction);
+
+        assertThat(stateful.observed).hasValue(1);
+        assertThat(stateless.calls).hasValue(1);
+    }
+
+    @Test
+    void mandatoryProvidersRunFirstWhateverTheBudget() {
+        SlowStatefulProvider stateful = new SlowStatefulProvider();
+        MandatoryProvider mandatory = new MandatoryProvider(stateful);
+        RiskScoringEngine engine = engine(Duration.ofNanos(1), stateful, new StatelessProvider(), mandatory);
+
+        engine.score(transaction());
+
+        assertThat(mandatory.calls).hasValue(1);
+        assertThat(mandatory.ranBeforeOthers).isTrue();
+        assertThat(skipped("MandatoryProvider")).isZero();
+    }
+
+    @Test
+    void everyProviderRunsWithinTheBudget() {
+        StatelessProvider stateless = new StatelessProvider();
+        RiskScoringEngine engine = engine(Duration.ofSeconds(10), stateless);
+
+        engine.score(transaction());
+
+        assertThat(stateless.calls).hasValue(1);
+        assertThat(skipped("StatelessProvider")).isZero();
+    }
+
+    @Test
+    void backfillScoringLeavesStatefulStoresAlone() {
+        SlowStatefulProvider stateful = new SlowStatefulProvider();
+        StatelessProvider stateless = new StatelessProvider();
+        MandatoryProvider mandatory = new MandatoryProvider(stateful);
+        RiskScoringEngine engine = engine(Duration.ofNanos(1), stateful, stateless, mandatory);
+        Transaction transaction = transaction();
+
+        engine.scoreStateless(transaction);
+
+        assertThat(stateful.calls).hasValue(0);
+        assertThat(stateful.observed).hasValue(0);
+        assertThat(stateless.calls).hasValue(1);
+        assertThat(mandatory.calls).hasValue(1);
+        assertThat(transaction.getRiskScore()).isNotNull();
+        assertThat(transaction.getReviewStatus()).isNotNull();
+        assertThat(meterRegistry.get("transaction.scoring.latency").timer().count()).isZero();
+    }
+
+    private RiskScoringEngine engine(Duration budget, FeatureProvider... providers) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+        ShadowScoringService shadow = new ShadowScoringService(objectMapper, null, resourceLoader, meterRegistry,
+                false, "", "", 16, 1);
+        return new RiskScoringEngine(List.of(providers), shadow, objectMapper, resourceLoader, meterRegistry,
+                true, "classpath:scoring/rules.json", budget, 1);
+    }
+
+    private double skipped(String provider) {
+        return meterRegistry.get("transaction.scoring.provider.skipped").tag("provider", provider).counter().count();
+    }
+
+    private static Transaction transaction() {
+        return Transaction.builder()
+                .transactionId("txn-1")
+                .amount(new BigDecimal("10.00"))
+                .currency("USD")
+                .merchantId("M001")
+                .deviceId("device-1")
+                .ipAddress("203.0.113.7")
+                .transactionTime(LocalDateTime.of(2024, 5, 17, 13, 0))
+                .build();
+    }
+
+    /** Overruns any budget on its own, like a store stalled by a GC pause. */
+    private static final class SlowStatefulProvider implements FeatureProvider {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger observed = new AtomicInteger();
+
+        @Override
+        public void contribute(Transaction transaction, double[] features) {
+            calls.incrementAndGet();
+            long until = System.nanoTime() + 100_000;
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+        }
+
+        @Override
+        public void observe(Transaction transaction) {
+            observed.incrementAndGet();
+        }
+
+        @Override
+        public boolean isStateful() {
+            return true;
+        }
+    }
+
+    private static final class StatelessProvider implements FeatureProvider {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public void contribute(Transaction transaction, double[] features) {
+            calls.incrementAndGet();
+        }
+    }
+
+    /** Listed last, like the blocklist behind slower providers; records whether it still ran first. */
+    private static final class MandatoryProvider implements FeatureProvider {
+        final AtomicInteger calls = new AtomicInteger();
+        final SlowStatefulProvider other;
+        boolean ranBeforeOthers;
+
+        MandatoryProvider(SlowStatefulProvider other) {
+            this.other = other;
+        }
+
+        @Override
+        public void contribute(Transaction transaction, double[] features) {
+            calls.incrementAndGet();
+            ranBeforeOthers = other.calls.get() == 0;
+        }
+
+        @Override
+        public boolean isMandatory() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.fraud.transaction.scoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShadowScoringServiceTest {
+
+    private static final String RULES = "classpath:scoring/rules.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ShadowScoringService shadow;
+
+    @AfterEach
+    void tearDown() {
+        if (shadow != null) {
+            shadow.shutdown();
+        }
+    }
+
+    @Test
+    void workersScoreSubmittedSamples() throws Exception {
+        shadow = shadow(16, 1);
+        RulePlan champion = championPlan();
+
+        for (int i = 0; i < 10; i++) {
+            shadow.submit(new double[Feature.values().length], champion, 0);
+        }
+
+        awaitDecisions(10);
+        assertThat(dropped()).isZero();
+    }
+
+    @Test
+    void idleWorkersBlockUntilASampleArrives() throws Exception {
+        shadow = shadow(16, 2);
+
+        // a worker polling with a timed park would only ever show TIMED_WAITING or RUNNABLE
+        awaitWorkerState(Thread.State.WAITING);
+
+        shadow.submit(new double[Feature.values().length], championPlan(), 0);
+        awaitDecisions(1);
+    }
+
+    @Test
+    void everySampleIsScoredOrDropped() throws Exception {
+        shadow = shadow(1, 1);
+        RulePlan champion = championPlan();
+
+        for (int i = 0; i < 10_000; i++) {
+            shadow.submit(new double[Feature.values().length], champion, 0);
+        }
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (decisions() + dropped() < 10_000 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(decisions() + dropped()).isEqualTo(10_000.0);
+    }
+
+    private ShadowScoringService shadow(int capacity, int workers) {
+        return new ShadowScoringService(objectMapper, null, new DefaultResourceLoader(), meterRegistry, true,
+                RULES, "", capacity, workers);
+    }
+
+    private RulePlan championPlan() throws IOException {
+        try (InputStream in = new DefaultResourceLoader().getResource(RULES).getInputStream()) {
+            return RulePlan.compile(objectMapper.readValue(in, RuleSetDefinition.class), id -> new RuleStats());
+        }
+    }
+
+    private void awaitDecisions(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (decisions() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(decisions()).isEqualTo(expected);
+    }
+
+    private double decisions() {
+        return meterRegistry.get("transaction.shadow.decisions").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private double dropped() {
+        return meterRegistry.get("transaction.shadow.dropped").counter().count();
+    }
+
+    private static void awaitWorkerState(Thread.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().startsWith("txn-shadow-scoring-") && thread.getState() == state) {
+                    return;
+                }
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("no shadow worker reached " + state);
+    }
+}
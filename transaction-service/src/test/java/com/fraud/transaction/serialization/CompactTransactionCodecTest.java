@@ -0,0 +1,153 @@
+package com.fraud.transaction.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.transaction.api.request.CreateTransactionRequest;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactTransactionCodecTest {
+
+    @Test
+    void roundTripsEveryField() {
+        CreateTransactionRequest request = fullRequest();
+
+        byte[] encoded = CompactTransactionCodec.encode(request);
+
+        assertThat(encoded[0]).isEqualTo(CompactTransactionCodec.MAGIC);
+        assertThat(encoded[1]).isEqualTo(CompactTransactionCodec.VERSION);
+        assertThat(CompactTransactionCodec.decode(encoded)).isEqualTo(request);
+    }
+
+    @Test
+    void roundTripsAbsentFieldsAsNull() {
+        CreateTransactionRequest request = CreateTransactionRequest.builder()
+                .amount(new BigDecimal("-0.5"))
+                .currency("EUR")
+                .merchantId("M-1")
+                .transactionType("REFUND")
+                .build();
+
+        CreateTransactionRequest decoded = CompactTransactionCodec.decode(CompactTransactionCodec.encode(request));
+
+        assertThat(decoded).isEqualTo(request);
+        assertThat(decoded.getRiskScore()).isNull();
+        assertThat(decoded.getTransactionTime()).isNull();
+    }
+
+    @Test
+    void isSmallerThanJson() throws Exception {
+        CreateTransactionRequest request = fullRequest();
+        byte[] json = new ObjectMapper().findAndRegisterModules()
+                .writeValueAsBytes(request);
+
+        assertThat(CompactTransactionCodec.encode(request).length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    void rejectsEveryTruncation() {
+        byte[] encoded = CompactTransactionCodec.encode(fullRequest());
+
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThatThrownBy(() -> CompactTransactionCodec.decode(truncated))
+                    .as("prefix of %d bytes", length)
+                    .isInstanceOf(SerializationException.class);
+        }
+    }
+
+    @Test
+    void rejectsStringLengthBeyondPayload() {
+        // presence = currency only, then a length of Integer.MAX_VALUE that would overflow position + length
+        byte[] payload = {CompactTransactionCodec.MAGIC, CompactTransactionCodec.VERSION,
+                0x02, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 'E', 'U', 'R'};
+
+        assertThatThrownBy(() -> CompactTransactionCodec.decode(payload))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("string length");
+    }
+
+    @Test
+    void rejectsNegativeStringLength() {
+        byte[] payload = {CompactTransactionCodec.MAGIC, CompactTransactionCodec.VERSION, 0x02,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+
+        assertThatThrownBy(() -> CompactTransactionCodec.decode(payload))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void rejectsOutOfRangeTransactionTime() {
+        // presence = transactionTime only, nano = 2^31 - 1
+        byte[] payload = {CompactTransactionCodec.MAGIC, CompactTransactionCodec.VERSION,
+                (byte) 0x80, 0x20, 0x00, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+
+        assertThatThrownBy(() -> CompactTransactionCodec.decode(payload))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void rejectsBadMagic() {
+        byte[] encoded = CompactTransactionCodec.encode(fullRequest());
+        encoded[0] = '{';
+
+        assertThat(CompactTransactionCodec.isCompact(encoded)).isFalse();
+        assertThatThrownBy(() -> CompactTransactionCodec.decode(encoded))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] encoded = CompactTransactionCodec.encode(fullRequest());
+        encoded[1] = 2;
+
+        assertThatThrownBy(() -> CompactTransactionCodec.decode(encoded))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("version 2");
+    }
+
+    @Test
+    void deserializerSniffsBothFormats() {
+        CompactTransactionDeserializer deserializer = new CompactTransactionDeserializer();
+        deserializer.configure(Map.of(
+                "spring.json.value.default.type", CreateTransactionRequest.class.getName(),
+                "spring.json.trusted.packages", "*"), false);
+        CreateTransactionRequest request = fullRequest();
+        byte[] json = ("{\"amount\":12.50,\"currency\":\"USD\",\"merchantId\":\"MERCH-42\","
+                + "\"transactionType\":\"PURCHASE\"}").getBytes(StandardCharsets.UTF_8);
+
+        assertThat(deserializer.deserialize("create-transaction", CompactTransactionCodec.encode(request)))
+                .isEqualTo(request);
+        assertThat(deserializer.deserialize("create-transaction", json))
+                .isInstanceOf(CreateTransactionRequest.class)
+                .extracting("merchantId").isEqualTo("MERCH-42");
+    }
+
+    private static CreateTransactionRequest fullRequest() {
+        return CreateTransactionRequest.builder()
+                .amount(new BigDecimal("1234.56"))
+                .currency("USD")
+                .merchantId("MERCH-42")
+                .cardNumberMasked("411111******1111")
+                .cardType("VISA")
+                .transactionType("PURCHASE")
+                .responseCode("00")
+                .riskScore(37)
+                .channel("ONLINE")
+                .ipAddress("203.0.113.7")
+                .deviceId("device-7f3a")
+                .location("S\u00e3o Paulo, BR")
+                .transactionTime(LocalDateTime.of(2024, 5, 17, 13, 45, 12, 123_456_789))
+                .idempotencyKey("order-981-attempt-1")
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.fraud.transaction.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsIds() {
+        for (long id : new long[]{1, 42, 1_000_000_007L, Long.MAX_VALUE - 1}) {
+            assertThat(KeysetCursor.decode(KeysetCursor.encode(id))).isEqualTo(id);
+        }
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        for (long id = 0; id < 1000; id++) {
+            assertThat(KeysetCursor.encode(id)).matches("[A-Za-z0-9_-]+");
+        }
+    }
+
+    @Test
+    void missingCursorStartsAtTheFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isEqualTo(Long.MAX_VALUE);
+        assertThat(KeysetCursor.decode("")).isEqualTo(Long.MAX_VALUE);
+        assertThat(KeysetCursor.decode("  ")).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void rejectsCursorsItDidNotProduce() {
+        // a bare id, as a client building its own cursor would send
+        assertThatThrownBy(() -> KeysetCursor.decode("12345")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(base64("v2:100"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(base64("v1:abc")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> KeysetCursor.decode(base64("v1:99999999999999999999")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String base64(String value) {
+        return Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,173 @@
+package com.fraud.transaction.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.transaction.api.request.CreateTransactionRequest;
+import com.fraud.transaction.cache.TransactionLookupCache;
+import com.fraud.transaction.dedup.IdempotencyService;
+import com.fraud.transaction.dto.BatchIngestResult;
+import com.fraud.transaction.dto.TransactionDto;
+import com.fraud.transaction.entity.Transaction;
+import com.fraud.transaction.mapper.TransactionMapperImpl;
+import com.fraud.transaction.repository.TransactionRepository;
+import com.fraud.transaction.rollup.MerchantHourlyRollupService;
+import com.fraud.transaction.scoring.RiskScoringEngine;
+import com.fraud.transaction.scoring.ShadowScoringService;
+import com.fraud.transaction.velocity.VelocityFeatureProvider;
+import com.fraud.transaction.velocity.VelocityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionServiceTest {
+
+    private final TransactionRepository repository = mock(TransactionRepository.class);
+    private final MerchantHourlyRollupService rollup = mock(MerchantHourlyRollupService.class);
+    private final IdempotencyService idempotencyService = new IdempotencyService(repository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+            true, Duration.ofHours(1), 4, 1000, 0.001);
+    private final TransactionService service = new TransactionService(repository, new TransactionMapperImpl(),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(Validator.class),
+            idempotencyService, mock(RiskScoringEngine.class), mock(TransactionLookupCache.class),
+            new ObjectMapper(), rollup);
+
+    @Test
+    void storedKeyUnknownToTheFilterReturnsTheStoredTransaction() {
+        Transaction stored = stored("T-1", "key-1");
+        when(repository.saveAndFlush(any())).thenThrow(duplicateKey());
+        when(repository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(stored));
+
+        TransactionDto created = service.createTransaction(request("key-1"));
+
+        assertThat(created.getTransactionId()).isEqualTo("T-1");
+        verify(rollup, never()).record(any());
+        // the key is in the filter now, so a repeat is answered before an insert
+        assertThat(service.createTransaction(request("key-1")).getTransactionId()).isEqualTo("T-1");
+        verify(repository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void otherIntegrityViolationsAreRethrown() {
+        DataIntegrityViolationException foreignKey = new DataIntegrityViolationException("fk", new PSQLException(
+                new ServerErrorMessage("SERROR\0C23503\0Mviolates foreign key\0nfk_transactions_merchant\0")));
+        when(repository.saveAndFlush(any())).thenThrow(foreignKey);
+
+        assertThatThrownBy(() -> service.createTransaction(request("key-2"))).isSameAs(foreignKey);
+        verify(repository, never()).findByIdempotencyKey(any());
+    }
+
+    @Test
+    void createdTransactionsAreRecordedAfterTheInsert() {
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TransactionDto created = service.createTransaction(request("key-3"));
+
+        assertThat(created.getTransactionId()).isNotBlank();
+        verify(rollup).record(any());
+        when(repository.findByIdempotencyKey("key-3")).thenReturn(Optional.of(stored("T-3", "key-3")));
+        assertThat(service.createTransaction(request("key-3")).getTransactionId()).isEqualTo("T-3");
+    }
+
+    @Test
+    void batchFallbackCountsStoredKeysAsDuplicates() {
+        when(repository.saveAll(anyIterable())).thenThrow(duplicateKey());
+        when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            if ("stored".equals(transaction.getIdempotencyKey())) {
+                throw duplicateKey();
+            }
+            return transaction;
+        });
+
+        BatchIngestResult result = service.createTransactions(List.of(request("new"), request("stored")));
+
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getDuplicates()).isEqualTo(1);
+        assertThat(result.getRejected()).isEmpty();
+    }
+
+    @Test
+    void sameCardRecordsOfOneBatchCountTowardsEachOthersVelocity() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper();
+        DefaultResourceLoader resourceLoader = new DefaultResourceLoader();
+        VelocityService velocityService = new VelocityService(meterRegistry, true, 4, 1000);
+        RiskScoringEngine engine = new RiskScoringEngine(List.of(new VelocityFeatureProvider(velocityService)),
+                new ShadowScoringService(objectMapper, null, resourceLoader, meterRegistry, false, "", "", 16, 1),
+                objectMapper, resourceLoader, meterRegistry, true, "classpath:scoring/rules.json",
+                Duration.ofSeconds(10), 1);
+        TransactionService batchService = new TransactionService(repository, new TransactionMapperImpl(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(Validator.class),
+                idempotencyService, engine, mock(TransactionLookupCache.class), objectMapper, rollup);
+        List<CreateTransactionRequest> burst = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            CreateTransactionRequest request = request("burst-" + i);
+            request.setCardNumberMasked("4111********1111");
+            burst.add(request);
+        }
+
+        BatchIngestResult result = batchService.createTransactions(burst);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertThat(result.getAccepted()).isEqualTo(7);
+        // card-velocity-1m (weight 35) fires above 5 transactions of the card, this one included
+        assertThat(saved.getValue()).extracting(Transaction::getRiskScore).containsExactly(0, 0, 0, 0, 0, 35, 35);
+        assertThat(meterRegistry.get("transaction.scoring.rule.hits").tag("rule", "card-velocity-1m")
+                .functionCounter().count()).isEqualTo(2.0);
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    /** What the insert raises for a key already in transaction_idempotency_keys. */
+    private static DataIntegrityViolationException duplicateKey() {
+        return new DataIntegrityViolationException("duplicate", new PSQLException(new ServerErrorMessage(
+                "SERROR\0C23505\0Mduplicate key value\0ntransaction_idempotency_keys_pkey\0")));
+    }
+
+    private static CreateTransactionRequest request(String idempotencyKey) {
+        return CreateTransactionRequest.builder()
+                .amount(new BigDecimal("25.00"))
+                .currency("USD")
+                .merchantId("M-1")
+                .transactionType("Purchase")
+                .idempotencyKey(idempotencyKey)
+                .build();
+    }
+
+    private static Transaction stored(String transactionId, String idempotencyKey) {
+        return Transaction.builder()
+                .transactionId(transactionId)
+                .idempotencyKey(idempotencyKey)
+                .amount(new BigDecimal("25.00"))
+                .currency("USD")
+                .merchantId("M-1")
+                .transactionType("Purchase")
+                .transactionTime(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.fraud.transaction.sketch;
+
+import com.fraud.transaction.util.Hashing;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    private static final int PRECISION = 10;
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertThat(new HyperLogLog(PRECISION).estimate()).isZero();
+    }
+
+    @Test
+    void rankIsCappedBySentinelWhenRemainingBitsAreZero() {
+        byte[] registers = new byte[1 << PRECISION];
+
+        // index 5, every remaining bit zero: rank 64 - precision + 1
+        assertThat(HyperLogLog.add(registers, 0, PRECISION, 5L << (64 - PRECISION))).isTrue();
+        assertThat(registers[5]).isEqualTo((byte) (64 - PRECISION + 1));
+
+        // index 7, first remaining bit set: rank 1
+        HyperLogLog.add(registers, 0, PRECISION, (7L << (64 - PRECISION)) | (1L << (63 - PRECISION)));
+        assertThat(registers[7]).isEqualTo((byte) 1);
+
+        // lower ranks never overwrite a higher register
+        assertThat(HyperLogLog.add(registers, 0, PRECISION, (5L << (64 - PRECISION)) | 1L)).isFalse();
+        assertThat(registers[5]).isEqualTo((byte) (64 - PRECISION + 1));
+    }
+
+    @Test
+    void addingTheSameHashTwiceChangesNothing() {
+        byte[] registers = new byte[1 << PRECISION];
+        long hash = Hashing.hash64("card-1");
+
+        assertThat(HyperLogLog.add(registers, 0, PRECISION, hash)).isTrue();
+        assertThat(HyperLogLog.add(registers, 0, PRECISION, hash)).isFalse();
+    }
+
+    /**
+     * Small cardinalities go through linear counting, which is near exact well below m;
+     * larger ones use the harmonic-mean estimate and must stay within a few standard errors.
+     */
+    @Test
+    void estimatesStayWithinTheErrorBound() {
+        double bound = 4 * HyperLogLog.relativeError(PRECISION);
+        for (int cardinality : new int[]{1, 10, 100, 1_000, 2_500, 3_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog(PRECISION);
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add(Hashing.hash64("card-" + cardinality + "-" + i));
+            }
+            double tolerance = cardinality <= 100 ? 0.03 : bound;
+            assertThat((double) sketch.estimate()).as("cardinality %d", cardinality)
+                    .isCloseTo(cardinality, within(Math.max(1.0, cardinality * tolerance)));
+        }
+    }
+
+    @Test
+    void switchesFromLinearCountingOnceEveryRegisterIsSet() {
+        int m = 1 << PRECISION;
+        byte[] registers = new byte[m];
+        Arrays.fill(registers, (byte) 1);
+        registers[0] = 0;
+
+        // one empty register: linear counting m * ln(m / 1)
+        assertThat(HyperLogLog.estimate(registers, 0, m)).isCloseTo(m * Math.log(m), within(1e-9));
+
+        // no empty register: the raw estimate alpha * m^2 / sum(2^-r)
+        registers[0] = 1;
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        assertThat(HyperLogLog.estimate(registers, 0, m)).isCloseTo(alpha * m * 2, within(1e-9));
+    }
+
+    @Test
+    void mergeEqualsTheSketchOfTheUnion() {
+        HyperLogLog first = new HyperLogLog(PRECISION);
+        HyperLogLog second = new HyperLogLog(PRECISION);
+        HyperLogLog union = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 20_000; i++) {
+            long hash = Hashing.hash64("card-" + i);
+            if (i < 12_000) {
+                first.add(hash);
+            }
+            if (i >= 8_000) {
+                second.add(hash);
+            }
+            union.add(hash);
+        }
+
+        first.merge(second);
+
+        assertThat(first.toByteArray()).isEqualTo(union.toByteArray());
+        assertThat(first.estimate()).isEqualTo(union.estimate());
+    }
+
+    @Test
+    void mergeRejectsDifferentPrecisions() {
+        assertThatThrownBy(() -> new HyperLogLog(10).merge(new HyperLogLog(11)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void serializationRoundTripsAndRejectsBadInput() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 500; i++) {
+            sketch.add(Hashing.hash64("card-" + i));
+        }
+        byte[] bytes = sketch.toByteArray();
+        byte[] padded = new byte[bytes.length + 3];
+        System.arraycopy(bytes, 0, padded, 3, bytes.length);
+
+        assertThat(bytes).hasSize(HyperLogLog.serializedSize(PRECISION));
+        assertThat(HyperLogLog.fromByteArray(padded, 3).toByteArray()).isEqualTo(bytes);
+        assertThat(HyperLogLog.fromByteArray(bytes, 0).estimate()).isEqualTo(sketch.estimate());
+
+        assertThatThrownBy(() -> HyperLogLog.fromByteArray(Arrays.copyOf(bytes, bytes.length - 1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromByteArray(bytes, bytes.length))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromByteArray(new byte[]{(byte) 30, 0}, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(HyperLogLog.MAX_PRECISION + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.fraud.transaction.sketch;
+
+import com.fraud.transaction.util.Hashing;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class MerchantCardSketchTest {
+
+    private static final int PRECISION = 10;
+    private static final long MINUTE = 29_000_000L;
+
+    private final MerchantCardSketch sketch = new MerchantCardSketch(PRECISION, 5);
+    private final byte[] scratch = new byte[1 << PRECISION];
+
+    @Test
+    void estimatesWithACardMatchTheEstimatesAfterAddingIt() {
+        double[] preview = new double[2];
+        double[] added = new double[2];
+
+        for (int i = 0; i < 500; i++) {
+            long minute = MINUTE + i / 100;
+            long card = Hashing.hash64("card-" + (i % 150));
+
+            sketch.estimateWith(card, minute, scratch, preview);
+            sketch.add(card, minute, scratch);
+            sketch.estimateWith(card, minute, scratch, added);
+
+            assertThat(preview).as("card %d", i).containsExactly(added);
+        }
+    }
+
+    @Test
+    void estimatingDoesNotAddTheCard() {
+        double[] out = new double[2];
+        sketch.add(Hashing.hash64("card-1"), MINUTE, scratch);
+
+        sketch.estimateWith(Hashing.hash64("card-2"), MINUTE, scratch, out);
+
+        assertThat(out[0]).isCloseTo(2.0, offset(0.1));
+        assertThat(sketch.union(MINUTE, 5).estimate()).isEqualTo(1);
+    }
+
+    @Test
+    void bucketsLeaveTheWindowAsTheMinuteMovesOn() {
+        double[] out = new double[2];
+        sketch.add(Hashing.hash64("card-1"), MINUTE, scratch);
+        sketch.add(Hashing.hash64("card-2"), MINUTE + 1, scratch);
+
+        sketch.estimateWith(Hashing.hash64("card-3"), MINUTE + 5, scratch, out);
+
+        assertThat(Math.round(out[0])).isEqualTo(1);
+        assertThat(Math.round(out[1])).isEqualTo(2);
+        assertThat(sketch.union(MINUTE + 5, 5).estimate()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,108 @@
+package com.fraud.transaction.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LogHistogramTest {
+
+    private static final double ACCURACY = 0.01;
+    private static final double MAX_VALUE = 1_000_000;
+
+    @Test
+    void rankIsNaNWhenEmpty() {
+        assertThat(new LogHistogram(ACCURACY, MAX_VALUE).rank(10)).isNaN();
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new LogHistogram(0, MAX_VALUE)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LogHistogram(1, MAX_VALUE)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LogHistogram(ACCURACY, LogHistogram.MIN_VALUE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Values below q / gamma always rank below q and values from q * gamma up always rank above
+     * it, so the mid-rank lies between the exact fractions at those two points.
+     */
+    @Test
+    void rankStaysWithinOneBucketOfTheExactRank() {
+        SplittableRandom random = new SplittableRandom(3);
+        LogHistogram histogram = new LogHistogram(ACCURACY, MAX_VALUE);
+        double[] values = new double[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(Math.log(45) + 1.1 * gaussian(random));
+            histogram.add(values[i]);
+        }
+        Arrays.sort(values);
+        double gamma = (1 + ACCURACY) / (1 - ACCURACY);
+
+        for (double q : new double[]{0.5, 5, 20, 45, 100, 450, 2_000, 10_000}) {
+            double atMostLower = countAtMost(values, q / gamma) / (double) values.length;
+            double belowUpper = countBelow(values, q * gamma) / (double) values.length;
+            assertThat(histogram.rank(q)).as("rank(%s)", q).isBetween(atMostLower, belowUpper);
+        }
+        assertThat(histogram.total()).isEqualTo(values.length);
+    }
+
+    @Test
+    void valuesAtOrBelowTheMinimumShareTheFirstBucket() {
+        LogHistogram histogram = new LogHistogram(ACCURACY, MAX_VALUE);
+        histogram.add(0);
+        histogram.add(-3);
+        histogram.add(LogHistogram.MIN_VALUE);
+        histogram.add(10);
+
+        assertThat(histogram.count(0)).isEqualTo(3);
+        assertThat(histogram.rank(0.001)).isEqualTo(histogram.rank(LogHistogram.MIN_VALUE));
+        assertThat(histogram.rank(0.001)).isCloseTo(1.5 / 4, within(1e-12));
+    }
+
+    @Test
+    void valuesAboveTheMaximumAreClampedIntoTheTopBucket() {
+        LogHistogram histogram = new LogHistogram(ACCURACY, MAX_VALUE);
+        histogram.add(10);
+        histogram.add(MAX_VALUE * 100);
+        histogram.add(Double.POSITIVE_INFINITY);
+
+        assertThat(histogram.count(histogram.size() - 1)).isEqualTo(2);
+        assertThat(histogram.rank(MAX_VALUE * 1000)).isCloseTo((1 + 0.5 * 2) / 3, within(1e-12));
+    }
+
+    @Test
+    void bulkAddMatchesIndividualAdds() {
+        LogHistogram restored = new LogHistogram(ACCURACY, MAX_VALUE);
+        LogHistogram recorded = new LogHistogram(ACCURACY, MAX_VALUE);
+        for (int i = 0; i < 5; i++) {
+            recorded.add(123.0);
+        }
+        for (int index = 0; index < recorded.size(); index++) {
+            if (recorded.count(index) > 0) {
+                restored.add(index, recorded.count(index));
+            }
+        }
+
+        assertThat(restored.total()).isEqualTo(5);
+        assertThat(restored.rank(123.0)).isEqualTo(recorded.rank(123.0));
+        assertThat(restored.rank(1000.0)).isEqualTo(1.0);
+    }
+
+    private static long countAtMost(double[] sorted, double bound) {
+        return Arrays.stream(sorted).filter(v -> v <= bound).count();
+    }
+
+    private static long countBelow(double[] sorted, double bound) {
+        return Arrays.stream(sorted).filter(v -> v < bound).count();
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
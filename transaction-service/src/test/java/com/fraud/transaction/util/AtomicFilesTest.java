@@ -0,0 +1,67 @@
+package com.fraud.transaction.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AtomicFilesTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesTheRemainingBytesOfEachBufferInOrder() throws IOException {
+        Path target = dir.resolve("nested/table.bin");
+        ByteBuffer records = ByteBuffer.wrap(bytes("--records"));
+        records.position(2);
+
+        AtomicFiles.write(target, ByteBuffer.wrap(bytes("header|")), records);
+
+        assertThat(Files.readString(target)).isEqualTo("header|records");
+        assertThat(files()).containsExactly(dir.resolve("nested"));
+    }
+
+    @Test
+    void replacesAnExistingFile() throws IOException {
+        Path target = dir.resolve("table.bin");
+        Files.writeString(target, "old contents");
+
+        AtomicFiles.write(target, ByteBuffer.wrap(bytes("new")));
+
+        assertThat(Files.readString(target)).isEqualTo("new");
+        assertThat(files()).containsExactly(target);
+    }
+
+    @Test
+    void removesTheTempFileWhenTheRenameFails() throws IOException {
+        Path target = dir.resolve("table.bin");
+        Files.createDirectories(target.resolve("occupied"));
+
+        assertThatThrownBy(() -> AtomicFiles.write(target, ByteBuffer.wrap(bytes("new"))))
+                .isInstanceOf(IOException.class);
+
+        assertThat(files()).containsExactly(target);
+    }
+
+    /* ----------------- Helpers ----------------- */
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.toList();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.fraud.transaction.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void containsEveryInsertedHash() {
+        BloomFilter filter = BloomFilter.forExpectedInsertions(10_000, 0.01);
+        SplittableRandom random = new SplittableRandom(7);
+        long[] hashes = new long[10_000];
+
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextLong();
+            filter.put(hashes[i]);
+        }
+
+        for (long hash : hashes) {
+            assertThat(filter.mightContain(hash)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        BloomFilter filter = BloomFilter.forExpectedInsertions(10_000, 0.01);
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(random.nextLong());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(random.nextLong())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        BloomFilter filter = new BloomFilter(1024, 3);
+        filter.put(Hashing.hash64("key"));
+
+        filter.clear();
+
+        assertThat(filter.mightContain(Hashing.hash64("key"))).isFalse();
+    }
+
+    @Test
+    void sizeIsRoundedUpToWholeWords() {
+        assertThat(new BloomFilter(1, 1).sizeInBytes()).isEqualTo(Long.BYTES);
+        assertThat(new BloomFilter(65, 1).sizeInBytes()).isEqualTo(2 * Long.BYTES);
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.forExpectedInsertions(100, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,118 @@
+package com.fraud.transaction.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntHashMapTest {
+
+    private static final int MISSING = -1;
+
+    @Test
+    void putGetOverwriteAndRemove() {
+        LongIntHashMap map = new LongIntHashMap(4, MISSING);
+
+        map.put(42L, 1);
+        map.put(-7L, 2);
+        map.put(42L, 3);
+
+        assertThat(map.get(42L)).isEqualTo(3);
+        assertThat(map.get(-7L)).isEqualTo(2);
+        assertThat(map.get(0L)).isEqualTo(MISSING);
+        assertThat(map.size()).isEqualTo(2);
+
+        assertThat(map.remove(42L)).isEqualTo(3);
+        assertThat(map.remove(42L)).isEqualTo(MISSING);
+        assertThat(map.get(42L)).isEqualTo(MISSING);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void growsPastExpectedSize() {
+        LongIntHashMap map = new LongIntHashMap(2, MISSING);
+
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i * 31L, i);
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(map.get(i * 31L)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        LongIntHashMap map = new LongIntHashMap(16, MISSING);
+        map.put(1L, 1);
+        map.put(2L, 2);
+
+        map.clear();
+
+        assertThat(map.size()).isZero();
+        assertThat(map.get(1L)).isEqualTo(MISSING);
+        map.put(2L, 5);
+        assertThat(map.get(2L)).isEqualTo(5);
+    }
+
+    /**
+     * Backward-shift deletion must keep every remaining key of a probe cluster reachable.
+     * A small key space over a map that never rehashes keeps the clusters long.
+     */
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        SplittableRandom random = new SplittableRandom(7);
+        LongIntHashMap map = new LongIntHashMap(512, MISSING);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 200_000; step++) {
+            long key = random.nextInt(400);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.getOrDefault(key, MISSING));
+                expected.remove(key);
+            } else {
+                int value = random.nextInt(1_000_000);
+                map.put(key, value);
+                expected.put(key, value);
+            }
+            if (step % 1000 == 0) {
+                assertSameContents(map, expected);
+            }
+        }
+        assertSameContents(map, expected);
+    }
+
+    @Test
+    void removingEveryKeyInAnyOrderLeavesTheRestReachable() {
+        SplittableRandom random = new SplittableRandom(11);
+        LongIntHashMap map = new LongIntHashMap(64, MISSING);
+        List<Long> keys = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            long key = random.nextLong();
+            keys.add(key);
+            map.put(key, i);
+        }
+
+        while (!keys.isEmpty()) {
+            long removed = keys.remove(random.nextInt(keys.size()));
+            assertThat(map.remove(removed)).isNotEqualTo(MISSING);
+            for (long key : keys) {
+                assertThat(map.get(key)).isNotEqualTo(MISSING);
+            }
+        }
+        assertThat(map.size()).isZero();
+    }
+
+    private static void assertSameContents(LongIntHashMap map, Map<Long, Integer> expected) {
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 400; key++) {
+            assertThat(map.get(key)).as("key %d", key).isEqualTo(expected.getOrDefault(key, MISSING));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.fraud.transaction.velocity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VelocityStoreTest {
+
+    /** On a bucket boundary of every window. */
+    private static final long T0 = 1_000L * 3_600_000;
+    private static final long SECOND = 1000;
+    private static final long MINUTE = 60 * SECOND;
+
+    private static final int M1 = VelocityWindow.ONE_MINUTE.ordinal();
+    private static final int M10 = VelocityWindow.TEN_MINUTES.ordinal();
+    private static final int H1 = VelocityWindow.ONE_HOUR.ordinal();
+
+    private final VelocityStore store = new VelocityStore(1, 4);
+    private final int[] counts = new int[VelocityWindow.values().length];
+    private final double[] sums = new double[VelocityWindow.values().length];
+
+    @Test
+    void countsAndSumsEveryWindow() {
+        store.record(1L, 10.0, T0);
+        store.record(1L, 2.5, T0 + SECOND);
+
+        assertThat(store.read(1L, T0 + SECOND, counts, sums)).isTrue();
+        assertThat(counts).containsExactly(2, 2, 2);
+        assertThat(sums).containsExactly(12.5, 12.5, 12.5);
+    }
+
+    @Test
+    void untrackedKeysReadAsZero() {
+        counts[0] = 7;
+        sums[0] = 7.0;
+
+        assertThat(store.read(1L, T0, counts, sums)).isFalse();
+        assertThat(counts).containsOnly(0);
+        assertThat(sums).containsOnly(0.0);
+    }
+
+    @Test
+    void transactionsExpireWindowByWindow() {
+        store.record(1L, 10.0, T0);
+
+        store.read(1L, T0 + 50 * SECOND, counts, sums);
+        assertThat(counts).containsExactly(1, 1, 1);
+
+        store.read(1L, T0 + MINUTE, counts, sums);
+        assertThat(counts[M1]).isZero();
+        assertThat(counts[M10]).isEqualTo(1);
+
+        store.read(1L, T0 + 10 * MINUTE, counts, sums);
+        assertThat(counts[M10]).isZero();
+        assertThat(counts[H1]).isEqualTo(1);
+
+        store.read(1L, T0 + 60 * MINUTE, counts, sums);
+        assertThat(counts).containsOnly(0);
+        assertThat(sums).containsOnly(0.0);
+    }
+
+    @Test
+    void laterTransactionsSlideTheWindows() {
+        store.record(1L, 10.0, T0);
+        store.record(1L, 5.0, T0 + 65 * SECOND);
+
+        store.read(1L, T0 + 65 * SECOND, counts, sums);
+
+        assertThat(counts[M1]).isEqualTo(1);
+        assertThat(sums[M1]).isEqualTo(5.0);
+        assertThat(counts[M10]).isEqualTo(2);
+        assertThat(sums[H1]).isEqualTo(15.0);
+    }
+
+    @Test
+    void transactionsOlderThanTheWindowAreNotCounted() {
+        store.record(1L, 10.0, T0 + 2 * MINUTE);
+        // delivered late, after its 1m bucket already left the window
+        store.record(1L, 1.0, T0);
+
+        store.read(1L, T0 + 2 * MINUTE, counts, sums);
+
+        assertThat(counts[M1]).isEqualTo(1);
+        assertThat(counts[M10]).isEqualTo(2);
+    }
+
+    @Test
+    void sweepFreesKeysIdleForTheLongestWindow() {
+        store.record(1L, 10.0, T0);
+        store.record(2L, 10.0, T0 + 30 * MINUTE);
+
+        assertThat(store.sweep(T0 + 60 * MINUTE + 1)).isEqualTo(1);
+
+        assertThat(store.read(1L, T0 + 60 * MINUTE + 1, counts, sums)).isFalse();
+        assertThat(store.read(2L, T0 + 60 * MINUTE + 1, counts, sums)).isTrue();
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.idleEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void fullStoresEvictAKeyNotTouchedSinceTheHandPassed() {
+        VelocityStore small = new VelocityStore(1, 2);
+        small.record(1L, 1.0, T0);
+        small.record(2L, 1.0, T0);
+
+        small.record(3L, 1.0, T0);
+
+        assertThat(small.size()).isEqualTo(2);
+        assertThat(small.capacityEvictions()).isEqualTo(1);
+        assertThat(small.read(3L, T0, counts, sums)).isTrue();
+        assertThat(counts).containsExactly(1, 1, 1);
+    }
+}